@@ -0,0 +1,107 @@
+package com.code.research.cache;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Get/put mix over a pre-generated {@link KeyTrace}, shared by {@link CacheBenchmark} (1 thread)
+ * and {@link ConcurrentCacheBenchmark} (4 threads on one cache).
+ * <p>
+ * - The key space is {@link #KEY_SPACE_FACTOR}x the capacity, so a uniform trace hits at most ~1/4 of the time
+ *   and the hit ratio mostly shows how well the policy keeps the Zipf head.
+ * - The cache is created and filled once per trial and then runs in steady state (every miss-put evicts).
+ * - Reported per config: throughput (ops/us), hits/misses of the gets as JMH aux counters
+ *   (hit ratio = hits / (hits + misses)), and with the gc profiler {@code gc.alloc.rate.norm} (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public abstract class AbstractCacheBenchmark {
+
+    static final int KEY_SPACE_FACTOR = 4;
+    private static final long SEED = 42;
+
+    @Param({"1024", "65536"})
+    public int capacity;
+
+    @Param({"UNIFORM", "ZIPF"})
+    public KeyDistribution distribution;
+
+    @Param({"90", "50"})
+    public int readPercent;
+
+    private KeyTrace trace;
+    private CacheAdapter cache;
+
+    protected abstract CacheImpl impl();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trace = new KeyTrace(distribution, capacity * KEY_SPACE_FACTOR, readPercent, SEED);
+        cache = impl().create(capacity);
+        for (int i = 0; i < capacity * 2; i++) {
+            cache.put(trace.key(i), trace.key(i));
+        }
+    }
+
+    @Benchmark
+    public boolean getPut(Cursor cursor, HitCounters counters) {
+        int i = cursor.next();
+        Integer key = trace.key(i);
+        if (trace.isRead(i)) {
+            boolean hit = cache.get(key);
+            if (hit) {
+                counters.hits++;
+            } else {
+                counters.misses++;
+            }
+            return hit;
+        }
+        cache.put(key, key);
+        return false;
+    }
+
+    /** Per-thread position in the trace; threads start at random offsets so they do not replay the same keys. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            index = ThreadLocalRandom.current().nextInt(KeyTrace.SIZE);
+        }
+
+        int next() {
+            return index++;
+        }
+    }
+
+    /** Outcome of the gets, reported next to the throughput as {@code getPut:hits} and {@code getPut:misses}. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.code.research.cache;
+
+/**
+ * Common view of the repo's caches for {@link CacheImpl}: most of them have their own get/put signatures
+ * ({@code int} with -1 for a miss, {@code Integer}/{@code V} with null, {@code Optional}, String values).
+ * <p>
+ * Keys come pre-boxed from the trace so the benchmark only measures what the cache itself allocates.
+ */
+interface CacheAdapter {
+
+    /** @return true on a hit */
+    boolean get(Integer key);
+
+    void put(Integer key, Integer value);
+}
@@ -0,0 +1,22 @@
+package com.code.research.cache;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Single-threaded get/put mix for every {@link CacheImpl} (an enum {@code @Param} without values runs all constants).
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=cache.CacheBenchmark}
+ * (21 caches x 8 configs x 8 one-second iterations: about 25 minutes).
+ */
+@Threads(1)
+public class CacheBenchmark extends AbstractCacheBenchmark {
+
+    @Param
+    public CacheImpl impl;
+
+    @Override
+    protected CacheImpl impl() {
+        return impl;
+    }
+}
@@ -0,0 +1,214 @@
+package com.code.research.cache;
+
+import com.code.research.algorithm.LRUCache;
+import com.code.research.algorithm.LRUCacheAlgorithm;
+import com.code.research.algorithm.LRUCacheInt;
+import com.code.research.algorithm.LRUCacheInt2;
+import com.code.research.algorithm.LRUCacheIntArray;
+import com.code.research.algorithm.LRUCacheNode;
+import com.code.research.algorithm.LRUCacheRW;
+import com.code.research.algorithm.LRUCacheRW2Top;
+import com.code.research.algorithm.LRUCacheTiny;
+import com.code.research.algorithm.MFUCache;
+import com.code.research.algorithm.MFUCachePriority;
+import com.code.research.datastructures.hash.lfucache.LFUCacheImpl;
+import com.code.research.datastructures.hash.lfucache.TinyLFUCacheImpl;
+import com.code.research.interviewpatterns.LRUCacheGenerics;
+import com.code.research.interviewpatterns.LRUCacheString;
+import com.code.research.interviewpatterns.LRUCacheStringRW;
+import com.code.research.interviewpatterns.LRUCacheStriped;
+import com.code.research.interviewpatterns.LruCacheGen;
+
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Every cache implementation of the repo, as a {@code @Param} value of the cache benchmarks.
+ * <p>
+ * Constant names are {@code <package>_<class>}: ALGORITHM = {@code algorithm}, LRUCACHE = {@code algorithm.lrucache},
+ * INTERVIEW = {@code interviewpatterns}, HASH = {@code datastructures.hash(.lfucache)}.
+ * <p>
+ * {@link #threadSafe()} marks the ones that may be shared between benchmark threads.
+ * {@link #ALGORITHM_LRU_CACHE} is not among them: its get() takes the read lock but reorders an access-order
+ * LinkedHashMap, so concurrent gets race.
+ */
+public enum CacheImpl {
+
+    ALGORITHM_LRU_CACHE(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCache c = new LRUCache(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_ALGORITHM(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheAlgorithm c = new LRUCacheAlgorithm(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_INT(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheInt c = new LRUCacheInt(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_INT2(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheInt2 c = new LRUCacheInt2(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_INT_ARRAY(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheIntArray c = new LRUCacheIntArray(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_NODE(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheNode<Integer, Integer> c = new LRUCacheNode<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_RW(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheRW c = new LRUCacheRW(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_RW2TOP(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheRW2Top c = new LRUCacheRW2Top(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    ALGORITHM_LRU_CACHE_TINY(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheTiny c = new LRUCacheTiny(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    ALGORITHM_MFU_CACHE(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            MFUCache c = new MFUCache(capacity);
+            return adapter(k -> c.get(k).isPresent(), c::put);
+        }
+    },
+    ALGORITHM_MFU_CACHE_PRIORITY(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            MFUCachePriority c = new MFUCachePriority(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    LRUCACHE_LRU_CACHE(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            com.code.research.algorithm.lrucache.LRUCache c = new com.code.research.algorithm.lrucache.LRUCache(capacity);
+            return adapter(k -> c.get(k) != -1, c::put);
+        }
+    },
+    INTERVIEW_LRU_CACHE(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            com.code.research.interviewpatterns.LRUCache<Integer, Integer> c =
+                    new com.code.research.interviewpatterns.LRUCache<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    INTERVIEW_LRU_CACHE_STRING(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheString c = new LRUCacheString(capacity);
+            return adapter(k -> c.get(k) != null, (k, v) -> c.put(k, VALUE));
+        }
+    },
+    INTERVIEW_LRU_CACHE_STRING_RW(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheStringRW c = new LRUCacheStringRW(capacity);
+            return adapter(k -> c.get(k) != null, (k, v) -> c.put(k, VALUE));
+        }
+    },
+    INTERVIEW_LRU_CACHE_GENERICS(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheGenerics<Integer, Integer> c = new LRUCacheGenerics<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    INTERVIEW_LRU_CACHE_GEN(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LruCacheGen<Integer, Integer> c = new LruCacheGen<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    INTERVIEW_LRU_CACHE_STRIPED(true) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LRUCacheStriped<Integer, Integer> c = new LRUCacheStriped<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    HASH_LRU_CACHE(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            com.code.research.datastructures.hash.LRUCache<Integer, Integer> c =
+                    new com.code.research.datastructures.hash.LRUCache<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    HASH_LFU_CACHE(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            LFUCacheImpl<Integer, Integer> c = new LFUCacheImpl<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    },
+    HASH_TINY_LFU_CACHE(false) {
+        @Override
+        CacheAdapter create(int capacity) {
+            TinyLFUCacheImpl<Integer, Integer> c = new TinyLFUCacheImpl<>(capacity);
+            return adapter(k -> c.get(k) != null, c::put);
+        }
+    };
+
+    private static final String VALUE = "value";
+
+    private final boolean threadSafe;
+
+    CacheImpl(boolean threadSafe) {
+        this.threadSafe = threadSafe;
+    }
+
+    public boolean threadSafe() {
+        return threadSafe;
+    }
+
+    abstract CacheAdapter create(int capacity);
+
+    private static CacheAdapter adapter(Predicate<Integer> get, BiConsumer<Integer, Integer> put) {
+        return new CacheAdapter() {
+            @Override
+            public boolean get(Integer key) {
+                return get.test(key);
+            }
+
+            @Override
+            public void put(Integer key, Integer value) {
+                put.accept(key, value);
+            }
+        };
+    }
+}
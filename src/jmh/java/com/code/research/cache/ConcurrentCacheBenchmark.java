@@ -0,0 +1,36 @@
+package com.code.research.cache;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The same get/put mix from 4 threads on one shared cache, for the {@link CacheImpl#threadSafe() thread-safe}
+ * implementations only.
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=ConcurrentCacheBenchmark}
+ */
+@Threads(4)
+public class ConcurrentCacheBenchmark extends AbstractCacheBenchmark {
+
+    @Param({
+            "ALGORITHM_LRU_CACHE_RW",
+            "ALGORITHM_LRU_CACHE_RW2TOP",
+            "ALGORITHM_MFU_CACHE",
+            "ALGORITHM_MFU_CACHE_PRIORITY",
+            "INTERVIEW_LRU_CACHE",
+            "INTERVIEW_LRU_CACHE_STRING",
+            "INTERVIEW_LRU_CACHE_STRING_RW",
+            "INTERVIEW_LRU_CACHE_GENERICS",
+            "INTERVIEW_LRU_CACHE_GEN",
+            "INTERVIEW_LRU_CACHE_STRIPED"
+    })
+    public CacheImpl impl;
+
+    @Override
+    protected CacheImpl impl() {
+        if (!impl.threadSafe()) {
+            throw new IllegalStateException(impl + " is not thread-safe");
+        }
+        return impl;
+    }
+}
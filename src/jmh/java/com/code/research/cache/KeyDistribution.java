@@ -0,0 +1,60 @@
+package com.code.research.cache;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Key popularity of a {@link KeyTrace}.
+ * <p>
+ * - UNIFORM: every key of the key space is equally likely.
+ * - ZIPF: rank r is drawn with probability ~ 1 / r^0.99 (the YCSB default), so a few hundred keys take most
+ *   of the traffic. Ranks are mapped to keys through a random permutation, so hot keys are not neighbours.
+ */
+public enum KeyDistribution {
+
+    UNIFORM {
+        @Override
+        Sampler sampler(int keySpace, SplittableRandom rnd) {
+            return () -> rnd.nextInt(keySpace);
+        }
+    },
+
+    ZIPF {
+        @Override
+        Sampler sampler(int keySpace, SplittableRandom rnd) {
+            double[] cdf = new double[keySpace];
+            double sum = 0;
+            for (int rank = 0; rank < keySpace; rank++) {
+                sum += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+                cdf[rank] = sum;
+            }
+            int[] keyOfRank = permutation(keySpace, rnd);
+            double total = sum;
+            return () -> {
+                int i = Arrays.binarySearch(cdf, rnd.nextDouble() * total);
+                int rank = i >= 0 ? i : Math.min(-i - 1, keySpace - 1);
+                return keyOfRank[rank];
+            };
+        }
+    };
+
+    static final double ZIPF_EXPONENT = 0.99;
+
+    abstract Sampler sampler(int keySpace, SplittableRandom rnd);
+
+    private static int[] permutation(int n, SplittableRandom rnd) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) p[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = p[i];
+            p[i] = p[j];
+            p[j] = t;
+        }
+        return p;
+    }
+
+    interface Sampler {
+        int nextKey();
+    }
+}
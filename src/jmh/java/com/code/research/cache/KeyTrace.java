@@ -0,0 +1,41 @@
+package com.code.research.cache;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pre-generated get/put sequence, so the measured loop does no random-number or Zipf work.
+ * <p>
+ * - {@link #SIZE} operations over {@code keySpace} keys; {@code readPercent}% of them are gets.
+ * - Keys are boxed once here; values put are the key objects themselves.
+ * - Each benchmark thread starts at its own offset and wraps around.
+ */
+final class KeyTrace {
+
+    static final int SIZE = 1 << 20;
+    private static final int MASK = SIZE - 1;
+
+    private final Integer[] keys = new Integer[SIZE];
+    private final boolean[] reads = new boolean[SIZE];
+
+    KeyTrace(KeyDistribution distribution, int keySpace, int readPercent, long seed) {
+        if (keySpace <= 0) throw new IllegalArgumentException("keySpace must be > 0");
+        if (readPercent < 0 || readPercent > 100) throw new IllegalArgumentException("readPercent must be in [0, 100]");
+        SplittableRandom rnd = new SplittableRandom(seed);
+        Integer[] boxed = new Integer[keySpace];
+        for (int i = 0; i < keySpace; i++) boxed[i] = i;
+
+        KeyDistribution.Sampler sampler = distribution.sampler(keySpace, rnd);
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = boxed[sampler.nextKey()];
+            reads[i] = rnd.nextInt(100) < readPercent;
+        }
+    }
+
+    Integer key(int index) {
+        return keys[index & MASK];
+    }
+
+    boolean isRead(int index) {
+        return reads[index & MASK];
+    }
+}
@@ -0,0 +1,173 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.RingBufferWarehouse.WaitStrategy;
+import com.code.research.concurrent.orders.domain.Order;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer/consumer throughput of {@link LockingWarehouse} vs {@link RingBufferWarehouse} with each wait strategy.
+ * <p>
+ * - each group is one warehouse with P producer and C consumer threads: p1c1, p1c4 (several PackOrderJob
+ *   consumers on one feed), p4c4 and p8c8
+ * - ops are {@code trySubmitOrder} / {@code tryRetrieveOrder} with a 100 us timeout, so no thread can stay blocked
+ *   when the other side stops at the end of an iteration; a timed-out op still counts as an op, so compare the
+ *   {@code submitted} and {@code retrieved} aux counters (orders actually transferred, per us) rather than the
+ *   producer, consumer or group rows
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=WarehouseThroughputBenchmark}
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class WarehouseThroughputBenchmark {
+
+    private static final long TIMEOUT_NANOS = 100_000;
+    private static final int ORDERS = 1 << 12;
+
+    public enum Impl {
+        LOCKING {
+            @Override
+            Warehouse create(int capacity) { return new LockingWarehouse(capacity); }
+        },
+        RING_SPIN {
+            @Override
+            Warehouse create(int capacity) { return new RingBufferWarehouse(capacity, WaitStrategy.SPIN); }
+        },
+        RING_YIELD {
+            @Override
+            Warehouse create(int capacity) { return new RingBufferWarehouse(capacity, WaitStrategy.YIELD); }
+        },
+        RING_PARK {
+            @Override
+            Warehouse create(int capacity) { return new RingBufferWarehouse(capacity, WaitStrategy.PARK); }
+        };
+
+        abstract Warehouse create(int capacity);
+    }
+
+    @Param
+    public Impl impl;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private Warehouse warehouse;
+    private Order[] orders;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        warehouse = impl.create(capacity); // fresh per iteration: no leftovers from the previous one
+        orders = new Order[ORDERS];
+        for (int i = 0; i < ORDERS; i++) orders[i] = new Order("ORD-" + i, List.of("SKU-" + (i % 10)));
+    }
+
+    /** Per-thread position in the shared orders. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+
+        int next() {
+            return i = (i + 1) & (ORDERS - 1);
+        }
+    }
+
+    /** Orders that actually went through, reported per group as {@code submitted} and {@code retrieved}. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Transfers {
+        public long submitted;
+        public long retrieved;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            submitted = 0;
+            retrieved = 0;
+        }
+    }
+
+    private boolean submit(Cursor cursor, Transfers transfers) throws InterruptedException {
+        boolean accepted = warehouse.trySubmitOrder(orders[cursor.next()], TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+        if (accepted) transfers.submitted++;
+        return accepted;
+    }
+
+    private Order retrieve(Transfers transfers) throws InterruptedException {
+        Order order = warehouse.tryRetrieveOrder(TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+        if (order != null) transfers.retrieved++;
+        return order;
+    }
+
+    @Benchmark
+    @Group("p1c1")
+    @GroupThreads(1)
+    public boolean p1c1Producer(Cursor cursor, Transfers transfers) throws InterruptedException {
+        return submit(cursor, transfers);
+    }
+
+    @Benchmark
+    @Group("p1c1")
+    @GroupThreads(1)
+    public Order p1c1Consumer(Transfers transfers) throws InterruptedException {
+        return retrieve(transfers);
+    }
+
+    @Benchmark
+    @Group("p1c4")
+    @GroupThreads(1)
+    public boolean p1c4Producer(Cursor cursor, Transfers transfers) throws InterruptedException {
+        return submit(cursor, transfers);
+    }
+
+    @Benchmark
+    @Group("p1c4")
+    @GroupThreads(4)
+    public Order p1c4Consumer(Transfers transfers) throws InterruptedException {
+        return retrieve(transfers);
+    }
+
+    @Benchmark
+    @Group("p4c4")
+    @GroupThreads(4)
+    public boolean p4c4Producer(Cursor cursor, Transfers transfers) throws InterruptedException {
+        return submit(cursor, transfers);
+    }
+
+    @Benchmark
+    @Group("p4c4")
+    @GroupThreads(4)
+    public Order p4c4Consumer(Transfers transfers) throws InterruptedException {
+        return retrieve(transfers);
+    }
+
+    @Benchmark
+    @Group("p8c8")
+    @GroupThreads(8)
+    public boolean p8c8Producer(Cursor cursor, Transfers transfers) throws InterruptedException {
+        return submit(cursor, transfers);
+    }
+
+    @Benchmark
+    @Group("p8c8")
+    @GroupThreads(8)
+    public Order p8c8Consumer(Transfers transfers) throws InterruptedException {
+        return retrieve(transfers);
+    }
+}
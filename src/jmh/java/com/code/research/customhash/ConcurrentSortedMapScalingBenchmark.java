@@ -0,0 +1,129 @@
+package com.code.research.customhash;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a shared ordered map from 1 thread up to all cores: {@link ConcurrentSkipListSortedMap} vs
+ * {@link ConcurrentSkipListMap}.
+ * <p>
+ * - Each op is a get, or with probability {@code 100 - readPercent} a put or remove (half each) of a random key
+ *   among {@code keys}; the map starts half full and stays there on average.
+ * - One benchmark method per thread count; ops/us should grow with threads for both maps.
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=ConcurrentSortedMapScalingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class ConcurrentSortedMapScalingBenchmark {
+
+    private static final int SAMPLE = 1 << 16;
+    private static final int GET = 0, PUT = 1, REMOVE = 2;
+
+    public enum Impl {CUSTOM_SKIP_LIST, CONCURRENT_SKIP_LIST_MAP}
+
+    @Param
+    public Impl impl;
+
+    @Param({"1000", "1000000"})
+    public int keys;
+
+    @Param({"90", "50"})
+    public int readPercent;
+
+    private ConcurrentSkipListSortedMap<Integer, Integer> custom;
+    private ConcurrentSkipListMap<Integer, Integer> jdk;
+    private Integer[] sample;
+    private byte[] ops;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        custom = new ConcurrentSkipListSortedMap<>();
+        jdk = new ConcurrentSkipListMap<>();
+        for (int k = 0; k < keys; k += 2) {
+            if (impl == Impl.CUSTOM_SKIP_LIST) custom.put(k, k);
+            else jdk.put(k, k);
+        }
+        sample = new Integer[SAMPLE];
+        ops = new byte[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            sample[i] = rnd.nextInt(keys);
+            ops[i] = (byte) (rnd.nextInt(100) < readPercent ? GET : rnd.nextBoolean() ? PUT : REMOVE);
+        }
+    }
+
+    /** Per-thread position in the shared sample; threads start at different offsets. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i = (int) (Thread.currentThread().threadId() * 7919);
+
+        int next() {
+            return i = (i + 1) & (SAMPLE - 1);
+        }
+    }
+
+    private Integer op(Cursor cursor) {
+        int i = cursor.next();
+        Integer key = sample[i];
+        if (impl == Impl.CUSTOM_SKIP_LIST) {
+            return switch (ops[i]) {
+                case GET -> custom.get(key);
+                case PUT -> custom.put(key, key);
+                default -> custom.remove(key);
+            };
+        }
+        return switch (ops[i]) {
+            case GET -> jdk.get(key);
+            case PUT -> jdk.put(key, key);
+            default -> jdk.remove(key);
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer threads01(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Integer threads02(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer threads04(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer threads08(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer threadsMax(Cursor cursor) {
+        return op(cursor);
+    }
+}
@@ -0,0 +1,124 @@
+package com.code.research.customhash;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BPlusTreeMap} vs {@link TreeMap} on {@code size} random long keys.
+ * <p>
+ * - get: point lookup of a present key (random order, so the upper tree levels are the only warm part)
+ * - scan100 / scan10000: iterate a {@code subMap} range of ~100 / ~10,000 entries and sum the values
+ * - bulkLoad: build the map from sorted entries ({@link BPlusTreeMap#fromSorted} vs {@code TreeMap(SortedMap)})
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=SortedMapBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class SortedMapBenchmark {
+
+    private static final int LOOKUPS = 1 << 16;
+
+    public enum Impl {B_PLUS_TREE, TREE_MAP}
+
+    @Param
+    public Impl impl;
+
+    @Param({"1000000"})
+    public int size;
+
+    private BPlusTreeMap<Long, Long> bTree;
+    private TreeMap<Long, Long> treeMap;
+    private List<Map.Entry<Long, Long>> sortedEntries;
+    private long[] sortedKeys;
+    private long[] lookups;
+    private int[] rangeStarts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        treeMap = new TreeMap<>();
+        while (treeMap.size() < size) {
+            long key = rnd.nextLong();
+            treeMap.put(key, key);
+        }
+        sortedEntries = new ArrayList<>(size);
+        sortedKeys = new long[size];
+        int i = 0;
+        for (Map.Entry<Long, Long> e : treeMap.entrySet()) {
+            sortedEntries.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()));
+            sortedKeys[i++] = e.getKey();
+        }
+        // random insertion order, like the TreeMap
+        long[] shuffled = sortedKeys.clone();
+        for (int j = shuffled.length - 1; j > 0; j--) {
+            int k = rnd.nextInt(j + 1);
+            long t = shuffled[j];
+            shuffled[j] = shuffled[k];
+            shuffled[k] = t;
+        }
+        bTree = new BPlusTreeMap<>();
+        for (long key : shuffled) bTree.put(key, key);
+
+        lookups = new long[LOOKUPS];
+        rangeStarts = new int[LOOKUPS];
+        for (int j = 0; j < LOOKUPS; j++) {
+            lookups[j] = sortedKeys[rnd.nextInt(size)];
+            rangeStarts[j] = rnd.nextInt(size - 10_000);
+        }
+    }
+
+    @Benchmark
+    public Long get() {
+        Long key = lookups[next++ & (LOOKUPS - 1)];
+        return impl == Impl.B_PLUS_TREE ? bTree.get(key) : treeMap.get(key);
+    }
+
+    @Benchmark
+    public long scan100() {
+        return scan(100);
+    }
+
+    @Benchmark
+    public long scan10000() {
+        return scan(10_000);
+    }
+
+    private long scan(int width) {
+        int from = rangeStarts[next++ & (LOOKUPS - 1)];
+        long fromKey = sortedKeys[from];
+        long toKey = sortedKeys[from + width];
+        long sum = 0;
+        if (impl == Impl.B_PLUS_TREE) {
+            for (Map.Entry<Long, Long> e : bTree.subMap(fromKey, toKey)) sum += e.getValue();
+        } else {
+            for (Long v : treeMap.subMap(fromKey, toKey).values()) sum += v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object bulkLoad() {
+        return impl == Impl.B_PLUS_TREE ? BPlusTreeMap.fromSorted(sortedEntries) : new TreeMap<>(treeMap);
+    }
+}
@@ -0,0 +1,135 @@
+package com.code.research.customhash.primitive;
+
+import com.code.research.datastructures.hash.CountDistinctElementsInWindow;
+import com.code.research.datastructures.hash.LongestConsecutiveSequence;
+import com.code.research.datastructures.hash.TopKFrequentElements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boxed {@code Map<Integer,Integer>} counting (the previous implementations, kept here as baselines) vs the
+ * {@link IntIntHashMap} ports in datastructures.hash.
+ * <p>
+ * - count*: frequency of {@code n} ints drawn from {@code distinct} values ({@code merge} vs {@code addTo})
+ * - window*: distinct elements per sliding window of {@code WINDOW} ({@link CountDistinctElementsInWindow})
+ * - topK*: 10 most frequent elements ({@link TopKFrequentElements})
+ * - longest*: longest consecutive run ({@link LongestConsecutiveSequence})
+ * <p>
+ * With the gc profiler, compare {@code gc.alloc.rate.norm}: Integers outside the -128..127 cache are allocated on
+ * every boxed update. Run: {@code ./gradlew jmh -PjmhIncludes=PrimitiveCountingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class PrimitiveCountingBenchmark {
+
+    private static final int WINDOW = 1_000;
+    private static final int TOP_K = 10;
+
+    @Param({"100000"})
+    public int n;
+
+    @Param({"1000", "100000"})
+    public int distinct;
+
+    private int[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        values = new int[n];
+        for (int i = 0; i < n; i++) values[i] = rnd.nextInt(distinct) * 3; // outside the Integer cache
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> countBoxed() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int v : values) counts.merge(v, 1, Integer::sum);
+        return counts;
+    }
+
+    @Benchmark
+    public IntIntHashMap countPrimitive() {
+        IntIntHashMap counts = new IntIntHashMap();
+        for (int v : values) counts.addTo(v, 1);
+        return counts;
+    }
+
+    @Benchmark
+    public List<Integer> windowBoxed() {
+        List<Integer> distinctCounts = new ArrayList<>();
+        Map<Integer, Integer> frequencyMap = new HashMap<>();
+        for (int i = 0; i < WINDOW; i++) frequencyMap.put(values[i], frequencyMap.getOrDefault(values[i], 0) + 1);
+        distinctCounts.add(frequencyMap.size());
+        for (int i = WINDOW; i < values.length; i++) {
+            int out = values[i - WINDOW];
+            int count = frequencyMap.get(out);
+            if (count == 1) frequencyMap.remove(out);
+            else frequencyMap.put(out, count - 1);
+            frequencyMap.put(values[i], frequencyMap.getOrDefault(values[i], 0) + 1);
+            distinctCounts.add(frequencyMap.size());
+        }
+        return distinctCounts;
+    }
+
+    @Benchmark
+    public List<Integer> windowPrimitive() {
+        return CountDistinctElementsInWindow.countDistinctInWindows(values, WINDOW);
+    }
+
+    @Benchmark
+    public List<Integer> topKBoxed() {
+        Map<Integer, Integer> frequencyMap = new HashMap<>();
+        for (int v : values) frequencyMap.put(v, frequencyMap.getOrDefault(v, 0) + 1);
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(frequencyMap.entrySet());
+        entries.sort((e1, e2) -> e2.getValue().compareTo(e1.getValue()));
+        List<Integer> top = new ArrayList<>();
+        for (int i = 0; i < TOP_K && i < entries.size(); i++) top.add(entries.get(i).getKey());
+        return top;
+    }
+
+    @Benchmark
+    public List<Integer> topKPrimitive() {
+        return TopKFrequentElements.topKFrequent(values, TOP_K);
+    }
+
+    @Benchmark
+    public int longestBoxed() {
+        Map<Integer, Integer> sequenceMap = new HashMap<>();
+        int maxStreak = 0;
+        for (int num : values) {
+            if (sequenceMap.containsKey(num)) continue;
+            int left = sequenceMap.getOrDefault(num - 1, 0);
+            int right = sequenceMap.getOrDefault(num + 1, 0);
+            int streak = left + right + 1;
+            sequenceMap.put(num, streak);
+            sequenceMap.put(num - left, streak);
+            sequenceMap.put(num + right, streak);
+            maxStreak = Math.max(maxStreak, streak);
+        }
+        return maxStreak;
+    }
+
+    @Benchmark
+    public int longestPrimitive() {
+        return LongestConsecutiveSequence.getLongestConsecutiveSequence(values).size();
+    }
+}
@@ -0,0 +1,113 @@
+package com.code.research.customhash.set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk operations between two CustomHashSets: element by element (hashCode() per element, table grown by doubling,
+ * always walking the left operand) vs the bulk paths that reuse cached hashes, presize once and walk the smaller set.
+ * <p>
+ * - {@code large} has {@code size} elements; {@code small} has size / 10, half of them also in {@code large}
+ * - union: large + small; intersection / difference: large vs small; containsAll: large.containsAll(hits), where
+ *   {@code hits} is the half of small that is in large (so the scan runs to the end)
+ * - elements are Strings, whose hashCode() is cached per instance: the element-wise side is not charged for
+ *   re-reading characters, only for the calls, the probes and the repeated resizes
+ * <p>
+ * The fork gets a 4 GB heap for the 10^7 case. Run: {@code ./gradlew jmh -PjmhIncludes=SetAlgebraBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SetAlgebraBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private CustomHashSet<String> large;
+    private CustomHashSet<String> small;
+    private CustomHashSet<String> hits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        large = new CustomHashSet<>(size * 2);
+        for (int i = 0; i < size; i++) large.add("k" + i);
+        small = new CustomHashSet<>(size / 5);
+        while (small.size() < size / 10) {
+            // half hits in large, half misses
+            int i = rnd.nextInt(size);
+            small.add(rnd.nextBoolean() ? "k" + i : "m" + i);
+        }
+        hits = CustomHashSet.intersection(small, large);
+    }
+
+    @Benchmark
+    public CustomHashSet<String> unionElementWise() {
+        CustomHashSet<String> result = new CustomHashSet<>();
+        for (String e : large) result.add(e);
+        for (String e : small) result.add(e);
+        return result;
+    }
+
+    @Benchmark
+    public CustomHashSet<String> unionBulk() {
+        return CustomHashSet.union(large, small);
+    }
+
+    @Benchmark
+    public CustomHashSet<String> intersectionElementWise() {
+        CustomHashSet<String> result = new CustomHashSet<>();
+        for (String e : large) {
+            if (small.contains(e)) result.add(e);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CustomHashSet<String> intersectionBulk() {
+        return CustomHashSet.intersection(large, small);
+    }
+
+    @Benchmark
+    public CustomHashSet<String> differenceElementWise() {
+        CustomHashSet<String> result = new CustomHashSet<>();
+        for (String e : large) {
+            if (!small.contains(e)) result.add(e);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public CustomHashSet<String> differenceBulk() {
+        return CustomHashSet.difference(large, small);
+    }
+
+    @Benchmark
+    public boolean containsAllElementWise() {
+        for (String e : hits) {
+            if (!large.contains(e)) return false;
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean containsAllBulk() {
+        return large.containsAll(hits);
+    }
+}
@@ -0,0 +1,94 @@
+package com.code.research.customhash.setmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thousands of keys with one and the same hashCode (the hostile-input case of {@code hash.HashMapInternalsDemo}):
+ * {@link CustomHashMap} with treeified bins vs {@link java.util.HashMap}.
+ * <p>
+ * - COMPARABLE keys: tree bins give O(log n) get/put.
+ * - PLAIN (non-Comparable) keys: the equal-hash subtree has no usable order, lookups stay O(n) in both maps.
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=CollidingKeysBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class CollidingKeysBenchmark {
+
+    private static final int SAMPLE = 1 << 12;
+
+    public enum Impl { CUSTOM_HASH_MAP, JAVA_UTIL_HASH_MAP }
+
+    public enum KeyType { COMPARABLE, PLAIN }
+
+    @Param
+    public Impl impl;
+
+    @Param
+    public KeyType keyType;
+
+    @Param({"1000", "10000"})
+    public int keys;
+
+    private Object[] keySet;
+    private Object[] sample;
+    private Map<Object, Integer> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keySet = new Object[keys];
+        for (int i = 0; i < keys; i++) {
+            keySet[i] = (keyType == KeyType.COMPARABLE) ? new ComparableKey(i) : new PlainKey(i);
+        }
+        SplittableRandom rnd = new SplittableRandom(42);
+        sample = new Object[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) sample[i] = keySet[rnd.nextInt(keys)];
+        map = newMap();
+        for (int i = 0; i < keys; i++) map.put(keySet[i], i);
+    }
+
+    private Map<Object, Integer> newMap() {
+        return (impl == Impl.CUSTOM_HASH_MAP) ? new CustomHashMap<>() : new HashMap<>();
+    }
+
+    @Benchmark
+    public Integer get() {
+        cursor = (cursor + 1) & (SAMPLE - 1);
+        return map.get(sample[cursor]);
+    }
+
+    @Benchmark
+    public Map<Object, Integer> build() {
+        Map<Object, Integer> m = newMap();
+        for (int i = 0; i < keySet.length; i++) m.put(keySet[i], i);
+        return m;
+    }
+
+    public record ComparableKey(int id) implements Comparable<ComparableKey> {
+        @Override public int hashCode() { return 0x5EED; }
+        @Override public int compareTo(ComparableKey o) { return Integer.compare(id, o.id); }
+    }
+
+    public record PlainKey(int id) {
+        @Override public int hashCode() { return 0x5EED; }
+    }
+}
@@ -0,0 +1,131 @@
+package com.code.research.customhash.setmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a shared map from 1 thread up to all cores: {@link ConcurrentCustomHashMap} vs
+ * {@code Collections.synchronizedMap(new CustomHashMap())} (what callers did before) vs
+ * {@link java.util.concurrent.ConcurrentHashMap}.
+ * <p>
+ * - Each op is a get, or with probability {@code 100 - readPercent} a {@code merge(key, 1, Integer::sum)},
+ *   over {@code keys} pre-boxed random keys; the map is pre-filled, so it stays at a fixed size.
+ * - One benchmark method per thread count; ops/us should grow with threads for the concurrent maps and
+ *   flatten (or drop) for the synchronized one.
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=ConcurrentHashMapScalingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class ConcurrentHashMapScalingBenchmark {
+
+    private static final int SAMPLE = 1 << 16;
+
+    public enum Impl {
+        CONCURRENT_CUSTOM_HASH_MAP {
+            @Override
+            Map<Integer, Integer> create() { return new ConcurrentCustomHashMap<>(); }
+        },
+        SYNCHRONIZED_CUSTOM_HASH_MAP {
+            @Override
+            Map<Integer, Integer> create() { return Collections.synchronizedMap(new CustomHashMap<>()); }
+        },
+        CONCURRENT_HASH_MAP {
+            @Override
+            Map<Integer, Integer> create() { return new ConcurrentHashMap<>(); }
+        };
+
+        abstract Map<Integer, Integer> create();
+    }
+
+    @Param
+    public Impl impl;
+
+    @Param({"1000", "1000000"})
+    public int keys;
+
+    @Param({"90", "50"})
+    public int readPercent;
+
+    private Map<Integer, Integer> map;
+    private Integer[] sample;
+    private boolean[] reads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        map = impl.create();
+        for (int k = 0; k < keys; k++) map.put(k, 0);
+        sample = new Integer[SAMPLE];
+        reads = new boolean[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            sample[i] = rnd.nextInt(keys);
+            reads[i] = rnd.nextInt(100) < readPercent;
+        }
+    }
+
+    /** Per-thread position in the shared sample; threads start at different offsets. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i = (int) (Thread.currentThread().threadId() * 7919);
+
+        int next() {
+            return i = (i + 1) & (SAMPLE - 1);
+        }
+    }
+
+    private Integer op(Cursor cursor) {
+        int i = cursor.next();
+        Integer key = sample[i];
+        return reads[i] ? map.get(key) : map.merge(key, 1, Integer::sum);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer threads01(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public Integer threads02(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer threads04(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer threads08(Cursor cursor) {
+        return op(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer threadsMax(Cursor cursor) {
+        return op(cursor);
+    }
+}
@@ -0,0 +1,121 @@
+package com.code.research.customhash.setmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RobinHoodHashMap} (open addressing) vs {@link CustomHashMap} (chaining) vs {@link java.util.HashMap}
+ * with random Integer keys.
+ * <p>
+ * - getHit / getMiss: lookups in a map of {@code size} entries (cycling through a pre-boxed key sample).
+ * - putRemove: steady-state churn, one absent key put and removed per op (size stays constant).
+ * - build: fill an empty default-sized map with {@code size} entries; with the gc profiler,
+ *   {@code gc.alloc.rate.norm / size} is the allocation per mapping (table + nodes).
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=HashMapBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 1)
+@Measurement(time = 1)
+public class HashMapBenchmark {
+
+    private static final int SAMPLE = 1 << 16;
+
+    public enum Impl {
+        ROBIN_HOOD {
+            @Override
+            Map<Integer, Integer> create() { return new RobinHoodHashMap<>(); }
+        },
+        CUSTOM_HASH_MAP {
+            @Override
+            Map<Integer, Integer> create() { return new CustomHashMap<>(); }
+        },
+        JAVA_UTIL_HASH_MAP {
+            @Override
+            Map<Integer, Integer> create() { return new HashMap<>(); }
+        };
+
+        abstract Map<Integer, Integer> create();
+    }
+
+    @Param
+    public Impl impl;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+    private Integer[] hitSample;
+    private Integer[] missSample;
+    private Map<Integer, Integer> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        Set<Integer> present = new HashSet<>(size * 2);
+        keys = new Integer[size];
+        for (int i = 0; i < size; ) {
+            int k = rnd.nextInt();
+            if (present.add(k)) keys[i++] = k;
+        }
+        hitSample = new Integer[SAMPLE];
+        missSample = new Integer[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            hitSample[i] = keys[rnd.nextInt(size)];
+            int k;
+            do {
+                k = rnd.nextInt();
+            } while (present.contains(k));
+            missSample[i] = k;
+        }
+        map = impl.create();
+        for (Integer k : keys) map.put(k, k);
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (SAMPLE - 1);
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        return map.get(hitSample[next()]);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        return map.get(missSample[next()]);
+    }
+
+    @Benchmark
+    public Integer putRemove() {
+        Integer k = missSample[next()];
+        map.put(k, k);
+        return map.remove(k);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> build() {
+        Map<Integer, Integer> m = impl.create();
+        for (Integer k : keys) m.put(k, k);
+        return m;
+    }
+}
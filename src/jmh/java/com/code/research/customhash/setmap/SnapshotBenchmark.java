@@ -0,0 +1,105 @@
+package com.code.research.customhash.setmap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link CustomHashMapSnapshot} vs Java serialization ({@code ObjectOutputStream}) of a
+ * {@code CustomHashMap<Long, String>} with {@code size} entries.
+ * <p>
+ * - write*: checkpoint the map to a file
+ * - read*: restore it; readSnapshotLazy restores the keys and then reads 1% of the values
+ * <p>
+ * File sizes are logged at setup. Run: {@code ./gradlew jmh -PjmhIncludes=SnapshotBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class SnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Path dir;
+    private Path snapshot;
+    private Path serialized;
+    private CustomHashMap<Long, String> map;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        map = new CustomHashMap<>();
+        for (long i = 0; i < size; i++) map.put(i * 31, "value-" + i);
+        dir = Files.createTempDirectory("snapshot-bench");
+        snapshot = dir.resolve("map.snap");
+        serialized = dir.resolve("map.ser");
+        writeSnapshot();
+        writeObjectStream();
+        System.out.printf("%n%d entries: snapshot %d bytes, ObjectOutputStream %d bytes%n",
+                size, Files.size(snapshot), Files.size(serialized));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(p);
+        }
+    }
+
+    @Benchmark
+    public long writeSnapshot() throws IOException {
+        return CustomHashMapSnapshot.write(map, snapshot, SnapshotCodec.int64(), SnapshotCodec.utf8());
+    }
+
+    @Benchmark
+    public Path writeObjectStream() throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(serialized)))) {
+            out.writeObject(map);
+        }
+        return serialized;
+    }
+
+    @Benchmark
+    public Map<Long, String> readSnapshot() throws IOException {
+        return CustomHashMapSnapshot.read(snapshot, SnapshotCodec.int64(), SnapshotCodec.utf8());
+    }
+
+    @Benchmark
+    public int readSnapshotLazy() throws IOException {
+        Map<Long, String> restored = CustomHashMapSnapshot.readLazy(snapshot, SnapshotCodec.int64(), SnapshotCodec.utf8());
+        int chars = 0;
+        for (long i = 0; i < size; i += 100) chars += restored.get(i * 31).length();
+        return chars;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<Long, String> readObjectStream() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(serialized)))) {
+            return (Map<Long, String>) in.readObject();
+        }
+    }
+}
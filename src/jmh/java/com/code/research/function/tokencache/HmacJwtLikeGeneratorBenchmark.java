@@ -0,0 +1,79 @@
+package com.code.research.function.tokencache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens/sec of {@link HmacJwtLikeGenerator}: the original per-token path ({@code baseline})
+ * versus the reusable-Mac/byte-buffer path ({@code generate}) and the bulk {@code generateAll}.
+ * <p>
+ * Run: {@code ./gradlew jmh -PjmhIncludes=HmacJwtLikeGeneratorBenchmark}
+ * <p>
+ * Benchmarks return {@code Object} so the generated JMH code never has to name the package-private token types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HmacJwtLikeGeneratorBenchmark {
+
+    private static final int BULK_SIZE = 10_000;
+
+    @Param({"U-42", "user-0123456789-abcdefghij-klmnopqrst"})
+    public String userId;
+
+    private HmacJwtLikeGenerator generator;
+    private User user;
+    private List<User> users;
+    private Instant now;
+    private Duration ttl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new HmacJwtLikeGenerator("super-secret-key-123".getBytes(StandardCharsets.UTF_8));
+        user = new User(userId, "dev@example.com", Set.of("USER"));
+        users = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            users.add(new User(userId + "-" + i, "dev@example.com", Set.of("USER")));
+        }
+        now = Instant.parse("2025-01-01T00:00:00Z");
+        ttl = Duration.ofMinutes(5);
+    }
+
+    @Benchmark
+    public Object baseline() {
+        return generator.generateBaseline(user, now, ttl);
+    }
+
+    @Benchmark
+    public Object generate() {
+        return generator.generate(user, now, ttl);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public Object generateAllSequential() {
+        return generator.generateAll(users, now, ttl, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public Object generateAllParallel() {
+        return generator.generateAll(users, now, ttl, true);
+    }
+}
@@ -0,0 +1,208 @@
+package com.code.research.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * LRU cache with primitive int key/value and no per-entry objects.
+ * <p>
+ * Layout (all arrays allocated once in the constructor):
+ * - Entry slots {@code 0..capacity-1}: {@code keys[]}, {@code values[]}, {@code prev[]}, {@code next[]}
+ *   (the recency list is threaded through the int arrays instead of Node objects).
+ * - Index: open-addressed {@code int[] table} (linear probing, power-of-two size, load ≤ 0.5)
+ *   holding {@code [key, slot + 1]} pairs, so a probe compares keys without leaving the table;
+ *   slot 0 marks an empty bucket.
+ * - Removal uses backward-shift deletion, so there are no tombstones and probes stay short.
+ * <p>
+ * get/put/remove are O(1) and allocate nothing after construction
+ * (compare {@link LRUCacheInt} / {@link LRUCacheInt2}, which box keys/values and allocate a node per entry).
+ * Not thread-safe.
+ */
+public final class LRUCacheIntArray {
+    private static final int NIL = -1;
+    // largest capacity whose table (2 ints per bucket, >= 2 buckets per entry) still fits in an int[]
+    static final int MAX_CAPACITY = 1 << 28;
+
+    private final int capacity;
+    private final int[] keys;
+    private final int[] values;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] table; // pairs: [key, slot + 1]
+    private final int mask;    // bucket mask; bucket b lives at table[2b], table[2b + 1]
+
+    private int head = NIL;     // MRU
+    private int tail = NIL;     // LRU
+    private int size;
+    private int freeHead = NIL; // slots released by remove(), chained through next[]
+    private int nextUnused;     // slots never used yet: [nextUnused, capacity)
+
+    public LRUCacheIntArray(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (capacity > MAX_CAPACITY) throw new IllegalArgumentException("capacity too large: " + capacity);
+        this.capacity = capacity;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1; // >= 2 * capacity
+        this.table = new int[tableSize * 2];
+        this.mask = tableSize - 1;
+    }
+
+    public int capacity() { return capacity; }
+    public int size()     { return size; }
+
+    /** Returns cached value or -1 if absent; marks as most-recently used. */
+    public int get(int key) {
+        return getOrDefault(key, -1);
+    }
+
+    /** Returns cached value or {@code missing} if absent; marks as most-recently used. */
+    public int getOrDefault(int key, int missing) {
+        int slot = find(key);
+        if (slot == NIL) return missing;
+        moveToFront(slot);
+        return values[slot];
+    }
+
+    /** True if key is cached; does NOT change recency. */
+    public boolean containsKey(int key) {
+        return find(key) != NIL;
+    }
+
+    /** Inserts/updates value; evicts least-recently used if over capacity. */
+    public void put(int key, int value) {
+        int bucket = mix(key) & mask;
+        int e;
+        while ((e = table[2 * bucket + 1]) != 0) {
+            if (table[2 * bucket] == key) {
+                int slot = e - 1;
+                values[slot] = value;
+                moveToFront(slot);
+                return;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+
+        int slot;
+        if (size == capacity) {
+            slot = tail;                  // reuse LRU slot
+            unlink(slot);
+            deleteFromTable(keys[slot]);
+            size--;
+            // the table may have shifted: find the insertion bucket again
+            bucket = mix(key) & mask;
+            while (table[2 * bucket + 1] != 0) bucket = (bucket + 1) & mask;
+        } else if (freeHead != NIL) {
+            slot = freeHead;
+            freeHead = next[slot];
+        } else {
+            slot = nextUnused++;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        table[2 * bucket] = key;
+        table[2 * bucket + 1] = slot + 1;
+        linkFront(slot);
+        size++;
+    }
+
+    /** Removes key if present; returns true if it was removed. */
+    public boolean remove(int key) {
+        int slot = deleteFromTable(key);
+        if (slot == NIL) return false;
+        unlink(slot);
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+        return true;
+    }
+
+    /** Clears cache (arrays are reused). */
+    public void clear() {
+        Arrays.fill(table, 0);
+        head = tail = freeHead = NIL;
+        size = 0;
+        nextUnused = 0;
+    }
+
+    // --------- open-addressing helpers ---------
+
+    private int find(int key) {
+        int bucket = mix(key) & mask;
+        int e;
+        while ((e = table[2 * bucket + 1]) != 0) {
+            if (table[2 * bucket] == key) return e - 1;
+            bucket = (bucket + 1) & mask;
+        }
+        return NIL;
+    }
+
+    /** Deletes key from the index with backward-shift; returns its slot or NIL. */
+    private int deleteFromTable(int key) {
+        int bucket = mix(key) & mask;
+        int e;
+        while ((e = table[2 * bucket + 1]) != 0) {
+            if (table[2 * bucket] == key) break;
+            bucket = (bucket + 1) & mask;
+        }
+        if (e == 0) return NIL;
+
+        int gap = bucket;
+        int i = (gap + 1) & mask;
+        int moved;
+        while ((moved = table[2 * i + 1]) != 0) {
+            int home = mix(table[2 * i]) & mask;
+            // move the entry into the gap if its home bucket is not in (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                table[2 * gap] = table[2 * i];
+                table[2 * gap + 1] = moved;
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        table[2 * gap + 1] = 0;
+        return e - 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // --------- recency list helpers (all O(1)) ---------
+
+    private void moveToFront(int slot) {
+        if (slot == head) return;
+        unlink(slot);
+        linkFront(slot);
+    }
+
+    private void linkFront(int slot) {
+        prev[slot] = NIL;
+        next[slot] = head;
+        if (head != NIL) prev[head] = slot;
+        head = slot;
+        if (tail == NIL) tail = slot;
+    }
+
+    private void unlink(int slot) {
+        int p = prev[slot], n = next[slot];
+        if (p != NIL) next[p] = n; else head = n;
+        if (n != NIL) prev[n] = p; else tail = p;
+    }
+
+    // ---- Tiny demo ----
+    public static void main(String[] args) {
+        LRUCacheIntArray cache = new LRUCacheIntArray(2);
+        cache.put(1, 10); // [1=10]
+        cache.put(2, 20); // [2=20, 1=10]
+        System.out.println(cache.get(1)); // -> 10, order [1=10, 2=20]
+        cache.put(3, 30); // evicts 2 -> [3=30, 1=10]
+        System.out.println(cache.get(2)); // -> -1
+        cache.put(1, 100); // update & move front -> [1=100, 3=30]
+        System.out.println(cache.get(1)); // -> 100
+        System.out.println("size=" + cache.size()); // 2
+    }
+}
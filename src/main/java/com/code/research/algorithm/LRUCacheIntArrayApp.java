@@ -0,0 +1,123 @@
+package com.code.research.algorithm;
+
+import java.lang.ref.Reference;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Quick comparison of the int-keyed LRU variants:
+ * - throughput of a 50/50 get/put mix; keys come from a space 2x larger than capacity, so about half the gets hit
+ * - retained heap with 1,000,000 entries
+ * <p>
+ * Run with a fixed heap for stable numbers, e.g. {@code -Xms2g -Xmx2g -XX:+UseSerialGC}.
+ * This is a rough main()-style measurement (no forking, single JVM), good enough to compare orders of magnitude.
+ */
+public final class LRUCacheIntArrayApp {
+
+    private static final int CAPACITY = 1_000_000;
+    private static final int OPS = 20_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.println("== retained heap with " + CAPACITY + " entries ==");
+        heap("LRUCacheInt     ", () -> {
+            LRUCacheInt c = new LRUCacheInt(CAPACITY);
+            for (int i = 0; i < CAPACITY; i++) c.put(i * 7, i);
+            return c;
+        });
+        heap("LRUCacheInt2    ", () -> {
+            LRUCacheInt2 c = new LRUCacheInt2(CAPACITY);
+            for (int i = 0; i < CAPACITY; i++) c.put(i * 7, i);
+            return c;
+        });
+        heap("LRUCacheIntArray", () -> {
+            LRUCacheIntArray c = new LRUCacheIntArray(CAPACITY);
+            for (int i = 0; i < CAPACITY; i++) c.put(i * 7, i);
+            return c;
+        });
+
+        int[] trace = trace();
+
+        System.out.println("== throughput (ops/s, best of " + ROUNDS + ") ==");
+        long boxed = 0, nodes = 0, primitive = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            boxed = Math.max(boxed, runLinkedHashMap(trace));
+            nodes = Math.max(nodes, runNodes(trace));
+            primitive = Math.max(primitive, runPrimitive(trace));
+        }
+        System.out.printf("LRUCacheInt      (LinkedHashMap) %,14d ops/s%n", boxed);
+        System.out.printf("LRUCacheInt2     (HashMap+Node)  %,14d ops/s%n", nodes);
+        System.out.printf("LRUCacheIntArray (primitive)     %,14d ops/s%n", primitive);
+    }
+
+    /**
+     * Pre-generated operations: {@code key << 1 | op}, where op (0 = get, 1 = put) is its own random bit, so gets
+     * and puts draw from the same keys (deriving op from the key's parity would make every get miss).
+     */
+    private static int[] trace() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        int[] trace = new int[OPS];
+        for (int i = 0; i < OPS; i++) trace[i] = rnd.nextInt(CAPACITY * 2) << 1 | (rnd.nextBoolean() ? 1 : 0);
+        return trace;
+    }
+
+    // one loop per implementation keeps every call site monomorphic
+
+    private static long runLinkedHashMap(int[] trace) {
+        LRUCacheInt c = new LRUCacheInt(CAPACITY);
+        long sink = 0;
+        long t0 = System.nanoTime();
+        for (int op : trace) {
+            int k = op >>> 1;
+            if ((op & 1) == 0) { Integer v = c.get(k); if (v != null) sink += v; }
+            else c.put(k, k);
+        }
+        return opsPerSec(t0, sink);
+    }
+
+    private static long runNodes(int[] trace) {
+        LRUCacheInt2 c = new LRUCacheInt2(CAPACITY);
+        long sink = 0;
+        long t0 = System.nanoTime();
+        for (int op : trace) {
+            int k = op >>> 1;
+            if ((op & 1) == 0) { Integer v = c.get(k); if (v != null) sink += v; }
+            else c.put(k, k);
+        }
+        return opsPerSec(t0, sink);
+    }
+
+    private static long runPrimitive(int[] trace) {
+        LRUCacheIntArray c = new LRUCacheIntArray(CAPACITY);
+        long sink = 0;
+        long t0 = System.nanoTime();
+        for (int op : trace) {
+            int k = op >>> 1;
+            if ((op & 1) == 0) sink += c.getOrDefault(k, 0);
+            else c.put(k, k);
+        }
+        return opsPerSec(t0, sink);
+    }
+
+    private static long opsPerSec(long t0, long sink) {
+        long elapsed = System.nanoTime() - t0;
+        if (sink == 42) System.out.print(""); // keep the result observable
+        return OPS * 1_000_000_000L / elapsed;
+    }
+
+    private static void heap(String name, Supplier<Object> build) {
+        long before = usedHeap();
+        Object cache = build.get();
+        long after = usedHeap();
+        System.out.printf("%s %,8d KiB%n", name, (after - before) / 1024);
+        Reference.reachabilityFence(cache);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
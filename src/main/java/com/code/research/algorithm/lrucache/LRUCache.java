@@ -35,7 +35,7 @@ public class LRUCache {
 
         // Link head <-> tail
         this.head.next = tail;
-        this.tail.next = head;
+        this.tail.prev = head;
     }
 
     /**
@@ -99,7 +99,7 @@ public class LRUCache {
         LRUCacheNode next = node.getNext();
         // Bypass the node
         prev.setNext(next);
-        prev.setPrev(next);
+        next.setPrev(prev);
     }
 
     /**
@@ -0,0 +1,167 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.domain.Order;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Warehouse} backed by an {@link ArrayDeque} under a fair {@link ReentrantLock} with notEmpty/notFull
+ * conditions. Simple and fair, but every operation hands the lock over, so throughput drops as consumers are added;
+ * see {@link RingBufferWarehouse}.
+ */
+@Slf4j
+public class LockingWarehouse implements Warehouse {
+    private final Deque<Order> orders;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+    private final int capacity;
+
+    public LockingWarehouse(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.orders = new ArrayDeque<>(capacity);
+        this.lock = new ReentrantLock(true);
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    @Override
+    public void submitOrder(Order order) throws InterruptedException {
+        Objects.requireNonNull(order, "order");
+        order.markSubmitted(System.nanoTime());
+        lock.lockInterruptibly();
+        try {
+            while (orders.size() == capacity) {
+                notFull.await();
+            }
+            orders.addLast(order);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        // outside the lock: appender I/O must not extend the critical section
+        log.debug("Order {} submitted", order.getId());
+    }
+
+    @Override
+    public Order retrieveOrder() throws InterruptedException {
+        Order order;
+        lock.lockInterruptibly();
+        try {
+            while (orders.isEmpty()) {
+                notEmpty.await();
+            }
+            order = orders.removeFirst();
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Order {} retrieved", order.getId());
+        return order;
+    }
+
+    @Override
+    public boolean trySubmitOrder(Order order, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        Objects.requireNonNull(order, "order");
+        Objects.requireNonNull(unit, "unit");
+        order.markSubmitted(System.nanoTime());
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (orders.size() == capacity) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            orders.addLast(order);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Order tryRetrieveOrder(long timeout, TimeUnit unit)
+            throws InterruptedException {
+
+        Objects.requireNonNull(unit, "unit");
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (orders.isEmpty()) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            Order order = orders.removeFirst();
+            notFull.signal();
+            return order;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> drainOrders(int maxOrders, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (maxOrders <= 0) {
+            throw new IllegalArgumentException("maxOrders must be > 0");
+        }
+        Objects.requireNonNull(unit, "unit");
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (orders.isEmpty()) {
+                if (nanos <= 0L) {
+                    return new ArrayList<>(0);
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            int n = Math.min(maxOrders, orders.size());
+            List<Order> batch = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                batch.add(orders.removeFirst());
+                notFull.signal(); // one producer per freed slot
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Order> snapshotPendingOrders() {
+        lock.lock();
+        try {
+            return Collections.unmodifiableList(List.copyOf(orders));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getPendingOrderCount() {
+        lock.lock();
+        try{
+            return orders.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -5,35 +5,74 @@ import com.code.research.concurrent.orders.exception.PackingException;
 import com.code.research.concurrent.orders.service.PackingService;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Drains batches of up to {@code maxBatchSize} orders from the {@link Warehouse} and packs each batch with one
+ * {@link PackingService#packAll} call, recording batch sizes and latencies in {@link PackOrderMetrics}.
+ */
 @Slf4j
 public class PackOrderJob implements Runnable {
 
+    public static final int DEFAULT_MAX_BATCH_SIZE = 32;
+
+    // how long one drain waits before re-checking the interrupt flag
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
     private final Warehouse warehouse;
     private final PackingService packingService;
+    private final int maxBatchSize;
+    private final PackOrderMetrics metrics;
 
     /**
      * @param warehouse      the shared warehouse to retrieve orders from; must not be null
      * @param packingService the service that actually does the packing; must not be null
      */
     public PackOrderJob(Warehouse warehouse, PackingService packingService) {
+        this(warehouse, packingService, DEFAULT_MAX_BATCH_SIZE, new PackOrderMetrics());
+    }
+
+    /**
+     * @param warehouse      the shared warehouse to retrieve orders from; must not be null
+     * @param packingService the service that actually does the packing; must not be null
+     * @param maxBatchSize   max orders drained and packed at once; must be > 0 (1 packs orders one by one)
+     * @param metrics        where batch sizes and latencies are recorded; may be shared by several jobs
+     */
+    public PackOrderJob(Warehouse warehouse, PackingService packingService, int maxBatchSize,
+                        PackOrderMetrics metrics) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be > 0");
+        }
         this.warehouse = Objects.requireNonNull(warehouse, "warehouse");
         this.packingService = Objects.requireNonNull(packingService, "packingService");
+        this.maxBatchSize = maxBatchSize;
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+    }
+
+    public PackOrderMetrics getMetrics() {
+        return metrics;
     }
 
     /**
-     * Continuously retrieves orders and packs them until the thread is interrupted.
+     * Continuously drains and packs batches of orders until the thread is interrupted.
      */
     @Override
     public void run() {
         log.info("PackOrderJob started on thread {}", Thread.currentThread().getName());
         try {
             while (!Thread.currentThread().isInterrupted()) {
-                // Block until an order is available
-                Order order = warehouse.retrieveOrder();
-                log.info("Retrieved order {} with items {}", order.getId(), order.getItems());
-                doPackOrder(order);
+                // Wait for at least one order, then take whatever is pending (up to maxBatchSize)
+                List<Order> batch = warehouse.drainOrders(maxBatchSize, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                log.debug("Retrieved {} orders", batch.size());
+                long start = System.nanoTime();
+                int failed = doPackOrders(batch);
+                metrics.recordBatch(batch, failed, start, System.nanoTime());
             }
         } catch (InterruptedException ie) {
             // Graceful shutdown on interrupt
@@ -43,19 +82,20 @@ public class PackOrderJob implements Runnable {
         log.info("PackOrderJob terminated on thread " + Thread.currentThread().getName());
     }
 
-    private void doPackOrder(Order order) {
+    /** Returns the number of orders that failed. */
+    private int doPackOrders(List<Order> batch) {
         try {
             // Delegate to the packing service
-            packingService.pack(order);
-            log.info("Successfully packed order {}", order.getId());
-        } catch (PackingException pe) {
+            Map<String, PackingException> failures = packingService.packAll(batch);
+            log.info("Packed {} of {} orders", batch.size() - failures.size(), batch.size());
             // Handle recoverable packing errors (e.g., inventory shortage)
-            log.info("Failed to pack order {}: {}", order.getId(), pe.getMessage(), pe);
             // Optionally re-submit or move to a dead-letter queue
+            failures.forEach((id, pe) -> log.info("Failed to pack order {}: {}", id, pe.getMessage(), pe));
+            return failures.size();
         } catch (Exception ex) {
             // Catch-all for unexpected errors
-            log.error("Unexpected error while packing order " + order.getId(), ex);
+            log.error("Unexpected error while packing " + batch.size() + " orders", ex);
+            return batch.size();
         }
     }
 }
-
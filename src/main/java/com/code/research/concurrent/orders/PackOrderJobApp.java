@@ -12,11 +12,11 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import com.code.research.concurrent.orders.service.BoxService;
 import com.code.research.concurrent.orders.service.CarrierApiShippingService;
-import com.code.research.concurrent.orders.service.DefaultPackingService;
 import com.code.research.concurrent.orders.service.DimensionBasedBoxService;
 import com.code.research.concurrent.orders.service.InventoryService;
 import com.code.research.concurrent.orders.service.JdbcInventoryService;
-import com.code.research.concurrent.orders.service.PackingService;
+import com.code.research.concurrent.orders.service.PipelineStageStats;
+import com.code.research.concurrent.orders.service.PipelinedPackingService;
 import com.code.research.concurrent.orders.service.ShippingService;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,6 +26,7 @@ public class PackOrderJobApp {
     // Warehouse and worker configuration
     private static final int WAREHOUSE_CAPACITY = 100;
     private static final int WORKER_COUNT       = 5;
+    private static final int MAX_BATCH_SIZE     = PackOrderJob.DEFAULT_MAX_BATCH_SIZE;
 
     public static void main(String[] args) {
         // 1. Configure HikariCP DataSource
@@ -46,42 +47,54 @@ public class PackOrderJobApp {
             BoxService boxService = new DimensionBasedBoxService(catalog);
             ShippingService shippingService = new CarrierApiShippingService(new DummyCarrierClient());
 
-            PackingService packingService = new DefaultPackingService(
-                    inventoryService, boxService, shippingService
-            );
-
-            // 3. Create the shared Warehouse
-            Warehouse warehouse = new Warehouse(WAREHOUSE_CAPACITY);
+            // reserve -> box -> label -> schedule run as stages, overlapping the JDBC and carrier calls of different orders
+            try (PipelinedPackingService packingService = new PipelinedPackingService(
+                    inventoryService, boxService, shippingService)) {
+                // 3. Create the shared Warehouse
+                Warehouse warehouse = new RingBufferWarehouse(WAREHOUSE_CAPACITY, RingBufferWarehouse.WaitStrategy.PARK);
 
-            // 4. Start packing worker threads
-            ExecutorService workerPool = Executors.newFixedThreadPool(WORKER_COUNT);
-            try (PackOrderExecutorWrapper executorWrapper = new PackOrderExecutorWrapper(workerPool)) {
-                for (int i = 0; i < WORKER_COUNT; i++) {
-                    workerPool.submit(new PackOrderJob(warehouse, packingService));
+                // 4. Start packing worker threads
+                ExecutorService workerPool = Executors.newFixedThreadPool(WORKER_COUNT);
+                PackOrderMetrics metrics = new PackOrderMetrics();
+                try (PackOrderExecutorWrapper executorWrapper = new PackOrderExecutorWrapper(workerPool)) {
+                    for (int i = 0; i < WORKER_COUNT; i++) {
+                        workerPool.submit(new PackOrderJob(warehouse, packingService, MAX_BATCH_SIZE, metrics));
+                    }
                 }
-            }
 
-            // 5. Produce sample orders
-            List<Order> sampleOrders = List.of(
-                    new Order("ORD-001", List.of("SKU-A", "SKU-B")),
-                    new Order("ORD-002", List.of("SKU-C")),
-                    new Order("ORD-003", List.of("SKU-A", "SKU-C", "SKU-D"))
-            );
-            for (Order order : sampleOrders) {
-                try {
-                    warehouse.submitOrder(order);
-                    log.info("Submitted order: " + order.getId());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.error("Interrupted while submitting orders");
-                    break;
+                // 5. Produce sample orders
+                List<Order> sampleOrders = List.of(
+                        new Order("ORD-001", List.of("SKU-A", "SKU-B")),
+                        new Order("ORD-002", List.of("SKU-C")),
+                        new Order("ORD-003", List.of("SKU-A", "SKU-C", "SKU-D"))
+                );
+                for (Order order : sampleOrders) {
+                    try {
+                        warehouse.submitOrder(order);
+                        log.info("Submitted order: " + order.getId());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        log.error("Interrupted while submitting orders");
+                        break;
+                    }
                 }
-            }
 
-            // 6. Shutdown worker pool after all orders processed
-            workerPool.shutdown();
-            if (!workerPool.awaitTermination(2, TimeUnit.MINUTES)) {
-                workerPool.shutdownNow();
+                // 6. Shutdown worker pool after all orders processed
+                workerPool.shutdown();
+                if (!workerPool.awaitTermination(2, TimeUnit.MINUTES)) {
+                    workerPool.shutdownNow();
+                }
+                PackOrderStats stats = metrics.snapshot();
+                log.info("Packed {} orders in {} batches (avg {} per batch, max {}), {} failed, avg order latency {} ms",
+                        stats.orders(), stats.batches(), String.format("%.1f", stats.averageBatchSize()),
+                        stats.maxBatchSize(), stats.failedOrders(),
+                        String.format("%.2f", stats.averageOrderLatencyMillis()));
+                for (PipelineStageStats stage : packingService.stageStats()) {
+                    log.info("Stage {}: queue {}/{}, {} done, {} failed, {} orders/s, utilization {}",
+                            stage.stage(), stage.queueDepth(), stage.queueCapacity(), stage.completed(),
+                            stage.failed(), String.format("%.1f", stage.throughputPerSecond()),
+                            String.format("%.2f", stage.utilization()));
+                }
             }
 
         } catch (InterruptedException e) {
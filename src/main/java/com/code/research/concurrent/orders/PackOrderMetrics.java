@@ -0,0 +1,61 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.domain.Order;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe batch-size and latency counters, shared by the {@link PackOrderJob}s of one pool.
+ * Recording is a few striped adds, so concurrent jobs do not contend on it.
+ */
+public final class PackOrderMetrics {
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder failedOrders = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalBatchNanos = new LongAdder();
+    private final LongAdder totalOrderLatencyNanos = new LongAdder();
+    private final LongAccumulator maxOrderLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one packed batch.
+     *
+     * @param batch      the orders of the batch, {@link Order#markSubmitted stamped} by the warehouse
+     * @param failed     orders of the batch that failed
+     * @param startNanos when the batch was drained from the warehouse
+     * @param endNanos   when it was packed
+     */
+    void recordBatch(List<Order> batch, int failed, long startNanos, long endNanos) {
+        long latencySum = 0;
+        long latencyMax = 0;
+        for (Order order : batch) {
+            long latency = endNanos - order.getSubmittedAtNanos();
+            latencySum += latency;
+            latencyMax = Math.max(latencyMax, latency);
+        }
+        batches.increment();
+        orders.add(batch.size());
+        failedOrders.add(failed);
+        maxBatchSize.accumulate(batch.size());
+        totalBatchNanos.add(endNanos - startNanos);
+        totalOrderLatencyNanos.add(latencySum);
+        maxOrderLatencyNanos.accumulate(latencyMax);
+    }
+
+    /**
+     * @return the current counters; not atomic across fields while batches are being recorded.
+     */
+    public PackOrderStats snapshot() {
+        return new PackOrderStats(
+                batches.sum(),
+                orders.sum(),
+                failedOrders.sum(),
+                maxBatchSize.get(),
+                totalBatchNanos.sum(),
+                totalOrderLatencyNanos.sum(),
+                maxOrderLatencyNanos.get());
+    }
+}
@@ -0,0 +1,47 @@
+package com.code.research.concurrent.orders;
+
+/**
+ * Immutable snapshot of the batch-packing metrics of {@link PackOrderJob}s, see {@link PackOrderMetrics}.
+ * <p>
+ * An order's latency is the time from its submission to the {@link Warehouse} to
+ * {@link com.code.research.concurrent.orders.service.PackingService#packAll} returning for its batch: the time it
+ * waited in the warehouse plus the time its batch took to pack.
+ *
+ * @param batches                number of batches packed.
+ * @param orders                 number of orders in those batches.
+ * @param failedOrders           orders that {@code packAll} reported as failed.
+ * @param maxBatchSize           largest batch so far.
+ * @param totalBatchNanos        total time spent packing batches.
+ * @param totalOrderLatencyNanos sum of the latencies of all orders.
+ * @param maxOrderLatencyNanos   largest single order latency.
+ */
+public record PackOrderStats(long batches,
+                             long orders,
+                             long failedOrders,
+                             long maxBatchSize,
+                             long totalBatchNanos,
+                             long totalOrderLatencyNanos,
+                             long maxOrderLatencyNanos) {
+
+    /**
+     * @return average number of orders per batch, or 0 when nothing was packed.
+     */
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) orders / batches;
+    }
+
+    /**
+     * @return average order latency in milliseconds, or 0 when nothing was packed.
+     */
+    public double averageOrderLatencyMillis() {
+        return orders == 0 ? 0 : totalOrderLatencyNanos / 1_000_000.0 / orders;
+    }
+
+    /**
+     * @return packing time per order in milliseconds (batch time spread over its orders), or 0 when nothing was
+     * packed; this is what batching lowers, while the latency grows with the batch.
+     */
+    public double averagePackMillisPerOrder() {
+        return orders == 0 ? 0 : totalBatchNanos / 1_000_000.0 / orders;
+    }
+}
@@ -0,0 +1,292 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.domain.Order;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free bounded multi-producer/multi-consumer {@link Warehouse} (Vyukov's ring buffer).
+ * <p>
+ * - slots and their sequence numbers are preallocated; submitting or retrieving allocates nothing
+ * - slot i starts with sequence 2i. A producer at position p may claim slot p % capacity once its sequence is 2p:
+ *   it CASes the tail from p to p + 1, writes the order and publishes 2p + 1. A consumer at p waits for 2p + 1,
+ *   CASes the head, takes the order and frees the slot for the next lap with 2(p + capacity). (Doubling keeps
+ *   "full" and "free" distinct even at capacity 1, where p + 1 would be both.)
+ * - producers and consumers only contend on their own cursor (tail or head), and the two cursors sit on
+ *   different cache lines
+ * - {@link #drainOrders} checks how many consecutive slots at the head are published and claims them all with one
+ *   head CAS, so a consumer pays one contended operation per batch rather than per order
+ * - when the ring is full (or empty) the caller waits according to its {@link WaitStrategy}; there is no
+ *   signalling, so a waiting thread notices space or a new order on its next check
+ * <p>
+ * FIFO across threads in claim order. Nothing is logged on the hot path.
+ */
+public final class RingBufferWarehouse implements Warehouse {
+
+    /** How a thread waits for a free slot or a pending order. */
+    public enum WaitStrategy {
+        /** Busy-spins with {@link Thread#onSpinWait()}: lowest latency, burns a core per waiting thread. */
+        SPIN {
+            @Override
+            void idle(int attempt) {
+                Thread.onSpinWait();
+            }
+        },
+        /** Spins briefly, then {@link Thread#yield()}s: lets other threads run on busy machines. */
+        YIELD {
+            @Override
+            void idle(int attempt) {
+                if (attempt < SPIN_TRIES) Thread.onSpinWait();
+                else Thread.yield();
+            }
+        },
+        /**
+         * Spins, yields, then parks with timeouts doubling up to {@link #MAX_PARK_NANOS}: near-zero CPU when idle
+         * (the right choice for virtual threads), at the cost of up to that much wake-up latency.
+         */
+        PARK {
+            @Override
+            void idle(int attempt) {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    int shift = Math.min(attempt - SPIN_TRIES - YIELD_TRIES, 20);
+                    LockSupport.parkNanos(Math.min(1_000L << shift, MAX_PARK_NANOS));
+                }
+            }
+        };
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 10;
+        static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        /** Called between failed attempts; {@code attempt} counts from 0 for each wait. */
+        abstract void idle(int attempt);
+    }
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Order[].class);
+    private static final VarHandle CURSOR = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // head and tail live in one array, 128 bytes apart and away from the array header, so they never share a line
+    private static final int HEAD = 15;
+    private static final int TAIL = 31;
+
+    private final int capacity;
+    private final int mask; // capacity - 1 when capacity is a power of two, else -1
+    private final Order[] slots;
+    private final long[] sequences;
+    private final long[] cursors = new long[47];
+    private final WaitStrategy waitStrategy;
+
+    public RingBufferWarehouse(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    public RingBufferWarehouse(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.mask = (Integer.bitCount(capacity) == 1) ? capacity - 1 : -1;
+        this.slots = new Order[capacity];
+        this.sequences = new long[capacity];
+        for (int i = 0; i < capacity; i++) sequences[i] = 2L * i;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+    }
+
+    @Override
+    public void submitOrder(Order order) throws InterruptedException {
+        Objects.requireNonNull(order, "order");
+        checkInterrupted();
+        order.markSubmitted(System.nanoTime());
+        for (int attempt = 0; !offer(order); attempt++) {
+            waitStrategy.idle(attempt);
+            checkInterrupted();
+        }
+    }
+
+    @Override
+    public Order retrieveOrder() throws InterruptedException {
+        checkInterrupted();
+        Order order;
+        for (int attempt = 0; (order = poll()) == null; attempt++) {
+            waitStrategy.idle(attempt);
+            checkInterrupted();
+        }
+        return order;
+    }
+
+    @Override
+    public boolean trySubmitOrder(Order order, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(order, "order");
+        Objects.requireNonNull(unit, "unit");
+        checkInterrupted();
+        long now = System.nanoTime();
+        order.markSubmitted(now);
+        if (offer(order)) return true;
+        long deadline = now + unit.toNanos(timeout);
+        for (int attempt = 0; ; attempt++) {
+            if (deadline - System.nanoTime() <= 0L) return false;
+            waitStrategy.idle(attempt);
+            checkInterrupted();
+            if (offer(order)) return true;
+        }
+    }
+
+    @Override
+    public Order tryRetrieveOrder(long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(unit, "unit");
+        checkInterrupted();
+        Order order = poll();
+        if (order != null) return order;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempt = 0; ; attempt++) {
+            if (deadline - System.nanoTime() <= 0L) return null;
+            waitStrategy.idle(attempt);
+            checkInterrupted();
+            if ((order = poll()) != null) return order;
+        }
+    }
+
+    @Override
+    public List<Order> drainOrders(int maxOrders, long timeout, TimeUnit unit) throws InterruptedException {
+        if (maxOrders <= 0) {
+            throw new IllegalArgumentException("maxOrders must be > 0");
+        }
+        Objects.requireNonNull(unit, "unit");
+        checkInterrupted();
+        List<Order> batch = new ArrayList<>(Math.min(maxOrders, capacity));
+        if (drainTo(batch, maxOrders) > 0) return batch;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempt = 0; ; attempt++) {
+            if (deadline - System.nanoTime() <= 0L) return batch;
+            waitStrategy.idle(attempt);
+            checkInterrupted();
+            if (drainTo(batch, maxOrders) > 0) return batch;
+        }
+    }
+
+    /** Weakly consistent: orders submitted or retrieved while the snapshot is taken may or may not appear. */
+    @Override
+    public List<Order> snapshotPendingOrders() {
+        long head = (long) CURSOR.getVolatile(cursors, HEAD);
+        long tail = (long) CURSOR.getVolatile(cursors, TAIL);
+        List<Order> pending = new ArrayList<>((int) Math.min(Math.max(tail - head, 0), capacity));
+        for (long pos = head; pos < tail; pos++) {
+            int i = index(pos);
+            long published = 2 * pos + 1;
+            if ((long) SEQUENCE.getAcquire(sequences, i) != published) continue; // not yet published, or taken
+            Order order = (Order) SLOT.getAcquire(slots, i);
+            if (order != null && (long) SEQUENCE.getAcquire(sequences, i) == published) pending.add(order);
+        }
+        return Collections.unmodifiableList(pending);
+    }
+
+    /** Claimed positions minus taken ones; exact when no thread is mid-operation. */
+    @Override
+    public int getPendingOrderCount() {
+        while (true) {
+            long head = (long) CURSOR.getVolatile(cursors, HEAD);
+            long tail = (long) CURSOR.getVolatile(cursors, TAIL);
+            if (head == (long) CURSOR.getVolatile(cursors, HEAD)) {
+                return (int) Math.max(0, Math.min(tail - head, capacity));
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Adds the order if a slot is free; never waits. */
+    boolean offer(Order order) {
+        long pos = (long) CURSOR.getVolatile(cursors, TAIL);
+        while (true) {
+            int i = index(pos);
+            long diff = (long) SEQUENCE.getAcquire(sequences, i) - 2 * pos;
+            if (diff == 0) {
+                if (CURSOR.compareAndSet(cursors, TAIL, pos, pos + 1)) {
+                    slots[i] = order;
+                    SEQUENCE.setRelease(sequences, i, 2 * pos + 1); // publishes the slot write and the order's stamp
+                    return true;
+                }
+                pos = (long) CURSOR.getVolatile(cursors, TAIL);
+            } else if (diff < 0) {
+                return false; // the slot still holds the order from the previous lap: full
+            } else {
+                pos = (long) CURSOR.getVolatile(cursors, TAIL); // another producer claimed pos
+            }
+        }
+    }
+
+    /** Takes the oldest order, or returns null if there is none; never waits. */
+    Order poll() {
+        long pos = (long) CURSOR.getVolatile(cursors, HEAD);
+        while (true) {
+            int i = index(pos);
+            long diff = (long) SEQUENCE.getAcquire(sequences, i) - (2 * pos + 1);
+            if (diff == 0) {
+                if (CURSOR.compareAndSet(cursors, HEAD, pos, pos + 1)) {
+                    Order order = slots[i];
+                    slots[i] = null;
+                    SEQUENCE.setRelease(sequences, i, 2 * (pos + capacity)); // frees the slot for the producer one lap on
+                    return order;
+                }
+                pos = (long) CURSOR.getVolatile(cursors, HEAD);
+            } else if (diff < 0) {
+                return null; // not published yet: empty
+            } else {
+                pos = (long) CURSOR.getVolatile(cursors, HEAD); // another consumer took pos
+            }
+        }
+    }
+
+    /**
+     * Takes the run of published orders at the head, at most {@code max}, with a single head CAS and appends them to
+     * {@code sink}; never waits. Returns how many were taken.
+     */
+    int drainTo(List<Order> sink, int max) {
+        int limit = Math.min(max, capacity);
+        long pos = (long) CURSOR.getVolatile(cursors, HEAD);
+        while (true) {
+            long diff = (long) SEQUENCE.getAcquire(sequences, index(pos)) - (2 * pos + 1);
+            if (diff < 0) {
+                return 0; // not published yet: empty
+            } else if (diff > 0) {
+                pos = (long) CURSOR.getVolatile(cursors, HEAD); // another consumer took pos
+                continue;
+            }
+            int n = 1;
+            while (n < limit && (long) SEQUENCE.getAcquire(sequences, index(pos + n)) == 2 * (pos + n) + 1) n++;
+            // the head only moves forward, so a successful CAS means no other consumer took any of the n slots
+            if (CURSOR.compareAndSet(cursors, HEAD, pos, pos + n)) {
+                for (int k = 0; k < n; k++) {
+                    int i = index(pos + k);
+                    sink.add(slots[i]);
+                    slots[i] = null;
+                    SEQUENCE.setRelease(sequences, i, 2 * (pos + k + capacity));
+                }
+                return n;
+            }
+            pos = (long) CURSOR.getVolatile(cursors, HEAD);
+        }
+    }
+
+    private int index(long pos) {
+        return (mask >= 0) ? (int) (pos & mask) : (int) (pos % capacity);
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) throw new InterruptedException();
+    }
+}
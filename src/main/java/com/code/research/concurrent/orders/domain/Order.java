@@ -9,12 +9,22 @@ import java.util.Objects;
 public final class Order {
     private final String id;
     private final List<String> items;
+    // System.nanoTime() when the order was last submitted to a Warehouse; plain field, the warehouse hand-off
+    // publishes it to the consumer
+    private long submittedAtNanos;
 
     public Order(final String id, final List<String> items) {
         this.id = Objects.requireNonNull(id);
         this.items = List.copyOf(Objects.requireNonNull(items, "items"));
     }
 
+    /**
+     * Stamps the order as submitted now; called by {@link com.code.research.concurrent.orders.Warehouse}
+     * implementations before the order is queued, so its packing latency includes the time spent waiting there.
+     */
+    public void markSubmitted(long nanoTime) {
+        this.submittedAtNanos = nanoTime;
+    }
 
     @Override
     public String toString() {
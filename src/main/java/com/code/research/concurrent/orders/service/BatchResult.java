@@ -0,0 +1,86 @@
+package com.code.research.concurrent.orders.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-order outcome of a batch call whose orders can succeed or fail independently (e.g. a batch hook that falls
+ * back to one call per order): the orders before a failed one may already be done, so callers must not treat the
+ * failure as the failure of the whole batch.
+ * <p>
+ * A batch call that fails as a whole, with nothing done, throws instead.
+ *
+ * @param results  one entry per order of the batch, in batch order; null where the order failed
+ * @param failures the failure of each order that failed, by its position in the batch
+ * @param <T>      the per-order result type ({@link Void} when there is none)
+ */
+public record BatchResult<T>(List<T> results, Map<Integer, Exception> failures) {
+
+    public BatchResult {
+        results = Collections.unmodifiableList(new ArrayList<>(results)); // may hold nulls, unlike List.copyOf
+        failures = Map.copyOf(failures);
+        for (int index : failures.keySet()) {
+            if (index < 0 || index >= results.size()) {
+                throw new IllegalArgumentException("Failure at " + index + " outside a batch of " + results.size());
+            }
+        }
+    }
+
+    /**
+     * @return a result in which every order succeeded
+     */
+    public static <T> BatchResult<T> succeeded(List<T> results) {
+        return new BatchResult<>(results, Map.of());
+    }
+
+    /**
+     * Runs {@code call} for every position of a batch of {@code size} orders; a failing order does not stop the
+     * others.
+     */
+    public static <T> BatchResult<T> oneByOne(int size, OrderCall<? extends T> call) {
+        List<T> results = new ArrayList<>(size);
+        Map<Integer, Exception> failures = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            try {
+                results.add(call.apply(i));
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                results.add(null);
+                failures.put(i, e);
+            }
+        }
+        return new BatchResult<>(results, failures);
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public boolean succeeded(int index) {
+        Objects.checkIndex(index, results.size());
+        return !failures.containsKey(index);
+    }
+
+    public T result(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * @return the failure of the order at {@code index}, or null if it succeeded
+     */
+    public Exception failure(int index) {
+        return failures.get(index);
+    }
+
+    /** The call made for one order of a batch, by position. */
+    @FunctionalInterface
+    public interface OrderCall<T> {
+        T apply(int index) throws Exception;
+    }
+}
@@ -18,4 +18,14 @@ public interface BoxService {
      * Packs the given SKUs into the box.
      */
     void packItems(OrderBox box, List<String> itemSkus);
+
+    /**
+     * Packs several orders into boxes of the same size in one call, one box per entry of {@code itemSkusPerOrder}.
+     * The default packs them one by one; override when the packing station accepts a whole batch.
+     */
+    default void packBatch(OrderBox box, List<List<String>> itemSkusPerOrder) {
+        for (List<String> itemSkus : itemSkusPerOrder) {
+            packItems(box, itemSkus);
+        }
+    }
 }
\ No newline at end of file
@@ -5,6 +5,10 @@ import com.code.research.concurrent.orders.domain.OrderBox;
 import com.code.research.concurrent.orders.domain.OrderLabel;
 import com.code.research.concurrent.orders.exception.ShippingException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
 
@@ -41,6 +45,76 @@ public class CarrierApiShippingService implements ShippingService {
         }
     }
 
+    @Override
+    public void cancelLabel(Order order, OrderBox box, OrderLabel label) throws ShippingException {
+        try {
+            client.cancelShipment(label.getTrackingNumber());
+            logger.info(() -> "Cancelled shipment " + label.getTrackingNumber() + " for order " + order.getId());
+        } catch (Exception e) {
+            throw new ShippingException("Error cancelling shipment: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * One {@link CarrierApiClient#createShipments} call for the whole batch.
+     */
+    @Override
+    public BatchResult<OrderLabel> generateLabels(List<Order> orders, OrderBox box) throws ShippingException {
+        BatchResult<String> trackings;
+        try {
+            trackings = client.createShipments(orders, box);
+        } catch (Exception e) {
+            throw new ShippingException("Error generating labels: " + e.getMessage(), e);
+        }
+        if (trackings.size() != orders.size()) {
+            // cannot tell which order a tracking number belongs to
+            throw new ShippingException("Carrier returned " + trackings.size() + " shipments for " + orders.size() +
+                    " orders", null);
+        }
+        List<OrderLabel> labels = new ArrayList<>(orders.size());
+        Map<Integer, Exception> failures = new HashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (trackings.succeeded(i)) {
+                labels.add(new OrderLabel(trackings.result(i)));
+            } else {
+                labels.add(null);
+                failures.put(i, new ShippingException("Error generating label: " +
+                        trackings.failure(i).getMessage(), trackings.failure(i)));
+            }
+        }
+        logger.fine(() -> "Carrier created " + (labels.size() - failures.size()) + " of " + labels.size() +
+                " shipments in " + box.getSize() + " boxes");
+        return new BatchResult<>(labels, failures);
+    }
+
+    /**
+     * One {@link CarrierApiClient#scheduleDeliveries} call for the whole batch.
+     */
+    @Override
+    public BatchResult<Void> scheduleShipments(List<Order> orders, OrderBox box, List<OrderLabel> labels)
+            throws ShippingException {
+        if (orders.size() != labels.size()) {
+            throw new IllegalArgumentException("Got " + labels.size() + " labels for " + orders.size() + " orders");
+        }
+        List<String> trackings = new ArrayList<>(labels.size());
+        for (OrderLabel label : labels) {
+            trackings.add(label.getTrackingNumber());
+        }
+        BatchResult<Void> scheduled;
+        try {
+            scheduled = client.scheduleDeliveries(trackings);
+        } catch (Exception e) {
+            throw new ShippingException("Error scheduling shipments: " + e.getMessage(), e);
+        }
+        if (scheduled.size() != orders.size()) {
+            throw new ShippingException("Carrier reported " + scheduled.size() + " deliveries for " + orders.size() +
+                    " orders", null);
+        }
+        logger.info(() -> "Scheduled " + (trackings.size() - scheduled.failures().size()) + " of " + trackings.size() +
+                " shipments in " + box.getSize() + " boxes");
+        return scheduled;
+    }
+
     /**
      * Low-level carrier API client abstraction.
      */
@@ -54,5 +128,32 @@ public class CarrierApiShippingService implements ShippingService {
          * Schedules the delivery (e.g. calls a different endpoint or confirms pickup).
          */
         void scheduleDelivery(String trackingNumber) throws Exception;
+
+        /**
+         * Cancels a shipment that was created but not scheduled. The default does nothing, for carriers where such
+         * a shipment simply expires.
+         */
+        default void cancelShipment(String trackingNumber) throws Exception {
+        }
+
+        /**
+         * Creates shipments for several orders in boxes of the same size and returns their tracking numbers in
+         * order, or the failure of each order that got none. The default calls {@link #createShipment} per order;
+         * override with the carrier's batch endpoint.
+         */
+        default BatchResult<String> createShipments(List<Order> orders, OrderBox box) throws Exception {
+            return BatchResult.oneByOne(orders.size(), i -> createShipment(orders.get(i), box));
+        }
+
+        /**
+         * Schedules several deliveries and reports the failure of each one that was not scheduled.
+         * The default calls {@link #scheduleDelivery} per tracking number.
+         */
+        default BatchResult<Void> scheduleDeliveries(List<String> trackingNumbers) throws Exception {
+            return BatchResult.oneByOne(trackingNumbers.size(), i -> {
+                scheduleDelivery(trackingNumbers.get(i));
+                return null;
+            });
+        }
     }
 }
@@ -9,7 +9,11 @@ import com.code.research.concurrent.orders.exception.PackingException;
 import com.code.research.concurrent.orders.exception.ShippingException;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -18,6 +22,16 @@ import java.util.logging.Logger;
  * Default implementation of PackingService.
  * Reserves inventory, boxes the items, prints a shipping label,
  * and hands off to the shipping system.
+ * <p>
+ * {@link #packAll} reserves and chooses a box per order, then groups the orders by box size and makes one
+ * {@link BoxService#packBatch}, one {@link ShippingService#generateLabels} and one
+ * {@link ShippingService#scheduleShipments} call per group. The carrier is the one behind {@code shippingService},
+ * so a group shares box size and carrier. The label and schedule calls report per order, so only the orders that
+ * actually failed are failed; the others may already be with the carrier. A failed order gets its label (if any)
+ * cancelled and its reservation released, in {@link #pack} as in {@link #packAll} and {@link PipelinedPackingService}.
+ * <p>
+ * Each order runs its steps strictly in sequence; {@link PipelinedPackingService} overlaps the steps of different
+ * orders instead.
  */
 @Slf4j
 public class DefaultPackingService implements PackingService {
@@ -44,36 +58,179 @@ public class DefaultPackingService implements PackingService {
     @Override
     public void pack(Order order) throws PackingException {
         logger.info(() -> "Starting to pack order " + order.getId());
+        boolean reserved = false;
+        OrderBox box = null;
+        OrderLabel orderLabel = null;
         try {
             // 1) Reserve all items in inventory
             inventoryService.reserve(order);
+            reserved = true;
             logger.fine(() -> "Reserved inventory for order " + order.getId());
 
             // 2) Select and pack into a box
             List<String> items = order.getItems();
-            OrderBox box = boxService.chooseBox(items);
+            box = boxService.chooseBox(items);
             boxService.packItems(box, items);
-            logger.fine(() -> "Packed " + items.size() + " items into box " + box.getSize());
+            OrderBox packed = box;
+            logger.fine(() -> "Packed " + items.size() + " items into box " + packed.getSize());
 
             // 3) Generate shipping label
-            OrderLabel orderLabel = shippingService.generateLabel(order, box);
-            logger.fine(() -> "Generated shipping label " + orderLabel.getTrackingNumber());
+            orderLabel = shippingService.generateLabel(order, box);
+            OrderLabel label = orderLabel;
+            logger.fine(() -> "Generated shipping label " + label.getTrackingNumber());
 
             // 4) Hand off for shipment
             shippingService.scheduleShipment(order, box, orderLabel);
             logger.info(() -> "Order " + order.getId() +
                     " packed and scheduled for shipping: " +
-                    orderLabel.getTrackingNumber());
+                    label.getTrackingNumber());
 
         } catch (OutOfStockException | BoxNotFoundException | ShippingException e) {
-            throw new PackingException(
-                    "Failed to pack order " + order.getId() + ": " + e.getMessage(), e);
+            throw compensate(order, reserved, box, orderLabel, new PackingException(
+                    "Failed to pack order " + order.getId() + ": " + e.getMessage(), e));
         } catch (Exception unexpected) {
             logger.log(Level.SEVERE,
                     "Unexpected error while packing order " + order.getId(),
                     unexpected);
-            throw new PackingException(
-                    "Unexpected error for order " + order.getId(), unexpected);
+            throw compensate(order, reserved, box, orderLabel, new PackingException(
+                    "Unexpected error for order " + order.getId(), unexpected));
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<String, PackingException> packAll(List<Order> orders) {
+        Map<String, PackingException> failures = new HashMap<>();
+
+        // 1) Reserve and choose a box per order (inventory is per order: one shortage must not fail the batch)
+        Map<OrderBox, List<Order>> byBox = new LinkedHashMap<>();
+        for (Order order : orders) {
+            boolean reserved = false;
+            try {
+                inventoryService.reserve(order);
+                reserved = true;
+                OrderBox box = boxService.chooseBox(order.getItems());
+                byBox.computeIfAbsent(box, b -> new ArrayList<>()).add(order);
+            } catch (OutOfStockException | BoxNotFoundException e) {
+                failures.put(order.getId(), compensate(order, reserved, null, null, new PackingException(
+                        "Failed to pack order " + order.getId() + ": " + e.getMessage(), e)));
+            } catch (Exception unexpected) {
+                logger.log(Level.SEVERE,
+                        "Unexpected error while packing order " + order.getId(),
+                        unexpected);
+                failures.put(order.getId(), compensate(order, reserved, null, null, new PackingException(
+                        "Unexpected error for order " + order.getId(), unexpected)));
+            }
+        }
+
+        // 2) Pack, label and schedule each box size with one call per service
+        for (Map.Entry<OrderBox, List<Order>> e : byBox.entrySet()) {
+            packGroup(e.getKey(), e.getValue(), failures);
+        }
+
+        // report in batch order, whichever phase an order failed in
+        Map<String, PackingException> ordered = new LinkedHashMap<>();
+        for (Order order : orders) {
+            PackingException failure = failures.get(order.getId());
+            if (failure != null) {
+                ordered.put(order.getId(), failure);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Packs, labels and schedules one box size. The label and schedule hooks report per order, so when some orders
+     * of the group fail only those are compensated and reported; the others are already handed off to the carrier.
+     */
+    private void packGroup(OrderBox box, List<Order> group, Map<String, PackingException> failures) {
+        BatchResult<OrderLabel> labels;
+        try {
+            List<List<String>> items = new ArrayList<>(group.size());
+            for (Order order : group) {
+                items.add(order.getItems());
+            }
+            boxService.packBatch(box, items);
+            labels = shippingService.generateLabels(group, box);
+        } catch (Exception ex) {
+            // nothing left the warehouse: every order of the group failed and only holds its reservation
+            failGroup(box, group, null, ex, failures);
+            return;
+        }
+
+        List<Order> labelled = new ArrayList<>(group.size());
+        List<OrderLabel> labelledLabels = new ArrayList<>(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            if (labels.succeeded(i)) {
+                labelled.add(group.get(i));
+                labelledLabels.add(labels.result(i));
+            } else {
+                failOrder(box, group, group.get(i), null, labels.failure(i), failures);
+            }
+        }
+        if (labelled.isEmpty()) {
+            return;
+        }
+
+        BatchResult<Void> scheduled;
+        try {
+            scheduled = shippingService.scheduleShipments(labelled, box, labelledLabels);
+        } catch (Exception ex) {
+            failGroup(box, labelled, labelledLabels, ex, failures);
+            return;
+        }
+        for (int i = 0; i < labelled.size(); i++) {
+            if (!scheduled.succeeded(i)) {
+                failOrder(box, group, labelled.get(i), labelledLabels.get(i), scheduled.failure(i), failures);
+            }
+        }
+        int shipped = labelled.size() - scheduled.failures().size();
+        logger.info(() -> shipped + " of " + group.size() + " orders packed into " + box.getSize() +
+                " boxes and scheduled for shipping");
+    }
+
+    /** A batch call failed as a whole, so every order passed to it did. */
+    private void failGroup(OrderBox box, List<Order> orders, List<OrderLabel> labels, Exception ex,
+                           Map<String, PackingException> failures) {
+        if (!(ex instanceof ShippingException)) {
+            logger.log(Level.SEVERE,
+                    "Unexpected error while packing " + orders.size() + " orders into " + box.getSize(),
+                    ex);
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            failOrder(box, orders, orders.get(i), labels == null ? null : labels.get(i), ex, failures);
+        }
+    }
+
+    private void failOrder(OrderBox box, List<Order> batch, Order order, OrderLabel label, Exception ex,
+                           Map<String, PackingException> failures) {
+        failures.put(order.getId(), compensate(order, true, box, label, new PackingException(
+                "Failed to pack order " + order.getId() + " in a batch of " + batch.size() + " " + box.getSize() +
+                        " boxes: " + ex.getMessage(), ex)));
+    }
+
+    /**
+     * Undoes what a failed order already holds, latest first: its label (if one was created) and its reservation.
+     * Compensation errors are logged and added to {@code failure} as suppressed.
+     */
+    private PackingException compensate(Order order, boolean reserved, OrderBox box, OrderLabel label,
+                                        PackingException failure) {
+        if (label != null) {
+            try {
+                shippingService.cancelLabel(order, box, label);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE,
+                        "Could not cancel label " + label.getTrackingNumber() + " of order " + order.getId(), e);
+                failure.addSuppressed(e);
+            }
+        }
+        if (reserved) {
+            try {
+                inventoryService.release(order);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Could not release inventory of order " + order.getId(), e);
+                failure.addSuppressed(e);
+            }
+        }
+        return failure;
+    }
+}
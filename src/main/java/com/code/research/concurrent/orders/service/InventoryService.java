@@ -5,4 +5,11 @@ import com.code.research.concurrent.orders.exception.OutOfStockException;
 
 public interface InventoryService {
     void reserve(Order order) throws OutOfStockException;
+
+    /**
+     * Returns the stock reserved by {@link #reserve}; compensates an order that failed after its reservation.
+     * The default does nothing, for inventories whose reservations are not held (or expire on their own).
+     */
+    default void release(Order order) {
+    }
 }
\ No newline at end of file
@@ -23,11 +23,7 @@ public class JdbcInventoryService implements InventoryService {
 
     @Override
     public void reserve(Order order) throws OutOfStockException {
-        // Count SKUs in the order
-        Map<String,Integer> counts = new HashMap<>();
-        for (String sku : order.getItems()) {
-            counts.merge(sku, 1, Integer::sum);
-        }
+        Map<String,Integer> counts = countSkus(order);
 
         try (Connection conn = dataSource.getConnection()) {
             conn.setAutoCommit(false);
@@ -73,4 +69,41 @@ public class JdbcInventoryService implements InventoryService {
             throw new RuntimeException("Database error during inventory reservation", e);
         }
     }
+
+    /**
+     * Adds the order's quantities back in a single transaction.
+     */
+    @Override
+    public void release(Order order) {
+        Map<String,Integer> counts = countSkus(order);
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE inventory SET quantity = quantity + ? WHERE sku = ?")) {
+                for (Map.Entry<String,Integer> e : counts.entrySet()) {
+                    ps.setInt(1, e.getValue());
+                    ps.setString(2, e.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+                logger.fine(() -> "Released inventory for order " + order.getId());
+            } catch (SQLException se) {
+                conn.rollback();
+                throw new RuntimeException("Error releasing inventory", se);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Database error during inventory release", e);
+        }
+    }
+
+    // Count SKUs in the order
+    private static Map<String,Integer> countSkus(Order order) {
+        Map<String,Integer> counts = new HashMap<>();
+        for (String sku : order.getItems()) {
+            counts.merge(sku, 1, Integer::sum);
+        }
+        return counts;
+    }
 }
@@ -3,6 +3,10 @@ package com.code.research.concurrent.orders.service;
 import com.code.research.concurrent.orders.domain.Order;
 import com.code.research.concurrent.orders.exception.PackingException;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * A simple service interface abstraction for packing logic.
  */
@@ -16,4 +20,24 @@ public interface PackingService {
      */
     void pack(Order order) throws PackingException;
 
+    /**
+     * Packs a batch of orders. A failed order does not stop the others; the default packs them one by one.
+     *
+     * @param orders the orders to pack
+     * @return the failures by order id, in batch order; empty if every order was packed
+     */
+    default Map<String, PackingException> packAll(List<Order> orders) {
+        Map<String, PackingException> failures = new LinkedHashMap<>();
+        for (Order order : orders) {
+            try {
+                pack(order);
+            } catch (PackingException e) {
+                failures.put(order.getId(), e);
+            } catch (RuntimeException e) {
+                failures.put(order.getId(), new PackingException("Unexpected error for order " + order.getId(), e));
+            }
+        }
+        return failures;
+    }
+
 }
\ No newline at end of file
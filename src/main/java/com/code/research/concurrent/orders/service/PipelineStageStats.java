@@ -0,0 +1,48 @@
+package com.code.research.concurrent.orders.service;
+
+/**
+ * Immutable snapshot of one stage of a {@link PipelinedPackingService}.
+ *
+ * @param stage            the stage.
+ * @param queueDepth       orders waiting in the stage's input queue.
+ * @param queueCapacity    bound of that queue; a full queue blocks the previous stage.
+ * @param concurrencyLimit number of workers of the stage.
+ * @param busyWorkers      workers currently running the stage for an order.
+ * @param completed        orders that passed the stage.
+ * @param failed           orders that failed in the stage.
+ * @param totalNanos       total time the workers spent in the stage.
+ * @param uptimeNanos      time since the pipeline started.
+ */
+public record PipelineStageStats(PipelinedPackingService.Stage stage,
+                                 int queueDepth,
+                                 int queueCapacity,
+                                 int concurrencyLimit,
+                                 long busyWorkers,
+                                 long completed,
+                                 long failed,
+                                 long totalNanos,
+                                 long uptimeNanos) {
+
+    /**
+     * @return orders that passed the stage per second since the pipeline started.
+     */
+    public double throughputPerSecond() {
+        return uptimeNanos == 0 ? 0 : completed * 1_000_000_000.0 / uptimeNanos;
+    }
+
+    /**
+     * @return average time per order in the stage in milliseconds, or 0 when nothing ran.
+     */
+    public double averageMillis() {
+        long runs = completed + failed;
+        return runs == 0 ? 0 : totalNanos / 1_000_000.0 / runs;
+    }
+
+    /**
+     * @return fraction of the stage's worker time spent working (1.0 = every worker always busy): the stage with the
+     * highest value is the bottleneck and the one whose limit to raise.
+     */
+    public double utilization() {
+        return (uptimeNanos == 0 || concurrencyLimit == 0) ? 0 : (double) totalNanos / uptimeNanos / concurrencyLimit;
+    }
+}
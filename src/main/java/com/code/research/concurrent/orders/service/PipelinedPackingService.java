@@ -0,0 +1,389 @@
+package com.code.research.concurrent.orders.service;
+
+import com.code.research.concurrent.orders.domain.Order;
+import com.code.research.concurrent.orders.domain.OrderBox;
+import com.code.research.concurrent.orders.domain.OrderLabel;
+import com.code.research.concurrent.orders.exception.BoxNotFoundException;
+import com.code.research.concurrent.orders.exception.OutOfStockException;
+import com.code.research.concurrent.orders.exception.PackingException;
+import com.code.research.concurrent.orders.exception.ShippingException;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PackingService that runs the packing steps as a pipeline of stages, so the I/O-bound JDBC and carrier calls of
+ * different orders overlap instead of running strictly in sequence as in {@link DefaultPackingService}.
+ * <p>
+ * - stages: RESERVE (inventory) -> BOX (choose and pack) -> LABEL (carrier shipment) -> SCHEDULE (carrier delivery)
+ * - each stage has a bounded input queue and a fixed number of virtual-thread workers, which is its concurrency
+ *   limit (e.g. the JDBC pool size for RESERVE, the carrier's rate limit for LABEL and SCHEDULE)
+ * - a full queue blocks the stage before it, and a full RESERVE queue blocks the callers, so back-pressure reaches
+ *   the Warehouse instead of piling up orders in memory
+ * - an order that fails in a stage skips the remaining ones, and its completed steps are compensated in reverse:
+ *   the label is cancelled, then the inventory released. Compensation errors are logged and added as suppressed.
+ * - an interrupted caller cancels its unfinished orders and waits until they are compensated; {@link #close()}
+ *   lets in-flight orders finish, then cancels whatever is left the same way
+ * - {@link #stageStats()} reports queue depth, throughput and utilization per stage
+ * <p>
+ * Orders are independent: one failing does not cancel the others of the same {@link #packAll} call.
+ */
+public class PipelinedPackingService implements PackingService, AutoCloseable {
+    private static final Logger logger = Logger.getLogger(PipelinedPackingService.class.getName());
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static final long SUBMIT_POLL_MILLIS = 50;
+    private static final long CLOSE_DRAIN_SECONDS = 60;
+
+    /** The pipeline stages, in order. */
+    public enum Stage { RESERVE, BOX, LABEL, SCHEDULE }
+
+    private final InventoryService inventoryService;
+    private final BoxService boxService;
+    private final ShippingService shippingService;
+    private final StageRunner[] stages;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    /**
+     * Pipeline with {@link #DEFAULT_QUEUE_CAPACITY} and {@link #defaultConcurrencyLimits()}.
+     */
+    public PipelinedPackingService(
+            InventoryService inventoryService,
+            BoxService boxService,
+            ShippingService shippingService) {
+        this(inventoryService, boxService, shippingService, DEFAULT_QUEUE_CAPACITY, defaultConcurrencyLimits());
+    }
+
+    /**
+     * @param inventoryService  service to reserve and release stock
+     * @param boxService        service to choose & pack boxes
+     * @param shippingService   service to create & cancel labels and schedule shipment
+     * @param queueCapacity     bound of each stage's input queue; must be > 0
+     * @param concurrencyLimits workers per stage; every stage must be present with a value > 0
+     */
+    public PipelinedPackingService(
+            InventoryService inventoryService,
+            BoxService boxService,
+            ShippingService shippingService,
+            int queueCapacity,
+            Map<Stage, Integer> concurrencyLimits) {
+        this.inventoryService = Objects.requireNonNull(inventoryService, "inventoryService");
+        this.boxService = Objects.requireNonNull(boxService, "boxService");
+        this.shippingService = Objects.requireNonNull(shippingService, "shippingService");
+        Objects.requireNonNull(concurrencyLimits, "concurrencyLimits");
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be > 0");
+        }
+        this.stages = new StageRunner[Stage.values().length];
+        for (Stage stage : Stage.values()) {
+            Integer limit = concurrencyLimits.get(stage);
+            if (limit == null || limit <= 0) {
+                throw new IllegalArgumentException("Concurrency limit of " + stage + " must be > 0");
+            }
+            stages[stage.ordinal()] = new StageRunner(stage, queueCapacity, limit);
+        }
+        for (StageRunner runner : stages) {
+            for (int i = 0; i < runner.concurrencyLimit; i++) {
+                workers.execute(() -> work(runner));
+            }
+        }
+    }
+
+    /**
+     * @return a modifiable map of the default workers per stage: few for RESERVE (each holds a JDBC connection and
+     * row locks) and BOX (local), more for the carrier calls.
+     */
+    public static Map<Stage, Integer> defaultConcurrencyLimits() {
+        Map<Stage, Integer> limits = new EnumMap<>(Stage.class);
+        limits.put(Stage.RESERVE, 4);
+        limits.put(Stage.BOX, 2);
+        limits.put(Stage.LABEL, 8);
+        limits.put(Stage.SCHEDULE, 8);
+        return limits;
+    }
+
+    @Override
+    public void pack(Order order) throws PackingException {
+        PackingException failure = packAll(List.of(order)).get(order.getId());
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Feeds the orders into the pipeline (blocking while the RESERVE queue is full) and waits until every one of
+     * them is packed or failed and compensated.
+     */
+    @Override
+    public Map<String, PackingException> packAll(List<Order> orders) {
+        List<Job> jobs = new ArrayList<>(orders.size());
+        boolean interrupted = false;
+        for (Order order : orders) {
+            Job job = new Job(Objects.requireNonNull(order, "order"));
+            jobs.add(job);
+            if (interrupted) {
+                job.done.completeExceptionally(cancelled(job, Stage.RESERVE));
+                continue;
+            }
+            try {
+                submit(job);
+            } catch (InterruptedException ie) {
+                interrupted = true;
+                job.done.completeExceptionally(cancelled(job, Stage.RESERVE));
+            }
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(
+                jobs.stream().map(job -> job.done).toArray(CompletableFuture[]::new));
+        if (!interrupted) {
+            try {
+                all.get();
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            } catch (ExecutionException ee) {
+                // some orders failed: collected below
+            }
+        }
+        if (interrupted) {
+            // the orders must not outlive the call: cancel the rest and wait for their compensation
+            for (Job job : jobs) {
+                job.cancelled = true;
+            }
+            all.handle((v, t) -> null).join();
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, PackingException> failures = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            if (job.done.isCompletedExceptionally()) {
+                failures.put(job.order.getId(), (PackingException) job.done.exceptionNow());
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * @return one snapshot per stage, in pipeline order.
+     */
+    public List<PipelineStageStats> stageStats() {
+        long uptime = System.nanoTime() - startNanos;
+        List<PipelineStageStats> stats = new ArrayList<>(stages.length);
+        for (StageRunner runner : stages) {
+            stats.add(new PipelineStageStats(
+                    runner.stage,
+                    runner.queue.size(),
+                    runner.queueCapacity,
+                    runner.concurrencyLimit,
+                    runner.busy.sum(),
+                    runner.completed.sum(),
+                    runner.failed.sum(),
+                    runner.totalNanos.sum(),
+                    uptime));
+        }
+        return stats;
+    }
+
+    /**
+     * Stops accepting orders, waits up to 60s for the orders in flight, then interrupts the workers and cancels
+     * (and compensates) whatever is left.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_DRAIN_SECONDS);
+            while (inFlight.get() > 0 && deadline - System.nanoTime() > 0) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException ie) {
+            interrupted = true;
+        }
+        // each interrupted worker cancels the order it holds
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(CLOSE_DRAIN_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Pipeline workers did not terminate");
+            }
+        } catch (InterruptedException ie) {
+            interrupted = true;
+        }
+        for (StageRunner runner : stages) {
+            Job job;
+            while ((job = runner.queue.poll()) != null) {
+                fail(job, cancelled(job, runner.stage));
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(Job job) throws InterruptedException {
+        BlockingQueue<Job> queue = stages[0].queue;
+        while (!closed) {
+            if (queue.offer(job, SUBMIT_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                inFlight.incrementAndGet();
+                job.done.whenComplete((v, t) -> inFlight.decrementAndGet());
+                if (closed && queue.remove(job)) {
+                    // close() drained the queue before our offer landed
+                    job.done.completeExceptionally(closedFailure(job));
+                }
+                return;
+            }
+        }
+        job.done.completeExceptionally(closedFailure(job));
+    }
+
+    /** Worker loop of one stage: runs the stage for each order and hands it to the next one. */
+    private void work(StageRunner runner) {
+        int nextIndex = runner.stage.ordinal() + 1;
+        StageRunner next = (nextIndex < stages.length) ? stages[nextIndex] : null;
+        try {
+            while (true) {
+                Job job = runner.queue.take();
+                if (job.cancelled) {
+                    fail(job, cancelled(job, runner.stage));
+                    continue;
+                }
+                PackingException failure = runStage(runner, job);
+                if (failure != null) {
+                    fail(job, failure);
+                } else if (next == null) {
+                    job.done.complete(null);
+                } else {
+                    try {
+                        next.queue.put(job);
+                    } catch (InterruptedException ie) {
+                        fail(job, cancelled(job, next.stage));
+                        throw ie;
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            // close(): the orders still queued are cancelled once every worker has stopped
+        }
+    }
+
+    /** Runs one stage for the order; returns the failure, or null if the stage succeeded. */
+    private PackingException runStage(StageRunner runner, Job job) {
+        Order order = job.order;
+        runner.busy.increment();
+        long start = System.nanoTime();
+        try {
+            switch (runner.stage) {
+                case RESERVE -> {
+                    inventoryService.reserve(order);
+                    job.reserved = true;
+                }
+                case BOX -> {
+                    List<String> items = order.getItems();
+                    OrderBox box = boxService.chooseBox(items);
+                    boxService.packItems(box, items);
+                    job.box = box;
+                }
+                case LABEL -> job.label = shippingService.generateLabel(order, job.box);
+                case SCHEDULE -> shippingService.scheduleShipment(order, job.box, job.label);
+            }
+            runner.completed.increment();
+            return null;
+        } catch (OutOfStockException | BoxNotFoundException | ShippingException e) {
+            runner.failed.increment();
+            return new PackingException(
+                    "Failed to pack order " + order.getId() + " at " + runner.stage + ": " + e.getMessage(), e);
+        } catch (Exception unexpected) {
+            runner.failed.increment();
+            logger.log(Level.SEVERE,
+                    "Unexpected error while packing order " + order.getId() + " at " + runner.stage,
+                    unexpected);
+            return new PackingException(
+                    "Unexpected error for order " + order.getId() + " at " + runner.stage, unexpected);
+        } finally {
+            runner.totalNanos.add(System.nanoTime() - start);
+            runner.busy.decrement();
+        }
+    }
+
+    /** Undoes the order's completed steps, latest first, and completes it with the failure. */
+    private void fail(Job job, PackingException failure) {
+        Order order = job.order;
+        if (job.label != null) {
+            try {
+                shippingService.cancelLabel(order, job.box, job.label);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE,
+                        "Could not cancel label " + job.label.getTrackingNumber() + " of order " + order.getId(), e);
+                failure.addSuppressed(e);
+            }
+        }
+        if (job.reserved) {
+            try {
+                inventoryService.release(order);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Could not release inventory of order " + order.getId(), e);
+                failure.addSuppressed(e);
+            }
+        }
+        job.done.completeExceptionally(failure);
+    }
+
+    private static PackingException cancelled(Job job, Stage stage) {
+        return new PackingException("Packing of order " + job.order.getId() + " cancelled before " + stage);
+    }
+
+    private static PackingException closedFailure(Job job) {
+        return new PackingException("Cannot pack order " + job.order.getId() + ": packing service is closed");
+    }
+
+    /** One order on its way through the stages. */
+    private static final class Job {
+        final Order order;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        volatile boolean cancelled;
+        // written by the worker of one stage and read by the next: the queue handoff orders the accesses
+        boolean reserved;
+        OrderBox box;
+        OrderLabel label;
+
+        Job(Order order) {
+            this.order = order;
+        }
+    }
+
+    private static final class StageRunner {
+        final Stage stage;
+        final BlockingQueue<Job> queue;
+        final int queueCapacity;
+        final int concurrencyLimit;
+        final LongAdder busy = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+
+        StageRunner(Stage stage, int queueCapacity, int concurrencyLimit) {
+            this.stage = stage;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.queueCapacity = queueCapacity;
+            this.concurrencyLimit = concurrencyLimit;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.code.research.concurrent.orders.domain.OrderLabel;
 import com.code.research.concurrent.orders.domain.Order;
 import com.code.research.concurrent.orders.exception.ShippingException;
 
+import java.util.List;
+
 /**
  * Generates labels and schedules the shipment.
  */
@@ -18,4 +20,42 @@ public interface ShippingService {
      * Hands the package off to the carrier or scheduling system.
      */
     void scheduleShipment(Order order, OrderBox orderBox, OrderLabel orderLabel) throws ShippingException;
-}
\ No newline at end of file
+
+    /**
+     * Voids a label whose shipment was not scheduled; compensates an order that failed after its label was created.
+     * The default does nothing.
+     */
+    default void cancelLabel(Order order, OrderBox orderBox, OrderLabel orderLabel) throws ShippingException {
+    }
+
+    /**
+     * Creates the labels of several orders shipped in boxes of the same size, in one call.
+     * The default creates them one by one, so one failing order does not lose the labels of the others;
+     * override when the carrier accepts a whole batch.
+     *
+     * @return one label per order, in the same order, or the failure of each order whose label was not created
+     * @throws ShippingException if the call failed as a whole and no label was created
+     */
+    default BatchResult<OrderLabel> generateLabels(List<Order> orders, OrderBox orderBox) throws ShippingException {
+        return BatchResult.oneByOne(orders.size(), i -> generateLabel(orders.get(i), orderBox));
+    }
+
+    /**
+     * Hands several packages off in one call; {@code orderLabels} holds one label per order, in the same order.
+     * The default schedules them one by one.
+     *
+     * @return the failure of each order that was not scheduled; the others are handed off
+     * @throws ShippingException if the call failed as a whole and nothing was scheduled
+     */
+    default BatchResult<Void> scheduleShipments(List<Order> orders, OrderBox orderBox, List<OrderLabel> orderLabels)
+            throws ShippingException {
+        if (orders.size() != orderLabels.size()) {
+            throw new IllegalArgumentException(
+                    "Got " + orderLabels.size() + " labels for " + orders.size() + " orders");
+        }
+        return BatchResult.oneByOne(orders.size(), i -> {
+            scheduleShipment(orders.get(i), orderBox, orderLabels.get(i));
+            return null;
+        });
+    }
+}
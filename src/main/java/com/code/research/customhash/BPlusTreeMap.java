@@ -0,0 +1,756 @@
+package com.code.research.customhash;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * BPlusTreeMap: {@link CustomSortedMap} as a B+tree with wide array nodes.
+ * <p>
+ * - every node holds up to {@code order} keys in one array, so a lookup touches ~log_order(n) nodes and
+ *   binary-searches contiguous key references instead of chasing one node per comparison like a red-black tree
+ * - entries live only in the leaves; leaves are doubly linked, so a range scan is a walk over arrays
+ * - inner nodes keep their subtree entry count, which makes rank queries and {@link #subMap} size O(log n)
+ * - {@link #fromSorted} bulk-loads sorted input bottom-up (full leaves, no splits)
+ * - deletes borrow from or merge with a sibling, so nodes stay at least half full
+ * <p>
+ * Null keys are rejected. Not thread-safe; iterators are fail-fast.
+ *
+ * @param <K> key type (Comparable unless a comparator is given)
+ * @param <V> value type
+ */
+public final class BPlusTreeMap<K, V> implements CustomSortedMap<K, V> {
+
+    /** Keys per leaf and children per inner node: 64 references (256-512 bytes) per array. */
+    static final int DEFAULT_ORDER = 64;
+    static final int MIN_ORDER = 4;
+    /** Enough for 2^31 entries even at the minimum fill of MIN_ORDER / 2 children. */
+    private static final int MAX_HEIGHT = 32;
+
+    private final Comparator<? super K> comparator; // null = natural ordering
+    private final int maxKeys;     // per leaf
+    private final int minKeys;
+    private final int maxChildren; // per inner node
+    private final int minChildren;
+
+    private Node root;
+    private Leaf first;
+    private Leaf last;
+    private int height; // 0 = the root is a leaf
+    private int modCount;
+
+    // descent path of the current put/remove (depth < height)
+    private final Inner[] path = new Inner[MAX_HEIGHT];
+    private final int[] pathIndex = new int[MAX_HEIGHT];
+
+    public BPlusTreeMap() {
+        this(null, DEFAULT_ORDER);
+    }
+
+    public BPlusTreeMap(Comparator<? super K> comparator) {
+        this(comparator, DEFAULT_ORDER);
+    }
+
+    /**
+     * @param comparator key order, or null for natural ordering
+     * @param order      maximum keys per leaf and children per inner node (at least {@link #MIN_ORDER})
+     */
+    public BPlusTreeMap(Comparator<? super K> comparator, int order) {
+        if (order < MIN_ORDER) throw new IllegalArgumentException("order < " + MIN_ORDER + ": " + order);
+        this.comparator = comparator;
+        this.maxKeys = order;
+        this.minKeys = order / 2;
+        this.maxChildren = order;
+        this.minChildren = (order + 1) / 2;
+        clear();
+    }
+
+    /** Builds a naturally ordered tree from entries in strictly ascending key order. */
+    public static <K extends Comparable<? super K>, V> BPlusTreeMap<K, V> fromSorted(
+            Iterable<? extends Map.Entry<? extends K, ? extends V>> sorted) {
+        return fromSorted(sorted, null);
+    }
+
+    /**
+     * Builds a tree from entries in strictly ascending key order (per {@code comparator}) in O(n): leaves are filled
+     * completely and linked, then each inner level is built over the one below.
+     *
+     * @throws IllegalArgumentException if the input is not strictly ascending
+     */
+    public static <K, V> BPlusTreeMap<K, V> fromSorted(Iterable<? extends Map.Entry<? extends K, ? extends V>> sorted,
+                                                       Comparator<? super K> comparator) {
+        BPlusTreeMap<K, V> tree = new BPlusTreeMap<>(comparator, DEFAULT_ORDER);
+        tree.bulkLoad(sorted);
+        return tree;
+    }
+
+    // ---------------- CustomMap ----------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Objects.requireNonNull(key, "key");
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return (i >= 0) ? (V) leaf.vals[i] : null;
+    }
+
+    public boolean containsKey(K key) {
+        Objects.requireNonNull(key, "key");
+        return search(findLeaf(key), key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        int depth = descend(key);
+        Leaf leaf = (Leaf) (depth == 0 ? root : path[depth - 1].children[pathIndex[depth - 1]]);
+        int i = search(leaf, key);
+        if (i >= 0) {
+            V old = (V) leaf.vals[i];
+            leaf.vals[i] = value;
+            return old;
+        }
+        i = -i - 1;
+        System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.n - i);
+        System.arraycopy(leaf.vals, i, leaf.vals, i + 1, leaf.n - i);
+        leaf.keys[i] = key;
+        leaf.vals[i] = value;
+        leaf.n++;
+        for (int d = 0; d < depth; d++) path[d].size++;
+        modCount++;
+        if (leaf.n > maxKeys) splitUp(leaf, depth);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        Objects.requireNonNull(key, "key");
+        int depth = descend(key);
+        Leaf leaf = (Leaf) (depth == 0 ? root : path[depth - 1].children[pathIndex[depth - 1]]);
+        int i = search(leaf, key);
+        if (i < 0) return null;
+        V old = (V) leaf.vals[i];
+        System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.n - i - 1);
+        System.arraycopy(leaf.vals, i + 1, leaf.vals, i, leaf.n - i - 1);
+        leaf.n--;
+        leaf.keys[leaf.n] = null;
+        leaf.vals[leaf.n] = null;
+        for (int d = 0; d < depth; d++) path[d].size--;
+        modCount++;
+        // separators may still name the removed key: they only have to route, and they still do
+        if (depth > 0 && leaf.n < minKeys) rebalance(leaf, depth);
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return root.count();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Leaf leaf = new Leaf(maxKeys + 1);
+        root = first = last = leaf;
+        height = 0;
+        modCount++;
+    }
+
+    // ---------------- CustomSortedMap ----------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        if (first.n == 0) throw new NoSuchElementException();
+        return (K) first.keys[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        if (last.n == 0) throw new NoSuchElementException();
+        return (K) last.keys[last.n - 1];
+    }
+
+    /** O(1) to create; its size, firstKey and lastKey are O(log n), and iterating it walks only the range. */
+    @Override
+    public CustomSortedMap<K, V> subMap(K fromKey, K toKey) {
+        Objects.requireNonNull(fromKey, "fromKey");
+        Objects.requireNonNull(toKey, "toKey");
+        if (compare(fromKey, toKey) > 0) throw new IllegalArgumentException("fromKey > toKey");
+        return new SubMap(fromKey, toKey);
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator(first, 0, null);
+    }
+
+    /** Number of keys strictly less than {@code key}. O(log n). */
+    public int rank(K key) {
+        Objects.requireNonNull(key, "key");
+        int rank = 0;
+        Node x = root;
+        while (x instanceof Inner in) {
+            int c = childIndex(in, key);
+            for (int j = 0; j < c; j++) rank += in.children[j].count();
+            x = in.children[c];
+        }
+        int i = search(x, key);
+        return rank + (i >= 0 ? i : -i - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<K, V> e : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(e.getKey()).append('=').append(e.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    // ---------------- search ----------------
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return (comparator != null) ? comparator.compare((K) a, (K) b) : ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /** Binary search over {@code x.keys[0..n)}: index if found, else {@code -(insertion point) - 1}. */
+    private int search(Node x, Object key) {
+        Object[] keys = x.keys;
+        int lo = 0, hi = x.n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(keys[mid], key);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /** Separator keys[i] is <= every key of children[i + 1] and > every key of children[0..i]. */
+    private int childIndex(Inner in, Object key) {
+        int i = search(in, key);
+        return (i >= 0) ? i + 1 : -i - 1;
+    }
+
+    private Leaf findLeaf(Object key) {
+        Node x = root;
+        while (x instanceof Inner in) x = in.children[childIndex(in, key)];
+        return (Leaf) x;
+    }
+
+    /** Walks to the leaf for {@code key}, recording the inner nodes and child indexes in {@code path}. */
+    private int descend(Object key) {
+        int depth = 0;
+        for (Node x = root; x instanceof Inner in; depth++) {
+            int c = childIndex(in, key);
+            path[depth] = in;
+            pathIndex[depth] = c;
+            x = in.children[c];
+        }
+        return depth;
+    }
+
+    /** Leaf and index of the first key >= {@code key} (index == n only for the last leaf). */
+    private EntryIterator ceiling(Object key, Object toKey) {
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return new EntryIterator(leaf, (i >= 0) ? i : -i - 1, toKey);
+    }
+
+    // ---------------- insert ----------------
+
+    /** Splits the overfull node {@code x} (at {@code depth}) and inserts separators upward as long as parents overflow. */
+    private void splitUp(Node x, int depth) {
+        while (true) {
+            Node right;
+            Object separator;
+            if (x instanceof Leaf leaf) {
+                Leaf r = splitLeaf(leaf);
+                right = r;
+                separator = r.keys[0];
+            } else {
+                Inner in = (Inner) x;
+                separator = in.keys[in.n / 2];
+                right = splitInner(in);
+            }
+            if (depth == 0) {
+                Inner newRoot = new Inner(maxChildren + 1);
+                newRoot.keys[0] = separator;
+                newRoot.children[0] = x;
+                newRoot.children[1] = right;
+                newRoot.n = 1;
+                newRoot.size = x.count() + right.count();
+                root = newRoot;
+                height++;
+                return;
+            }
+            Inner parent = path[--depth];
+            int c = pathIndex[depth];
+            System.arraycopy(parent.keys, c, parent.keys, c + 1, parent.n - c);
+            System.arraycopy(parent.children, c + 1, parent.children, c + 2, parent.n - c);
+            parent.keys[c] = separator;
+            parent.children[c + 1] = right;
+            parent.n++;
+            if (parent.n < maxChildren) return; // parent.n + 1 children still fit
+            x = parent;
+        }
+    }
+
+    private Leaf splitLeaf(Leaf leaf) {
+        int keep = leaf.n / 2;
+        int move = leaf.n - keep;
+        Leaf right = new Leaf(maxKeys + 1);
+        System.arraycopy(leaf.keys, keep, right.keys, 0, move);
+        System.arraycopy(leaf.vals, keep, right.vals, 0, move);
+        clearSlots(leaf.keys, keep, leaf.n);
+        clearSlots(leaf.vals, keep, leaf.n);
+        right.n = move;
+        leaf.n = keep;
+        linkAfter(leaf, right);
+        return right;
+    }
+
+    /** Moves the upper half to a new node; keys[n / 2] becomes the separator and is dropped from both halves. */
+    private Inner splitInner(Inner in) {
+        int mid = in.n / 2;
+        int move = in.n - mid - 1;
+        Inner right = new Inner(maxChildren + 1);
+        System.arraycopy(in.keys, mid + 1, right.keys, 0, move);
+        System.arraycopy(in.children, mid + 1, right.children, 0, move + 1);
+        right.n = move;
+        for (int j = 0; j <= move; j++) right.size += right.children[j].count();
+        clearSlots(in.keys, mid, in.n);
+        clearSlots(in.children, mid + 1, in.n + 1);
+        in.n = mid;
+        in.size -= right.size;
+        return right;
+    }
+
+    // ---------------- delete ----------------
+
+    /** Restores the minimum fill of {@code x} (at {@code depth} > 0) by borrowing from or merging with a sibling. */
+    private void rebalance(Node x, int depth) {
+        while (depth > 0) {
+            Inner parent = path[depth - 1];
+            int c = pathIndex[depth - 1];
+            Node left = (c > 0) ? parent.children[c - 1] : null;
+            Node right = (c < parent.n) ? parent.children[c + 1] : null;
+
+            if (left != null && hasSpare(left)) {
+                borrowFromLeft(parent, c, x, left);
+                return;
+            }
+            if (right != null && hasSpare(right)) {
+                borrowFromRight(parent, c, x, right);
+                return;
+            }
+            if (left != null) merge(parent, c - 1, left, x);
+            else merge(parent, c, x, right);
+
+            if (depth == 1) {
+                if (parent.n == 0) { // the root lost its last separator
+                    root = parent.children[0];
+                    height--;
+                }
+                return;
+            }
+            if (parent.n + 1 >= minChildren) return;
+            x = parent;
+            depth--;
+        }
+    }
+
+    private boolean hasSpare(Node x) {
+        return (x instanceof Leaf) ? x.n > minKeys : x.n + 1 > minChildren;
+    }
+
+    private void borrowFromLeft(Inner parent, int c, Node x, Node left) {
+        if (x instanceof Leaf leaf) {
+            Leaf l = (Leaf) left;
+            System.arraycopy(leaf.keys, 0, leaf.keys, 1, leaf.n);
+            System.arraycopy(leaf.vals, 0, leaf.vals, 1, leaf.n);
+            l.n--;
+            leaf.keys[0] = l.keys[l.n];
+            leaf.vals[0] = l.vals[l.n];
+            l.keys[l.n] = null;
+            l.vals[l.n] = null;
+            leaf.n++;
+            parent.keys[c - 1] = leaf.keys[0];
+        } else {
+            Inner in = (Inner) x;
+            Inner l = (Inner) left;
+            Node moved = l.children[l.n];
+            System.arraycopy(in.keys, 0, in.keys, 1, in.n);
+            System.arraycopy(in.children, 0, in.children, 1, in.n + 1);
+            in.keys[0] = parent.keys[c - 1];
+            in.children[0] = moved;
+            in.n++;
+            parent.keys[c - 1] = l.keys[l.n - 1];
+            l.keys[l.n - 1] = null;
+            l.children[l.n] = null;
+            l.n--;
+            int cnt = moved.count();
+            l.size -= cnt;
+            in.size += cnt;
+        }
+    }
+
+    private void borrowFromRight(Inner parent, int c, Node x, Node right) {
+        if (x instanceof Leaf leaf) {
+            Leaf r = (Leaf) right;
+            leaf.keys[leaf.n] = r.keys[0];
+            leaf.vals[leaf.n] = r.vals[0];
+            leaf.n++;
+            r.n--;
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n);
+            System.arraycopy(r.vals, 1, r.vals, 0, r.n);
+            r.keys[r.n] = null;
+            r.vals[r.n] = null;
+            parent.keys[c] = r.keys[0];
+        } else {
+            Inner in = (Inner) x;
+            Inner r = (Inner) right;
+            Node moved = r.children[0];
+            in.keys[in.n] = parent.keys[c];
+            in.children[in.n + 1] = moved;
+            in.n++;
+            parent.keys[c] = r.keys[0];
+            System.arraycopy(r.keys, 1, r.keys, 0, r.n - 1);
+            System.arraycopy(r.children, 1, r.children, 0, r.n);
+            r.keys[r.n - 1] = null;
+            r.children[r.n] = null;
+            r.n--;
+            int cnt = moved.count();
+            r.size -= cnt;
+            in.size += cnt;
+        }
+    }
+
+    /** Appends {@code right} (children[s + 1] of parent) to {@code left} (children[s]) and drops separator s. */
+    private void merge(Inner parent, int s, Node left, Node right) {
+        if (left instanceof Leaf l) {
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.keys, 0, l.keys, l.n, r.n);
+            System.arraycopy(r.vals, 0, l.vals, l.n, r.n);
+            l.n += r.n;
+            l.next = r.next;
+            if (r.next != null) r.next.prev = l;
+            else last = l;
+        } else {
+            Inner l = (Inner) left;
+            Inner r = (Inner) right;
+            l.keys[l.n] = parent.keys[s];
+            System.arraycopy(r.keys, 0, l.keys, l.n + 1, r.n);
+            System.arraycopy(r.children, 0, l.children, l.n + 1, r.n + 1);
+            l.n += r.n + 1;
+            l.size += r.size;
+        }
+        System.arraycopy(parent.keys, s + 1, parent.keys, s, parent.n - s - 1);
+        System.arraycopy(parent.children, s + 2, parent.children, s + 1, parent.n - s - 1);
+        parent.n--;
+        parent.keys[parent.n] = null;
+        parent.children[parent.n + 1] = null;
+    }
+
+    // ---------------- bulk load ----------------
+
+    private void bulkLoad(Iterable<? extends Map.Entry<? extends K, ? extends V>> sorted) {
+        // leaves
+        Leaf leaf = first;
+        Object previous = null;
+        int count = 0;
+        for (Map.Entry<? extends K, ? extends V> e : sorted) {
+            K key = Objects.requireNonNull(e.getKey(), "key");
+            if (previous != null && compare(previous, key) >= 0) {
+                throw new IllegalArgumentException("keys not strictly ascending at " + key);
+            }
+            if (leaf.n == maxKeys) {
+                Leaf next = new Leaf(maxKeys + 1);
+                linkAfter(leaf, next);
+                leaf = next;
+            }
+            leaf.keys[leaf.n] = key;
+            leaf.vals[leaf.n++] = e.getValue();
+            previous = key;
+            count++;
+        }
+        if (leaf.prev != null && leaf.n < minKeys) {
+            shiftToLast(leaf.prev, leaf);
+        }
+        modCount++;
+
+        // inner levels, each built over the nodes of the level below
+        Node levelFirst = first;
+        int levelNodes = (count + maxKeys - 1) / maxKeys;
+        Node[] level = new Node[Math.max(1, levelNodes)];
+        int n = 0;
+        for (Leaf l = first; l != null; l = l.next) level[n++] = l;
+        while (n > 1) {
+            int parents = (n + maxChildren - 1) / maxChildren;
+            Node[] up = new Node[parents];
+            for (int p = 0; p < parents; p++) {
+                int from = p * maxChildren;
+                int to = Math.min(n, from + maxChildren);
+                if (p == parents - 2 && n - (from + maxChildren) < minChildren) {
+                    to = from + (n - from) / 2; // split the last two groups evenly so both stay half full
+                    up[p] = buildInner(level, from, to);
+                    up[p + 1] = buildInner(level, to, n);
+                    break;
+                }
+                up[p] = buildInner(level, from, to);
+            }
+            level = up;
+            n = parents;
+            height++;
+        }
+        root = (n == 1) ? level[0] : levelFirst;
+    }
+
+    private Inner buildInner(Node[] level, int from, int to) {
+        Inner in = new Inner(maxChildren + 1);
+        for (int j = from; j < to; j++) {
+            int k = j - from;
+            in.children[k] = level[j];
+            if (k > 0) in.keys[k - 1] = minKey(level[j]);
+            in.size += level[j].count();
+        }
+        in.n = to - from - 1;
+        return in;
+    }
+
+    private static Object minKey(Node x) {
+        while (x instanceof Inner in) x = in.children[0];
+        return x.keys[0];
+    }
+
+    /** Moves entries from {@code left} to the underfull last leaf so both have at least the minimum. */
+    private void shiftToLast(Leaf left, Leaf leaf) {
+        int total = left.n + leaf.n;
+        int keep = total / 2;
+        int move = left.n - keep;
+        System.arraycopy(leaf.keys, 0, leaf.keys, move, leaf.n);
+        System.arraycopy(leaf.vals, 0, leaf.vals, move, leaf.n);
+        System.arraycopy(left.keys, keep, leaf.keys, 0, move);
+        System.arraycopy(left.vals, keep, leaf.vals, 0, move);
+        clearSlots(left.keys, keep, left.n);
+        clearSlots(left.vals, keep, left.n);
+        left.n = keep;
+        leaf.n += move;
+    }
+
+    // ---------------- helpers ----------------
+
+    private void linkAfter(Leaf leaf, Leaf right) {
+        right.prev = leaf;
+        right.next = leaf.next;
+        if (leaf.next != null) leaf.next.prev = right;
+        else last = right;
+        leaf.next = right;
+    }
+
+    private static void clearSlots(Object[] a, int from, int to) {
+        for (int i = from; i < to; i++) a[i] = null;
+    }
+
+    // ---------------- nodes ----------------
+
+    private abstract static class Node {
+        Object[] keys;
+        int n; // keys in use
+
+        /** Entries in this subtree. */
+        abstract int count();
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] vals;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int capacity) {
+            keys = new Object[capacity];
+            vals = new Object[capacity];
+        }
+
+        @Override
+        int count() {
+            return n;
+        }
+    }
+
+    /** n separator keys and n + 1 children; one extra slot of each takes the overflow before a split. */
+    private static final class Inner extends Node {
+        final Node[] children;
+        int size;
+
+        Inner(int capacity) {
+            keys = new Object[capacity - 1];
+            children = new Node[capacity];
+        }
+
+        @Override
+        int count() {
+            return size;
+        }
+    }
+
+    // ---------------- iteration ----------------
+
+    /** Walks the leaf chain from a position, up to an exclusive bound (null = to the end). */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private Leaf leaf;
+        private int index;
+        private final Object toKey;
+        private int expectedModCount = modCount;
+        private Object lastKey;
+
+        EntryIterator(Leaf leaf, int index, Object toKey) {
+            this.leaf = leaf;
+            this.index = index;
+            this.toKey = toKey;
+            skipExhaustedLeaf();
+        }
+
+        private void skipExhaustedLeaf() {
+            while (leaf != null && index >= leaf.n) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null && (toKey == null || compare(leaf.keys[index], toKey) < 0);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            K key = (K) leaf.keys[index];
+            V value = (V) leaf.vals[index];
+            lastKey = key;
+            index++;
+            skipExhaustedLeaf();
+            return new AbstractMap.SimpleImmutableEntry<>(key, value);
+        }
+
+        /** Removal may rebalance leaves, so the iterator re-seeks to the first key after the removed one. */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void remove() {
+            if (lastKey == null) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            BPlusTreeMap.this.remove((K) lastKey);
+            EntryIterator next = ceiling(lastKey, toKey);
+            leaf = next.leaf;
+            index = next.index;
+            lastKey = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    /** Live view of the keys in [fromKey, toKey). */
+    private final class SubMap implements CustomSortedMap<K, V> {
+        private final K fromKey;
+        private final K toKey;
+
+        SubMap(K fromKey, K toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        private boolean inRange(K key) {
+            return compare(key, fromKey) >= 0 && compare(key, toKey) < 0;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            Objects.requireNonNull(key, "key");
+            if (!inRange(key)) throw new IllegalArgumentException("key out of range: " + key);
+            return BPlusTreeMap.this.put(key, value);
+        }
+
+        @Override
+        public V get(K key) {
+            Objects.requireNonNull(key, "key");
+            return inRange(key) ? BPlusTreeMap.this.get(key) : null;
+        }
+
+        @Override
+        public V remove(K key) {
+            Objects.requireNonNull(key, "key");
+            return inRange(key) ? BPlusTreeMap.this.remove(key) : null;
+        }
+
+        @Override
+        public int size() {
+            return rank(toKey) - rank(fromKey);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K firstKey() {
+            EntryIterator it = ceiling(fromKey, toKey);
+            if (!it.hasNext()) throw new NoSuchElementException();
+            return (K) it.leaf.keys[it.index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K lastKey() {
+            EntryIterator it = ceiling(toKey, null); // the entry before the first key >= toKey
+            Leaf leaf = it.leaf;
+            int i = it.index - 1;
+            if (leaf == null) { // every key is < toKey
+                leaf = last;
+                i = last.n - 1;
+            } else if (i < 0) {
+                leaf = leaf.prev;
+                i = (leaf == null) ? -1 : leaf.n - 1;
+            }
+            if (i < 0 || compare(leaf.keys[i], fromKey) < 0) throw new NoSuchElementException();
+            return (K) leaf.keys[i];
+        }
+
+        @Override
+        public CustomSortedMap<K, V> subMap(K from, K to) {
+            Objects.requireNonNull(from, "fromKey");
+            Objects.requireNonNull(to, "toKey");
+            if (compare(from, fromKey) < 0 || compare(to, toKey) > 0) {
+                throw new IllegalArgumentException("range [" + from + ", " + to + ") outside [" + fromKey + ", " + toKey + ")");
+            }
+            return BPlusTreeMap.this.subMap(from, to);
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return ceiling(fromKey, toKey);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("{");
+            for (Map.Entry<K, V> e : this) {
+                if (sb.length() > 1) sb.append(", ");
+                sb.append(e.getKey()).append('=').append(e.getValue());
+            }
+            return sb.append('}').toString();
+        }
+    }
+}
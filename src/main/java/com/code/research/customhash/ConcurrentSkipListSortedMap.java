@@ -0,0 +1,595 @@
+package com.code.research.customhash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentSkipListSortedMap: lock-free {@link CustomSortedMap} for ordered indexes shared between threads.
+ * <p>
+ * - base level: sorted linked list of nodes; index levels above it skip ~4x, 2x, 2x, ... nodes, so searches are
+ *   expected O(log n)
+ * - insert: one CAS of the predecessor's {@code next}; index nodes are spliced in afterwards (they are only hints)
+ * - delete: CAS the value to null (the linearization point), append a marker node behind the node so nothing can be
+ *   inserted after it, then CAS the predecessor past both; any thread that meets a half-deleted node finishes the
+ *   unlink
+ * - get never writes and never restarts: it walks past deleted and marker nodes instead of helping
+ * - size() sums a {@link LongAdder}: exact when quiescent, an estimate while writers run, and it never contends
+ * - iterators and {@link #subMap} views are weakly consistent: they never throw ConcurrentModificationException,
+ *   see every key present for the whole iteration, and may or may not see keys inserted or removed meanwhile
+ * <p>
+ * Null keys and values are rejected (a null value marks a deleted node).
+ *
+ * @param <K> key type (Comparable unless a comparator is given)
+ * @param <V> value type
+ */
+public final class ConcurrentSkipListSortedMap<K, V> implements CustomSortedMap<K, V> {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle NEXT;
+    private static final VarHandle VAL;
+    private static final VarHandle RIGHT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentSkipListSortedMap.class, "head", Index.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+            VAL = lookup.findVarHandle(Node.class, "val", Object.class);
+            RIGHT = lookup.findVarHandle(Index.class, "right", Index.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Value of the base-level header node, which has a null key but must not look deleted. */
+    private static final Object BASE_HEADER = new Object();
+
+    private final Comparator<? super K> comparator; // null = natural ordering
+    private final LongAdder count = new LongAdder();
+    /** Top-left index; its down chain ends at the index on the base header node. */
+    private volatile Index<K, V> head;
+
+    public ConcurrentSkipListSortedMap() {
+        this(null);
+    }
+
+    /** @param comparator key order, or null for natural ordering */
+    public ConcurrentSkipListSortedMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        this.head = new Index<>(new Node<>(null, BASE_HEADER, null), null, null);
+    }
+
+    // ---------------- CustomMap ----------------
+
+    /**
+     * Wait-free with respect to writers: no CAS and no restart. Index levels only move onto nodes that are live when
+     * read; deleted index entries are stepped over locally and left for writers to unlink.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Objects.requireNonNull(key, "key");
+        Index<K, V> q = head;
+        while (true) {
+            Index<K, V> r = q.right;
+            while (r != null) {
+                Node<K, V> p = r.node;
+                Object v = p.val;
+                if (v == null) {
+                    r = r.right;
+                    continue;
+                }
+                int c = compare(key, p.key);
+                if (c == 0) return (V) v;
+                if (c < 0) break;
+                q = r;
+                r = q.right;
+            }
+            if (q.down == null) break;
+            q = q.down;
+        }
+        for (Node<K, V> n = q.node.next; n != null; n = n.next) {
+            K k = n.key;
+            Object v = n.val;
+            if (k == null || v == null) continue; // marker or deleted node: its next chain still leads on
+            int c = compare(key, k);
+            if (c == 0) return (V) v;
+            if (c < 0) return null;
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return doPut(Objects.requireNonNull(key, "key"), Objects.requireNonNull(value, "value"), false);
+    }
+
+    /** Inserts only if absent; returns the present value otherwise. Atomic. */
+    public V putIfAbsent(K key, V value) {
+        return doPut(Objects.requireNonNull(key, "key"), Objects.requireNonNull(value, "value"), true);
+    }
+
+    @Override
+    public V remove(K key) {
+        return doRemove(Objects.requireNonNull(key, "key"), null);
+    }
+
+    /** Removes the key only while it maps to {@code value}. Atomic. */
+    public boolean remove(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        return value != null && doRemove(key, value) != null;
+    }
+
+    /** Live entry count, summed from striped counters: exact only when no writer is running. */
+    @Override
+    public int size() {
+        long n = count.sum();
+        return (n < 0) ? 0 : (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+    }
+
+    public boolean isEmpty() {
+        return firstNode(null, null) == null;
+    }
+
+    // ---------------- CustomSortedMap ----------------
+
+    @Override
+    public K firstKey() {
+        Node<K, V> n = firstNode(null, null);
+        if (n == null) throw new NoSuchElementException();
+        return n.key;
+    }
+
+    @Override
+    public K lastKey() {
+        Node<K, V> n = lastNode(null, null);
+        if (n == null) throw new NoSuchElementException();
+        return n.key;
+    }
+
+    /** Live view of [fromKey, toKey); its size() walks the range. */
+    @Override
+    public CustomSortedMap<K, V> subMap(K fromKey, K toKey) {
+        Objects.requireNonNull(fromKey, "fromKey");
+        Objects.requireNonNull(toKey, "toKey");
+        if (compare(fromKey, toKey) > 0) throw new IllegalArgumentException("fromKey > toKey");
+        return new SubMap(fromKey, toKey);
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator(null, null);
+    }
+
+    @Override
+    public String toString() {
+        return toString(this);
+    }
+
+    // ---------------- internals ----------------
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return (comparator != null) ? comparator.compare((K) a, (K) b) : ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * Base-level node with the greatest key below {@code key} (or the header), unlinking index entries of deleted
+     * nodes on the way down.
+     */
+    private Node<K, V> findPredecessor(Object key) {
+        Index<K, V> q = head;
+        while (true) {
+            Index<K, V> r;
+            while ((r = q.right) != null) {
+                Node<K, V> p = r.node;
+                if (p.val == null) {
+                    RIGHT.compareAndSet(q, r, r.right);
+                } else if (compare(key, p.key) > 0) {
+                    q = r;
+                } else {
+                    break;
+                }
+            }
+            if (q.down == null) return q.node;
+            q = q.down;
+        }
+    }
+
+    /**
+     * Finishes deleting {@code n} (value already null): appends a marker unless there is one, then swings
+     * {@code b.next} past it. A failed final CAS means someone else changed {@code b}; later traversals retry.
+     */
+    private static <K, V> void unlinkNode(Node<K, V> b, Node<K, V> n) {
+        Node<K, V> f;
+        Node<K, V> successor;
+        while (true) {
+            f = n.next;
+            if (f != null && f.key == null) { // already marked
+                successor = f.next;
+                break;
+            }
+            if (NEXT.compareAndSet(n, f, new Node<K, V>(null, null, f))) {
+                successor = f;
+                break;
+            }
+        }
+        NEXT.compareAndSet(b, n, successor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        while (true) {
+            // descend, counting levels so a new tower knows how far below the head it starts
+            Index<K, V> h = head;
+            Index<K, V> q = h;
+            int levels = 0;
+            while (true) {
+                Index<K, V> r;
+                while ((r = q.right) != null) {
+                    Node<K, V> p = r.node;
+                    if (p.val == null) {
+                        RIGHT.compareAndSet(q, r, r.right);
+                    } else if (compare(key, p.key) > 0) {
+                        q = r;
+                    } else {
+                        break;
+                    }
+                }
+                if (q.down == null) break;
+                q = q.down;
+                levels++;
+            }
+
+            Node<K, V> b = q.node;
+            Node<K, V> z = null;
+            while (true) {
+                Node<K, V> n = b.next;
+                int c;
+                if (n == null) {
+                    if (b.key == null) compare(key, key); // first insert: fail fast on a non-comparable key
+                    c = -1;
+                } else if (n.key == null) {
+                    break; // b is being deleted: restart from the top
+                } else if (n.val == null) {
+                    unlinkNode(b, n);
+                    continue;
+                } else if ((c = compare(key, n.key)) > 0) {
+                    b = n;
+                    continue;
+                } else if (c == 0) {
+                    Object v = n.val;
+                    if (v == null) continue; // deleted after the check above
+                    if (onlyIfAbsent || VAL.compareAndSet(n, v, value)) return (V) v;
+                    continue;
+                }
+                Node<K, V> node = new Node<>(key, value, n);
+                if (NEXT.compareAndSet(b, n, node)) {
+                    z = node;
+                    break;
+                }
+            }
+            if (z == null) continue;
+
+            count.increment();
+            long rnd = ThreadLocalRandom.current().nextLong();
+            if ((rnd & 0x3) == 0) { // a quarter of the nodes get a tower
+                addTower(h, levels, z, rnd);
+                if (z.val == null) findPredecessor(key); // removed meanwhile: clean its index entries
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Builds a tower of index nodes for {@code z}: each further level with probability 1/2 (the sign bits of
+     * {@code rnd}), capped at one level above the current head.
+     */
+    private void addTower(Index<K, V> h, int levels, Node<K, V> z, long rnd) {
+        int skips = levels; // levels to descend from h before splicing the top of the tower
+        Index<K, V> x = null;
+        while (true) {
+            x = new Index<>(z, x, null);
+            if (rnd >= 0L || --skips < 0) break;
+            rnd <<= 1;
+        }
+        if (addIndices(h, skips, x) && skips < 0 && head == h) {
+            // the tower reached the head's height: grow the list by one level
+            Index<K, V> top = new Index<>(z, x, null);
+            HEAD.compareAndSet(this, h, new Index<>(h.node, h, top));
+        }
+    }
+
+    /** Splices {@code x} and the indexes below it in, top-down; false if the node got deleted. */
+    private boolean addIndices(Index<K, V> q, int skips, Index<K, V> x) {
+        K key = x.node.key;
+        boolean retrying = false;
+        while (true) {
+            Index<K, V> r = q.right;
+            int c;
+            if (r != null) {
+                Node<K, V> p = r.node;
+                if (p.val == null) {
+                    RIGHT.compareAndSet(q, r, r.right);
+                    continue;
+                }
+                c = compare(key, p.key);
+                if (c > 0) {
+                    q = r;
+                    continue;
+                }
+                if (c == 0) return false; // stale: our node was replaced by a new one with the same key
+            }
+            Index<K, V> d = q.down;
+            if (d != null && skips > 0) {
+                skips--;
+                q = d;
+            } else if (d != null && !retrying && !addIndices(d, 0, x.down)) {
+                return false;
+            } else {
+                x.right = r;
+                if (RIGHT.compareAndSet(q, r, x)) return true;
+                retrying = true; // lower levels are in: only this one has to be redone
+            }
+            if (x.node.val == null) return false;
+        }
+    }
+
+    /** Deletes {@code key} (only if mapped to {@code expected}, when non-null); returns the removed value. */
+    @SuppressWarnings("unchecked")
+    private V doRemove(Object key, Object expected) {
+        V result = null;
+        outer:
+        while (result == null) {
+            Node<K, V> b = findPredecessor(key);
+            while (true) {
+                Node<K, V> n = b.next;
+                if (n == null) break outer;
+                if (n.key == null) break; // b is being deleted
+                Object v = n.val;
+                if (v == null) {
+                    unlinkNode(b, n);
+                    continue;
+                }
+                int c = compare(key, n.key);
+                if (c > 0) {
+                    b = n;
+                    continue;
+                }
+                if (c < 0 || (expected != null && !expected.equals(v))) break outer;
+                if (VAL.compareAndSet(n, v, null)) {
+                    result = (V) v;
+                    unlinkNode(b, n);
+                    findPredecessor(key); // drop its index entries
+                    break outer;
+                }
+            }
+        }
+        if (result != null) count.decrement();
+        return result;
+    }
+
+    /** First live node with key >= fromKey (null = from the start) and < toKey (null = no bound). */
+    private Node<K, V> firstNode(K fromKey, K toKey) {
+        Node<K, V> n = (fromKey == null) ? head.node.next : findPredecessor(fromKey).next;
+        for (; n != null; n = n.next) {
+            K k = n.key;
+            if (k == null || n.val == null) continue;
+            if (fromKey != null && compare(k, fromKey) < 0) continue;
+            return (toKey == null || compare(k, toKey) < 0) ? n : null;
+        }
+        return null;
+    }
+
+    /** Last live node with key < toKey (null = no bound) and >= fromKey (null = no bound). */
+    private Node<K, V> lastNode(K fromKey, K toKey) {
+        while (true) {
+            Node<K, V> b = (toKey == null) ? lastPredecessor() : findPredecessor(toKey);
+            Node<K, V> last = (b.key != null && b.val != null) ? b : null;
+            for (Node<K, V> n = b.next; n != null; n = n.next) {
+                K k = n.key;
+                if (k == null || n.val == null) continue;
+                if (toKey != null && compare(k, toKey) >= 0) break;
+                last = n;
+            }
+            if (last != null) {
+                return (fromKey == null || compare(last.key, fromKey) >= 0) ? last : null;
+            }
+            if (b.key == null) return null; // walked from the header: nothing below toKey
+            // the predecessor was deleted and nothing live follows it: search again below its key
+            toKey = b.key;
+        }
+    }
+
+    /** Base-level node reached by always moving right, i.e. close to the end of the list. */
+    private Node<K, V> lastPredecessor() {
+        Index<K, V> q = head;
+        while (true) {
+            Index<K, V> r;
+            while ((r = q.right) != null) {
+                if (r.node.val == null) RIGHT.compareAndSet(q, r, r.right);
+                else q = r;
+            }
+            if (q.down == null) return q.node;
+            q = q.down;
+        }
+    }
+
+    private static <K, V> String toString(Iterable<Map.Entry<K, V>> entries) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<K, V> e : entries) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(e.getKey()).append('=').append(e.getValue());
+        }
+        return sb.append('}').toString();
+    }
+
+    // ---------------- nodes ----------------
+
+    /** Base-level node. A marker has a null key and value; the header has a null key and BASE_HEADER. */
+    private static final class Node<K, V> {
+        final K key;
+        volatile Object val;
+        volatile Node<K, V> next;
+
+        Node(K key, Object val, Node<K, V> next) {
+            this.key = key;
+            this.val = val;
+            this.next = next;
+        }
+    }
+
+    private static final class Index<K, V> {
+        final Node<K, V> node;
+        final Index<K, V> down;
+        volatile Index<K, V> right;
+
+        Index(Node<K, V> node, Index<K, V> down, Index<K, V> right) {
+            this.node = node;
+            this.down = down;
+            this.right = right;
+        }
+    }
+
+    // ---------------- iteration ----------------
+
+    /** Weakly consistent walk of the base level over [fromKey, toKey); null bounds are open. */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final K toKey;
+        private Node<K, V> next;
+        private Object nextValue; // read once, so hasNext() and next() agree
+        private K lastKey;
+
+        EntryIterator(K fromKey, K toKey) {
+            this.toKey = toKey;
+            this.next = firstNode(fromKey, toKey);
+            this.nextValue = (next == null) ? null : next.val;
+            if (nextValue == null) advance();
+        }
+
+        private void advance() {
+            while (next != null) {
+                next = next.next;
+                if (next == null) break;
+                K k = next.key;
+                if (k == null) continue;
+                if (toKey != null && compare(k, toKey) >= 0) {
+                    next = null;
+                    break;
+                }
+                if ((nextValue = next.val) != null) return;
+            }
+            nextValue = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next == null) throw new NoSuchElementException();
+            Map.Entry<K, V> e = new AbstractMap.SimpleImmutableEntry<>(next.key, (V) nextValue);
+            lastKey = next.key;
+            advance();
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) throw new IllegalStateException();
+            ConcurrentSkipListSortedMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    /** Live view of the keys in [fromKey, toKey). */
+    private final class SubMap implements CustomSortedMap<K, V> {
+        private final K fromKey;
+        private final K toKey;
+
+        SubMap(K fromKey, K toKey) {
+            this.fromKey = fromKey;
+            this.toKey = toKey;
+        }
+
+        private boolean inRange(K key) {
+            return compare(key, fromKey) >= 0 && compare(key, toKey) < 0;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            Objects.requireNonNull(key, "key");
+            if (!inRange(key)) throw new IllegalArgumentException("key out of range: " + key);
+            return ConcurrentSkipListSortedMap.this.put(key, value);
+        }
+
+        @Override
+        public V get(K key) {
+            Objects.requireNonNull(key, "key");
+            return inRange(key) ? ConcurrentSkipListSortedMap.this.get(key) : null;
+        }
+
+        @Override
+        public V remove(K key) {
+            Objects.requireNonNull(key, "key");
+            return inRange(key) ? ConcurrentSkipListSortedMap.this.remove(key) : null;
+        }
+
+        /** O(range): counts the entries seen by one weakly consistent walk. */
+        @Override
+        public int size() {
+            int n = 0;
+            for (Iterator<Map.Entry<K, V>> it = iterator(); it.hasNext(); it.next()) n++;
+            return n;
+        }
+
+        @Override
+        public K firstKey() {
+            Node<K, V> n = firstNode(fromKey, toKey);
+            if (n == null) throw new NoSuchElementException();
+            return n.key;
+        }
+
+        @Override
+        public K lastKey() {
+            Node<K, V> n = lastNode(fromKey, toKey);
+            if (n == null) throw new NoSuchElementException();
+            return n.key;
+        }
+
+        @Override
+        public CustomSortedMap<K, V> subMap(K from, K to) {
+            Objects.requireNonNull(from, "fromKey");
+            Objects.requireNonNull(to, "toKey");
+            if (compare(from, fromKey) < 0 || compare(to, toKey) > 0) {
+                throw new IllegalArgumentException("range [" + from + ", " + to + ") outside [" + fromKey + ", " + toKey + ")");
+            }
+            return ConcurrentSkipListSortedMap.this.subMap(from, to);
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator(fromKey, toKey);
+        }
+
+        @Override
+        public String toString() {
+            return ConcurrentSkipListSortedMap.toString(this);
+        }
+    }
+}
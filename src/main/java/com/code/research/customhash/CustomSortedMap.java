@@ -1,9 +1,12 @@
 package com.code.research.customhash;
 
+import java.util.Map;
+
 /**
  * CustomSortedMap: extends CustomMap with sorted-key operations.
+ * Iterating yields the entries in ascending key order.
  */
-public interface CustomSortedMap<K, V> extends CustomMap<K, V> {
+public interface CustomSortedMap<K, V> extends CustomMap<K, V>, Iterable<Map.Entry<K, V>> {
 
     /**
      * returns smallest key
@@ -20,7 +23,7 @@ public interface CustomSortedMap<K, V> extends CustomMap<K, V> {
     K lastKey();
 
     /**
-     * range view
+     * range view: keys from {@code fromKey} (inclusive) to {@code toKey} (exclusive), backed by this map
      *
      * @param fromKey K
      * @param toKey   K
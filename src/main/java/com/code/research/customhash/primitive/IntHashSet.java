@@ -0,0 +1,154 @@
+package com.code.research.customhash.primitive;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static com.code.research.customhash.primitive.PrimitiveHashing.*;
+
+/**
+ * IntHashSet — set of ints without boxing.
+ * <p>
+ * - open addressing, linear probing over one {@code int[]} (see {@link PrimitiveHashing})
+ * - removal shifts the following run back (no tombstones)
+ * <p>
+ * Not thread-safe. Iteration order is unspecified.
+ */
+public final class IntHashSet {
+
+    private int[] keys;
+    private int mask;
+    private int threshold;
+    /** Elements in the array (0 is kept aside). */
+    private int assigned;
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public IntHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return assigned + (hasZero ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(int key) {
+        if (key == 0) return hasZero;
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return true;
+            if (k == 0) return false;
+        }
+    }
+
+    /**
+     * @return true if the set did not contain {@code key}
+     */
+    public boolean add(int key) {
+        if (key == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int[] keys = this.keys;
+        int mask = this.mask;
+        int i = mix(key) & mask;
+        for (int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return false;
+        }
+        keys[i] = key;
+        if (++assigned > threshold) rehash(grow(keys.length));
+        return true;
+    }
+
+    /**
+     * @return true if {@code key} was present
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) return false;
+            if (k == key) {
+                shiftBack(i);
+                return true;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        assigned = 0;
+        hasZero = false;
+    }
+
+    public void forEach(IntConsumer action) {
+        if (hasZero) action.accept(0);
+        for (int k : keys) {
+            if (k != 0) action.accept(k);
+        }
+    }
+
+    /** Elements in iteration order. */
+    public int[] toArray() {
+        int[] out = new int[size()];
+        int n = 0;
+        if (hasZero) out[n++] = 0;
+        for (int k : keys) {
+            if (k != 0) out[n++] = k;
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /** Backward-shift deletion: pulls later elements of the probe run into the freed slot. */
+    private void shiftBack(int gap) {
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = (gap + 1) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) break;
+            if (canShift(mix(k) & mask, gap, i, mask)) {
+                keys[gap] = k;
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        assigned--;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        allocate(newCapacity);
+        for (int k : oldKeys) {
+            if (k == 0) continue;
+            int i = mix(k) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        threshold = threshold(capacity);
+    }
+}
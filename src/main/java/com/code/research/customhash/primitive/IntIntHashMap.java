@@ -0,0 +1,219 @@
+package com.code.research.customhash.primitive;
+
+import java.util.Arrays;
+
+import static com.code.research.customhash.primitive.PrimitiveHashing.*;
+
+/**
+ * IntIntHashMap — int to int map without boxing, for counters and index maps on hot paths.
+ * <p>
+ * - open addressing, linear probing over parallel {@code int[] keys / int[] values} (see {@link PrimitiveHashing})
+ * - absent keys read as a default value instead of null: {@link #getOrDefault}, {@link #get} (0)
+ * - {@link #addTo} is the counting primitive: one probe instead of get + put
+ * - removal shifts the following run back (no tombstones), so lookups stay short under churn
+ * <p>
+ * Not thread-safe. Iteration order is unspecified.
+ */
+public final class IntIntHashMap {
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int threshold;
+    /** Entries in the arrays (the 0 key is kept aside). */
+    private int assigned;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return assigned + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : slotOf(key) >= 0;
+    }
+
+    /** Value for {@code key}, or 0 if absent. */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) return hasZeroKey ? zeroValue : defaultValue;
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == 0) return defaultValue;
+        }
+    }
+
+    /**
+     * @return previous value, or 0 if the key was absent (use {@link #containsKey} to tell the two apart)
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = zeroValue;
+            zeroValue = value;
+            hasZeroKey = true;
+            return old;
+        }
+        int[] keys = this.keys;
+        int mask = this.mask;
+        int i = mix(key) & mask;
+        for (int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        insertAt(i, key, value);
+        return 0;
+    }
+
+    /**
+     * Adds {@code increment} to the value of {@code key} (an absent key counts as 0).
+     *
+     * @return the new value
+     */
+    public int addTo(int key, int increment) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? zeroValue + increment : increment;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int[] keys = this.keys;
+        int mask = this.mask;
+        int i = mix(key) & mask;
+        for (int k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return values[i] += increment;
+        }
+        insertAt(i, key, increment);
+        return increment;
+    }
+
+    /**
+     * @return removed value, or 0 if the key was absent
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            int old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return old;
+        }
+        int i = slotOf(key);
+        if (i < 0) return 0;
+        int old = values[i];
+        shiftBack(i);
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (hasZeroKey) action.accept(0, zeroValue);
+        int[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept(keys[i], values[i]);
+        }
+    }
+
+    /** Keys in iteration order. */
+    public int[] keys() {
+        int[] out = new int[size()];
+        int n = 0;
+        if (hasZeroKey) out[n++] = 0;
+        for (int k : keys) {
+            if (k != 0) out[n++] = k;
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+
+    private int slotOf(int key) {
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return i;
+            if (k == 0) return -1;
+        }
+    }
+
+    private void insertAt(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++assigned > threshold) rehash(grow(keys.length));
+    }
+
+    /** Backward-shift deletion: pulls later entries of the probe run into the freed slot. */
+    private void shiftBack(int gap) {
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = (gap + 1) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == 0) break;
+            if (canShift(mix(k) & mask, gap, i, mask)) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        assigned--;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k == 0) continue;
+            int i = mix(k) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = threshold(capacity);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+}
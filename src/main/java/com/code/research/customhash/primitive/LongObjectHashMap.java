@@ -0,0 +1,221 @@
+package com.code.research.customhash.primitive;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+import static com.code.research.customhash.primitive.PrimitiveHashing.*;
+
+/**
+ * LongObjectHashMap<V> — long-keyed map without boxing the keys (ids, timestamps, packed coordinates).
+ * <p>
+ * - open addressing, linear probing over parallel {@code long[] keys / Object[] values} (see {@link PrimitiveHashing})
+ * - null values are not stored, so {@link #get} returning null always means "absent"
+ * - {@link #computeIfAbsent} probes once for lookup and insert
+ * - removal shifts the following run back (no tombstones)
+ * <p>
+ * Not thread-safe. Iteration order is unspecified.
+ *
+ * @param <V> value type
+ */
+public final class LongObjectHashMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    /** Entries in the arrays (the 0 key is kept aside). */
+    private int assigned;
+    private V zeroValue; // non-null iff the 0 key is present
+
+    public LongObjectHashMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return assigned + (zeroValue != null ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /** Value for {@code key}, or null if absent. */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) return zeroValue;
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return (V) values[i];
+            if (k == 0) return null;
+        }
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V v = get(key);
+        return (v != null) ? v : defaultValue;
+    }
+
+    /**
+     * @return previous value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "value");
+        if (key == 0) {
+            V old = zeroValue;
+            zeroValue = value;
+            return old;
+        }
+        long[] keys = this.keys;
+        int mask = this.mask;
+        int i = mix(key) & mask;
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        insertAt(i, key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value of {@code key}, first storing {@code mappingFunction.apply(key)} if absent
+     * (a null result stores nothing). The function must not modify this map.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        if (key == 0) {
+            if (zeroValue == null) zeroValue = mappingFunction.apply(0L);
+            return zeroValue;
+        }
+        long[] keys = this.keys;
+        int mask = this.mask;
+        int i = mix(key) & mask;
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return (V) values[i];
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) insertAt(i, key, value);
+        return value;
+    }
+
+    /**
+     * @return removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V old = zeroValue;
+            zeroValue = null;
+            return old;
+        }
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == 0) return null;
+            if (k == key) {
+                V old = (V) values[i];
+                shiftBack(i);
+                return old;
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        assigned = 0;
+        zeroValue = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (zeroValue != null) action.accept(0L, zeroValue);
+        long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    /** Keys in iteration order. */
+    public long[] keys() {
+        long[] out = new long[size()];
+        int n = 0;
+        if (zeroValue != null) out[n++] = 0L;
+        for (long k : keys) {
+            if (k != 0) out[n++] = k;
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+
+    private void insertAt(int slot, long key, V value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++assigned > threshold) rehash(grow(keys.length));
+    }
+
+    /** Backward-shift deletion: pulls later entries of the probe run into the freed slot. */
+    private void shiftBack(int gap) {
+        long[] keys = this.keys;
+        int mask = this.mask;
+        for (int i = (gap + 1) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == 0) break;
+            if (canShift(mix(k) & mask, gap, i, mask)) {
+                keys[gap] = k;
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        assigned--;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == 0) continue;
+            int i = mix(k) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+            values[i] = oldValues[j];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = threshold(capacity);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.code.research.customhash.primitive;
+
+/**
+ * Hashing + sizing shared by the open-addressing primitive collections.
+ * <p>
+ * - Linear probing over power-of-two arrays; key 0 marks a free slot, so the 0 key itself is stored
+ *   outside the arrays.
+ * - Keys are mixed (golden-ratio multiply + xor-shift) before masking: sequential or strided ints
+ *   would otherwise fill neighbouring slots and build long probe runs.
+ * - The load factor stays below 1, so every probe loop meets a free slot.
+ */
+final class PrimitiveHashing {
+
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+    static final float LOAD_FACTOR = 0.75f;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private PrimitiveHashing() {}
+
+    static int mix(int key) {
+        int h = key * 0x9E37_79B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E37_79B9_7F4A_7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /** Power-of-two capacity holding {@code expectedSize} keys without a resize. */
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize < 0");
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR) + 1;
+        if (needed > MAXIMUM_CAPACITY) throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        return Math.max(4, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    static int threshold(int capacity) {
+        return Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    /** Capacity after {@code capacity} overflowed its threshold. */
+    static int grow(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY) throw new IllegalStateException("collection is full: " + capacity);
+        return capacity << 1;
+    }
+
+    /**
+     * True if the entry at {@code slot}, whose home bucket is {@code home}, may be moved back into {@code gap}
+     * (backward-shift deletion): the gap lies cyclically between the home bucket and the slot.
+     */
+    static boolean canShift(int home, int gap, int slot, int mask) {
+        return ((slot - home) & mask) >= ((slot - gap) & mask);
+    }
+}
@@ -36,8 +36,16 @@ public final class CustomHashSet<E> implements Set<E>, Cloneable, Serializable {
         this.table = new CustomHashTable<>(initialCapacity, loadFactor);
     }
 
+    /**
+     * @param incrementalResize if true, growing rehashes a few buckets per add/remove instead of the whole
+     *                          table inside one add (no multi-millisecond pause on large sets)
+     */
+    public CustomHashSet(int initialCapacity, float loadFactor, boolean incrementalResize) {
+        this.table = new CustomHashTable<>(initialCapacity, loadFactor, incrementalResize);
+    }
+
     public CustomHashSet(Collection<? extends E> c) {
-        this.table = new CustomHashTable<>(Math.max(16, (int) (c.size() / 0.75f) + 1), 0.75f);
+        this.table = new CustomHashTable<>(capacityFor(c.size()), 0.75f);
         addAll(c);
     }
 
@@ -83,10 +91,14 @@ public final class CustomHashSet<E> implements Set<E>, Cloneable, Serializable {
     }
 
     // ---------- Bulk ops ----------
+    // When the argument is another CustomHashSet, its nodes' cached hashes are reused (no hashCode() calls)
+    // and the table is presized or rebuilt once instead of growing element by element.
 
     @Override
+    @SuppressWarnings("unchecked")
     public boolean addAll(Collection<? extends E> c) {
         Objects.requireNonNull(c, "collection");
+        if (c instanceof CustomHashSet<?> other) return table.addAll((CustomHashTable<? extends E>) other.table);
         if (c.isEmpty()) return false;
 
         table.ensureCapacityFor(size() + c.size());
@@ -99,6 +111,7 @@ public final class CustomHashSet<E> implements Set<E>, Cloneable, Serializable {
     @Override
     public boolean containsAll(Collection<?> c) {
         Objects.requireNonNull(c, "collection");
+        if (c instanceof CustomHashSet<?> other) return table.containsAll(other.table);
         for (Object o : c) if (!contains(o)) return false;
         return true;
     }
@@ -106,14 +119,17 @@ public final class CustomHashSet<E> implements Set<E>, Cloneable, Serializable {
     @Override
     public boolean removeAll(Collection<?> c) {
         Objects.requireNonNull(c, "collection");
+        if (c instanceof CustomHashSet<?> other) return table.removeAll(other.table);
         boolean modified = false;
         for (Object o : c) modified |= remove(o);
         return modified;
     }
 
+    /** Against a smaller CustomHashSet this rebuilds the table, sized for that set, from its elements: O(c.size()). */
     @Override
     public boolean retainAll(Collection<?> c) {
         Objects.requireNonNull(c, "collection");
+        if (c instanceof CustomHashSet<?> other) return table.retainAll(other.table);
         boolean modified = false;
 
         Iterator<E> it = iterator();
@@ -127,6 +143,34 @@ public final class CustomHashSet<E> implements Set<E>, Cloneable, Serializable {
         return modified;
     }
 
+    // ---------- Set algebra (new sets, operands unchanged) ----------
+
+    /** Union of a and b, presized for both. */
+    public static <E> CustomHashSet<E> union(CustomHashSet<? extends E> a, CustomHashSet<? extends E> b) {
+        CustomHashSet<E> result = new CustomHashSet<>(capacityFor(a.size() + b.size()));
+        result.table.addAll(a.table);
+        result.table.addAll(b.table);
+        return result;
+    }
+
+    /** Intersection of a and b with a's element instances; walks the smaller operand and probes the larger. */
+    public static <E> CustomHashSet<E> intersection(CustomHashSet<? extends E> a, CustomHashSet<?> b) {
+        CustomHashSet<E> result = new CustomHashSet<>(capacityFor(Math.min(a.size(), b.size())));
+        result.table.addIntersection(a.table, b.table);
+        return result;
+    }
+
+    /** Elements of a that are not in b. */
+    public static <E> CustomHashSet<E> difference(CustomHashSet<? extends E> a, CustomHashSet<?> b) {
+        CustomHashSet<E> result = new CustomHashSet<>(capacityFor(a.size()));
+        result.table.addDifference(a.table, b.table);
+        return result;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Math.max(16, (int) (expectedSize / 0.75f) + 1);
+    }
+
     // ---------- Array conversions ----------
 
     @Override
@@ -194,7 +238,7 @@ public final class CustomHashSet<E> implements Set<E>, Cloneable, Serializable {
     @Override
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public CustomHashSet<E> clone() {
-        CustomHashSet<E> copy = new CustomHashSet<>(table.capacity(), table.loadFactor());
+        CustomHashSet<E> copy = new CustomHashSet<>(table.capacity(), table.loadFactor(), table.incrementalResize());
         copy.addAll(this);
         return copy;
     }
@@ -11,14 +11,20 @@ import java.util.Objects;
  *
  * Responsibilities:
  * - Store elements in buckets
- * - Resize / rehash
+ * - Resize / rehash, either at once or incrementally (old and new table coexist while buckets migrate)
  * - Track modCount for fail-fast iterators
+ * - Bulk set operations against another table, reusing the hashes cached in its nodes
  */
 final class CustomHashTable<E> implements Iterable<E> {
 
     private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of 2
     private static final int MAXIMUM_CAPACITY = 1 << 30;
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    /**
+     * Minimum old buckets moved per add/remove during an incremental resize; raised to {@code 2 / loadFactor} for
+     * low load factors, so the migration is done halfway to the next resize (loadFactor * oldCapacity adds away).
+     */
+    static final int MIGRATE_BUCKETS_PER_OP = 8;
 
     private HashNode<E>[] table;
     private int size;
@@ -26,6 +32,11 @@ final class CustomHashTable<E> implements Iterable<E> {
     private final float loadFactor;
     private int modCount;
 
+    private final boolean incrementalResize;
+    // previous table while migrating; an element lives in oldTable iff its old bucket is non-null
+    private HashNode<E>[] oldTable;
+    private int migrateIndex;
+
     CustomHashTable() {
         this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
     }
@@ -35,11 +46,16 @@ final class CustomHashTable<E> implements Iterable<E> {
     }
 
     CustomHashTable(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, false);
+    }
+
+    CustomHashTable(int initialCapacity, float loadFactor, boolean incrementalResize) {
         if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity < 0");
         if (!(loadFactor > 0.0f) || Float.isNaN(loadFactor)) {
             throw new IllegalArgumentException("invalid loadFactor: " + loadFactor);
         }
         this.loadFactor = loadFactor;
+        this.incrementalResize = incrementalResize;
 
         int cap = HashUtils.tableSizeFor(Math.max(DEFAULT_INITIAL_CAPACITY, initialCapacity), MAXIMUM_CAPACITY);
         this.table = HashUtils.newTable(cap);
@@ -58,44 +74,82 @@ final class CustomHashTable<E> implements Iterable<E> {
         return loadFactor;
     }
 
+    boolean incrementalResize() {
+        return incrementalResize;
+    }
+
+    boolean isResizing() {
+        return oldTable != null;
+    }
+
     boolean contains(Object key) {
-        int h = HashUtils.spreadHash(key);
-        int idx = HashUtils.indexFor(h, table.length);
-        for (HashNode<E> n = table[idx]; n != null; n = n.next) {
-            if (n.hash == h && Objects.equals(n.key, key)) return true;
+        return findNode(HashUtils.spreadHash(key), key) != null;
+    }
+
+    /** Node holding {@code key}, whose spread hash is {@code h}, or null. */
+    HashNode<E> findNode(int h, Object key) {
+        HashNode<E>[] tab = tableFor(h);
+        for (HashNode<E> n = tab[HashUtils.indexFor(h, tab.length)]; n != null; n = n.next) {
+            if (n.hash == h && Objects.equals(n.key, key)) return n;
         }
-        return false;
+        return null;
+    }
+
+    /** The table whose bucket currently holds elements with hash {@code h}. */
+    private HashNode<E>[] tableFor(int h) {
+        HashNode<E>[] old = oldTable;
+        return (old != null && old[HashUtils.indexFor(h, old.length)] != null) ? old : table;
     }
 
     boolean add(E key) {
-        int h = HashUtils.spreadHash(key);
-        int idx = HashUtils.indexFor(h, table.length);
+        return add(HashUtils.spreadHash(key), key);
+    }
 
-        for (HashNode<E> n = table[idx]; n != null; n = n.next) {
-            if (n.hash == h && Objects.equals(n.key, key)) return false; // already present
-        }
+    /** {@link #add(Object)} with the spread hash already known (e.g. taken from another table's node). */
+    boolean add(int h, E key) {
+        if (findNode(h, key) != null) return false; // already present
+        linkNew(h, key);
+        return true;
+    }
 
+    /** Inserts a key known to be absent. */
+    private void linkNew(int h, E key) {
+        if (oldTable != null) migrateBucket(HashUtils.indexFor(h, oldTable.length)); // new elements go to the new table
+        int idx = HashUtils.indexFor(h, table.length);
         table[idx] = new HashNode<>(h, key, table[idx]); // insert at head
         size++;
         modCount++;
 
+        if (oldTable != null) migrateStep();
         if (size > threshold) resize();
-        return true;
     }
 
     boolean remove(Object key) {
-        int h = HashUtils.spreadHash(key);
-        int idx = HashUtils.indexFor(h, table.length);
+        return remove(key, true);
+    }
+
+    /**
+     * @param migrate false for iterator removal: moving buckets under a running iterator could make it
+     *                return elements twice
+     */
+    boolean remove(Object key, boolean migrate) {
+        return remove(HashUtils.spreadHash(key), key, migrate);
+    }
+
+    private boolean remove(int h, Object key, boolean migrate) {
+        HashNode<E>[] tab = tableFor(h);
+        int idx = HashUtils.indexFor(h, tab.length);
 
         HashNode<E> prev = null;
-        HashNode<E> cur = table[idx];
+        HashNode<E> cur = tab[idx];
 
         while (cur != null) {
             HashNode<E> next = cur.next;
             if (cur.hash == h && Objects.equals(cur.key, key)) {
-                if (prev == null) table[idx] = next; else prev.next = next;
+                if (prev == null) tab[idx] = next; else prev.next = next;
                 size--;
                 modCount++;
+                if (migrate && oldTable != null) migrateStep();
                 return true;
             }
             prev = cur;
@@ -107,22 +161,165 @@ final class CustomHashTable<E> implements Iterable<E> {
     void clear() {
         if (size == 0) return;
         for (int i = 0; i < table.length; i++) table[i] = null;
+        oldTable = null;
         size = 0;
         modCount++;
     }
 
     /**
-     * Pre-size to reduce resizing when bulk adding.
+     * Pre-size to reduce resizing when bulk adding (rehashes at once, also in incremental mode).
      */
     void ensureCapacityFor(int expectedSize) {
         if (expectedSize <= threshold) return;
 
         int cap = table.length;
-        int target = cap;
+        int target = capacityFor(expectedSize, cap);
+        if (target != cap) {
+            resizeTo(target);
+            finishMigration();
+        }
+    }
+
+    /** Smallest power of two, at least {@code minCapacity}, that holds {@code expectedSize} under the load factor. */
+    private int capacityFor(int expectedSize, int minCapacity) {
+        int target = minCapacity;
         while (target < MAXIMUM_CAPACITY && expectedSize > (int) (target * loadFactor)) {
             target <<= 1;
         }
-        if (target != cap) resizeTo(target);
+        return target;
+    }
+
+    // ---------- Bulk operations between tables ----------
+    // Both tables spread hashes the same way, so the hash cached in each HashNode is used as is: no hashCode() calls.
+
+    /** Tables holding the elements: the one being migrated (if any) and the current one. */
+    @SuppressWarnings("unchecked")
+    HashNode<E>[][] tables() {
+        return (oldTable != null) ? new HashNode[][]{oldTable, table} : new HashNode[][]{table};
+    }
+
+    boolean addAll(CustomHashTable<? extends E> other) {
+        if (other == this || other.size == 0) return false;
+        ensureCapacityFor(size + other.size); // one resize up front instead of one per doubling
+        int before = size;
+        for (HashNode<? extends E>[] tab : other.tables()) {
+            for (HashNode<? extends E> head : tab) {
+                for (HashNode<? extends E> n = head; n != null; n = n.next) add(n.hash, n.key);
+            }
+        }
+        return size != before;
+    }
+
+    boolean containsAll(CustomHashTable<?> other) {
+        if (other.size > size) return false; // cannot hold more distinct elements than this
+        for (HashNode<?>[] tab : other.tables()) {
+            for (HashNode<?> head : tab) {
+                for (HashNode<?> n = head; n != null; n = n.next) {
+                    if (findNode(n.hash, n.key) == null) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Removes the elements of {@code other}, walking whichever of the two tables is smaller. */
+    boolean removeAll(CustomHashTable<?> other) {
+        if (other == this) {
+            boolean modified = size > 0;
+            clear();
+            return modified;
+        }
+        if (other.size >= size) return unlinkIf(other, true);
+        int before = size;
+        for (HashNode<?>[] tab : other.tables()) {
+            for (HashNode<?> head : tab) {
+                for (HashNode<?> n = head; n != null; n = n.next) remove(n.hash, n.key, true);
+            }
+        }
+        return size != before;
+    }
+
+    /**
+     * Keeps only the elements of {@code other}. If {@code other} is the smaller table, the result is built from its
+     * elements into a new table sized for it, so the cost is O(other.size()) rather than O(size()).
+     */
+    boolean retainAll(CustomHashTable<?> other) {
+        if (other == this) return false;
+        if (other.size >= size) return unlinkIf(other, false);
+
+        HashNode<E>[] rebuilt = HashUtils.newTable(capacityFor(other.size, DEFAULT_INITIAL_CAPACITY));
+        int kept = 0;
+        for (HashNode<?>[] tab : other.tables()) {
+            for (HashNode<?> head : tab) {
+                for (HashNode<?> n = head; n != null; n = n.next) {
+                    HashNode<E> mine = findNode(n.hash, n.key);
+                    if (mine == null) continue;
+                    int idx = HashUtils.indexFor(n.hash, rebuilt.length);
+                    rebuilt[idx] = new HashNode<>(n.hash, mine.key, rebuilt[idx]); // keep this set's instance
+                    kept++;
+                }
+            }
+        }
+        if (kept == size) return false;
+        table = rebuilt;
+        oldTable = null;
+        size = kept;
+        threshold = HashUtils.calcThreshold(rebuilt.length, loadFactor);
+        modCount++;
+        return true;
+    }
+
+    /** Fills this (empty) table with the elements of {@code a} that are also in {@code b}, walking the smaller one. */
+    void addIntersection(CustomHashTable<? extends E> a, CustomHashTable<?> b) {
+        if (a.size <= b.size) {
+            for (HashNode<? extends E>[] tab : a.tables()) {
+                for (HashNode<? extends E> head : tab) {
+                    for (HashNode<? extends E> n = head; n != null; n = n.next) {
+                        if (b.findNode(n.hash, n.key) != null) linkNew(n.hash, n.key);
+                    }
+                }
+            }
+        } else {
+            for (HashNode<?>[] tab : b.tables()) {
+                for (HashNode<?> head : tab) {
+                    for (HashNode<?> n = head; n != null; n = n.next) {
+                        HashNode<? extends E> found = a.findNode(n.hash, n.key);
+                        if (found != null) linkNew(n.hash, found.key);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Fills this (empty) table with the elements of {@code a} that are not in {@code b}. */
+    void addDifference(CustomHashTable<? extends E> a, CustomHashTable<?> b) {
+        for (HashNode<? extends E>[] tab : a.tables()) {
+            for (HashNode<? extends E> head : tab) {
+                for (HashNode<? extends E> n = head; n != null; n = n.next) {
+                    if (b.findNode(n.hash, n.key) == null) linkNew(n.hash, n.key);
+                }
+            }
+        }
+    }
+
+    /** One pass over the buckets, unlinking elements that are ({@code inOther}) or are not in {@code other}. */
+    private boolean unlinkIf(CustomHashTable<?> other, boolean inOther) {
+        finishMigration();
+        int before = size;
+        for (int i = 0; i < table.length; i++) {
+            HashNode<E> prev = null;
+            for (HashNode<E> n = table[i]; n != null; n = n.next) {
+                if ((other.findNode(n.hash, n.key) != null) == inOther) {
+                    if (prev == null) table[i] = n.next; else prev.next = n.next;
+                    size--;
+                } else {
+                    prev = n;
+                }
+            }
+        }
+        if (size == before) return false;
+        modCount++;
+        return true;
     }
 
     @Override
@@ -144,31 +341,56 @@ final class CustomHashTable<E> implements Iterable<E> {
     }
 
     private void resizeTo(int newCap) {
-        HashNode<E>[] oldTab = table;
-        HashNode<E>[] newTab = HashUtils.newTable(newCap);
-
-        for (int i = 0; i < oldTab.length; i++) {
-            HashNode<E> e = oldTab[i];
-            while (e != null) {
-                HashNode<E> next = e.next;
-                int idx = HashUtils.indexFor(e.hash, newCap);
-                e.next = newTab[idx];
-                newTab[idx] = e;
-                e = next;
-            }
-        }
-
-        table = newTab;
+        finishMigration(); // at most one migration at a time
+        oldTable = table;
+        migrateIndex = 0;
+        table = HashUtils.newTable(newCap);
         threshold = HashUtils.calcThreshold(newCap, loadFactor);
+        if (incrementalResize) {
+            migrateStep();
+        } else {
+            finishMigration();
+        }
         modCount++; // structural change visible to iterators
     }
 
+    private void migrateStep() {
+        int step = (int) Math.max(MIGRATE_BUCKETS_PER_OP, Math.min(Math.ceil(2 / loadFactor), MAXIMUM_CAPACITY));
+        int end = Math.min(migrateIndex + step, oldTable.length);
+        for (; migrateIndex < end; migrateIndex++) migrateBucket(migrateIndex);
+        if (migrateIndex == oldTable.length) oldTable = null;
+    }
+
+    private void finishMigration() {
+        if (oldTable == null) return;
+        for (; migrateIndex < oldTable.length; migrateIndex++) migrateBucket(migrateIndex);
+        oldTable = null;
+    }
+
+    /** Moves old bucket {@code oi} (possibly ahead of migrateIndex) into the new table. */
+    private void migrateBucket(int oi) {
+        HashNode<E> e = oldTable[oi];
+        oldTable[oi] = null;
+        while (e != null) {
+            HashNode<E> next = e.next;
+            int idx = HashUtils.indexFor(e.hash, table.length);
+            e.next = table[idx];
+            table[idx] = e;
+            e = next;
+        }
+    }
+
     // ---------- Iterator support (package-private access) ----------
 
     HashNode<E>[] tableRef() {
         return table;
     }
 
+    /** Table still being migrated, or null. */
+    HashNode<E>[] oldTableRef() {
+        return oldTable;
+    }
+
     int modCount() {
         return modCount;
     }
@@ -177,7 +399,8 @@ final class CustomHashTable<E> implements Iterable<E> {
 
     static final class CustomHashTableIterator<E> implements Iterator<E> {
         private final CustomHashTable<E> owner;
-        private final HashNode<E>[] tab;
+        private final HashNode<E>[] newTab;
+        private HashNode<E>[] tab; // the old table first while a resize is migrating
 
         private int expectedModCount;
         private int bucketIndex;
@@ -186,7 +409,8 @@ final class CustomHashTable<E> implements Iterable<E> {
 
         CustomHashTableIterator(CustomHashTable<E> owner) {
             this.owner = owner;
-            this.tab = owner.tableRef();
+            this.newTab = owner.tableRef();
+            this.tab = (owner.oldTableRef() != null) ? owner.oldTableRef() : newTab;
             this.expectedModCount = owner.modCount();
             this.bucketIndex = 0;
             this.next = null;
@@ -223,7 +447,7 @@ final class CustomHashTable<E> implements Iterable<E> {
             checkForComodification();
             if (lastReturned == null) throw new IllegalStateException("next() not called or already removed");
 
-            boolean removed = owner.remove(lastReturned);
+            boolean removed = owner.remove(lastReturned, false);
             if (!removed) throw new ConcurrentModificationException("Element already removed");
 
             lastReturned = null;
@@ -231,8 +455,13 @@ final class CustomHashTable<E> implements Iterable<E> {
         }
 
         private void advanceToNext() {
-            while (bucketIndex < tab.length && (next = tab[bucketIndex]) == null) {
-                bucketIndex++;
+            while (true) {
+                while (bucketIndex < tab.length && (next = tab[bucketIndex]) == null) {
+                    bucketIndex++;
+                }
+                if (next != null || tab == newTab) return;
+                tab = newTab;
+                bucketIndex = 0;
             }
         }
 
@@ -0,0 +1,756 @@
+package com.code.research.customhash.setmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * ConcurrentCustomHashMap<K,V> — thread-safe sibling of {@link CustomHashMap} (same power-of-two table and spread
+ * hash), laid out like java.util.concurrent.ConcurrentHashMap:
+ * - reads take no lock: the table, bin heads (acquire reads), chain links and values are all volatile
+ * - writes CAS a new node into an empty bin, otherwise synchronize on the bin head, so writers only
+ *   contend when they hit the same bin
+ * - size is a {@link LongAdder}, so counting does not serialize writers on one cache line
+ * - resize is cooperative: the thread crossing the threshold allocates the doubled table, and every writer that
+ *   meets a {@link ForwardingNode} (or crosses the threshold) joins in by claiming ranges of bins; a copied
+ *   bin is replaced by a forwarding node that readers follow into the new table
+ * - {@link #computeIfAbsent} and {@link #merge} run the function once, under the bin lock (an empty bin is
+ *   locked through a {@link ReservationNode}), so they are atomic per key
+ * <p>
+ * Differences to {@link CustomHashMap}: no null keys or values (null means "absent", as in ConcurrentHashMap),
+ * no tree bins, weakly consistent iterators instead of fail-fast ones.
+ */
+public final class ConcurrentCustomHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** Minimum number of bins a resizing thread claims at once. */
+    static final int MIN_TRANSFER_STRIDE = 16;
+
+    // hashes of special nodes; spread() keeps the hashes of real keys non-negative
+    static final int MOVED = -1;
+    static final int RESERVED = -2;
+    static final int HASH_BITS = 0x7fff_ffff;
+
+    /*
+     * sizeCtl >= 0: resize threshold (3/4 of the capacity).
+     * sizeCtl < 0 : a resize is running; the high 16 bits hold resizeStamp(old capacity), the low bits
+     *               1 + number of threads currently transferring. The stamp keeps a late helper from joining
+     *               the next resize with stale tables.
+     */
+    private static final int RESIZE_STAMP_SHIFT = 16;
+    private static final int MAX_RESIZERS = (1 << RESIZE_STAMP_SHIFT) - 1;
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    private static final VarHandle BIN = MethodHandles.arrayElementVarHandle(BinNode[].class);
+    private static final VarHandle SIZE_CTL;
+    private static final VarHandle TRANSFER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SIZE_CTL = lookup.findVarHandle(ConcurrentCustomHashMap.class, "sizeCtl", int.class);
+            TRANSFER_INDEX = lookup.findVarHandle(ConcurrentCustomHashMap.class, "transferIndex", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile BinNode<K, V>[] table;
+    /** Table being filled by a running resize, null otherwise. */
+    private volatile BinNode<K, V>[] nextTable;
+    private volatile int sizeCtl;
+    /** Bins [0, transferIndex) of the old table are still unclaimed by resizers. */
+    private volatile int transferIndex;
+    private final LongAdder count = new LongAdder();
+
+    private transient EntrySet entrySet;
+
+    public ConcurrentCustomHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public ConcurrentCustomHashMap(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity < 0");
+        int cap = Hashing.tableSizeFor(Math.max(DEFAULT_INITIAL_CAPACITY, initialCapacity), MAXIMUM_CAPACITY);
+        this.table = newTable(cap);
+        this.sizeCtl = cap - (cap >>> 2);
+    }
+
+    // ---- package-friendly accessors for tests ----
+    int capacity() { return table.length; }
+
+    // ---------------- reads ----------------
+
+    @Override
+    public int size() {
+        long n = count.sum(); // may be off while writers are running; increments happen after the insert
+        return (int) Math.max(0L, Math.min(n, Integer.MAX_VALUE));
+    }
+
+    /** Number of mappings as a long (size() saturates at Integer.MAX_VALUE). */
+    public long mappingCount() {
+        return Math.max(0L, count.sum());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count.sum() <= 0L;
+    }
+
+    @Override
+    public V get(Object key) {
+        int h = spread(key);
+        BinNode<K, V>[] tab = table;
+        BinNode<K, V> e = tabAt(tab, Hashing.indexFor(h, tab.length));
+        if (e == null) return null;
+        if (e.hash < 0) {
+            BinNode<K, V> p = e.find(h, key);
+            return (p == null) ? null : p.val;
+        }
+        for (; e != null; e = e.next) {
+            if (e.hash == h && (e.key == key || key.equals(e.key))) return e.val;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value, "value");
+        for (EntryIterator it = new EntryIterator(); it.hasNext(); ) {
+            V v = it.nextNode().val;
+            if (v == value || value.equals(v)) return true;
+        }
+        return false;
+    }
+
+    // ---------------- writes ----------------
+
+    @Override
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(value, "value");
+        int h = spread(key);
+        for (BinNode<K, V>[] tab = table; ; ) {
+            int i = Hashing.indexFor(h, tab.length);
+            BinNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                if (casTabAt(tab, i, null, new BinNode<>(h, key, value, null))) break; // no lock for an empty bin
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) f);
+            } else {
+                V oldVal = null;
+                boolean locked = false;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) { // else the bin changed (removal, resize) before we got the lock
+                        checkNotReserved(f);
+                        locked = true;
+                        for (BinNode<K, V> e = f; ; ) {
+                            if (e.hash == h && key.equals(e.key)) {
+                                oldVal = e.val;
+                                if (!onlyIfAbsent) e.val = value;
+                                break;
+                            }
+                            BinNode<K, V> pred = e;
+                            if ((e = e.next) == null) {
+                                pred.next = new BinNode<>(h, key, value, null);
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (locked) {
+                    if (oldVal != null) return oldVal;
+                    break;
+                }
+            }
+        }
+        addCount();
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet()) putVal(e.getKey(), e.getValue(), false);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return replaceNode(key, null, null);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(key, "key");
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(value, "value");
+        return replaceNode(key, value, null);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue, "oldValue");
+        Objects.requireNonNull(newValue, "newValue");
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * Replaces (value != null) or removes (value == null) the mapping of {@code key}, only if its current value
+     * equals {@code expected} when that is non-null.
+     *
+     * @return the previous value, or null if nothing changed
+     */
+    private V replaceNode(Object key, V value, Object expected) {
+        int h = spread(key);
+        for (BinNode<K, V>[] tab = table; ; ) {
+            int i = Hashing.indexFor(h, tab.length);
+            BinNode<K, V> f = tabAt(tab, i);
+            if (f == null) return null;
+            if (f.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) f);
+                continue;
+            }
+            V oldVal = null;
+            boolean locked = false;
+            synchronized (f) {
+                if (tabAt(tab, i) == f) {
+                    checkNotReserved(f);
+                    locked = true;
+                    for (BinNode<K, V> e = f, pred = null; e != null; pred = e, e = e.next) {
+                        if (e.hash == h && key.equals(e.key)) {
+                            V ev = e.val;
+                            if (expected == null || expected == ev || expected.equals(ev)) {
+                                oldVal = ev;
+                                if (value != null) e.val = value;
+                                else if (pred != null) pred.next = e.next; // readers on e still see e.next
+                                else setTabAt(tab, i, e.next);
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            if (locked) {
+                if (oldVal != null && value == null) count.decrement();
+                return oldVal;
+            }
+        }
+    }
+
+    /**
+     * Atomic per key: {@code mappingFunction} runs at most once per call, while the bin is locked, and
+     * concurrent writers of that bin wait for it. It must be short and must not update this map.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction, "mappingFunction");
+        int h = spread(key);
+        V val;
+        for (BinNode<K, V>[] tab = table; ; ) {
+            int i = Hashing.indexFor(h, tab.length);
+            BinNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                // lock an empty bin by publishing a locked placeholder; readers see "absent", writers wait
+                ReservationNode<K, V> r = new ReservationNode<>();
+                boolean reserved = false;
+                synchronized (r) {
+                    if (casTabAt(tab, i, null, r)) {
+                        reserved = true;
+                        BinNode<K, V> node = null;
+                        try {
+                            if ((val = mappingFunction.apply(key)) != null) node = new BinNode<>(h, key, val, null);
+                        } finally {
+                            setTabAt(tab, i, node);
+                        }
+                    } else {
+                        val = null;
+                    }
+                }
+                if (reserved) break;
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) f);
+            } else if (f.hash == h && key.equals(f.key) && (val = f.val) != null) {
+                return val; // present in the bin head: no lock
+            } else {
+                boolean locked = false, added = false;
+                val = null;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        checkNotReserved(f);
+                        locked = true;
+                        for (BinNode<K, V> e = f; ; ) {
+                            if (e.hash == h && key.equals(e.key)) {
+                                val = e.val;
+                                break;
+                            }
+                            BinNode<K, V> pred = e;
+                            if ((e = e.next) == null) {
+                                if ((val = mappingFunction.apply(key)) != null) {
+                                    pred.next = new BinNode<>(h, key, val, null);
+                                    added = true;
+                                }
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (locked) {
+                    if (!added) return val;
+                    break;
+                }
+            }
+        }
+        if (val != null) addCount();
+        return val;
+    }
+
+    /**
+     * Atomic per key, like {@link #computeIfAbsent}: {@code remappingFunction} runs under the bin lock and a null
+     * result removes the mapping.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(remappingFunction, "remappingFunction");
+        int h = spread(key);
+        V val = null;
+        int delta = 0;
+        for (BinNode<K, V>[] tab = table; ; ) {
+            int i = Hashing.indexFor(h, tab.length);
+            BinNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                if (casTabAt(tab, i, null, new BinNode<>(h, key, value, null))) {
+                    delta = 1;
+                    val = value;
+                    break;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) f);
+            } else {
+                boolean locked = false;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        checkNotReserved(f);
+                        locked = true;
+                        for (BinNode<K, V> e = f, pred = null; ; pred = e, e = e.next) {
+                            if (e.hash == h && key.equals(e.key)) {
+                                val = remappingFunction.apply(e.val, value);
+                                if (val != null) {
+                                    e.val = val;
+                                } else {
+                                    delta = -1;
+                                    if (pred != null) pred.next = e.next;
+                                    else setTabAt(tab, i, e.next);
+                                }
+                                break;
+                            }
+                            if (e.next == null) {
+                                delta = 1;
+                                val = value;
+                                e.next = new BinNode<>(h, key, value, null);
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (locked) break;
+            }
+        }
+        if (delta > 0) addCount();
+        else if (delta < 0) count.decrement();
+        return val;
+    }
+
+    @Override
+    public void clear() {
+        long delta = 0L;
+        BinNode<K, V>[] tab = table;
+        for (int i = 0; i < tab.length; ) {
+            BinNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                i++;
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, (ForwardingNode<K, V>) f); // finish the resize, then start over
+                i = 0;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        checkNotReserved(f);
+                        for (BinNode<K, V> p = f; p != null; p = p.next) delta--;
+                        setTabAt(tab, i++, null);
+                    }
+                }
+            }
+        }
+        if (delta != 0L) count.add(delta);
+    }
+
+    // ---------------- resize ----------------
+
+    /** Counts an insert and starts or joins a resize if the threshold is reached. */
+    private void addCount() {
+        count.increment();
+        long s = count.sum();
+        BinNode<K, V>[] tab;
+        int sc;
+        while (s >= (sc = sizeCtl) && (tab = table).length < MAXIMUM_CAPACITY) {
+            int rs = resizeStamp(tab.length);
+            if (sc < 0) {
+                BinNode<K, V>[] nt = nextTable;
+                if ((sc >>> RESIZE_STAMP_SHIFT) != rs || sc == (rs << RESIZE_STAMP_SHIFT) + 1
+                        || sc == (rs << RESIZE_STAMP_SHIFT) + MAX_RESIZERS || nt == null || transferIndex <= 0) {
+                    break; // another resize generation, finishing, or nothing left to claim
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) transfer(tab, nt);
+            } else if (SIZE_CTL.compareAndSet(this, sc, (rs << RESIZE_STAMP_SHIFT) + 2)) {
+                transfer(tab, null);
+            }
+            s = count.sum();
+        }
+    }
+
+    /** Joins the resize a writer ran into; returns the table to retry on. */
+    private BinNode<K, V>[] helpTransfer(BinNode<K, V>[] tab, ForwardingNode<K, V> f) {
+        BinNode<K, V>[] nextTab = f.nextTable;
+        int rs = resizeStamp(tab.length);
+        int sc;
+        while (nextTab == nextTable && table == tab && (sc = sizeCtl) < 0) {
+            if ((sc >>> RESIZE_STAMP_SHIFT) != rs || sc == (rs << RESIZE_STAMP_SHIFT) + 1
+                    || sc == (rs << RESIZE_STAMP_SHIFT) + MAX_RESIZERS || transferIndex <= 0) {
+                break;
+            }
+            if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                transfer(tab, nextTab);
+                break;
+            }
+        }
+        return nextTab;
+    }
+
+    /**
+     * Copies bins of {@code tab} into {@code nextTab} (allocated here by the first resizer), claiming STRIDE bins at
+     * a time from the top. Each copied bin is replaced by a forwarding node; the last thread out rechecks every bin
+     * and publishes the new table.
+     */
+    @SuppressWarnings("unchecked")
+    private void transfer(BinNode<K, V>[] tab, BinNode<K, V>[] nextTab) {
+        int n = tab.length;
+        int stride = Math.max(MIN_TRANSFER_STRIDE, NCPU > 1 ? (n >>> 3) / NCPU : n);
+        if (nextTab == null) {
+            nextTab = newTable(n << 1);
+            nextTable = nextTab;
+            transferIndex = n;
+        }
+        ForwardingNode<K, V> fwd = new ForwardingNode<>(nextTab);
+        boolean advance = true, finishing = false;
+        for (int i = 0, bound = 0; ; ) {
+            while (advance) {
+                int nextIndex, nextBound;
+                if (--i >= bound || finishing) {
+                    advance = false;
+                } else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                } else if (TRANSFER_INDEX.compareAndSet(this, nextIndex,
+                        nextBound = (nextIndex > stride ? nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0) {
+                if (finishing) {
+                    nextTable = null;
+                    table = nextTab;
+                    sizeCtl = (n << 1) - (n >>> 1); // 3/4 of the new capacity
+                    return;
+                }
+                int sc = sizeCtl;
+                if (SIZE_CTL.compareAndSet(this, sc, sc - 1)) {
+                    if (sc - 2 != resizeStamp(n) << RESIZE_STAMP_SHIFT) return; // others are still copying
+                    finishing = advance = true;
+                    i = n; // last one out: recheck every bin before publishing
+                }
+                continue;
+            }
+            BinNode<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                advance = casTabAt(tab, i, null, fwd);
+            } else if (f.hash == MOVED) {
+                advance = true;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        // readers may be walking the old chain, so the nodes are copied instead of relinked
+                        BinNode<K, V> lo = null, hi = null;
+                        for (BinNode<K, V> p = f; p != null; p = p.next) {
+                            if ((p.hash & n) == 0) lo = new BinNode<>(p.hash, p.key, p.val, lo);
+                            else hi = new BinNode<>(p.hash, p.key, p.val, hi);
+                        }
+                        setTabAt(nextTab, i, lo);
+                        setTabAt(nextTab, i + n, hi);
+                        setTabAt(tab, i, fwd);
+                        advance = true;
+                    }
+                    // a reservation node is only ever locked by its owner, who replaces it before unlocking,
+                    // so after we got its monitor the bin has changed and we simply look again
+                }
+            }
+        }
+    }
+
+    private static int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_SHIFT - 1));
+    }
+
+    // ---------------- views ----------------
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        EntrySet es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet());
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override public int size() { return ConcurrentCustomHashMap.this.size(); }
+        @Override public boolean isEmpty() { return ConcurrentCustomHashMap.this.isEmpty(); }
+        @Override public void clear() { ConcurrentCustomHashMap.this.clear(); }
+        @Override public Iterator<Entry<K, V>> iterator() { return new EntryIterator(); }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> e) || e.getKey() == null) return false;
+            V v = get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Map.Entry<?, ?> e && e.getKey() != null
+                    && ConcurrentCustomHashMap.this.remove(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Weakly consistent: never throws ConcurrentModificationException, returns every mapping that exists for the whole
+     * iteration exactly once, and may or may not see concurrent updates. A forwarded bin i of a table of length n is
+     * continued in bins i and i + n of the next table.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final ArrayDeque<Frame<K, V>> frames = new ArrayDeque<>();
+        private BinNode<K, V> next;
+        private BinNode<K, V> lastReturned;
+
+        EntryIterator() {
+            BinNode<K, V>[] tab = table;
+            frames.push(new Frame<>(tab, 0, tab.length, 1));
+            advance(null);
+        }
+
+        private void advance(BinNode<K, V> e) {
+            while (e == null) {
+                Frame<K, V> frame = frames.peek();
+                if (frame == null) break;
+                if (frame.index >= frame.end) {
+                    frames.pop();
+                    continue;
+                }
+                int i = frame.index;
+                frame.index += frame.step;
+                BinNode<K, V> head = tabAt(frame.tab, i);
+                if (head instanceof ForwardingNode<K, V> fwd) {
+                    int n = frame.tab.length;
+                    frames.push(new Frame<>(fwd.nextTable, i, i + n + 1, n));
+                } else if (head != null && head.hash >= 0) {
+                    e = head;
+                }
+            }
+            next = e;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        BinNode<K, V> nextNode() {
+            BinNode<K, V> e = next;
+            if (e == null) throw new NoSuchElementException();
+            lastReturned = e;
+            advance(e.next);
+            return e;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            BinNode<K, V> e = nextNode();
+            return new MapEntry(e.key, e.val);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            ConcurrentCustomHashMap.this.remove(lastReturned.key);
+            lastReturned = null;
+        }
+    }
+
+    /** Bins {@code index, index + step, ...} below {@code end} of one table. */
+    private static final class Frame<K, V> {
+        final BinNode<K, V>[] tab;
+        final int end;
+        final int step;
+        int index;
+
+        Frame(BinNode<K, V>[] tab, int index, int end, int step) {
+            this.tab = tab;
+            this.index = index;
+            this.end = end;
+            this.step = step;
+        }
+    }
+
+    /** Snapshot entry; setValue writes through with put, like ConcurrentHashMap's. */
+    private final class MapEntry extends AbstractMap.SimpleEntry<K, V> {
+        MapEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            Objects.requireNonNull(value, "value");
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+
+    // ---------------- nodes ----------------
+
+    /** Chain node; val and next are volatile so lock-free readers see writes made under the bin lock. */
+    static class BinNode<K, V> {
+        final int hash;
+        final K key;
+        volatile V val;
+        volatile BinNode<K, V> next;
+
+        BinNode(int hash, K key, V val, BinNode<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.val = val;
+            this.next = next;
+        }
+
+        /** Lookup starting at this node; overridden by the special nodes. */
+        BinNode<K, V> find(int h, Object k) {
+            for (BinNode<K, V> e = this; e != null; e = e.next) {
+                if (e.hash == h && (e.key == k || k.equals(e.key))) return e;
+            }
+            return null;
+        }
+    }
+
+    /** Head of a bin that has been copied to {@link #nextTable}. */
+    static final class ForwardingNode<K, V> extends BinNode<K, V> {
+        final BinNode<K, V>[] nextTable;
+
+        ForwardingNode(BinNode<K, V>[] nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+
+        @Override
+        BinNode<K, V> find(int h, Object k) {
+            outer:
+            for (BinNode<K, V>[] tab = nextTable; ; ) {
+                BinNode<K, V> e = tabAt(tab, Hashing.indexFor(h, tab.length));
+                for (; e != null; e = e.next) {
+                    if (e.hash < 0) {
+                        if (e instanceof ForwardingNode<K, V> f) { // resized again meanwhile
+                            tab = f.nextTable;
+                            continue outer;
+                        }
+                        return e.find(h, k);
+                    }
+                    if (e.hash == h && (e.key == k || k.equals(e.key))) return e;
+                }
+                return null;
+            }
+        }
+    }
+
+    /** Placeholder holding an empty bin's lock while computeIfAbsent runs; reads as an empty bin. */
+    static final class ReservationNode<K, V> extends BinNode<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+
+        @Override
+        BinNode<K, V> find(int h, Object k) {
+            return null;
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    /** Spread hash of a non-null key, with the sign bit cleared (negative hashes mark special nodes). */
+    static int spread(Object key) {
+        Objects.requireNonNull(key, "key");
+        return Hashing.spreadHash(key) & HASH_BITS;
+    }
+
+    /**
+     * The calling thread already owns the bin's reservation, i.e. a computeIfAbsent mapping function is updating
+     * this map. Throwing beats corrupting the bin.
+     */
+    private static void checkNotReserved(BinNode<?, ?> f) {
+        if (f instanceof ReservationNode) throw new IllegalStateException("Recursive update");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> BinNode<K, V>[] newTable(int capacity) {
+        return (BinNode<K, V>[]) new BinNode[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> BinNode<K, V> tabAt(BinNode<K, V>[] tab, int i) {
+        return (BinNode<K, V>) BIN.getAcquire(tab, i);
+    }
+
+    private static <K, V> boolean casTabAt(BinNode<K, V>[] tab, int i, BinNode<K, V> expected, BinNode<K, V> node) {
+        return BIN.compareAndSet(tab, i, expected, node);
+    }
+
+    private static <K, V> void setTabAt(BinNode<K, V>[] tab, int i, BinNode<K, V> node) {
+        BIN.setRelease(tab, i, node);
+    }
+}
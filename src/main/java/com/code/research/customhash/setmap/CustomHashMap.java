@@ -1,5 +1,10 @@
 package com.code.research.customhash.setmap;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.BiConsumer;
@@ -8,9 +13,11 @@ import java.util.function.BiConsumer;
  * CustomHashMap<K,V> — JDK-HashMap-like design:
  * - power-of-two table sizes
  * - spread hash: h ^ (h >>> 16)
- * - separate chaining (linked lists)
+ * - separate chaining (linked lists); a chain reaching TREEIFY_THRESHOLD entries becomes a balanced
+ *   tree (see {@link TreeNode}) so colliding keys cost O(log n), and goes back to a list at UNTREEIFY_THRESHOLD
  * - supports null keys
  * - fail-fast iterators
+ * - optional incremental resize (see {@link #CustomHashMap(int, float, boolean)})
  *
  * Provides map views: keySet(), values(), entrySet()
  */
@@ -22,11 +29,37 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
     static final int MAXIMUM_CAPACITY = 1 << 30;
     static final float DEFAULT_LOAD_FACTOR = 0.75f;
 
-    private Node<K, V>[] table;
-    private int size;
-    private int threshold;
+    static final int TREEIFY_THRESHOLD = 8;
+    static final int UNTREEIFY_THRESHOLD = 6;
+    /** Smaller tables resize instead of treeifying: the collisions may just be a too small table. */
+    static final int MIN_TREEIFY_CAPACITY = 64;
+
+    /**
+     * Minimum old buckets moved per insert/remove while an incremental resize is running. The table doubles, so
+     * the next resize is loadFactor * oldCapacity inserts away; {@link #migrateBucketsPerOp} raises the step for
+     * load factors below 1/4 so that the migration (oldCapacity / step ops) is done halfway there.
+     */
+    static final int MIGRATE_BUCKETS_PER_OP = 8;
+
+    // the table is rebuilt on deserialization (see writeObject); only loadFactor and incrementalResize are serialized
+    private transient Node<K, V>[] table;
+    /** Tree roots of treeified bins (null entry = plain chain); allocated with the first tree. */
+    private transient TreeNode<K, V>[] trees;
+    private transient long treeSeq;
+    private transient int size;
+    private transient int threshold;
     private final float loadFactor;
 
+    private final boolean incrementalResize;
+    /**
+     * Previous table while an incremental resize is migrating (null otherwise). A key lives in exactly one table:
+     * in {@code oldTable} if its old bucket is non-null, else in {@code table}. New keys always go to
+     * {@code table}, after their old bucket was moved.
+     */
+    private transient Node<K, V>[] oldTable;
+    private transient TreeNode<K, V>[] oldTrees;
+    private transient int migrateIndex;
+
     /** Structural modification count for fail-fast iterators. */
     transient int modCount;
 
@@ -44,11 +77,22 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
     }
 
     public CustomHashMap(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, false);
+    }
+
+    /**
+     * @param incrementalResize if true, growing the table does not rehash everything inside the put that crosses
+     *                          the threshold: old and new tables coexist and every insert/remove moves
+     *                          {@link #migrateBucketsPerOp} old buckets, so no single put pays for the whole
+     *                          rehash (allocating the new, empty table is still done at once)
+     */
+    public CustomHashMap(int initialCapacity, float loadFactor, boolean incrementalResize) {
         if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity < 0");
         if (!(loadFactor > 0.0f) || Float.isNaN(loadFactor)) {
             throw new IllegalArgumentException("invalid loadFactor: " + loadFactor);
         }
         this.loadFactor = loadFactor;
+        this.incrementalResize = incrementalResize;
 
         int cap = Hashing.tableSizeFor(Math.max(DEFAULT_INITIAL_CAPACITY, initialCapacity), MAXIMUM_CAPACITY);
         this.table = Hashing.newTable(cap);
@@ -58,6 +102,7 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
     // --- package-friendly accessors for HashSet clone sizing ---
     int capacity() { return table.length; }
     float loadFactor() { return loadFactor; }
+    boolean isResizing() { return oldTable != null; }
 
     @Override public int size() { return size; }
     @Override public boolean isEmpty() { return size == 0; }
@@ -69,15 +114,22 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
 
     @Override
     public boolean containsValue(Object value) {
-        Node<K,V>[] tab = table;
-        for (Node<K,V> head : tab) {
-            for (Node<K,V> n = head; n != null; n = n.next) {
-                if (Objects.equals(n.value, value)) return true;
+        for (Node<K,V>[] tab : tables()) {
+            for (Node<K,V> head : tab) {
+                for (Node<K,V> n = head; n != null; n = n.next) {
+                    if (Objects.equals(n.value, value)) return true;
+                }
             }
         }
         return false;
     }
 
+    /** The tables holding entries: the old one first while a resize is migrating. */
+    @SuppressWarnings("unchecked")
+    private Node<K,V>[][] tables() {
+        return (oldTable == null) ? new Node[][]{table} : new Node[][]{oldTable, table};
+    }
+
     @Override
     public V get(Object key) {
         Node<K,V> n = getNode(key);
@@ -86,8 +138,18 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
 
     private Node<K,V> getNode(Object key) {
         int h = Hashing.spreadHash(key);
-        int idx = Hashing.indexFor(h, table.length);
-        for (Node<K,V> n = table[idx]; n != null; n = n.next) {
+        Node<K,V>[] old = oldTable;
+        if (old != null) {
+            int oi = Hashing.indexFor(h, old.length);
+            if (old[oi] != null) return findNode(old, oldTrees, oi, h, key);
+        }
+        return findNode(table, trees, Hashing.indexFor(h, table.length), h, key);
+    }
+
+    private static <K,V> Node<K,V> findNode(Node<K,V>[] tab, TreeNode<K,V>[] trs, int idx, int h, Object key) {
+        TreeNode<K,V> root = (trs == null) ? null : trs[idx];
+        if (root != null) return TreeNode.find(root, h, key);
+        for (Node<K,V> n = tab[idx]; n != null; n = n.next) {
             if (n.hash == h && Objects.equals(n.key, key)) return n;
         }
         return null;
@@ -105,44 +167,110 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
 
     private V putVal(K key, V value, boolean onlyIfAbsent) {
         int h = Hashing.spreadHash(key);
-        int idx = Hashing.indexFor(h, table.length);
-
-        for (Node<K,V> n = table[idx]; n != null; n = n.next) {
-            if (n.hash == h && Objects.equals(n.key, key)) {
-                V old = n.value;
-                if (!onlyIfAbsent) n.value = value;
-                return old;
-            }
+        Node<K,V> e = getNode(key);
+        if (e != null) {
+            V old = e.value;
+            if (!onlyIfAbsent) e.value = value;
+            return old;
         }
 
-        // insert at head
-        table[idx] = new Node<>(h, key, value, table[idx]);
-        size++;
-        modCount++;
+        if (oldTable != null) migrateBucket(Hashing.indexFor(h, oldTable.length));
+        int idx = Hashing.indexFor(h, table.length);
+        TreeNode<K,V> root = treeAt(idx);
+        if (root != null) {
+            TreeNode<K,V> t = new TreeNode<>(h, key, value, ++treeSeq);
+            TreeNode<K,V> first = (TreeNode<K,V>) table[idx];
+            t.next = first;
+            first.prev = t;
+            table[idx] = t;
+            trees[idx] = TreeNode.insert(root, t);
+            size++;
+            modCount++;
+        } else {
+            int binCount = chainLength(table[idx]);
+            // insert at head
+            table[idx] = new Node<>(h, key, value, table[idx]);
+            size++;
+            modCount++;
+            if (binCount + 1 >= TREEIFY_THRESHOLD) treeifyBin(idx);
+        }
 
+        if (oldTable != null) migrateStep();
         if (size > threshold) resize();
         return null;
     }
 
+    private TreeNode<K,V> treeAt(int idx) {
+        return (trees == null) ? null : trees[idx];
+    }
+
+    /** Converts the chain at {@code idx} into a tree (or resizes while the table is small). */
+    @SuppressWarnings("unchecked")
+    private void treeifyBin(int idx) {
+        if (table.length < MIN_TREEIFY_CAPACITY) {
+            resize();
+            return;
+        }
+        TreeNode<K,V> root = null;
+        TreeNode<K,V> first = null;
+        TreeNode<K,V> last = null;
+        for (Node<K,V> n = table[idx]; n != null; ) {
+            Node<K,V> next = n.next;
+            // nodes of a former tree bin are reused, so entries handed out keep pointing into the map
+            TreeNode<K,V> t = (n instanceof TreeNode<K,V> tn) ? tn : new TreeNode<>(n.hash, n.key, n.value, ++treeSeq);
+            t.next = null;
+            t.prev = last;
+            if (last == null) first = t; else last.next = t;
+            last = t;
+            root = TreeNode.insert(root, t);
+            n = next;
+        }
+        table[idx] = first;
+        if (trees == null) trees = (TreeNode<K,V>[]) new TreeNode[table.length];
+        trees[idx] = root;
+    }
+
     @Override
     public V remove(Object key) {
-        return removeNode(key);
+        return removeNode(key, true);
     }
 
-    private V removeNode(Object key) {
+    /**
+     * @param migrate false when called from an iterator: moving buckets between the tables under a running
+     *                iterator could make it return entries twice
+     */
+    private V removeNode(Object key, boolean migrate) {
         int h = Hashing.spreadHash(key);
+        Node<K,V>[] tab = table;
+        TreeNode<K,V>[] trs = trees;
         int idx = Hashing.indexFor(h, table.length);
+        if (oldTable != null) {
+            int oi = Hashing.indexFor(h, oldTable.length);
+            if (oldTable[oi] != null) {
+                tab = oldTable;
+                trs = oldTrees;
+                idx = oi;
+            }
+        }
 
+        TreeNode<K,V> root = (trs == null) ? null : trs[idx];
+        Node<K,V> removed = (root != null) ? removeTreeNode(tab, trs, idx, root, h, key) : removeChainNode(tab, idx, h, key);
+        if (removed == null) return null;
+        size--;
+        modCount++;
+        if (migrate && oldTable != null) migrateStep();
+        return removed.value;
+    }
+
+    private static <K,V> Node<K,V> removeChainNode(Node<K,V>[] tab, int idx, int h, Object key) {
         Node<K,V> prev = null;
-        Node<K,V> cur = table[idx];
+        Node<K,V> cur = tab[idx];
 
         while (cur != null) {
             Node<K,V> next = cur.next;
             if (cur.hash == h && Objects.equals(cur.key, key)) {
-                if (prev == null) table[idx] = next; else prev.next = next;
-                size--;
-                modCount++;
-                return cur.value;
+                if (prev == null) tab[idx] = next; else prev.next = next;
+                return cur;
             }
             prev = cur;
             cur = next;
@@ -150,10 +278,37 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         return null;
     }
 
+    private static <K,V> Node<K,V> removeTreeNode(Node<K,V>[] tab, TreeNode<K,V>[] trs, int idx,
+                                                  TreeNode<K,V> root, int h, Object key) {
+        TreeNode<K,V> n = TreeNode.find(root, h, key);
+        if (n == null) return null;
+
+        TreeNode<K,V> next = (TreeNode<K,V>) n.next;
+        if (n.prev == null) tab[idx] = next; else n.prev.next = next;
+        if (next != null) next.prev = n.prev;
+        root = TreeNode.delete(root, n);
+
+        // a height-3 AVL tree has at most 7 nodes, so only small trees need counting
+        if (root == null || root.height <= 3 && chainLength(tab[idx]) <= UNTREEIFY_THRESHOLD) {
+            root = null; // the chain is already a valid plain bin
+        }
+        trs[idx] = root;
+        return n;
+    }
+
+    private static int chainLength(Node<?,?> n) {
+        int len = 0;
+        for (; n != null; n = n.next) len++;
+        return len;
+    }
+
     @Override
     public void clear() {
         if (size == 0) return;
         Arrays.fill(table, null);
+        trees = null;
+        oldTable = null;
+        oldTrees = null;
         size = 0;
         modCount++;
     }
@@ -168,6 +323,7 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         }
     }
 
+    /** Pre-sizing is an explicit bulk operation, so it rehashes at once even in incremental mode. */
     void ensureCapacityFor(int expectedSize) {
         if (expectedSize <= threshold) return;
 
@@ -176,7 +332,10 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         while (target < MAXIMUM_CAPACITY && expectedSize > (int) (target * loadFactor)) {
             target <<= 1;
         }
-        if (target != cap) resizeTo(target);
+        if (target != cap) {
+            resizeTo(target);
+            finishMigration();
+        }
     }
 
     private void resize() {
@@ -190,24 +349,75 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         resizeTo(newCap);
     }
 
+    /** Swaps in an empty table of {@code newCap}; the entries move now, or step by step in incremental mode. */
     private void resizeTo(int newCap) {
-        Node<K,V>[] oldTab = table;
-        Node<K,V>[] newTab = Hashing.newTable(newCap);
-
-        for (Node<K,V> head : oldTab) {
-            Node<K,V> n = head;
-            while (n != null) {
-                Node<K,V> next = n.next;
-                int idx = Hashing.indexFor(n.hash, newCap);
-                n.next = newTab[idx];
-                newTab[idx] = n;
-                n = next;
+        finishMigration(); // at most one migration at a time
+        oldTable = table;
+        oldTrees = trees;
+        migrateIndex = 0;
+        table = Hashing.newTable(newCap);
+        trees = null;
+        threshold = Hashing.calcThreshold(newCap, loadFactor);
+        if (incrementalResize) {
+            migrateStep();
+        } else {
+            finishMigration();
+        }
+        modCount++; // structural change
+    }
+
+    /** At least {@code 2 / loadFactor} buckets, capped so that {@code migrateIndex + step} cannot overflow. */
+    static int migrateBucketsPerOp(float loadFactor) {
+        return (int) Math.max(MIGRATE_BUCKETS_PER_OP, Math.min(Math.ceil(2 / loadFactor), MAXIMUM_CAPACITY));
+    }
+
+    private void migrateStep() {
+        int end = Math.min(migrateIndex + migrateBucketsPerOp(loadFactor), oldTable.length);
+        for (; migrateIndex < end; migrateIndex++) migrateBucket(migrateIndex);
+        if (migrateIndex == oldTable.length) {
+            oldTable = null;
+            oldTrees = null;
+        }
+    }
+
+    private void finishMigration() {
+        if (oldTable == null) return;
+        for (; migrateIndex < oldTable.length; migrateIndex++) migrateBucket(migrateIndex);
+        oldTable = null;
+        oldTrees = null;
+    }
+
+    /** Moves old bucket {@code oi} (possibly ahead of {@link #migrateIndex}) into the new table. */
+    private void migrateBucket(int oi) {
+        Node<K,V> n = oldTable[oi];
+        if (n == null) return;
+        boolean wasTree = oldTrees != null && oldTrees[oi] != null;
+        oldTable[oi] = null;
+        if (wasTree) oldTrees[oi] = null;
+
+        Node<K,V>[] tab = table;
+        while (n != null) {
+            Node<K,V> next = n.next;
+            int idx = Hashing.indexFor(n.hash, tab.length);
+            n.next = tab[idx];
+            tab[idx] = n;
+            n = next;
+        }
+        // a split tree bin comes out as plain chains; the ones still long enough become trees again
+        if (wasTree) {
+            for (int idx = oi; idx < tab.length; idx += oldTable.length) {
+                if (chainLength(tab[idx]) >= TREEIFY_THRESHOLD) treeifyBin(idx);
             }
         }
+    }
 
-        table = newTab;
-        threshold = Hashing.calcThreshold(newCap, loadFactor);
-        modCount++; // structural change
+    /** True if the bin holding {@code key} is currently a tree (for tests and demos). */
+    boolean isTreeBin(Object key) {
+        int h = Hashing.spreadHash(key);
+        if (oldTable != null && oldTable[Hashing.indexFor(h, oldTable.length)] != null) {
+            return oldTrees != null && oldTrees[Hashing.indexFor(h, oldTable.length)] != null;
+        }
+        return treeAt(Hashing.indexFor(h, table.length)) != null;
     }
 
     // ---- Map views ----
@@ -234,6 +444,8 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
 
     abstract class HashIterator<T> implements Iterator<T> {
         int expectedModCount = modCount;
+        final Node<K,V>[] newTab = table;
+        Node<K,V>[] tab = (oldTable != null) ? oldTable : table; // old table first while a resize is migrating
         int bucketIndex = 0;
         Node<K,V> next;
         Node<K,V> lastReturned;
@@ -243,8 +455,13 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         }
 
         private void advanceToNextNonEmptyBucket() {
-            while (bucketIndex < table.length && (next = table[bucketIndex]) == null) {
-                bucketIndex++;
+            while (true) {
+                while (bucketIndex < tab.length && (next = tab[bucketIndex]) == null) {
+                    bucketIndex++;
+                }
+                if (next != null || tab == newTab) return;
+                tab = newTab;
+                bucketIndex = 0;
             }
         }
 
@@ -274,7 +491,7 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         public void remove() {
             checkForComodification();
             if (lastReturned == null) throw new IllegalStateException("next() not called or already removed");
-            CustomHashMap.this.remove(lastReturned.key);
+            removeNode(lastReturned.key, false);
             lastReturned = null;
             expectedModCount = modCount;
         }
@@ -390,9 +607,11 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
     public void forEach(BiConsumer<? super K, ? super V> action) {
         Objects.requireNonNull(action, "action");
         int expected = modCount;
-        for (Node<K,V> head : table) {
-            for (Node<K,V> n = head; n != null; n = n.next) {
-                action.accept(n.key, n.value);
+        for (Node<K,V>[] tab : tables()) {
+            for (Node<K,V> head : tab) {
+                for (Node<K,V> n = head; n != null; n = n.next) {
+                    action.accept(n.key, n.value);
+                }
             }
         }
         if (modCount != expected) throw new ConcurrentModificationException();
@@ -435,10 +654,49 @@ public final class CustomHashMap<K, V> implements Map<K, V>, Cloneable, Serializ
         }
     }
 
+    /**
+     * Writes capacity, size and the key/value pairs, like java.util.HashMap: the nodes themselves are not
+     * serialized. For large checkpoints see {@link CustomHashMapSnapshot}.
+     */
+    @Serial
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(table.length);
+        s.writeInt(size);
+        for (Node<K,V>[] tab : tables()) {
+            for (Node<K,V> head : tab) {
+                for (Node<K,V> n = head; n != null; n = n.next) {
+                    s.writeObject(n.key);
+                    s.writeObject(n.value);
+                }
+            }
+        }
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (!(loadFactor > 0.0f) || Float.isNaN(loadFactor)) {
+            throw new InvalidObjectException("invalid loadFactor: " + loadFactor);
+        }
+        int capacity = s.readInt();
+        int mappings = s.readInt();
+        if (capacity < 0 || mappings < 0) throw new InvalidObjectException("invalid capacity/size: " + capacity + "/" + mappings);
+
+        int cap = Hashing.tableSizeFor(Math.max(DEFAULT_INITIAL_CAPACITY, capacity), MAXIMUM_CAPACITY);
+        table = Hashing.newTable(cap);
+        threshold = Hashing.calcThreshold(cap, loadFactor);
+        ensureCapacityFor(mappings);
+        for (int i = 0; i < mappings; i++) {
+            put((K) s.readObject(), (V) s.readObject());
+        }
+    }
+
     @Override
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public CustomHashMap<K,V> clone() {
-        CustomHashMap<K,V> copy = new CustomHashMap<>(capacity(), loadFactor);
+        CustomHashMap<K,V> copy = new CustomHashMap<>(capacity(), loadFactor, incrementalResize);
         copy.putAll(this);
         return copy;
     }
@@ -0,0 +1,316 @@
+package com.code.research.customhash.setmap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compact binary snapshot of a {@link CustomHashMap} — a checkpoint format instead of Java serialization of the node graph.
+ * <p>
+ * Layout (big-endian):
+ * - header: int magic "CHMS", int version, float load factor, int entry count
+ * - one record per entry: int key length, key bytes, int value length, value bytes (length -1 = null)
+ * <p>
+ * - {@link #write} streams the records through one reusable buffer into a {@link FileChannel}. It writes a temp file and
+ *   moves it over the target at the end, so a crash never leaves a half-written snapshot under the real name.
+ * - {@link #read} memory-maps the file, sizes the table once from the header count and decodes every record.
+ * - {@link #readLazy} decodes only the keys up front; a value is decoded from the mapping when it is first read.
+ * <p>
+ * Mapped files are limited to 2 GiB (one MappedByteBuffer), and the file must not change while a lazy map uses it.
+ */
+public final class CustomHashMapSnapshot {
+
+    static final int MAGIC = 0x43484D53; // "CHMS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int NULL_LENGTH = -1;
+
+    private CustomHashMapSnapshot() {
+    }
+
+    /**
+     * Writes {@code map} to {@code file}, replacing it. The snapshot goes to a temporary file next to {@code file}
+     * first, which is deleted if writing fails, so {@code file} keeps its previous content.
+     *
+     * @return snapshot size in bytes
+     */
+    public static <K, V> long write(CustomHashMap<K, V> map, Path file,
+                                    SnapshotCodec<? super K> keyCodec, SnapshotCodec<? super V> valueCodec)
+            throws IOException {
+        Objects.requireNonNull(keyCodec, "keyCodec");
+        Objects.requireNonNull(valueCodec, "valueCodec");
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long bytes;
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                buf.putInt(MAGIC).putInt(VERSION).putFloat(map.loadFactor()).putInt(map.size());
+                for (Map.Entry<K, V> e : map.entrySet()) {
+                    buf = putField(ch, buf, e.getKey() == null ? null : keyCodec.encode(e.getKey()));
+                    buf = putField(ch, buf, e.getValue() == null ? null : valueCodec.encode(e.getValue()));
+                }
+                flush(ch, buf);
+                ch.force(false);
+                bytes = ch.size();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Throwable t) { // e.g. a codec throwing: leave no partial snapshot behind
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException e) {
+                t.addSuppressed(e);
+            }
+            throw t;
+        }
+        return bytes;
+    }
+
+    /** Restores a snapshot into a new map whose table is sized for the entry count up front. */
+    public static <K, V> CustomHashMap<K, V> read(Path file, SnapshotCodec<? extends K> keyCodec,
+                                                  SnapshotCodec<? extends V> valueCodec) throws IOException {
+        ByteBuffer buf = map(file);
+        int count = readHeader(buf, file);
+        CustomHashMap<K, V> map = newMap(buf, count);
+        for (int i = 0; i < count; i++) {
+            K key = readField(buf, keyCodec, file);
+            V value = readField(buf, valueCodec, file);
+            map.put(key, value);
+        }
+        checkFullyRead(buf, file);
+        return map;
+    }
+
+    /**
+     * Restores the keys only; each value stays in the mapped file until it is first read through the returned map
+     * (get, iteration, put/remove returning it). Pays off when a restored map is mostly probed for membership or
+     * only a small part of it is read.
+     */
+    public static <K, V> Map<K, V> readLazy(Path file, SnapshotCodec<? extends K> keyCodec,
+                                            SnapshotCodec<? extends V> valueCodec) throws IOException {
+        Objects.requireNonNull(valueCodec, "valueCodec");
+        ByteBuffer buf = map(file);
+        int count = readHeader(buf, file);
+        CustomHashMap<K, Object> map = newMap(buf, count);
+        for (int i = 0; i < count; i++) {
+            K key = readField(buf, keyCodec, file);
+            int offset = buf.position();
+            int length = readLength(buf, file);
+            if (length == NULL_LENGTH) {
+                map.put(key, null);
+            } else {
+                buf.position(buf.position() + length);
+                map.put(key, new Pending(offset));
+            }
+        }
+        checkFullyRead(buf, file);
+        return new LazyMap<>(map, buf, valueCodec);
+    }
+
+    // ---------------- writing ----------------
+
+    private static ByteBuffer putField(FileChannel ch, ByteBuffer buf, byte[] bytes) throws IOException {
+        int length = (bytes == null) ? NULL_LENGTH : bytes.length;
+        if (buf.remaining() < Integer.BYTES) flush(ch, buf);
+        buf.putInt(length);
+        if (length <= 0) return buf;
+        if (buf.remaining() < length) {
+            flush(ch, buf);
+            if (length > buf.capacity()) { // larger than the buffer: write it straight from the array
+                writeFully(ch, ByteBuffer.wrap(bytes));
+                return buf;
+            }
+        }
+        return buf.put(bytes);
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        writeFully(ch, buf);
+        buf.clear();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) ch.write(src);
+    }
+
+    // ---------------- reading ----------------
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("snapshot larger than 2 GiB: " + file);
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, size); // the mapping stays valid after close
+        }
+    }
+
+    private static int readHeader(ByteBuffer buf, Path file) throws IOException {
+        if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC) throw new IOException("not a snapshot: " + file);
+        int version = buf.getInt();
+        if (version != VERSION) throw new IOException("unsupported snapshot version " + version + ": " + file);
+        float loadFactor = buf.getFloat(); // read again by newMap
+        if (!(loadFactor > 0)) throw new IOException("corrupt snapshot (load factor " + loadFactor + "): " + file);
+        int count = buf.getInt();
+        // every entry needs at least two length prefixes, so a larger count is corrupt (and must not size the table)
+        if (count < 0 || count > buf.remaining() / (2 * Integer.BYTES)) {
+            throw new IOException("corrupt snapshot (entry count " + count + "): " + file);
+        }
+        return count;
+    }
+
+    private static <K, V> CustomHashMap<K, V> newMap(ByteBuffer buf, int count) {
+        CustomHashMap<K, V> map = new CustomHashMap<>(CustomHashMap.DEFAULT_INITIAL_CAPACITY, buf.getFloat(8));
+        map.ensureCapacityFor(count);
+        return map;
+    }
+
+    private static int readLength(ByteBuffer buf, Path file) throws IOException {
+        if (buf.remaining() < Integer.BYTES) throw truncated(buf, file);
+        int length = buf.getInt();
+        if (length < NULL_LENGTH || length > buf.remaining()) throw truncated(buf, file);
+        return length;
+    }
+
+    private static <T> T readField(ByteBuffer buf, SnapshotCodec<? extends T> codec, Path file) throws IOException {
+        int length = readLength(buf, file);
+        if (length == NULL_LENGTH) return null;
+        int start = buf.position();
+        buf.position(start + length);
+        return codec.decode(buf.slice(start, length).asReadOnlyBuffer());
+    }
+
+    private static void checkFullyRead(ByteBuffer buf, Path file) throws IOException {
+        if (buf.hasRemaining()) throw new IOException("corrupt snapshot (trailing bytes): " + file);
+    }
+
+    private static IOException truncated(ByteBuffer buf, Path file) {
+        return new IOException("corrupt or truncated snapshot at offset " + buf.position() + ": " + file);
+    }
+
+    /** Value not decoded yet: position of its length prefix in the mapping. */
+    private record Pending(int offset) {
+    }
+
+    /**
+     * Map returned by {@link #readLazy}: the restored CustomHashMap holds {@link Pending} markers that are replaced
+     * by decoded values on first access. Not thread-safe, like CustomHashMap.
+     */
+    private static final class LazyMap<K, V> extends AbstractMap<K, V> {
+        private final CustomHashMap<K, Object> map;
+        private final ByteBuffer file;
+        private final SnapshotCodec<? extends V> codec;
+        private Set<Entry<K, V>> entrySet;
+
+        LazyMap(CustomHashMap<K, Object> map, ByteBuffer file, SnapshotCodec<? extends V> codec) {
+            this.map = map;
+            this.file = file;
+            this.codec = codec;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V resolve(Object v) {
+            if (!(v instanceof Pending p)) return (V) v;
+            int length = file.getInt(p.offset());
+            return codec.decode(file.slice(p.offset() + Integer.BYTES, length).asReadOnlyBuffer());
+        }
+
+        @Override public int size() { return map.size(); }
+        @Override public boolean containsKey(Object key) { return map.containsKey(key); }
+        @Override public void clear() { map.clear(); }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            Object v = map.get(key);
+            V value = resolve(v);
+            if (v instanceof Pending) map.put((K) key, value); // key is present, so this only replaces the marker
+            return value;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            return resolve(map.put(key, value));
+        }
+
+        @Override
+        public V remove(Object key) {
+            return resolve(map.remove(key));
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            Set<Entry<K, V>> es = entrySet;
+            return (es != null) ? es : (entrySet = new AbstractSet<>() {
+                @Override public int size() { return map.size(); }
+                @Override public void clear() { map.clear(); }
+
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    Iterator<Entry<K, Object>> it = map.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override public boolean hasNext() { return it.hasNext(); }
+                        @Override public void remove() { it.remove(); }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            Entry<K, Object> e = it.next();
+                            return new LazyEntry(e);
+                        }
+                    };
+                }
+            });
+        }
+
+        /** Decodes on getValue and stores the result in the underlying node. */
+        private final class LazyEntry implements Entry<K, V> {
+            private final Entry<K, Object> node;
+
+            LazyEntry(Entry<K, Object> node) {
+                this.node = node;
+            }
+
+            @Override public K getKey() { return node.getKey(); }
+
+            @Override
+            public V getValue() {
+                Object v = node.getValue();
+                V value = resolve(v);
+                if (v instanceof Pending) node.setValue(value);
+                return value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                return resolve(node.setValue(value));
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Entry<?, ?> e && Objects.equals(getKey(), e.getKey())
+                        && Objects.equals(getValue(), e.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return getKey() + "=" + getValue();
+            }
+        }
+    }
+}
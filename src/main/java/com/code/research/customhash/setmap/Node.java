@@ -7,7 +7,7 @@ import java.util.Objects;
  * Map entry node for a single bucket chain (separate chaining).
  * Implements Map.Entry like java.util.HashMap.Node.
  */
-final class Node<K, V> implements Map.Entry<K, V> {
+class Node<K, V> implements Map.Entry<K, V> {
 
     final int hash;
     final K key;
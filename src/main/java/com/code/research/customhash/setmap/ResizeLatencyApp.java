@@ -0,0 +1,61 @@
+package com.code.research.customhash.setmap;
+
+import com.code.research.customhash.set.CustomHashSet;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Per-put latency of blocking vs incremental resize in {@link CustomHashMap} and {@link CustomHashSet}.
+ * <p>
+ * - Each put is timed with {@link System#nanoTime()}; the tail (p99.9 / max) is where a blocking resize shows up,
+ *   since the put that crosses the threshold rehashes every entry.
+ * - Incremental mode pays a few buckets per put instead, so the tail shrinks and the median moves slightly.
+ * - Both modes still allocate the doubled table in one go; with a large heap that array zeroing is what remains of the spike.
+ * <p>
+ * Run with a fixed heap (e.g. {@code -Xms2g -Xmx2g}); rough main()-style measurement.
+ */
+@Slf4j
+public class ResizeLatencyApp {
+
+    private static final int KEYS = 4_000_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        Integer[] keys = new Integer[KEYS];
+        for (int i = 0; i < KEYS; i++) keys[i] = i * 0x9E37_79B9; // pre-boxed, spread over the int range
+
+        for (int round = 1; round <= ROUNDS; round++) { // first rounds double as warm-up
+            for (boolean incremental : new boolean[]{false, true}) {
+                CustomHashMap<Integer, Integer> map = new CustomHashMap<>(16, 0.75f, incremental);
+                report(round, "map", incremental, time(i -> map.put(keys[i], i)));
+
+                CustomHashSet<Integer> set = new CustomHashSet<>(16, 0.75f, incremental);
+                report(round, "set", incremental, time(i -> set.add(keys[i])));
+            }
+        }
+    }
+
+    private static long[] time(IntConsumer put) {
+        long[] nanos = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            long start = System.nanoTime();
+            put.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(int round, String kind, boolean incremental, long[] sorted) {
+        log.info("round {} {} {}: p50 {} ns, p99 {} ns, p99.9 {} ns, p99.99 {} us, max {} us",
+                round, kind, incremental ? "incremental" : "blocking   ",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                percentile(sorted, 0.9999) / 1_000, sorted[sorted.length - 1] / 1_000);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+}
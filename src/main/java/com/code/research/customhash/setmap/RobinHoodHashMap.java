@@ -0,0 +1,503 @@
+package com.code.research.customhash.setmap;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * RobinHoodHashMap<K,V> — open-addressing alternative to {@link CustomHashMap}:
+ * - parallel arrays hashes[] / keys[] / vals[] (no Node per mapping, no pointer chase per probe)
+ * - power-of-two table sizes, same {@link Hashing} spread/index/sizing helpers
+ * - linear probing with Robin Hood displacement: an insert takes the slot of any entry that sits closer
+ *   to its home slot than the inserted one would, so probe lengths stay short and even
+ * - lookups stop as soon as they meet an entry closer to home than the probe (it cannot be further on)
+ * - backward-shift deletion: no tombstones, the following run moves one slot back
+ * - supports null keys/values, fail-fast iterators
+ * <p>
+ * A stored hash always has {@link #OCCUPIED} set, so {@code hashes[i] == 0} marks an empty slot
+ * (the bit is never part of an index, capacity is at most 2^30).
+ * The load factor must be below 1; there is always at least one empty slot, which ends every probe.
+ */
+public final class RobinHoodHashMap<K, V> implements Map<K, V>, Cloneable, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private static final int OCCUPIED = 0x8000_0000;
+
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] vals;
+    private int mask;
+    private int size;
+    private int threshold;
+    private final float loadFactor;
+
+    /** Structural modification count for fail-fast iterators. */
+    transient int modCount;
+
+    // ---- views (created lazily) ----
+    private transient KeySet keySet;
+    private transient Values values;
+    private transient EntrySet entrySet;
+
+    public RobinHoodHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public RobinHoodHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    public RobinHoodHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity < 0");
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f)) {
+            throw new IllegalArgumentException("invalid loadFactor (must be in (0, 1)): " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSizeFor(Math.max(DEFAULT_INITIAL_CAPACITY, initialCapacity), MAXIMUM_CAPACITY));
+    }
+
+    private void allocate(int cap) {
+        hashes = new int[cap];
+        keys = new Object[cap];
+        vals = new Object[cap];
+        mask = cap - 1;
+        threshold = Math.min(Hashing.calcThreshold(cap, loadFactor), cap - 1);
+    }
+
+    int capacity() { return hashes.length; }
+    float loadFactor() { return loadFactor; }
+
+    @Override public int size() { return size; }
+    @Override public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        int[] hs = hashes;
+        for (int i = 0; i < hs.length; i++) {
+            if (hs[i] != 0 && Objects.equals(vals[i], value)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        int slot = findSlot(key);
+        return (slot < 0) ? null : valueAt(slot);
+    }
+
+    private static int tag(Object key) {
+        return Hashing.spreadHash(key) | OCCUPIED;
+    }
+
+    /** How far the entry in {@code slot} sits from its home slot. */
+    private int probeDistance(int slot) {
+        return (slot - hashes[slot]) & mask;
+    }
+
+    private int findSlot(Object key) {
+        int h = tag(key);
+        int slot = Hashing.indexFor(h, hashes.length);
+        for (int dist = 0; ; dist++) {
+            int sh = hashes[slot];
+            if (sh == 0 || probeDistance(slot) < dist) return -1; // Robin Hood invariant: key would sit here
+            if (sh == h && Objects.equals(keys[slot], key)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int slot) { return (K) keys[slot]; }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) { return (V) vals[slot]; }
+
+    @Override
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            V old = valueAt(slot);
+            if (!onlyIfAbsent) vals[slot] = value;
+            return old;
+        }
+        if (size + 1 > threshold) resize();
+        insert(tag(key), key, value);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /** Robin Hood insert of a key known to be absent. */
+    private void insert(int h, Object key, Object value) {
+        int slot = Hashing.indexFor(h, hashes.length);
+        for (int dist = 0; ; dist++) {
+            if (hashes[slot] == 0) {
+                hashes[slot] = h;
+                keys[slot] = key;
+                vals[slot] = value;
+                return;
+            }
+            int existing = probeDistance(slot);
+            if (existing < dist) {
+                // take from the rich: the resident is closer to home, it continues the probe instead
+                int th = hashes[slot]; hashes[slot] = h; h = th;
+                Object tk = keys[slot]; keys[slot] = key; key = tk;
+                Object tv = vals[slot]; vals[slot] = value; value = tv;
+                dist = existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        int slot = findSlot(key);
+        if (slot < 0) return null;
+        V old = valueAt(slot);
+        deleteSlot(slot);
+        return old;
+    }
+
+    /**
+     * Backward-shift deletion: entries after {@code slot} that are not in their home slot move one slot back.
+     *
+     * @return true if the entry from slot 0 wrapped around into the last slot
+     */
+    private boolean deleteSlot(int slot) {
+        boolean wrapped = false;
+        int next = (slot + 1) & mask;
+        while (hashes[next] != 0 && probeDistance(next) > 0) {
+            hashes[slot] = hashes[next];
+            keys[slot] = keys[next];
+            vals[slot] = vals[next];
+            if (next == 0) wrapped = true;
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        hashes[slot] = 0;
+        keys[slot] = null;
+        vals[slot] = null;
+        size--;
+        modCount++;
+        return wrapped;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(hashes, 0);
+        Arrays.fill(keys, null);
+        Arrays.fill(vals, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        Objects.requireNonNull(m, "map");
+        if (m.isEmpty()) return;
+        ensureCapacityFor(size + m.size());
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    void ensureCapacityFor(int expectedSize) {
+        if (expectedSize <= threshold) return;
+
+        int cap = hashes.length;
+        int target = cap;
+        while (target < MAXIMUM_CAPACITY && expectedSize > Math.min((int) (target * loadFactor), target - 1)) {
+            target <<= 1;
+        }
+        if (target != cap) resizeTo(target);
+    }
+
+    private void resize() {
+        int oldCap = hashes.length;
+        if (oldCap >= MAXIMUM_CAPACITY) {
+            if (size + 1 >= oldCap) throw new IllegalStateException("RobinHoodHashMap is full");
+            return; // keep filling past the load factor
+        }
+        resizeTo(oldCap << 1);
+    }
+
+    private void resizeTo(int newCap) {
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldVals = vals;
+        allocate(newCap);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != 0) insert(oldHashes[i], oldKeys[i], oldVals[i]);
+        }
+        modCount++; // structural change
+    }
+
+    // ---- Map views ----
+
+    @Override
+    public Set<K> keySet() {
+        KeySet ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        Values vs = values;
+        return (vs != null) ? vs : (values = new Values());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        EntrySet es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet());
+    }
+
+    // ---- Iteration base ----
+
+    /**
+     * Walks the slots from the last one down to 0.
+     * A backward shift after {@link #remove()} only moves entries that were already returned, with one exception:
+     * the run can wrap and move the entry from slot 0 (not visited yet) into the last slot (already visited).
+     * Such entries are remembered and returned after the walk.
+     */
+    abstract class SlotIterator<T> implements Iterator<T> {
+        int expectedModCount = modCount;
+        int index = hashes.length; // slots [0, index) are still to be visited
+        List<Object> wrapped;      // keys moved past the cursor by remove()
+        Object lastKey;
+        boolean hasLast;
+
+        SlotIterator() {
+            skipEmpty();
+        }
+
+        private void skipEmpty() {
+            while (index > 0 && hashes[index - 1] == 0) index--;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index > 0 || (wrapped != null && !wrapped.isEmpty());
+        }
+
+        int nextSlot() {
+            checkForComodification();
+            int slot;
+            if (index > 0) {
+                slot = --index;
+                skipEmpty();
+            } else if (wrapped != null && !wrapped.isEmpty()) {
+                slot = findSlot(wrapped.remove(wrapped.size() - 1));
+            } else {
+                throw new NoSuchElementException();
+            }
+            lastKey = keys[slot];
+            hasLast = true;
+            return slot;
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (!hasLast) throw new IllegalStateException("next() not called or already removed");
+            hasLast = false;
+            if (deleteSlot(findSlot(lastKey)) && index > 0) {
+                if (wrapped == null) wrapped = new ArrayList<>(2);
+                wrapped.add(keys[mask]);
+            }
+            skipEmpty(); // the shift may have emptied slot index-1
+            expectedModCount = modCount;
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    final class KeyIterator extends SlotIterator<K> {
+        @Override public K next() { return keyAt(nextSlot()); }
+    }
+
+    final class ValueIterator extends SlotIterator<V> {
+        @Override public V next() { return valueAt(nextSlot()); }
+    }
+
+    final class EntryIterator extends SlotIterator<Entry<K,V>> {
+        @Override public Entry<K,V> next() {
+            int slot = nextSlot();
+            return new SlotEntry(keyAt(slot), valueAt(slot));
+        }
+    }
+
+    /** Snapshot of a mapping; setValue writes through to the map (not a structural change). */
+    final class SlotEntry extends AbstractMap.SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        SlotEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            int slot = findSlot(getKey());
+            if (slot < 0) throw new IllegalStateException("entry no longer in map");
+            vals[slot] = value;
+            return super.setValue(value);
+        }
+    }
+
+    // ---- Views ----
+
+    final class KeySet extends AbstractSet<K> {
+        @Override public int size() { return RobinHoodHashMap.this.size(); }
+        @Override public void clear() { RobinHoodHashMap.this.clear(); }
+        @Override public boolean contains(Object o) { return RobinHoodHashMap.this.containsKey(o); }
+        @Override public Iterator<K> iterator() { return new KeyIterator(); }
+
+        @Override
+        public boolean remove(Object o) {
+            int slot = findSlot(o);
+            if (slot < 0) return false;
+            deleteSlot(slot);
+            return true;
+        }
+    }
+
+    final class Values extends AbstractCollection<V> {
+        @Override public int size() { return RobinHoodHashMap.this.size(); }
+        @Override public void clear() { RobinHoodHashMap.this.clear(); }
+        @Override public boolean contains(Object o) { return RobinHoodHashMap.this.containsValue(o); }
+        @Override public Iterator<V> iterator() { return new ValueIterator(); }
+    }
+
+    final class EntrySet extends AbstractSet<Entry<K,V>> {
+        @Override public int size() { return RobinHoodHashMap.this.size(); }
+        @Override public void clear() { RobinHoodHashMap.this.clear(); }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry<?,?> e)) return false;
+            int slot = findSlot(e.getKey());
+            return slot >= 0 && Objects.equals(vals[slot], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry<?,?> e)) return false;
+            int slot = findSlot(e.getKey());
+            if (slot >= 0 && Objects.equals(vals[slot], e.getValue())) {
+                deleteSlot(slot);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    // ---- Other Map methods ----
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int slot = findSlot(key);
+        return (slot < 0) ? defaultValue : valueAt(slot);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        int slot = findSlot(key);
+        if (slot < 0) return null;
+        V old = valueAt(slot);
+        vals[slot] = value;
+        return old;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        int slot = findSlot(key);
+        if (slot < 0 || !Objects.equals(vals[slot], oldValue)) return false;
+        vals[slot] = newValue;
+        return true;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "action");
+        int expected = modCount;
+        int[] hs = hashes;
+        for (int i = 0; i < hs.length; i++) {
+            if (hs[i] != 0) action.accept(keyAt(i), valueAt(i));
+        }
+        if (modCount != expected) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) h += Objects.hashCode(keys[i]) ^ Objects.hashCode(vals[i]);
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof Map<?,?> m)) return false;
+        if (m.size() != size) return false;
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                if (hashes[i] == 0) continue;
+                Object k = keys[i];
+                Object v = vals[i];
+                if (v == null ? !(m.get(k) == null && m.containsKey(k)) : !v.equals(m.get(k))) return false;
+            }
+            return true;
+        } catch (ClassCastException | NullPointerException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        Iterator<Entry<K,V>> it = entrySet().iterator();
+        if (!it.hasNext()) return "{}";
+        StringBuilder sb = new StringBuilder().append('{');
+        while (true) {
+            Entry<K,V> e = it.next();
+            sb.append(e.getKey()).append('=').append(e.getValue());
+            if (!it.hasNext()) return sb.append('}').toString();
+            sb.append(", ");
+        }
+    }
+
+    @Override
+    @SuppressWarnings("MethodDoesntCallSuperMethod")
+    public RobinHoodHashMap<K,V> clone() {
+        RobinHoodHashMap<K,V> copy = new RobinHoodHashMap<>(capacity(), loadFactor);
+        copy.putAll(this);
+        return copy;
+    }
+}
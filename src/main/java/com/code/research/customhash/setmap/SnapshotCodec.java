@@ -0,0 +1,82 @@
+package com.code.research.customhash.setmap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts keys or values to and from the records of a {@link CustomHashMapSnapshot}.
+ * Nulls never reach a codec: the snapshot stores them as a -1 length.
+ *
+ * @param <T> key or value type
+ */
+public interface SnapshotCodec<T> {
+
+    byte[] encode(T value);
+
+    /**
+     * @param bytes read-only view holding exactly the bytes produced by {@link #encode}; for a restored
+     *              snapshot it points into the memory-mapped file, so copy what you keep
+     */
+    T decode(ByteBuffer bytes);
+
+    static SnapshotCodec<String> utf8() {
+        return new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                return new String(copy, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    static SnapshotCodec<Integer> int32() {
+        return new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(Integer value) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+            }
+
+            @Override
+            public Integer decode(ByteBuffer bytes) {
+                return bytes.getInt(bytes.position());
+            }
+        };
+    }
+
+    static SnapshotCodec<Long> int64() {
+        return new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(Long value) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+            }
+
+            @Override
+            public Long decode(ByteBuffer bytes) {
+                return bytes.getLong(bytes.position());
+            }
+        };
+    }
+
+    /** Raw payloads (already serialized JSON, protobuf, ...). */
+    static SnapshotCodec<byte[]> byteArray() {
+        return new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(byte[] value) {
+                return value;
+            }
+
+            @Override
+            public byte[] decode(ByteBuffer bytes) {
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                return copy;
+            }
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.code.research.customhash.setmap;
+
+/**
+ * Node of a treeified bin in {@link CustomHashMap}: an AVL tree over the bin's entries.
+ * <p>
+ * Order: spread hash, then key class, then {@code compareTo} when both keys are of the same {@link Comparable}
+ * class, then {@link #seq} (unique per node) as the tie-breaker. Lookups only rely on hash and compareTo, so
+ * colliding keys cost O(log n) per operation as long as they are Comparable; colliding non-Comparable keys
+ * still need a scan of the equal-hash subtree (same limitation as java.util.HashMap).
+ * <p>
+ * The nodes also stay in the bin's {@code next} chain (with {@link #prev} for O(1) unlink), so iteration and
+ * resizing keep walking plain chains, and untreeifying is just dropping the tree root.
+ */
+final class TreeNode<K, V> extends Node<K, V> {
+
+    TreeNode<K, V> prev;
+    TreeNode<K, V> left;
+    TreeNode<K, V> right;
+    int height = 1;
+    long seq;
+
+    TreeNode(int hash, K key, V value, long seq) {
+        super(hash, key, value, null);
+        this.seq = seq;
+    }
+
+    // ---- lookup ----
+
+    static <K, V> TreeNode<K, V> find(TreeNode<K, V> p, int h, Object key) {
+        return find(p, h, key, (key instanceof Comparable) ? key.getClass() : null);
+    }
+
+    /** @param kc class of {@code key} if it is Comparable, else null */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> TreeNode<K, V> find(TreeNode<K, V> p, int h, Object key, Class<?> kc) {
+        while (p != null) {
+            Object pk;
+            int c;
+            if (h < p.hash) {
+                p = p.left;
+            } else if (h > p.hash) {
+                p = p.right;
+            } else if ((pk = p.key) == key || (key != null && key.equals(pk))) {
+                return p;
+            } else if (kc != null && pk != null && pk.getClass() == kc && (c = ((Comparable) key).compareTo(pk)) != 0) {
+                p = (c < 0) ? p.left : p.right;
+            } else if (p.left == null) {
+                p = p.right;
+            } else if (p.right == null) {
+                p = p.left;
+            } else {
+                // order among equal hashes is not decided by the key: look on both sides
+                TreeNode<K, V> q = find(p.right, h, key, kc);
+                if (q != null) return q;
+                p = p.left;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareComparables(Object a, Object b) {
+        if (a == null || b == null || a.getClass() != b.getClass() || !(a instanceof Comparable)) return 0;
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /** Total order for placing nodes: hash, then class name, then compareTo within a Comparable class, then seq. */
+    private static int compareNodes(TreeNode<?, ?> a, TreeNode<?, ?> b) {
+        if (a.hash != b.hash) return a.hash < b.hash ? -1 : 1;
+        Class<?> ca = (a.key == null) ? null : a.key.getClass();
+        Class<?> cb = (b.key == null) ? null : b.key.getClass();
+        int c = (ca == cb) ? compareComparables(a.key, b.key) : compareClasses(ca, cb);
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    }
+
+    private static int compareClasses(Class<?> a, Class<?> b) {
+        if (a == null || b == null) return (a == null) ? -1 : 1;
+        int c = a.getName().compareTo(b.getName());
+        return c != 0 ? c : Integer.compare(System.identityHashCode(a), System.identityHashCode(b));
+    }
+
+    // ---- AVL insert / delete (return the new subtree root) ----
+
+    static <K, V> TreeNode<K, V> insert(TreeNode<K, V> root, TreeNode<K, V> x) {
+        if (root == null) {
+            x.left = x.right = null;
+            x.height = 1;
+            return x;
+        }
+        if (compareNodes(x, root) < 0) {
+            root.left = insert(root.left, x);
+        } else {
+            root.right = insert(root.right, x);
+        }
+        return balance(root);
+    }
+
+    /** Removes the node {@code x}, which must be in the tree. */
+    static <K, V> TreeNode<K, V> delete(TreeNode<K, V> root, TreeNode<K, V> x) {
+        int c = compareNodes(x, root);
+        if (c < 0) {
+            root.left = delete(root.left, x);
+        } else if (c > 0) {
+            root.right = delete(root.right, x);
+        } else {
+            // relink nodes rather than copy key/value, so Map.Entry objects handed out stay valid
+            if (x.left == null) return x.right;
+            if (x.right == null) return x.left;
+            TreeNode<K, V> m = x.right;
+            while (m.left != null) m = m.left;
+            m.right = deleteMin(x.right);
+            m.left = x.left;
+            root = m;
+        }
+        return balance(root);
+    }
+
+    private static <K, V> TreeNode<K, V> deleteMin(TreeNode<K, V> root) {
+        if (root.left == null) return root.right;
+        root.left = deleteMin(root.left);
+        return balance(root);
+    }
+
+    private static int height(TreeNode<?, ?> n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static <K, V> TreeNode<K, V> balance(TreeNode<K, V> n) {
+        int diff = height(n.left) - height(n.right);
+        if (diff > 1) {
+            if (height(n.left.left) < height(n.left.right)) n.left = rotateLeft(n.left);
+            return rotateRight(n);
+        }
+        if (diff < -1) {
+            if (height(n.right.right) < height(n.right.left)) n.right = rotateRight(n.right);
+            return rotateLeft(n);
+        }
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        return n;
+    }
+
+    private static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> n) {
+        TreeNode<K, V> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        l.height = 1 + Math.max(height(l.left), height(l.right));
+        return l;
+    }
+
+    private static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> n) {
+        TreeNode<K, V> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        r.height = 1 + Math.max(height(r.left), height(r.right));
+        return r;
+    }
+}
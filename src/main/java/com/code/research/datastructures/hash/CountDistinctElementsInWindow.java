@@ -1,17 +1,16 @@
 package com.code.research.datastructures.hash;
 
+import com.code.research.customhash.primitive.IntIntHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.IntStream;
 
 /**
  * Utility class that provides a method to count the number of distinct elements
  * in every contiguous subarray (window) of a specified size in an array.
+ * The window's element counts live in an {@link IntIntHashMap}, so sliding the window does not box.
  */
 @Slf4j
 public class CountDistinctElementsInWindow {
@@ -32,23 +31,14 @@ public class CountDistinctElementsInWindow {
             throw new IllegalArgumentException("Window size k must be between 1 and the length of the array.");
         }
 
-        List<Integer> distinctCounts = new ArrayList<>();
-        Map<Integer, Integer> frequencyMap = new HashMap<>();
+        List<Integer> distinctCounts = new ArrayList<>(arr.length - k + 1);
+        IntIntHashMap frequencyMap = new IntIntHashMap(k);
 
         // Process the first window
         for (int i = 0; i < k; i++) {
-            frequencyMap.put(arr[i], frequencyMap.getOrDefault(arr[i], 0) + 1);
+            frequencyMap.addTo(arr[i], 1);
         }
-
-        Map<Integer, Integer> frequencyMapMerged = new HashMap<>();
-        IntStream.range(0, k).forEach(el->
-                frequencyMapMerged.merge(arr[el], 1, (key, v) -> {
-                    log.info("Key/Value: {} :: {}", key, v);
-                    return v + 1;
-                })
-        );
-        log.info("Frequency Map:{}", frequencyMap);
-        log.info("Frequency Map Merged:{}", frequencyMapMerged);
+        log.debug("Frequency Map:{}", frequencyMap);
 
         distinctCounts.add(frequencyMap.size());
 
@@ -56,16 +46,12 @@ public class CountDistinctElementsInWindow {
         for (int i = k; i < arr.length; i++) {
             // Remove the element exiting the window.
             int elementToRemove = arr[i - k];
-            int count = frequencyMap.get(elementToRemove);
-            if (count == 1) {
+            if (frequencyMap.addTo(elementToRemove, -1) == 0) {
                 frequencyMap.remove(elementToRemove);
-            } else {
-                frequencyMap.put(elementToRemove, count - 1);
             }
 
             // Add the new element entering the window.
-            int elementToAdd = arr[i];
-            frequencyMap.put(elementToAdd, frequencyMap.getOrDefault(elementToAdd, 0) + 1);
+            frequencyMap.addTo(arr[i], 1);
 
             // Record the number of distinct elements in the current window.
             distinctCounts.add(frequencyMap.size());
@@ -87,6 +73,6 @@ public class CountDistinctElementsInWindow {
         log.info("Input Array: {}", Arrays.toString(arr));
         log.info("Window Size: {}", windowSize);
         log.info("Distinct counts in each window: {}", result);
-        // Expected Output: [3, 4, 4, 3]
+        // Expected Output: [3, 4, 4, 3, 4]
     }
 }
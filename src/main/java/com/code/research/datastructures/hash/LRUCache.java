@@ -1,14 +1,24 @@
 package com.code.research.datastructures.hash;
 
+import com.code.research.util.expiry.ExpiringEntry;
+import com.code.research.util.expiry.ExpiryPolicy;
+import com.code.research.util.expiry.ExpiryTracker;
+import com.code.research.util.expiry.RemovalCause;
+import com.code.research.util.expiry.RemovalListener;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 /**
  * A generic implementation of an LRU (Least Recently Used) Cache.
  * The cache uses a HashMap for O(1) lookups and a doubly linked list to track
  * the order of use from most recently used (MRU) to least recently used (LRU).
+ * Optionally entries expire after write and/or access ({@link ExpiryPolicy}); expired entries are
+ * never returned and are dropped in amortized O(1) by a timing wheel advanced on every call.
+ * Removals can be observed with a {@link RemovalListener}. Not thread-safe.
  *
  * @param <K> the type of keys maintained by this cache
  * @param <V> the type of mapped values
@@ -19,19 +29,17 @@ public class LRUCache<K, V> {
     private final Map<K, Node<K, V>> cache;
     private final Node<K, V> head;
     private final Node<K, V> tail;
+    private final ExpiryTracker<K, V> expiry;
 
     /**
-     * Node class for doubly linked list.
+     * Node class for doubly linked list (key, value and TTL deadline live in {@link ExpiringEntry}).
      */
-    private static class Node<K, V> {
-        K key;
-        V value;
+    private static class Node<K, V> extends ExpiringEntry<K, V> {
         Node<K, V> prev;
         Node<K, V> next;
 
         Node(K key, V value) {
-            this.key = key;
-            this.value = value;
+            super(key, value);
         }
     }
 
@@ -41,7 +49,29 @@ public class LRUCache<K, V> {
      * @param capacity the maximum number of entries the cache can hold
      */
     public LRUCache(int capacity) {
+        this(capacity, ExpiryPolicy.none(), null, System::nanoTime);
+    }
+
+    /**
+     * Constructs an LRUCache whose entries also expire.
+     *
+     * @param capacity     the maximum number of entries the cache can hold
+     * @param expiryPolicy expire-after-write and/or expire-after-access
+     * @param listener     notified of every removal, may be null
+     */
+    public LRUCache(int capacity, ExpiryPolicy expiryPolicy, RemovalListener<? super K, ? super V> listener) {
+        this(capacity, expiryPolicy, listener, System::nanoTime);
+    }
+
+    /**
+     * Same as {@link #LRUCache(int, ExpiryPolicy, RemovalListener)} with an explicit nanosecond clock.
+     *
+     * @param ticker time source (tests pass a fake one)
+     */
+    public LRUCache(int capacity, ExpiryPolicy expiryPolicy, RemovalListener<? super K, ? super V> listener,
+                    LongSupplier ticker) {
         this.capacity = capacity;
+        this.expiry = new ExpiryTracker<>(expiryPolicy, listener, ticker);
         this.cache = new HashMap<>();
         // Initialize dummy head and tail nodes to simplify edge-case handling.
         head = new Node<>(null, null);
@@ -58,13 +88,23 @@ public class LRUCache<K, V> {
      * @return the value associated with the key, or null if not found
      */
     public V get(K key) {
+        long now = expiry.now();
+        expireEntries(now);
         Node<K, V> node = cache.get(key);
         if (node == null) {
             return null;
         }
+        if (expiry.isExpired(node, now)) {
+            // Deadline passed within the wheel's last tick: drop it instead of returning it.
+            removeEntry(node, RemovalCause.EXPIRED);
+            expiry.dispatch();
+            return null;
+        }
         // Move the accessed node to the head.
         moveToHead(node);
-        return node.value;
+        expiry.onAccess(node, now);
+        expiry.dispatch();
+        return node.value();
     }
 
     /**
@@ -75,22 +115,96 @@ public class LRUCache<K, V> {
      * @param value the value associated with the key
      */
     public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Inserts or updates the key-value pair with its own time-to-live.
+     *
+     * @param key   the key of the entry
+     * @param value the value associated with the key
+     * @param ttl   overrides the policy's expire-after-write; null uses the policy
+     */
+    public void put(K key, V value, Duration ttl) {
+        long now = expiry.now();
+        expireEntries(now);
         Node<K, V> node = cache.get(key);
+        if (node != null && expiry.isExpired(node, now)) {
+            removeEntry(node, RemovalCause.EXPIRED);
+            node = null;
+        }
         if (node != null) {
             // Update value and move node to head.
-            node.value = value;
+            V old = node.value();
+            node.setValue(value);
             moveToHead(node);
+            expiry.onWrite(node, now, ttl);
+            if (old != value) {
+                expiry.removed(key, old, RemovalCause.REPLACED);
+            }
         } else {
             // Create new node.
             Node<K, V> newNode = new Node<>(key, value);
             cache.put(key, newNode);
             addNode(newNode);
+            expiry.onWrite(newNode, now, ttl);
             if (cache.size() > capacity) {
                 // Evict the least recently used entry.
-                Node<K, V> tailNode = popTail();
-                cache.remove(tailNode.key);
+                removeEntry(tail.prev, RemovalCause.SIZE);
             }
         }
+        expiry.dispatch();
+    }
+
+    /**
+     * Removes the entry for the key, if present and not expired.
+     *
+     * @param key the key to remove
+     * @return the removed value, or null
+     */
+    public V remove(K key) {
+        long now = expiry.now();
+        expireEntries(now);
+        Node<K, V> node = cache.get(key);
+        if (node == null) {
+            return null;
+        }
+        boolean expired = expiry.isExpired(node, now);
+        removeEntry(node, expired ? RemovalCause.EXPIRED : RemovalCause.EXPLICIT);
+        expiry.dispatch();
+        return expired ? null : node.value();
+    }
+
+    /**
+     * Returns the number of entries; may still include entries that expired within the last ~millisecond.
+     *
+     * @return current entry count
+     */
+    public int size() {
+        expireEntries(expiry.now());
+        expiry.dispatch();
+        return cache.size();
+    }
+
+    /**
+     * Drops entries whose deadline has passed (amortized O(1): only due wheel buckets are visited).
+     */
+    private void expireEntries(long now) {
+        expiry.expire(now, entry -> {
+            Node<K, V> node = (Node<K, V>) entry;
+            removeNode(node);
+            cache.remove(node.key());
+        });
+    }
+
+    /**
+     * Unlinks the node, cancels its timer and queues the removal notification.
+     */
+    private void removeEntry(Node<K, V> node, RemovalCause cause) {
+        removeNode(node);
+        cache.remove(node.key());
+        expiry.onRemove(node);
+        expiry.removed(node.key(), node.value(), cause);
     }
 
     /**
@@ -127,17 +241,6 @@ public class LRUCache<K, V> {
         addNode(node);
     }
 
-    /**
-     * Pops the least recently used node from the end of the list.
-     *
-     * @return the node that was removed
-     */
-    private Node<K, V> popTail() {
-        Node<K, V> res = tail.prev;
-        removeNode(res);
-        return res;
-    }
-
     /**
      * Returns a string representation of the cache's current state.
      *
@@ -148,7 +251,7 @@ public class LRUCache<K, V> {
         StringBuilder sb = new StringBuilder();
         Node<K, V> curr = head.next;
         while (curr != tail) {
-            sb.append(curr.key).append(":").append(curr.value).append(" -> ");
+            sb.append(curr.key()).append(":").append(curr.value()).append(" -> ");
             curr = curr.next;
         }
         sb.append("NULL");
@@ -177,6 +280,22 @@ public class LRUCache<K, V> {
         cache.put(4, "Date");
         log.info("Cache after inserting key 4: {}", cache);
         log.info("Get key 1 (should be null): {}", cache.get(1));
+
+        // Per-entry TTL with a removal listener.
+        LRUCache<String, String> sessions = new LRUCache<>(100, ExpiryPolicy.afterAccess(Duration.ofMinutes(30)),
+                (key, value, cause) -> log.info("Session {} removed: {}", key, cause));
+        sessions.put("s1", "alice");
+        sessions.put("s2", "bob", Duration.ofMillis(20));
+        sleep(50);
+        log.info("s1: {}, s2 (expired): {}", sessions.get("s1"), sessions.get("s2"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
 }
@@ -1,17 +1,16 @@
 package com.code.research.datastructures.hash;
 
+import com.code.research.customhash.primitive.IntIntHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
- * Provides a solution to the "Longest Consecutive Sequence" problem using a HashMap.
+ * Provides a solution to the "Longest Consecutive Sequence" problem using an {@link IntIntHashMap}.
  * <p>
- * The algorithm runs in O(n) time by using a HashMap to store, for each number, the length
+ * The algorithm runs in O(n) time by using a map to store, for each number, the length
  * of the consecutive sequence it is part of. For a new number, we determine the length of
  * the sequence to its left and right (if they exist), then update the boundaries of the sequence.
  * </p>
@@ -39,8 +38,8 @@ public class LongestConsecutiveSequence {
             return Collections.emptyList();
         }
 
-        // Map to store the sequence length for each number.
-        Map<Integer, Integer> sequenceMap = new HashMap<>();
+        // Map to store the sequence length for each number (primitive keys and values: no boxing per lookup).
+        IntIntHashMap sequenceMap = new IntIntHashMap();
         int maxStreak = 0;
         int maxStart = 0; // The starting value of the longest sequence.
 
@@ -1,21 +1,22 @@
 package com.code.research.datastructures.hash;
 
+import com.code.research.customhash.primitive.IntIntHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Provides a method to find the k most frequent elements in an array.
  *
- * <p>This solution demonstrates the use of various Map implementations:
+ * <p>The counting runs on primitives end to end:
  * <ul>
- *   <li>A {@code HashMap} to count the frequency of each element.</li>
- *   <li>A {@code LinkedHashMap} to maintain insertion order after sorting by frequency.</li>
+ *   <li>An {@link IntIntHashMap} counts the frequency of each element without boxing.</li>
+ *   <li>Each (count, element) pair is packed into one {@code long}, so sorting the distinct elements by
+ *       frequency is a primitive sort instead of sorting boxed map entries.</li>
  * </ul>
+ * Elements with equal frequency are returned in ascending order.
  *
  * <p>Example:
  * <pre>
@@ -34,34 +35,24 @@ public class TopKFrequentElements {
      * @return a list of integers representing the k most frequent elements
      */
     public static List<Integer> topKFrequent(int[] nums, int k) {
-        // Count the frequency of each element using a HashMap.
-        Map<Integer, Integer> frequencyMap = new HashMap<>();
+        // Count the frequency of each element.
+        IntIntHashMap frequencyMap = new IntIntHashMap();
         for (int num : nums) {
-            frequencyMap.put(num, frequencyMap.getOrDefault(num, 0) + 1);
+            frequencyMap.addTo(num, 1);
         }
 
-        // Create a list of the frequency map's entries.
-        List<Map.Entry<Integer, Integer>> entryList = new ArrayList<>(frequencyMap.entrySet());
+        // Pack (-count, element) so that ascending order is: highest count first, then smallest element.
+        long[] packed = new long[frequencyMap.size()];
+        int[] n = {0};
+        frequencyMap.forEach((element, count) ->
+                packed[n[0]++] = ((long) -count << 32) | ((element ^ Integer.MIN_VALUE) & 0xFFFF_FFFFL));
+        Arrays.sort(packed);
 
-        // Sort the entries in descending order based on frequency.
-        entryList.sort((e1, e2) -> e2.getValue().compareTo(e1.getValue()));
-
-        // Optionally, store the sorted entries in a LinkedHashMap to preserve the sorted order.
-        Map<Integer, Integer> sortedByFrequency = new LinkedHashMap<>();
-        for (Map.Entry<Integer, Integer> entry : entryList) {
-            sortedByFrequency.put(entry.getKey(), entry.getValue());
-        }
-
-        // Extract the top k keys from the sorted map.
-        List<Integer> topKElements = new ArrayList<>();
-        int count = 0;
-        for (Integer key : sortedByFrequency.keySet()) {
-            if (count < k) {
-                topKElements.add(key);
-                count++;
-            } else {
-                break;
-            }
+        // Extract the top k elements.
+        int limit = Math.min(k, packed.length);
+        List<Integer> topKElements = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            topKElements.add((int) packed[i] ^ Integer.MIN_VALUE);
         }
         return topKElements;
     }
@@ -0,0 +1,27 @@
+package com.code.research.datastructures.hash.lfucache;
+
+/**
+ * Immutable snapshot of cache counters.
+ *
+ * @param hits      number of lookups that found a value
+ * @param misses    number of lookups that found nothing
+ * @param evictions number of entries dropped (victims or rejected candidates)
+ */
+public record CacheStats(long hits, long misses, long evictions) {
+
+    /**
+     * @return total number of lookups
+     */
+    public long requestCount() {
+        return hits + misses;
+    }
+
+    /**
+     * @return hits / requests, or 1.0 when nothing was requested yet
+     */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.code.research.datastructures.hash.lfucache;
+
+/**
+ * FrequencySketch is a compact, approximate popularity counter (count-min sketch)
+ * used by {@link TinyLFUCacheImpl} as its admission filter.
+ * <p>
+ * Layout:
+ * - Each {@code long} in the table holds sixteen 4-bit counters (max value 15).
+ * - An item maps to one long per depth; the four depths use distinct counter groups
+ *   inside their long, so a lookup touches at most four words.
+ * - The estimated frequency is the minimum of the four counters.
+ * <p>
+ * Aging: after {@code sampleSize} increments every counter is halved, so keys that were
+ * hot long ago lose their weight instead of pinning the cache forever.
+ *
+ * @param <K> the type of items counted
+ */
+public class FrequencySketch<K> {
+
+    private static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+    private int resetCount;
+
+    /**
+     * Constructs a sketch sized for the given cache capacity.
+     *
+     * @param capacity the maximum number of entries of the owning cache
+     */
+    public FrequencySketch(int capacity) {
+        int maximum = Math.max(1, Math.min(capacity, 1 << 30));
+        int length = Integer.highestOneBit(maximum);
+        if (length < maximum) {
+            length <<= 1;
+        }
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (capacity <= 0) ? 10 : (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of occurrences of an item, up to 15.
+     *
+     * @param item the item to look up
+     * @return the estimated frequency
+     */
+    public int frequency(K item) {
+        int hash = spread(item.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the item if it does not exceed the maximum (15).
+     * Periodically halves all counters so that popularity decays over time.
+     *
+     * @param item the item to count
+     */
+    public void increment(K item) {
+        int hash = spread(item.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && (++size == sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * Returns how many times the counters have been halved (for diagnostics).
+     */
+    public int resetCount() {
+        return resetCount;
+    }
+
+    private boolean incrementAt(int i, int j) {
+        int offset = j << 2;
+        long mask = (0xfL << offset);
+        if ((table[i] & mask) != mask) {
+            table[i] += (1L << offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Halves every counter and adjusts the sample size accordingly.
+     */
+    private void reset() {
+        int oddCount = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCount += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (oddCount >>> 2)) >>> 1;
+        resetCount++;
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += (hash >>> 32);
+        return ((int) hash) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.code.research.datastructures.hash.lfucache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * TinyLFUCacheImpl is a W-TinyLFU cache: a small LRU admission window in front of a
+ * segmented LRU main region, guarded by a {@link FrequencySketch}.
+ * <p>
+ * Compared with {@link LFUCacheImpl}:
+ * - Frequencies live in a fixed-size 4-bit sketch that is periodically halved,
+ *   so old hot keys age out instead of pinning the cache forever.
+ * - Hits only relink an existing node; nothing is allocated per access.
+ * <p>
+ * Regions (percent of capacity):
+ * - window (~1%): new entries land here, absorbing bursts of recency.
+ * - probation (~20% of main): entries admitted from the window.
+ * - protected (~80% of main): entries hit again while on probation.
+ * <p>
+ * When the window overflows, its LRU entry (candidate) competes with the probation LRU
+ * entry (victim); the one with the higher sketch frequency stays.
+ * <p>
+ * Not thread-safe, like {@link LFUCacheImpl}. get/put are O(1).
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of values stored in the cache
+ */
+public class TinyLFUCacheImpl<K, V> {
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final int capacity;
+    private final int maxWindow;
+    private final int maxMain;
+    private final int maxProtected;
+
+    private final Map<K, Node<K, V>> data;
+    private final FrequencySketch<K> sketch;
+
+    private final Node<K, V> window = Node.sentinel();
+    private final Node<K, V> probation = Node.sentinel();
+    private final Node<K, V> protectedQueue = Node.sentinel();
+    private int windowSize;
+    private int probationSize;
+    private int protectedSize;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a TinyLFUCacheImpl with the specified capacity.
+     *
+     * @param capacity the maximum number of entries the cache can hold
+     */
+    public TinyLFUCacheImpl(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.capacity = capacity;
+        this.maxWindow = Math.max(1, capacity / 100);
+        this.maxMain = capacity - maxWindow;
+        this.maxProtected = (int) (maxMain * 0.8);
+        this.data = new HashMap<>(Math.max(16, (int) (capacity / 0.75f) + 1));
+        this.sketch = new FrequencySketch<>(capacity);
+    }
+
+    /**
+     * Retrieves the value associated with the given key if present in the cache.
+     * Records the access in the frequency sketch even on a miss, so that keys
+     * requested often get admitted later.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value if found; otherwise, returns null
+     */
+    public V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onHit(node);
+        return node.value;
+    }
+
+    /**
+     * Inserts or updates the value for the specified key.
+     * New keys enter the admission window; overflow is resolved by the TinyLFU filter.
+     *
+     * @param key   the key to insert or update
+     * @param value the value associated with the key
+     */
+    public void put(K key, V value) {
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            onHit(node);
+            return;
+        }
+        sketch.increment(key);
+        node = new Node<>(key, value);
+        node.queue = WINDOW;
+        data.put(key, node);
+        linkLast(window, node);
+        windowSize++;
+        if (windowSize > maxWindow) {
+            evictFromWindow();
+        }
+    }
+
+    /**
+     * Removes the mapping for the key.
+     *
+     * @param key the key to remove
+     * @return the removed value, or null if absent
+     */
+    public V remove(K key) {
+        Node<K, V> node = data.remove(key);
+        if (node == null) {
+            return null;
+        }
+        unlinkFromQueue(node);
+        return node.value;
+    }
+
+    /**
+     * @return current number of entries
+     */
+    public int size() {
+        return data.size();
+    }
+
+    /**
+     * @return the configured capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return snapshot of hit/miss/eviction counters
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits, misses, evictions);
+    }
+
+    /**
+     * Promotes the node according to the region it lives in.
+     */
+    private void onHit(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW, PROTECTED -> moveToEnd(node);
+            case PROBATION -> {
+                unlink(node);
+                probationSize--;
+                node.queue = PROTECTED;
+                linkLast(protectedQueue, node);
+                protectedSize++;
+                if (protectedSize > maxProtected) {
+                    // demote protected LRU back to probation MRU
+                    Node<K, V> demoted = protectedQueue.next;
+                    unlink(demoted);
+                    protectedSize--;
+                    demoted.queue = PROBATION;
+                    linkLast(probation, demoted);
+                    probationSize++;
+                }
+            }
+            default -> throw new IllegalStateException("Unknown queue: " + node.queue);
+        }
+    }
+
+    /**
+     * Moves the window LRU entry to the main region, or lets it duel the main victim.
+     */
+    private void evictFromWindow() {
+        Node<K, V> candidate = window.next;
+        unlink(candidate);
+        windowSize--;
+
+        if (probationSize + protectedSize < maxMain) {
+            candidate.queue = PROBATION;
+            linkLast(probation, candidate);
+            probationSize++;
+            return;
+        }
+
+        Node<K, V> victim = (probationSize > 0) ? probation.next : protectedQueue.next;
+        if (victim == protectedQueue) {
+            // main region has no room at all (capacity smaller than the window)
+            evict(candidate);
+            return;
+        }
+        if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+            unlinkFromQueue(victim);
+            evict(victim);
+            candidate.queue = PROBATION;
+            linkLast(probation, candidate);
+            probationSize++;
+        } else {
+            evict(candidate);
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        data.remove(node.key);
+        evictions++;
+    }
+
+    private void unlinkFromQueue(Node<K, V> node) {
+        unlink(node);
+        switch (node.queue) {
+            case WINDOW -> windowSize--;
+            case PROBATION -> probationSize--;
+            case PROTECTED -> protectedSize--;
+            default -> throw new IllegalStateException("Unknown queue: " + node.queue);
+        }
+    }
+
+    // --------- Doubly linked list helpers (sentinel.next = LRU, sentinel.prev = MRU) ---------
+
+    private static <K, V> void linkLast(Node<K, V> sentinel, Node<K, V> node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node.next = null;
+    }
+
+    private void moveToEnd(Node<K, V> node) {
+        Node<K, V> sentinel = switch (node.queue) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedQueue;
+            default -> throw new IllegalStateException("Unknown queue: " + node.queue);
+        };
+        if (sentinel.prev == node) {
+            return;
+        }
+        unlink(node);
+        linkLast(sentinel, node);
+    }
+
+    /**
+     * Cache entry; also used as the circular list sentinel of each region.
+     */
+    private static final class Node<K, V> {
+        static final byte SENTINEL = -1;
+
+        final K key;
+        V value;
+        byte queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        static <K, V> Node<K, V> sentinel() {
+            Node<K, V> s = new Node<>(null, null);
+            s.queue = SENTINEL;
+            s.prev = s;
+            s.next = s;
+            return s;
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.code.research.datastructures.hash.lfucache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Random;
+
+/**
+ * Replays Zipf-distributed key traces against {@link LFUCacheImpl} and {@link TinyLFUCacheImpl}
+ * and logs the hit ratio of each.
+ * <p>
+ * The second half of the trace shifts the popular keys, which shows the effect of aging:
+ * plain LFU keeps the formerly hot keys, TinyLFU halves their counts and lets new ones in.
+ */
+@Slf4j
+public class TinyLFUCacheImplApplication {
+
+    private static final int CAPACITY = 1_000;
+    private static final int KEY_SPACE = 100_000;
+    private static final int REQUESTS = 1_000_000;
+    private static final double SKEW = 0.9;
+
+    /**
+     * Main method comparing hit ratios on a stable and on a shifting Zipf trace.
+     *
+     * @param args command-line arguments (not used)
+     */
+    public static void main(String[] args) {
+        int[] stable = zipfTrace(REQUESTS, 0, 42L);
+        int[] shifting = concat(zipfTrace(REQUESTS / 2, 0, 7L), zipfTrace(REQUESTS / 2, KEY_SPACE, 8L));
+
+        log.info("Stable Zipf(s={}) trace, capacity={}, keys={}", SKEW, CAPACITY, KEY_SPACE);
+        log.info("  LFUCacheImpl     hit ratio: {}", format(replayLfu(stable)));
+        log.info("  TinyLFUCacheImpl hit ratio: {}", format(replayTinyLfu(stable)));
+
+        log.info("Shifting Zipf trace (hot set changes half-way)");
+        log.info("  LFUCacheImpl     hit ratio: {}", format(replayLfu(shifting)));
+        log.info("  TinyLFUCacheImpl hit ratio: {}", format(replayTinyLfu(shifting)));
+    }
+
+    private static double replayLfu(int[] trace) {
+        LFUCacheImpl<Integer, Integer> cache = new LFUCacheImpl<>(CAPACITY);
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != null) {
+                hits++;
+            } else {
+                cache.put(key, key);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+    private static double replayTinyLfu(int[] trace) {
+        TinyLFUCacheImpl<Integer, Integer> cache = new TinyLFUCacheImpl<>(CAPACITY);
+        for (int key : trace) {
+            if (cache.get(key) == null) {
+                cache.put(key, key);
+            }
+        }
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * Generates keys in [offset, offset + KEY_SPACE) where rank r is drawn with probability ~ 1/r^SKEW.
+     * Ranks are scattered over the key space so that hot keys are not numerically adjacent.
+     */
+    private static int[] zipfTrace(int length, int offset, long seed) {
+        double[] cdf = new double[KEY_SPACE];
+        double sum = 0;
+        for (int rank = 1; rank <= KEY_SPACE; rank++) {
+            sum += 1.0 / Math.pow(rank, SKEW);
+            cdf[rank - 1] = sum;
+        }
+        Random random = new Random(seed);
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            double u = random.nextDouble() * sum;
+            int lo = 0;
+            int hi = KEY_SPACE - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cdf[mid] < u) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            trace[i] = offset + (int) ((lo * 2_654_435_761L) % KEY_SPACE);
+        }
+        return trace;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static String format(double ratio) {
+        return String.format("%.2f%%", ratio * 100);
+    }
+
+}
@@ -2,6 +2,9 @@ package com.code.research.datastructures.hash.multithreadedcache;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -31,4 +34,23 @@ public class ConsolePersistentStore<K, V> implements PersistentStore<K, V> {
         log.info("Reading key: {}, value: {}", key, value);
         return value;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Map<K, V> readAll(Collection<? extends K> keys) {
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = store.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        log.info("Reading batch of {} keys, found {}", keys.size(), result.size());
+        return result;
+    }
+
+    @Override
+    public void writeAll(Map<? extends K, ? extends V> entries) {
+        store.putAll(entries);
+        log.info("Persisting batch of {} entries: {}", entries.size(), entries.keySet());
+    }
+}
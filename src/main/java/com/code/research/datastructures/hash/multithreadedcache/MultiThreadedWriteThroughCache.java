@@ -2,15 +2,42 @@ package com.code.research.datastructures.hash.multithreadedcache;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * MultiThreadedWriteThroughCache is a thread-safe cache that implements write-through and read-through policies.
  * It uses a ConcurrentHashMap to hold cache entries and periodically flushes dirty entries to a persistent store
  * using a background thread.
+ * <p>
+ * When constructed with a {@link WriteBehindConfig}, the cache runs in write-behind mode instead:
+ * <ul>
+ *     <li>updates are queued in a pending map, so repeated puts of the same key coalesce into one write;</li>
+ *     <li>pending entries are persisted in batches through {@link PersistentStore#writeAll(Map)};</li>
+ *     <li>a flush is triggered when {@code maxBatchSize} keys are pending or the oldest update is {@code maxDelay} old;</li>
+ *     <li>{@code put} blocks while {@code maxPendingWrites} keys are waiting (backpressure);</li>
+ *     <li>batch-size, flush-latency and backpressure metrics are available via {@link #writeBehindStats()}.</li>
+ * </ul>
+ * <p>
+ * Read-through loads are single-flight: concurrent misses on the same key share one
+ * {@link PersistentStore#read} call, {@link #getAll(Collection)} fetches all misses with one
+ * {@link PersistentStore#readAll} call, and keys the store does not have can be remembered
+ * for a negative-cache TTL so they do not hit the store on every lookup; expired entries are swept once per TTL.
  *
  * @param <K> the type of keys maintained by this cache.
  * @param <V> the type of values stored in this cache.
@@ -38,6 +65,61 @@ public class MultiThreadedWriteThroughCache<K, V> implements AutoCloseable {
      */
     private final ScheduledExecutorService scheduler;
 
+    /**
+     * Loads currently running against the persistent store; other callers for the same key wait on the future.
+     */
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * Keys known to be absent from the persistent store, mapped to the nano time their entry expires.
+     */
+    private final ConcurrentHashMap<K, Long> absentKeys = new ConcurrentHashMap<>();
+
+    /**
+     * How long an absent key is remembered; zero disables negative caching.
+     */
+    private final long negativeCacheTtlNanos;
+
+    /**
+     * Lower bound of the negative-cache sweep period, so a tiny TTL does not keep the scheduler busy.
+     */
+    private static final long MIN_ABSENT_SWEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Write-behind thresholds, or null when running in the periodic dirty-key flush mode.
+     */
+    private final WriteBehindConfig writeBehind;
+
+    /**
+     * Write-behind queue: latest not-yet-persisted value per key.
+     */
+    private final ConcurrentHashMap<K, V> pending;
+
+    /**
+     * One permit per pending or in-flight key; bounds the write-behind queue.
+     */
+    private final Semaphore pendingPermits;
+
+    /**
+     * Nano time of the oldest pending update, or 0 when nothing is pending.
+     */
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+    /**
+     * Guards against queueing more than one size-triggered flush at a time.
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder coalescedUpdates = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final LongAdder backpressureNanos = new LongAdder();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong entriesWritten = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
     /**
      * Constructs a MultiThreadedWriteThroughCache with the specified persistent store and flush interval.
      *
@@ -45,41 +127,167 @@ public class MultiThreadedWriteThroughCache<K, V> implements AutoCloseable {
      * @param flushInterval   the interval in seconds at which the cache flushes updates.
      */
     public MultiThreadedWriteThroughCache(PersistentStore<K, V> persistentStore, long flushInterval) {
+        this(persistentStore, flushInterval, Duration.ZERO);
+    }
+
+    /**
+     * Constructs a MultiThreadedWriteThroughCache with negative caching of absent keys.
+     *
+     * @param persistentStore  the persistent store to write data to.
+     * @param flushInterval    the interval in seconds at which the cache flushes updates.
+     * @param negativeCacheTtl how long a key the store does not have is remembered as absent; zero disables it.
+     */
+    public MultiThreadedWriteThroughCache(PersistentStore<K, V> persistentStore, long flushInterval, Duration negativeCacheTtl) {
         this.cache = new ConcurrentHashMap<>();
         this.dirtyKeys = new ConcurrentHashMap<>();
         this.persistentStore = persistentStore;
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.negativeCacheTtlNanos = negativeCacheTtl.toNanos();
+        this.writeBehind = null;
+        this.pending = null;
+        this.pendingPermits = null;
         // Use flushInterval directly to schedule periodic flush tasks.
         scheduler.scheduleAtFixedRate(this::flush, flushInterval, flushInterval, TimeUnit.SECONDS);
+        scheduleAbsentKeySweep();
+    }
+
+    /**
+     * Constructs a MultiThreadedWriteThroughCache in write-behind mode.
+     *
+     * @param persistentStore the persistent store to write data to.
+     * @param writeBehind     batching, age and backpressure thresholds.
+     */
+    public MultiThreadedWriteThroughCache(PersistentStore<K, V> persistentStore, WriteBehindConfig writeBehind) {
+        this(persistentStore, writeBehind, Duration.ZERO);
+    }
+
+    /**
+     * Constructs a MultiThreadedWriteThroughCache in write-behind mode with negative caching of absent keys.
+     *
+     * @param persistentStore  the persistent store to write data to.
+     * @param writeBehind      batching, age and backpressure thresholds.
+     * @param negativeCacheTtl how long a key the store does not have is remembered as absent; zero disables it.
+     */
+    public MultiThreadedWriteThroughCache(PersistentStore<K, V> persistentStore, WriteBehindConfig writeBehind,
+                                          Duration negativeCacheTtl) {
+        this.cache = new ConcurrentHashMap<>();
+        this.dirtyKeys = new ConcurrentHashMap<>();
+        this.persistentStore = persistentStore;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.negativeCacheTtlNanos = negativeCacheTtl.toNanos();
+        this.writeBehind = writeBehind;
+        this.pending = new ConcurrentHashMap<>();
+        this.pendingPermits = new Semaphore(writeBehind.maxPendingWrites());
+        // Check the age threshold a few times per maxDelay so that the oldest update waits at most ~1.25x maxDelay.
+        long tickNanos = Math.max(1, writeBehind.maxDelay().toNanos() / 4);
+        scheduler.scheduleAtFixedRate(this::flushIfDue, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        scheduleAbsentKeySweep();
     }
 
     /**
      * Retrieves the value associated with the given key from the cache.
      * Implements read-through behavior: if the key is not present in the cache,
-     * attempts to load it from the persistent store.
+     * attempts to load it from the persistent store. Concurrent misses on the same key
+     * share a single store read.
      *
      * @param key the key whose value is to be returned.
      * @return the cached value, or null if not found in both cache and persistent store.
      */
     public V get(K key) {
         V value = cache.get(key);
-        if (value == null) {
-            value = persistentStore.read(key);
+        if (value != null || isKnownAbsent(key)) {
+            return value;
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlightLoads.putIfAbsent(key, load);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // a put or another load may have filled the cache since the first check
+            value = cache.get(key);
+            if (value == null) {
+                value = persistentStore.read(key);
+                value = onLoaded(key, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    /**
+     * Retrieves the values of several keys. Keys missing from the cache are loaded with a single
+     * {@link PersistentStore#readAll} call; keys already being loaded by other callers are awaited instead.
+     *
+     * @param keys the keys to look up.
+     * @return the found key-value pairs; keys absent from both cache and store are not included.
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys) {
+        Map<K, V> result = new HashMap<>();
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> awaited = new HashMap<>();
+        for (K key : keys) {
+            V value = cache.get(key);
             if (value != null) {
-                cache.put(key, value);
+                result.put(key, value);
+            } else if (!isKnownAbsent(key) && !owned.containsKey(key) && !awaited.containsKey(key)) {
+                CompletableFuture<V> load = new CompletableFuture<>();
+                CompletableFuture<V> existing = inFlightLoads.putIfAbsent(key, load);
+                if (existing == null) {
+                    owned.put(key, load);
+                } else {
+                    awaited.put(key, existing);
+                }
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            try {
+                List<K> toRead = new ArrayList<>(owned.size());
+                for (K key : owned.keySet()) {
+                    V value = cache.get(key);
+                    if (value != null) {
+                        owned.get(key).complete(value);
+                    } else {
+                        toRead.add(key);
+                    }
+                }
+                Map<K, V> loaded = toRead.isEmpty() ? Map.of() : persistentStore.readAll(toRead);
+                for (K key : toRead) {
+                    owned.get(key).complete(onLoaded(key, loaded.get(key)));
+                }
+            } catch (RuntimeException e) {
+                owned.values().forEach(load -> load.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.forEach(inFlightLoads::remove);
             }
+            owned.forEach((key, load) -> putIfPresent(result, key, load.join()));
         }
-        return value;
+        awaited.forEach((key, load) -> putIfPresent(result, key, await(load)));
+        return result;
     }
 
     /**
      * Inserts or updates the value associated with the given key in the cache.
      * Marks the key as dirty so that the change is eventually written to the persistent store.
+     * In write-behind mode the cache update and the queued write happen atomically per key,
+     * so the last value queued for a key is always the value the cache holds.
      *
      * @param key   the key to insert or update.
      * @param value the value to associate with the key.
      */
     public void put(K key, V value) {
+        absentKeys.remove(key);
+        if (writeBehind != null) {
+            enqueue(key, value);
+            return;
+        }
         cache.put(key, value);
         dirtyKeys.put(key, Boolean.TRUE);
     }
@@ -87,8 +295,13 @@ public class MultiThreadedWriteThroughCache<K, V> implements AutoCloseable {
     /**
      * Flushes all dirty entries from the cache to the persistent store.
      * For each dirty key, writes the current value to persistent storage and then removes the key from the dirty set.
+     * In write-behind mode, drains all pending updates in batches of at most {@code maxBatchSize}.
      */
     public void flush() {
+        if (writeBehind != null) {
+            flushPending();
+            return;
+        }
         for (K key : dirtyKeys.keySet()) {
             V value = cache.get(key);
             if (value != null) {
@@ -102,6 +315,251 @@ public class MultiThreadedWriteThroughCache<K, V> implements AutoCloseable {
         }
     }
 
+    /**
+     * Returns a snapshot of the write-behind metrics.
+     *
+     * @return the current metrics; all zero when the cache is not in write-behind mode.
+     */
+    public WriteBehindStats writeBehindStats() {
+        return new WriteBehindStats(
+                batches.get(),
+                entriesWritten.get(),
+                coalescedUpdates.sum(),
+                failedBatches.get(),
+                maxBatchSize.get(),
+                totalFlushNanos.get(),
+                maxFlushNanos.get(),
+                backpressureWaits.sum(),
+                backpressureNanos.sum(),
+                pending == null ? 0 : pending.size());
+    }
+
+    /**
+     * Publishes a value read from the store. A concurrent put wins over the (older) stored value,
+     * and a missing value is remembered as absent when negative caching is enabled.
+     *
+     * @return the value callers should see.
+     */
+    private V onLoaded(K key, V loaded) {
+        if (loaded == null) {
+            if (negativeCacheTtlNanos > 0) {
+                absentKeys.put(key, System.nanoTime() + negativeCacheTtlNanos);
+            }
+            return cache.get(key);
+        }
+        V current = cache.putIfAbsent(key, loaded);
+        return current != null ? current : loaded;
+    }
+
+    /**
+     * Drops expired negative-cache entries once per TTL, so keys that are never looked up again do not accumulate:
+     * an absent key is remembered for at most about twice the TTL.
+     */
+    private void scheduleAbsentKeySweep() {
+        if (negativeCacheTtlNanos > 0) {
+            long periodNanos = Math.max(negativeCacheTtlNanos, MIN_ABSENT_SWEEP_NANOS);
+            scheduler.scheduleAtFixedRate(this::sweepAbsentKeys, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sweepAbsentKeys() {
+        long now = System.nanoTime();
+        // removal is conditional on the value, so an entry refreshed meanwhile survives
+        absentKeys.values().removeIf(expiresAt -> now - expiresAt >= 0);
+    }
+
+    /**
+     * @return number of keys currently remembered as absent (for tests and monitoring)
+     */
+    int absentKeyCount() {
+        return absentKeys.size();
+    }
+
+    private boolean isKnownAbsent(K key) {
+        Long expiresAt = absentKeys.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiresAt < 0) {
+            return true;
+        }
+        absentKeys.remove(key, expiresAt);
+        return false;
+    }
+
+    private V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static <K, V> void putIfPresent(Map<K, V> result, K key, V value) {
+        if (value != null) {
+            result.put(key, value);
+        }
+    }
+
+    /**
+     * Stores the value and queues it for the next batch inside one {@code cache.compute}, blocking
+     * while the pending bound is reached. Every pending key holds exactly one permit until its batch is persisted.
+     * The blocking wait for a permit happens outside compute, which never holds the bin lock while waiting.
+     */
+    private void enqueue(K key, V value) {
+        // an update that coalesces into a pending entry needs no permit of its own
+        boolean[] permit = {!pending.containsKey(key) && acquirePermit()};
+        boolean[] queued = {false};
+        while (true) {
+            cache.compute(key, (k, current) -> {
+                if (pending.replace(k, value) != null) {
+                    coalescedUpdates.increment();
+                    if (permit[0]) {
+                        pendingPermits.release();
+                        permit[0] = false;
+                    }
+                } else if (permit[0] || pendingPermits.tryAcquire()) {
+                    permit[0] = false;
+                    if (pending.put(k, value) != null) {
+                        // a failed batch re-queued the key meanwhile; that entry keeps its permit
+                        coalescedUpdates.increment();
+                        pendingPermits.release();
+                    }
+                } else {
+                    // the key was drained since containsKey and no capacity is left: wait outside compute
+                    return current;
+                }
+                queued[0] = true;
+                return value;
+            });
+            if (queued[0]) {
+                break;
+            }
+            permit[0] = acquirePermit();
+        }
+        oldestPendingNanos.compareAndSet(0, System.nanoTime());
+        if (pending.size() >= writeBehind.maxBatchSize()) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Takes one pending permit, flushing and waiting while none is available.
+     *
+     * @return always true, so callers can record that they hold the permit.
+     */
+    private boolean acquirePermit() {
+        if (pendingPermits.tryAcquire()) {
+            return true;
+        }
+        backpressureWaits.increment();
+        long start = System.nanoTime();
+        try {
+            while (!pendingPermits.tryAcquire(writeBehind.maxDelay().toNanos(), TimeUnit.NANOSECONDS)) {
+                requestFlush();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for write-behind capacity", e);
+        } finally {
+            backpressureNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Hands a flush to the scheduler thread unless one is already queued.
+     */
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushRequested.set(false);
+                    flushPending();
+                });
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+                log.error("Failed to schedule write-behind flush: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Periodic tick: flushes when the oldest pending update reached maxDelay.
+     */
+    private void flushIfDue() {
+        long oldest = oldestPendingNanos.get();
+        if (oldest != 0 && System.nanoTime() - oldest >= writeBehind.maxDelay().toNanos()) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Drains the pending map in batches. Runs on the scheduler thread (or the caller of flush/close).
+     * An entry is removed only if its value is unchanged, so a concurrent newer update stays pending
+     * and is written by a later batch.
+     */
+    private synchronized void flushPending() {
+        boolean failed = false;
+        while (!failed && !pending.isEmpty()) {
+            Map<K, V> batch = new LinkedHashMap<>();
+            for (Map.Entry<K, V> entry : pending.entrySet()) {
+                if (batch.size() == writeBehind.maxBatchSize()) {
+                    break;
+                }
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    batch.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!batch.isEmpty()) {
+                failed = !writeBatch(batch);
+            }
+        }
+        if (failed) {
+            // retry after another maxDelay instead of on every tick
+            oldestPendingNanos.set(System.nanoTime());
+        } else {
+            oldestPendingNanos.set(0);
+            // an update may have landed after the last batch was taken
+            if (!pending.isEmpty()) {
+                oldestPendingNanos.compareAndSet(0, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Persists one batch and records metrics; on failure re-queues entries that were not overwritten meanwhile.
+     *
+     * @return true if the batch was written.
+     */
+    private boolean writeBatch(Map<K, V> batch) {
+        long start = System.nanoTime();
+        try {
+            persistentStore.writeAll(batch);
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            log.error("Failed to persist batch of {} entries. Error: {}", batch.size(), e.getMessage());
+            for (Map.Entry<K, V> entry : batch.entrySet()) {
+                if (pending.putIfAbsent(entry.getKey(), entry.getValue()) != null) {
+                    // a newer value is pending and holds its own permit
+                    pendingPermits.release();
+                }
+            }
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+        batches.incrementAndGet();
+        entriesWritten.addAndGet(batch.size());
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+        pendingPermits.release(batch.size());
+        return true;
+    }
+
     /**
      * Closes the cache by flushing any pending updates and shutting down the background scheduler.
      */
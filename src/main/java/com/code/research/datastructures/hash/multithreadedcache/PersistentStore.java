@@ -1,5 +1,9 @@
 package com.code.research.datastructures.hash.multithreadedcache;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * PersistentStore represents a generic interface for persistent storage,
  * supporting both write and read operations.
@@ -25,4 +29,36 @@ public interface PersistentStore<K, V> {
      */
     V read(K key);
 
+    /**
+     * Reads the values of several keys from persistent storage.
+     * The default implementation falls back to one {@link #read(Object)} call per key;
+     * stores with a bulk API should override it.
+     *
+     * @param keys the keys to read.
+     * @return the found key-value pairs; keys that are not stored are omitted.
+     */
+    default Map<K, V> readAll(Collection<? extends K> keys) {
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            V value = read(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a batch of key-value pairs to persistent storage.
+     * The default implementation falls back to one {@link #write(Object, Object)} call per entry,
+     * so existing stores keep working; stores with a bulk API should override it.
+     *
+     * @param entries the key-value pairs to write.
+     */
+    default void writeAll(Map<? extends K, ? extends V> entries) {
+        for (Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+    }
+
 }
@@ -0,0 +1,111 @@
+package com.code.research.datastructures.hash.multithreadedcache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Demonstrates single-flight read-through loading: many threads miss on the same cold key,
+ * yet the store is read once; a bulk lookup costs one readAll; absent keys are negatively cached.
+ */
+@Slf4j
+public class ReadThroughCacheApplication {
+
+    private static final int READERS = 50;
+
+    public static void main(String[] args) throws InterruptedException {
+        CountingStore store = new CountingStore();
+        for (int i = 0; i < 200; i++) {
+            store.data.put(i, "value-" + i);
+        }
+
+        try (MultiThreadedWriteThroughCache<Integer, String> cache =
+                     new MultiThreadedWriteThroughCache<>(store, 5, Duration.ofSeconds(30))) {
+            // 1) thundering herd on one cold key
+            ExecutorService readers = Executors.newFixedThreadPool(READERS);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int i = 0; i < READERS; i++) {
+                readers.execute(() -> {
+                    try {
+                        start.await();
+                        cache.get(7);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+            readers.shutdown();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+            log.info("{} concurrent gets of a cold key -> store reads: {}", READERS, store.reads.sum());
+
+            // 2) bulk lookup of 150 keys (one already cached, some absent)
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                keys.add(i * 2);
+            }
+            Map<Integer, String> found = cache.getAll(keys);
+            log.info("getAll({} keys) -> found {}, store readAll calls: {}", keys.size(), found.size(), store.bulkReads.sum());
+
+            // 3) absent keys are remembered for the negative-cache TTL
+            long before = store.reads.sum() + store.bulkReads.sum();
+            for (int i = 0; i < 1_000; i++) {
+                cache.get(10_000);
+            }
+            log.info("1000 gets of an absent key -> store calls: {}", store.reads.sum() + store.bulkReads.sum() - before);
+        }
+    }
+
+    /**
+     * In-memory store that counts calls and sleeps like a remote round trip.
+     */
+    private static final class CountingStore implements PersistentStore<Integer, String> {
+        private final Map<Integer, String> data = new ConcurrentHashMap<>();
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder bulkReads = new LongAdder();
+
+        @Override
+        public void write(Integer key, String value) {
+            data.put(key, value);
+        }
+
+        @Override
+        public String read(Integer key) {
+            reads.increment();
+            roundTrip();
+            return data.get(key);
+        }
+
+        @Override
+        public Map<Integer, String> readAll(Collection<? extends Integer> keys) {
+            bulkReads.increment();
+            roundTrip();
+            Map<Integer, String> result = new ConcurrentHashMap<>();
+            for (Integer key : keys) {
+                String value = data.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+
+        private void roundTrip() {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
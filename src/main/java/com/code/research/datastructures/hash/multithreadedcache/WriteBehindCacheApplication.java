@@ -0,0 +1,96 @@
+package com.code.research.datastructures.hash.multithreadedcache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Demonstrates the write-behind mode: several writers update a small hot key set,
+ * the store pays a fixed latency per call, and the cache coalesces and batches the writes.
+ */
+@Slf4j
+public class WriteBehindCacheApplication {
+
+    private static final int WRITERS = 4;
+    private static final int UPDATES_PER_WRITER = 50_000;
+    private static final int HOT_KEYS = 2_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        SlowStore<Integer, String> store = new SlowStore<>(Duration.ofMillis(5));
+        WriteBehindConfig config = new WriteBehindConfig(500, Duration.ofMillis(200), 5_000);
+
+        try (MultiThreadedWriteThroughCache<Integer, String> cache = new MultiThreadedWriteThroughCache<>(store, config)) {
+            ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+            long start = System.nanoTime();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.execute(() -> {
+                    for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                        int key = ThreadLocalRandom.current().nextInt(HOT_KEYS);
+                        cache.put(key, "w" + writer + "-" + i);
+                    }
+                });
+            }
+            writers.shutdown();
+            writers.awaitTermination(1, TimeUnit.MINUTES);
+            cache.flush();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            WriteBehindStats stats = cache.writeBehindStats();
+            log.info("{} puts in {} ms, store calls: {}", WRITERS * UPDATES_PER_WRITER, elapsedMs, store.calls.sum());
+            log.info("batches={}, entries written={}, coalesced={}, avg batch={}, max batch={}",
+                    stats.batches(), stats.entriesWritten(), stats.coalescedUpdates(),
+                    String.format("%.1f", stats.averageBatchSize()), stats.maxBatchSize());
+            log.info("avg flush={} ms, max flush={} ms, backpressure waits={}",
+                    String.format("%.2f", stats.averageFlushMillis()),
+                    TimeUnit.NANOSECONDS.toMillis(stats.maxFlushNanos()), stats.backpressureWaits());
+        }
+    }
+
+    /**
+     * In-memory store that sleeps for a fixed latency on every call, like a remote database round trip.
+     */
+    private static final class SlowStore<K, V> implements PersistentStore<K, V> {
+        private final Map<K, V> data = new ConcurrentHashMap<>();
+        private final Duration latency;
+        private final LongAdder calls = new LongAdder();
+
+        SlowStore(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public void write(K key, V value) {
+            roundTrip();
+            data.put(key, value);
+        }
+
+        @Override
+        public V read(K key) {
+            roundTrip();
+            return data.get(key);
+        }
+
+        @Override
+        public void writeAll(Map<? extends K, ? extends V> entries) {
+            roundTrip();
+            data.putAll(entries);
+        }
+
+        private void roundTrip() {
+            calls.increment();
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.code.research.datastructures.hash.multithreadedcache;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * WriteBehindConfig holds the thresholds of the write-behind mode of {@link MultiThreadedWriteThroughCache}.
+ *
+ * @param maxBatchSize      a flush is triggered as soon as this many distinct keys are pending;
+ *                          also the maximum number of entries passed to one {@link PersistentStore#writeAll} call.
+ * @param maxDelay          a flush is triggered once the oldest pending update is this old.
+ * @param maxPendingWrites  bound on distinct pending keys (including the batch being written);
+ *                          {@code put} blocks when the bound is reached (backpressure).
+ */
+public record WriteBehindConfig(int maxBatchSize, Duration maxDelay, int maxPendingWrites) {
+
+    public WriteBehindConfig {
+        Objects.requireNonNull(maxDelay, "maxDelay");
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be > 0");
+        }
+        if (maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("maxDelay must be > 0");
+        }
+        if (maxPendingWrites < maxBatchSize) {
+            throw new IllegalArgumentException("maxPendingWrites must be >= maxBatchSize");
+        }
+    }
+
+    /**
+     * Reasonable defaults: batches of 500, at most 1 second old, up to 10 000 pending keys.
+     *
+     * @return the default configuration.
+     */
+    public static WriteBehindConfig defaults() {
+        return new WriteBehindConfig(500, Duration.ofSeconds(1), 10_000);
+    }
+}
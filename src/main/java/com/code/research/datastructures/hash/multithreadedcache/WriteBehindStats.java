@@ -0,0 +1,41 @@
+package com.code.research.datastructures.hash.multithreadedcache;
+
+/**
+ * WriteBehindStats is an immutable snapshot of the write-behind metrics of {@link MultiThreadedWriteThroughCache}.
+ *
+ * @param batches              number of successful {@link PersistentStore#writeAll} calls.
+ * @param entriesWritten       number of entries persisted by those calls.
+ * @param coalescedUpdates     number of puts that overwrote a still-pending value of the same key.
+ * @param failedBatches        number of {@code writeAll} calls that threw (their entries are re-queued).
+ * @param maxBatchSize         largest batch written so far.
+ * @param totalFlushNanos      total time spent inside {@code writeAll}.
+ * @param maxFlushNanos        slowest single {@code writeAll} call.
+ * @param backpressureWaits    number of puts that had to wait for pending capacity.
+ * @param backpressureNanos    total time puts spent waiting for pending capacity.
+ * @param pending              distinct keys currently waiting to be written.
+ */
+public record WriteBehindStats(long batches,
+                               long entriesWritten,
+                               long coalescedUpdates,
+                               long failedBatches,
+                               long maxBatchSize,
+                               long totalFlushNanos,
+                               long maxFlushNanos,
+                               long backpressureWaits,
+                               long backpressureNanos,
+                               int pending) {
+
+    /**
+     * @return average number of entries per batch, or 0 when nothing was written.
+     */
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) entriesWritten / batches;
+    }
+
+    /**
+     * @return average {@code writeAll} latency in milliseconds, or 0 when nothing was written.
+     */
+    public double averageFlushMillis() {
+        return batches == 0 ? 0 : totalFlushNanos / 1_000_000.0 / batches;
+    }
+}
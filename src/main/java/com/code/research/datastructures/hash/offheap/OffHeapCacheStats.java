@@ -0,0 +1,23 @@
+package com.code.research.datastructures.hash.offheap;
+
+/**
+ * Memory snapshot of an {@link OffHeapLRUCache}.
+ *
+ * @param entries        cached entries
+ * @param valueBytes     serialized value bytes stored
+ * @param usedChunkBytes bytes of the slab chunks holding those values (what counts against the byte budget)
+ * @param reservedBytes  direct memory reserved by the arena (whole slabs)
+ * @param evictions      entries evicted to respect the byte budget or to free a chunk
+ */
+public record OffHeapCacheStats(int entries, long valueBytes, long usedChunkBytes, long reservedBytes, long evictions) {
+
+    /** Share of used chunk bytes lost to rounding values up to their size class. */
+    public double internalFragmentation() {
+        return usedChunkBytes == 0 ? 0 : 1.0 - (double) valueBytes / usedChunkBytes;
+    }
+
+    /** Share of reserved memory not holding any value (free chunks and free slabs). */
+    public double fragmentation() {
+        return reservedBytes == 0 ? 0 : 1.0 - (double) valueBytes / reservedBytes;
+    }
+}
@@ -0,0 +1,257 @@
+package com.code.research.datastructures.hash.offheap;
+
+import com.code.research.datastructures.hash.LRUCache;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache whose values live outside the Java heap, bounded by bytes instead of entry count.
+ * <p>
+ * Compared with {@link LRUCache}:
+ * - value bytes are stored in a {@link SlabArena} of direct buffers, so multi-KB payloads add nothing
+ *   to the heap the GC has to trace or copy; only keys and a small index node per entry stay on heap;
+ * - the bound is {@code maxBytes} of slab chunks: inserting evicts least-recently-used entries until the new
+ *   value's chunk fits;
+ * - values go through a pluggable {@link ValueSerializer} on every put/get (a get returns a fresh copy).
+ * <p>
+ * If the arena has no free chunk of the needed size class, the least-recently-used entry of that class is
+ * evicted first (it frees exactly such a chunk); only if the class holds nothing is the global LRU evicted
+ * until a whole slab is free.
+ * Thread-safe: every operation runs under one lock.
+ *
+ * @param <K> key type (kept on heap)
+ * @param <V> value type (serialized off heap)
+ */
+public class OffHeapLRUCache<K, V> implements AutoCloseable {
+
+    public static final int DEFAULT_SLAB_SIZE = 1 << 20; // 1 MiB, also the largest value
+
+    private final long maxBytes;
+    private final ValueSerializer<V> serializer;
+    private final SlabArena arena;
+    private final Map<K, Node<K>> index = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // global recency list (head.next = MRU) and one list per size class, all through sentinels
+    private final Node<K> head = new Node<>(null, 0, 0, -1);
+    private final Node<K>[] classHeads;
+
+    private long valueBytes;
+    private long evictions;
+
+    public OffHeapLRUCache(long maxBytes, ValueSerializer<V> serializer) {
+        this(maxBytes, DEFAULT_SLAB_SIZE, serializer);
+    }
+
+    @SuppressWarnings("unchecked")
+    public OffHeapLRUCache(long maxBytes, int slabSize, ValueSerializer<V> serializer) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("maxBytes must be > 0");
+        this.maxBytes = maxBytes;
+        this.serializer = Objects.requireNonNull(serializer, "serializer");
+        long slabs = (maxBytes + slabSize - 1) / slabSize;
+        if (slabs > Integer.MAX_VALUE) throw new IllegalArgumentException("maxBytes too large for slabSize");
+        this.arena = new SlabArena(slabSize, (int) slabs);
+        head.prev = head.next = head;
+        this.classHeads = new Node[arena.classCount()];
+        for (int i = 0; i < classHeads.length; i++) {
+            Node<K> sentinel = new Node<>(null, 0, 0, i);
+            sentinel.classPrev = sentinel.classNext = sentinel;
+            classHeads[i] = sentinel;
+        }
+    }
+
+    /**
+     * @return a deserialized copy of the value, or null if absent; marks the entry most recently used
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Node<K> node = index.get(key);
+            if (node == null) {
+                return null;
+            }
+            moveToFront(node);
+            return serializer.deserialize(arena.read(node.address, node.length));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces the value, evicting least-recently-used entries until it fits.
+     *
+     * @throws IllegalArgumentException if the serialized value is larger than a slab or than {@code maxBytes}
+     */
+    public void put(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        byte[] bytes = serializer.serialize(Objects.requireNonNull(value, "value"));
+        if (bytes.length > arena.maxValueSize()) {
+            throw new IllegalArgumentException("value too large: " + bytes.length + " bytes (max " + arena.maxValueSize() + ")");
+        }
+        int sizeClass = arena.classOf(bytes.length);
+        int chunkSize = arena.chunkSize(sizeClass);
+        if (chunkSize > maxBytes) {
+            throw new IllegalArgumentException("value needs " + chunkSize + " bytes, cache holds " + maxBytes);
+        }
+
+        lock.lock();
+        try {
+            Node<K> old = index.remove(key);
+            if (old != null) {
+                unlinkAndFree(old);
+            }
+            while (arena.usedChunkBytes() + chunkSize > maxBytes) {
+                evict(head.prev);
+            }
+            long address;
+            while ((address = arena.allocate(sizeClass)) == SlabArena.NO_SPACE) {
+                Node<K> sameClass = classHeads[sizeClass].classPrev;
+                evict(sameClass != classHeads[sizeClass] ? sameClass : head.prev);
+            }
+            arena.write(address, bytes);
+
+            Node<K> node = new Node<>(key, address, bytes.length, sizeClass);
+            index.put(key, node);
+            linkFront(node);
+            valueBytes += bytes.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Removes the key; returns true if it was present. */
+    public boolean remove(K key) {
+        lock.lock();
+        try {
+            Node<K> node = index.remove(key);
+            if (node == null) {
+                return false;
+            }
+            unlinkAndFree(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** True if the key is cached; does not change recency. */
+    public boolean containsKey(K key) {
+        lock.lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long maxBytes() { return maxBytes; }
+
+    public OffHeapCacheStats stats() {
+        lock.lock();
+        try {
+            return new OffHeapCacheStats(index.size(), valueBytes, arena.usedChunkBytes(), arena.reservedBytes(), evictions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops all entries and the arena's slabs (direct memory is freed when the buffers are collected). */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            index.clear();
+            head.prev = head.next = head;
+            for (Node<K> sentinel : classHeads) {
+                sentinel.classPrev = sentinel.classNext = sentinel;
+            }
+            arena.release();
+            valueBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --------- helpers (lock held) ---------
+
+    private void evict(Node<K> node) {
+        index.remove(node.key);
+        unlinkAndFree(node);
+        evictions++;
+    }
+
+    private void unlinkAndFree(Node<K> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.classPrev.classNext = node.classNext;
+        node.classNext.classPrev = node.classPrev;
+        arena.free(node.address);
+        valueBytes -= node.length;
+    }
+
+    private void linkFront(Node<K> node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+
+        Node<K> classHead = classHeads[node.sizeClass];
+        node.classPrev = classHead;
+        node.classNext = classHead.classNext;
+        classHead.classNext.classPrev = node;
+        classHead.classNext = node;
+    }
+
+    private void moveToFront(Node<K> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.classPrev.classNext = node.classNext;
+        node.classNext.classPrev = node.classPrev;
+        linkFront(node);
+    }
+
+    /** On-heap index entry: where the value bytes live off heap. */
+    private static final class Node<K> {
+        final K key;
+        final long address;
+        final int length;
+        final int sizeClass;
+        Node<K> prev, next;            // global LRU
+        Node<K> classPrev, classNext;  // LRU within the size class
+
+        Node(K key, long address, int length, int sizeClass) {
+            this.key = key;
+            this.address = address;
+            this.length = length;
+            this.sizeClass = sizeClass;
+        }
+    }
+
+    // ---- Tiny demo ----
+    public static void main(String[] args) {
+        try (OffHeapLRUCache<Integer, String> cache = new OffHeapLRUCache<>(256, 128, ValueSerializer.utf8())) {
+            cache.put(1, "a".repeat(60)); // 64-byte chunk
+            cache.put(2, "b".repeat(60));
+            cache.put(3, "c".repeat(60));
+            cache.put(4, "d".repeat(60)); // 256 bytes used
+            cache.get(1);                 // 2 is now LRU
+            cache.put(5, "e".repeat(60)); // evicts 2
+            System.out.println(cache.containsKey(2)); // false
+            System.out.println(cache.get(1).length()); // 60
+            System.out.println(cache.stats());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.code.research.datastructures.hash.offheap;
+
+import com.code.research.datastructures.hash.LRUCache;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.SplittableRandom;
+
+/**
+ * Same working set (multi-KB payloads) in the on-heap {@link LRUCache} and in {@link OffHeapLRUCache}:
+ * - resident heap / direct memory once the cache is full,
+ * - GC count and time of a churn phase (50/50 get/put over a key space 2x the cache size, so half the puts evict),
+ * - arena fragmentation.
+ * <p>
+ * Run with a fixed heap for stable numbers, e.g. {@code -Xms1g -Xmx1g -XX:+UseG1GC}.
+ * Rough main()-style measurement, good enough to compare orders of magnitude.
+ */
+@Slf4j
+public class OffHeapLRUCacheApplication {
+
+    private static final int ENTRIES = 50_000;
+    private static final int MIN_VALUE = 1024;
+    private static final int MAX_VALUE = 8 * 1024;
+    private static final int OPS = 400_000;
+
+    public static void main(String[] args) {
+        byte[][] payloads = payloads();
+        long workingSetBytes = 0;
+        for (int i = 0; i < ENTRIES; i++) workingSetBytes += payloads[i].length;
+        log.info("working set: {} entries, {} MiB of values", ENTRIES, workingSetBytes >> 20);
+
+        // on heap: bounded by entry count
+        long heapBefore = usedHeap();
+        LRUCache<Integer, byte[]> onHeap = new LRUCache<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) onHeap.put(i, payloads[i].clone());
+        log.info("on-heap : resident heap {} MiB", (usedHeap() - heapBefore) >> 20);
+        GcSample gc = GcSample.start();
+        long sink = churnOnHeap(onHeap, payloads);
+        log.info("on-heap : churn {} ops -> {}", OPS, gc.stop());
+        Reference.reachabilityFence(onHeap);
+        onHeap = null;
+
+        // off heap: bounded by bytes, same working set plus the size-class rounding
+        heapBefore = usedHeap();
+        long directBefore = directMemory();
+        try (OffHeapLRUCache<Integer, byte[]> offHeap =
+                     new OffHeapLRUCache<>(workingSetBytes * 5 / 4, ValueSerializer.byteArray())) {
+            for (int i = 0; i < ENTRIES; i++) offHeap.put(i, payloads[i]);
+            log.info("off-heap: resident heap {} MiB, direct {} MiB, entries kept {}",
+                    (usedHeap() - heapBefore) >> 20, (directMemory() - directBefore) >> 20, offHeap.size());
+            gc = GcSample.start();
+            sink += churnOffHeap(offHeap, payloads);
+            log.info("off-heap: churn {} ops -> {}", OPS, gc.stop());
+
+            OffHeapCacheStats stats = offHeap.stats();
+            log.info("off-heap: values {} MiB in chunks {} MiB of {} MiB reserved, evictions {}",
+                    stats.valueBytes() >> 20, stats.usedChunkBytes() >> 20, stats.reservedBytes() >> 20, stats.evictions());
+            log.info("off-heap: internal fragmentation {}%, total fragmentation {}%",
+                    String.format("%.1f", stats.internalFragmentation() * 100),
+                    String.format("%.1f", stats.fragmentation() * 100));
+        }
+        log.info("(sink {})", sink);
+    }
+
+    private static byte[][] payloads() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        byte[][] payloads = new byte[ENTRIES * 2][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = new byte[rnd.nextInt(MIN_VALUE, MAX_VALUE + 1)];
+            rnd.nextBytes(payloads[i]);
+        }
+        return payloads;
+    }
+
+    // get returns a copy for off-heap, so the on-heap loop clones on put to allocate comparably
+
+    private static long churnOnHeap(LRUCache<Integer, byte[]> cache, byte[][] payloads) {
+        SplittableRandom rnd = new SplittableRandom(7);
+        long sink = 0;
+        for (int i = 0; i < OPS; i++) {
+            int key = rnd.nextInt(payloads.length);
+            if ((i & 1) == 0) {
+                byte[] v = cache.get(key);
+                if (v != null) sink += v.length;
+            } else {
+                cache.put(key, payloads[key].clone());
+            }
+        }
+        return sink;
+    }
+
+    private static long churnOffHeap(OffHeapLRUCache<Integer, byte[]> cache, byte[][] payloads) {
+        SplittableRandom rnd = new SplittableRandom(7);
+        long sink = 0;
+        for (int i = 0; i < OPS; i++) {
+            int key = rnd.nextInt(payloads.length);
+            if ((i & 1) == 0) {
+                byte[] v = cache.get(key);
+                if (v != null) sink += v.length;
+            } else {
+                cache.put(key, payloads[key]);
+            }
+        }
+        return sink;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long directMemory() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) return pool.getMemoryUsed();
+        }
+        return 0;
+    }
+
+    private record GcSample(long count, long millis, long startNanos) {
+        static GcSample start() {
+            long count = 0, millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += gc.getCollectionCount();
+                millis += gc.getCollectionTime();
+            }
+            return new GcSample(count, millis, System.nanoTime());
+        }
+
+        String stop() {
+            GcSample end = start();
+            return String.format("%d ms wall, %d GCs, %d ms GC time",
+                    (end.startNanos - startNanos) / 1_000_000, end.count - count, end.millis - millis);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.code.research.datastructures.hash.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memcached-style slab allocator over direct {@link ByteBuffer}s.
+ * <p>
+ * - Memory is reserved in fixed-size slabs (direct buffers, outside the Java heap), at most {@code maxSlabs}.
+ * - Each slab is cut into equal chunks of one size class; classes grow by ~1.25x from 64 bytes up to the slab size,
+ *   so a value wastes at most ~20% of its chunk (internal fragmentation).
+ * - A slab that becomes completely free goes back to a shared pool and can be re-assigned to another class,
+ *   so memory follows the value-size mix instead of staying pinned to the first classes used.
+ * <p>
+ * Addresses are {@code (slabIndex << 32) | chunkIndex}. Not thread-safe; {@link OffHeapLRUCache} guards it.
+ */
+final class SlabArena {
+
+    static final long NO_SPACE = -1;
+    private static final int MIN_CHUNK = 64;
+
+    private final int slabSize;
+    private final int maxSlabs;
+    private final int[] classSizes;
+
+    private final List<Slab> slabs = new ArrayList<>();     // index = slab id
+    private final ArrayDeque<Slab> freeSlabs = new ArrayDeque<>();
+    private final ArrayDeque<Slab>[] partial;             // per class: slabs with at least one free chunk
+
+    private long usedChunkBytes;
+
+    @SuppressWarnings("unchecked")
+    SlabArena(int slabSize, int maxSlabs) {
+        if (slabSize < MIN_CHUNK) throw new IllegalArgumentException("slabSize must be >= " + MIN_CHUNK);
+        if (maxSlabs <= 0) throw new IllegalArgumentException("maxSlabs must be > 0");
+        this.slabSize = slabSize;
+        this.maxSlabs = maxSlabs;
+        this.classSizes = buildClasses(slabSize);
+        this.partial = new ArrayDeque[classSizes.length];
+        for (int i = 0; i < partial.length; i++) {
+            partial[i] = new ArrayDeque<>();
+        }
+    }
+
+    private static int[] buildClasses(int slabSize) {
+        int[] sizes = new int[128];
+        int n = 0;
+        int size = MIN_CHUNK;
+        while (size < slabSize) {
+            sizes[n++] = size;
+            size = Math.max(size + 8, (int) (size * 1.25) + 7 & ~7); // grow ~1.25x, 8-byte aligned
+        }
+        sizes[n++] = slabSize;
+        return Arrays.copyOf(sizes, n);
+    }
+
+    int maxValueSize() { return slabSize; }
+
+    int classCount() { return classSizes.length; }
+
+    /** Smallest class whose chunks fit {@code size} bytes. */
+    int classOf(int size) {
+        int i = Arrays.binarySearch(classSizes, size);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    int chunkSize(int sizeClass) { return classSizes[sizeClass]; }
+
+    /**
+     * @return address of a free chunk of the class, or {@link #NO_SPACE} when the class has no free chunk
+     *         and no slab can be (re)assigned to it
+     */
+    long allocate(int sizeClass) {
+        Slab slab = partial[sizeClass].peekFirst();
+        if (slab == null) {
+            slab = freeSlabs.pollFirst();
+            if (slab == null) {
+                if (slabs.size() == maxSlabs) {
+                    return NO_SPACE;
+                }
+                slab = new Slab(slabs.size(), ByteBuffer.allocateDirect(slabSize));
+                slabs.add(slab);
+            }
+            slab.assign(sizeClass, classSizes[sizeClass], slabSize);
+            partial[sizeClass].addFirst(slab);
+        }
+        int chunk = slab.take();
+        if (slab.isFull()) {
+            partial[sizeClass].pollFirst();
+        }
+        usedChunkBytes += slab.chunkSize;
+        return (long) slab.id << 32 | chunk;
+    }
+
+    void free(long address) {
+        Slab slab = slabs.get((int) (address >>> 32));
+        boolean wasFull = slab.isFull();
+        slab.release((int) address);
+        usedChunkBytes -= slab.chunkSize;
+        if (slab.used == 0) {
+            if (!wasFull) {
+                partial[slab.sizeClass].remove(slab);
+            }
+            freeSlabs.addLast(slab);
+        } else if (wasFull) {
+            partial[slab.sizeClass].addLast(slab);
+        }
+    }
+
+    /** Copies {@code value} into the chunk at {@code address}. */
+    void write(long address, byte[] value) {
+        Slab slab = slabs.get((int) (address >>> 32));
+        slab.buffer.put(slab.offset((int) address), value);
+    }
+
+    /** Read-only view of {@code length} bytes at {@code address}. */
+    ByteBuffer read(long address, int length) {
+        Slab slab = slabs.get((int) (address >>> 32));
+        return slab.buffer.slice(slab.offset((int) address), length).asReadOnlyBuffer();
+    }
+
+    /** Bytes of all chunks currently handed out. */
+    long usedChunkBytes() { return usedChunkBytes; }
+
+    /** Direct memory reserved so far (slabs are allocated lazily and kept until {@link #release}). */
+    long reservedBytes() { return (long) slabs.size() * slabSize; }
+
+    /** Drops all slabs; the direct memory is returned once the buffers are garbage collected. */
+    void release() {
+        slabs.clear();
+        freeSlabs.clear();
+        for (ArrayDeque<Slab> p : partial) {
+            p.clear();
+        }
+        usedChunkBytes = 0;
+    }
+
+    private static final class Slab {
+        final int id;
+        final ByteBuffer buffer;
+        int sizeClass;
+        int chunkSize;
+        int chunks;
+        int used;
+        int nextUnused;   // chunks never handed out since assign(): [nextUnused, chunks)
+        int[] freeStack = new int[0];
+        int freeTop;
+
+        Slab(int id, ByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        void assign(int sizeClass, int chunkSize, int slabSize) {
+            this.sizeClass = sizeClass;
+            this.chunkSize = chunkSize;
+            this.chunks = slabSize / chunkSize;
+            this.used = 0;
+            this.nextUnused = 0;
+            this.freeTop = 0;
+            if (freeStack.length < chunks) {
+                freeStack = new int[chunks];
+            }
+        }
+
+        boolean isFull() { return used == chunks; }
+
+        int take() {
+            used++;
+            return freeTop > 0 ? freeStack[--freeTop] : nextUnused++;
+        }
+
+        void release(int chunk) {
+            used--;
+            freeStack[freeTop++] = chunk;
+        }
+
+        int offset(int chunk) { return chunk * chunkSize; }
+    }
+}
@@ -0,0 +1,50 @@
+package com.code.research.datastructures.hash.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts cache values to and from the bytes stored off-heap by {@link OffHeapLRUCache}.
+ *
+ * @param <V> value type
+ */
+public interface ValueSerializer<V> {
+
+    byte[] serialize(V value);
+
+    /**
+     * @param bytes read-only view holding exactly the bytes produced by {@link #serialize}
+     */
+    V deserialize(ByteBuffer bytes);
+
+    /** Raw payloads (already serialized JSON, protobuf, ...). */
+    static ValueSerializer<byte[]> byteArray() {
+        return new ValueSerializer<>() {
+            @Override
+            public byte[] serialize(byte[] value) {
+                return value;
+            }
+
+            @Override
+            public byte[] deserialize(ByteBuffer bytes) {
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                return copy;
+            }
+        };
+    }
+
+    static ValueSerializer<String> utf8() {
+        return new ValueSerializer<>() {
+            @Override
+            public byte[] serialize(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String deserialize(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.code.research.function;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
@@ -93,6 +94,18 @@ public class MemoizeCacheUserFetchFunction {
         };
     }
 
+    /**
+     * Coalescing memoizer that forgets: at most {@code maxSize} keys (LRU) and each value is reloaded
+     * once it is older than {@code ttl}. Use this instead of the unbounded variants above in a long-running service;
+     * see {@link Memoizer.Builder} for sampled eviction, expire-after-access, async loading and stats.
+     */
+    public static <T, R> Memoizer<T, R> memoizeBounded(Function<? super T, ? extends R> fn, long maxSize, Duration ttl) {
+        return Memoizer.builder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(fn);
+    }
+
     public static Profile fetchByUserId(String userId) {
         log.info("fetchByUserId: {}", userId);
         return new Profile(userId, Instant.now());
@@ -119,5 +132,14 @@ public class MemoizeCacheUserFetchFunction {
         log.info("User5 apply2 optional: {}", cachedFetchCoalescing.apply("U5"));
         log.info("User5 apply3 optional: {}", cachedFetchCoalescing.apply("U5"));
 
+        Memoizer<String, Profile> cachedFetchBounded =
+                memoizeBounded(MemoizeCacheUserFetchFunction::fetchByUserId, 2, Duration.ofMinutes(5));
+
+        log.info("User7 apply1 bounded: {}", cachedFetchBounded.apply("U7"));
+        log.info("User8 apply bounded: {}", cachedFetchBounded.apply("U8"));
+        log.info("User7 apply2 bounded: {}", cachedFetchBounded.apply("U7"));
+        log.info("User9 apply bounded (evicts U8): {}", cachedFetchBounded.apply("U9"));
+        log.info("User8 apply2 bounded (reloaded): {}", cachedFetchBounded.apply("U8"));
+        log.info("Bounded stats: {}", cachedFetchBounded.stats());
     }
 }
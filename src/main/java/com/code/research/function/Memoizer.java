@@ -0,0 +1,420 @@
+package com.code.research.function;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, expiring memoizer: the long-running-service version of the {@code memoize*} helpers
+ * in {@link MemoizeCacheUserFetchFunction} (those never forget a key).
+ * <p>
+ * - Coalescing: concurrent callers of a missing key share one load (one {@link CompletableFuture});
+ *   a failed or null load is not cached, so the next call retries.
+ * - Size bound: {@link Eviction#LRU} keeps exact recency order (a hit takes a short lock);
+ *   {@link Eviction#SAMPLED} keeps hits lock-free and evicts the least recently used of
+ *   {@value #SAMPLE_SIZE} random entries (Redis-style approximation).
+ * - Expiry after write and/or after access; expired entries are dropped on read and a few are swept on every insert.
+ * - Loads run on the caller thread, or on an {@link Executor} when one is configured ({@link #getAsync}).
+ * - Hit/miss/load-time counters via {@link #stats()}.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * Memoizer<String, Profile> profiles = Memoizer.builder()
+ *         .maximumSize(10_000)
+ *         .expireAfterWrite(Duration.ofMinutes(5))
+ *         .build(service::fetchByUserId);
+ * Profile p = profiles.apply("U1");
+ * }</pre>
+ */
+public final class Memoizer<K, V> implements Function<K, V> {
+
+    public enum Eviction { LRU, SAMPLED }
+
+    private static final int SAMPLE_SIZE = 5;
+    private static final int EXPIRY_SWEEP = 3; // entries checked for expiry per insert
+
+    private final Function<? super K, ? extends V> loader;
+    private final long maximumSize;
+    private final Eviction eviction;
+    private final long expireAfterWriteNanos;  // 0 = never
+    private final long expireAfterAccessNanos; // 0 = never
+    private final Executor executor;           // null = load on the caller thread
+    private final LongSupplier ticker;
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    // guards the eviction structures below; never held while loading
+    private final ReentrantLock lock = new ReentrantLock();
+    // LRU: circular list through a sentinel, head.next = most recently used
+    private final Node<K, V> head = new Node<>(null, null, 0);
+    // SAMPLED: dense array of live nodes, so a random index is a random entry
+    private Node<K, V>[] slots;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private Memoizer(Builder builder, Function<? super K, ? extends V> loader) {
+        this.loader = Objects.requireNonNull(loader, "fn must not be null");
+        this.maximumSize = builder.maximumSize;
+        this.eviction = builder.eviction;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.executor = builder.executor;
+        this.ticker = builder.ticker;
+        head.prev = head.next = head;
+        if (eviction == Eviction.SAMPLED) {
+            slots = (Node<K, V>[]) new Node[(int) Math.min(maximumSize, 16)];
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the memoized value, loading it if absent or expired.
+     *
+     * @throws java.util.concurrent.CompletionException if the load failed (the failure is not cached)
+     */
+    @Override
+    public V apply(K key) {
+        return getAsync(key).join();
+    }
+
+    /**
+     * Returns the memoized value as a future. With an executor the load runs there and this call never blocks;
+     * without one the load runs on this thread before returning.
+     */
+    public CompletableFuture<V> getAsync(K key) {
+        Objects.requireNonNull(key, "memoize: key must not be null");
+        while (true) {
+            long now = ticker.getAsLong();
+            Node<K, V> node = map.get(key);
+            if (node != null) {
+                if (!isExpired(node, now)) {
+                    hits.increment();
+                    recordAccess(node, now);
+                    return node.future;
+                }
+                if (remove(node)) {
+                    expirations.increment();
+                }
+                continue;
+            }
+            Node<K, V> created = new Node<>(key, new CompletableFuture<>(), now);
+            if (map.putIfAbsent(key, created) != null) {
+                continue; // another caller installed a load first: join it
+            }
+            misses.increment();
+            link(created, now);
+            load(created);
+            return created.future;
+        }
+    }
+
+    /** Drops the key; an in-flight load still completes for callers already waiting on it. */
+    public void invalidate(K key) {
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Node<K, V> node : map.values()) {
+            remove(node);
+        }
+    }
+
+    /** Number of memoized entries, including in-flight loads and not yet swept expired entries. */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public MemoizerStats stats() {
+        return new MemoizerStats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(),
+                totalLoadNanos.sum(), evictions.sum(), expirations.sum());
+    }
+
+    // ---------------- loading ----------------
+
+    private void load(Node<K, V> node) {
+        if (executor == null) {
+            runLoad(node);
+            return;
+        }
+        try {
+            executor.execute(() -> runLoad(node));
+        } catch (RejectedExecutionException e) {
+            loadFailures.increment();
+            remove(node);
+            node.future.completeExceptionally(e);
+        }
+    }
+
+    private void runLoad(Node<K, V> node) {
+        long start = ticker.getAsLong();
+        try {
+            V value = loader.apply(node.key);
+            if (value == null) {
+                throw new NullPointerException("memoized function returned null for key: " + node.key);
+            }
+            long end = ticker.getAsLong();
+            totalLoadNanos.add(end - start);
+            loadSuccesses.increment();
+            node.writeNanos = end;
+            node.accessNanos = end;
+            node.future.complete(value);
+        } catch (Throwable t) {
+            totalLoadNanos.add(ticker.getAsLong() - start);
+            loadFailures.increment();
+            remove(node); // before completing, so a caller reacting to the failure retries with a fresh load
+            node.future.completeExceptionally(t);
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        if (!node.future.isDone()) {
+            return false; // in-flight loads never expire
+        }
+        return (expireAfterWriteNanos > 0 && now - node.writeNanos >= expireAfterWriteNanos)
+                || (expireAfterAccessNanos > 0 && now - node.accessNanos >= expireAfterAccessNanos);
+    }
+
+    private void recordAccess(Node<K, V> node, long now) {
+        node.accessNanos = now;
+        if (eviction == Eviction.LRU) {
+            lock.lock();
+            try {
+                if (node.linked) {
+                    unlinkFromList(node);
+                    linkFirst(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // ---------------- eviction structures (lock held) ----------------
+
+    private void link(Node<K, V> node, long now) {
+        lock.lock();
+        try {
+            if (map.get(node.key) != node) {
+                return; // invalidated between putIfAbsent and here
+            }
+            if (eviction == Eviction.LRU) {
+                linkFirst(node);
+            } else {
+                addSlot(node);
+            }
+            node.linked = true;
+            size++;
+            sweepExpired(now);
+            while (size > maximumSize) {
+                Node<K, V> victim = eviction == Eviction.LRU ? head.prev : sampleVictim();
+                unlinkLocked(victim);
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean remove(Node<K, V> node) {
+        if (!map.remove(node.key, node)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (node.linked) {
+                node.linked = false;
+                size--;
+                if (eviction == Eviction.LRU) {
+                    unlinkFromList(node);
+                } else {
+                    removeSlot(node);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    private void unlinkLocked(Node<K, V> node) {
+        map.remove(node.key, node);
+        node.linked = false;
+        size--;
+        if (eviction == Eviction.LRU) {
+            unlinkFromList(node);
+        } else {
+            removeSlot(node);
+        }
+    }
+
+    /** Drops a few expired entries: the LRU tail, or random samples. */
+    private void sweepExpired(long now) {
+        if (expireAfterWriteNanos == 0 && expireAfterAccessNanos == 0) {
+            return;
+        }
+        for (int i = 0; i < EXPIRY_SWEEP && size > 1; i++) {
+            Node<K, V> candidate = eviction == Eviction.LRU
+                    ? head.prev
+                    : slots[ThreadLocalRandom.current().nextInt(size)];
+            if (!isExpired(candidate, now)) {
+                if (eviction == Eviction.LRU) {
+                    return; // tail is the least recently used; the rest is younger
+                }
+                continue;
+            }
+            unlinkLocked(candidate);
+            expirations.increment();
+        }
+    }
+
+    private Node<K, V> sampleVictim() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Node<K, V> victim = slots[random.nextInt(size)];
+        for (int i = 1; i < SAMPLE_SIZE; i++) {
+            Node<K, V> candidate = slots[random.nextInt(size)];
+            if (candidate.accessNanos - victim.accessNanos < 0) {
+                victim = candidate;
+            }
+        }
+        return victim;
+    }
+
+    private void linkFirst(Node<K, V> node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+    }
+
+    private static <K, V> void unlinkFromList(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node.next = null;
+    }
+
+    private void addSlot(Node<K, V> node) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        node.slot = size;
+        slots[size] = node;
+    }
+
+    private void removeSlot(Node<K, V> node) {
+        // size was already decremented: move the last live node into the gap
+        Node<K, V> last = slots[size];
+        slots[node.slot] = last;
+        last.slot = node.slot;
+        slots[size] = null;
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final CompletableFuture<V> future;
+        volatile long writeNanos;
+        volatile long accessNanos;
+        // guarded by lock
+        boolean linked;
+        Node<K, V> prev;
+        Node<K, V> next;
+        int slot;
+
+        Node(K key, CompletableFuture<V> future, long now) {
+            this.key = key;
+            this.future = future;
+            this.writeNanos = now;
+            this.accessNanos = now;
+        }
+    }
+
+    /**
+     * Memoizer settings; every limit is optional (default: unbounded, never expires, loads on the caller).
+     */
+    public static final class Builder {
+        private long maximumSize = Long.MAX_VALUE;
+        private Eviction eviction = Eviction.LRU;
+        private long expireAfterWriteNanos;
+        private long expireAfterAccessNanos;
+        private Executor executor;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be > 0");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder eviction(Eviction eviction) {
+            this.eviction = Objects.requireNonNull(eviction, "eviction");
+            return this;
+        }
+
+        /** Entries are reloaded once this long has passed since they were loaded. */
+        public Builder expireAfterWrite(Duration ttl) {
+            this.expireAfterWriteNanos = positiveNanos(ttl, "expireAfterWrite");
+            return this;
+        }
+
+        /** Entries are dropped once they have not been read for this long. */
+        public Builder expireAfterAccess(Duration ttl) {
+            this.expireAfterAccessNanos = positiveNanos(ttl, "expireAfterAccess");
+            return this;
+        }
+
+        /** Run loads on this executor; {@link Memoizer#getAsync} then never blocks. */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor");
+            return this;
+        }
+
+        /** Time source in nanoseconds (tests pass a fake clock). */
+        public Builder ticker(LongSupplier ticker) {
+            this.ticker = Objects.requireNonNull(ticker, "ticker");
+            return this;
+        }
+
+        public <K, V> Memoizer<K, V> build(Function<? super K, ? extends V> fn) {
+            return new Memoizer<>(this, fn);
+        }
+
+        private static long positiveNanos(Duration ttl, String name) {
+            Objects.requireNonNull(ttl, name);
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException(name + " must be > 0");
+            }
+            return ttl.toNanos();
+        }
+    }
+}
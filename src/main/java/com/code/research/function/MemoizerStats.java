@@ -0,0 +1,31 @@
+package com.code.research.function;
+
+/**
+ * Snapshot of {@link Memoizer} counters.
+ *
+ * @param hitCount         lookups answered by a memoized (or in-flight) value
+ * @param missCount        lookups that started a load
+ * @param loadSuccessCount loads that returned a value
+ * @param loadFailureCount loads that threw or returned null (not cached)
+ * @param totalLoadNanos   time spent in the loader, successful or not
+ * @param evictionCount    entries dropped to respect the size bound
+ * @param expiredCount     entries dropped because they expired
+ */
+public record MemoizerStats(long hitCount,
+                            long missCount,
+                            long loadSuccessCount,
+                            long loadFailureCount,
+                            long totalLoadNanos,
+                            long evictionCount,
+                            long expiredCount) {
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public double averageLoadMillis() {
+        long loads = loadSuccessCount + loadFailureCount;
+        return loads == 0 ? 0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+}
@@ -4,7 +4,16 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -12,8 +21,17 @@ import java.util.function.Function;
  * - Thread-safe cache keyed by userId.
  * - compute(...) ensures exactly one generator invocation per key at a time.
  * - Refresh-ahead prevents returning nearly expired tokens.
+ * <p>
+ * Stale-while-revalidate mode (constructed with a {@link RefreshPolicy}):
+ * - A token inside the refresh-ahead window but not yet expired is returned immediately,
+ *   and one background task re-mints it; only missing/expired tokens block the caller.
+ * - Background refreshes run on a bounded pool; when its queue is full the refresh is skipped
+ *   (the next caller or the sweeper tries again).
+ * - A sweeper periodically re-mints tokens of recently used users that are nearing expiry,
+ *   and drops expired tokens of idle users.
+ * - {@link #refreshStats()} reports refresh lag and blocked callers.
  */
-final class GeneratedTokenService {
+final class GeneratedTokenService implements AutoCloseable {
 
     private final ConcurrentHashMap<String, Token> cache = new ConcurrentHashMap<>();
     private final TokenGenerator generator;
@@ -21,6 +39,22 @@ final class GeneratedTokenService {
     private final Duration refreshAhead;
     private final Clock clock;
 
+    // ---- stale-while-revalidate mode (all null when disabled) ----
+    private final ThreadPoolExecutor refreshExecutor;
+    private final ScheduledExecutorService sweeper;
+    /** userId -> user seen since its token was last minted; the sweeper only refreshes these. */
+    private final ConcurrentHashMap<String, User> activeUsers;
+    /** userIds with a background refresh queued or running. */
+    private final ConcurrentHashMap<String, Boolean> refreshing;
+
+    private final LongAdder backgroundRefreshes = new LongAdder();
+    private final LongAdder skippedRefreshes = new LongAdder();
+    private final LongAdder blockedCallers = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final LongAdder refreshLagMillis = new LongAdder();
+    private final AtomicLong maxRefreshLagMillis = new AtomicLong();
+    private final LongAdder sweeps = new LongAdder();
+
     /**
      * @param generator    strategy used to mint tokens
      * @param ttl          token lifetime (e.g., PT5M)
@@ -35,6 +69,46 @@ final class GeneratedTokenService {
         if (!refreshAhead.isNegative() && !refreshAhead.isZero() && refreshAhead.compareTo(ttl) >= 0) {
             throw new IllegalArgumentException("refreshAhead must be < ttl");
         }
+        this.refreshExecutor = null;
+        this.sweeper = null;
+        this.activeUsers = null;
+        this.refreshing = null;
+    }
+
+    /**
+     * Stale-while-revalidate variant: tokens in the refresh-ahead window are served while one
+     * background task re-mints them.
+     *
+     * @param generator    strategy used to mint tokens
+     * @param ttl          token lifetime (e.g., PT5M)
+     * @param refreshAhead window before expiry in which a background refresh starts (e.g., PT30S)
+     * @param clock        injectable clock for tests
+     * @param policy       refresh pool size/queue bound and sweeper interval
+     */
+    GeneratedTokenService(TokenGenerator generator, Duration ttl, Duration refreshAhead, Clock clock,
+                          RefreshPolicy policy) {
+        this.generator = Objects.requireNonNull(generator, "generator");
+        this.ttl = Objects.requireNonNull(ttl, "ttl");
+        this.refreshAhead = Objects.requireNonNull(refreshAhead, "refreshAhead");
+        this.clock = Objects.requireNonNull(clock, "clock");
+        Objects.requireNonNull(policy, "policy");
+        if (refreshAhead.isNegative() || refreshAhead.isZero() || refreshAhead.compareTo(ttl) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must be > 0 and < ttl");
+        }
+        this.refreshExecutor = new ThreadPoolExecutor(
+                policy.refreshThreads(), policy.refreshThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(policy.maxQueuedRefreshes()),
+                daemon("token-refresh"));
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(daemon("token-sweeper"));
+        this.activeUsers = new ConcurrentHashMap<>();
+        this.refreshing = new ConcurrentHashMap<>();
+        long sweepMillis = policy.sweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stale-while-revalidate variant with system clock. */
+    GeneratedTokenService(TokenGenerator generator, Duration ttl, Duration refreshAhead, RefreshPolicy policy) {
+        this(generator, ttl, refreshAhead, Clock.systemUTC(), policy);
     }
 
     /** Convenience ctor with system clock. */
@@ -51,6 +125,9 @@ final class GeneratedTokenService {
     Token getToken(User user) {
         Objects.requireNonNull(user, "user");
         String userId = Objects.requireNonNull(user.id(), "user.id");
+        if (refreshExecutor != null) {
+            return getTokenStaleWhileRevalidate(user, userId);
+        }
         // compute(...) is atomic per key: one thread runs the lambda; others for same key wait.
         return cache.compute(userId, (id, current) -> {
             Instant now = Instant.now(clock);
@@ -68,11 +145,141 @@ final class GeneratedTokenService {
     /** Remove token for a specific user (e.g., logout). */
     void evict(String userId) {
         cache.remove(Objects.requireNonNull(userId, "userId"));
+        if (activeUsers != null) {
+            activeUsers.remove(userId);
+        }
     }
 
     /** Clear all tokens (e.g., key rotation). */
     void clear() {
         cache.clear();
+        if (activeUsers != null) {
+            activeUsers.clear();
+        }
+    }
+
+    /** Snapshot of refresh-ahead metrics (all zero when stale-while-revalidate mode is off). */
+    RefreshStats refreshStats() {
+        return new RefreshStats(
+                backgroundRefreshes.sum(),
+                skippedRefreshes.sum(),
+                blockedCallers.sum(),
+                blockedNanos.sum(),
+                refreshLagMillis.sum(),
+                maxRefreshLagMillis.get(),
+                sweeps.sum());
+    }
+
+    /** Stops the refresh pool and sweeper (no-op in the default mode). */
+    @Override
+    public void close() {
+        if (refreshExecutor != null) {
+            sweeper.shutdownNow();
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    // ---- stale-while-revalidate internals ----
+
+    private Token getTokenStaleWhileRevalidate(User user, String userId) {
+        if (!activeUsers.containsKey(userId)) {
+            activeUsers.put(userId, user);
+        }
+        Token current = cache.get(userId);
+        Instant now = Instant.now(clock);
+        if (current != null && now.isBefore(current.expiresAt())) {
+            if (isExpiringSoon(current, now)) {
+                scheduleRefresh(user, userId);
+            }
+            return current; // fresh or stale-but-valid: never blocks
+        }
+
+        // Missing or expired: the caller has to wait for a mint.
+        blockedCallers.increment();
+        long start = System.nanoTime();
+        try {
+            return cache.compute(userId, (id, existing) -> {
+                Instant mintAt = Instant.now(clock);
+                if (existing != null && mintAt.isBefore(existing.expiresAt())) {
+                    return existing; // someone minted while we waited
+                }
+                return generator.generate(user, mintAt, ttl);
+            });
+        } finally {
+            blockedNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Queues at most one background refresh per user; skips it when the pool is saturated.
+     *
+     * @return true if a refresh for the user is queued or running, false if the pool rejected it
+     */
+    private boolean scheduleRefresh(User user, String userId) {
+        if (refreshing.putIfAbsent(userId, Boolean.TRUE) != null) {
+            return true;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(user, userId);
+                } finally {
+                    refreshing.remove(userId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(userId);
+            skippedRefreshes.increment();
+            return false;
+        }
+    }
+
+    private void refresh(User user, String userId) {
+        cache.compute(userId, (id, existing) -> {
+            Instant now = Instant.now(clock);
+            if (existing != null && !isExpiringSoon(existing, now)) {
+                return existing; // already refreshed by someone else
+            }
+            Token minted = generator.generate(user, now, ttl);
+            backgroundRefreshes.increment();
+            if (existing != null) {
+                long lag = Math.max(0, Duration.between(existing.expiresAt().minus(refreshAhead), now).toMillis());
+                refreshLagMillis.add(lag);
+                maxRefreshLagMillis.accumulateAndGet(lag, Math::max);
+            }
+            return minted;
+        });
+    }
+
+    /**
+     * Proactive pass: re-mint tokens nearing expiry for users seen since their last mint,
+     * and drop expired tokens nobody asked for.
+     */
+    private void sweep() {
+        sweeps.increment();
+        Instant now = Instant.now(clock);
+        cache.forEach((userId, token) -> {
+            if (!now.isBefore(token.expiresAt())) {
+                if (cache.remove(userId, token)) {
+                    activeUsers.remove(userId);
+                }
+            } else if (isExpiringSoon(token, now)) {
+                User user = activeUsers.get(userId);
+                // a rejected refresh keeps the user active, so the next sweep tries again
+                if (user != null && scheduleRefresh(user, userId)) {
+                    activeUsers.remove(userId, user);
+                }
+            }
+        });
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread t = new Thread(runnable, name);
+            t.setDaemon(true);
+            return t;
+        };
     }
 
     private boolean isExpiringSoon(Token t, Instant now) {
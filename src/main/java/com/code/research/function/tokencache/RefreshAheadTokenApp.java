@@ -0,0 +1,52 @@
+package com.code.research.function.tokencache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stale-while-revalidate demo: readers hammer a few users across several token lifetimes.
+ * Only the very first call per user blocks; every later refresh happens in the background.
+ */
+@Slf4j
+public class RefreshAheadTokenApp {
+
+    public static void main(String[] args) throws Exception {
+        var generator = new HmacJwtLikeGenerator("super-secret-key-123".getBytes(StandardCharsets.UTF_8));
+        var policy = new RefreshPolicy(2, 256, Duration.ofMillis(200));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(new User("U-" + i, "u" + i + "@example.com", Set.of("USER")));
+        }
+
+        try (var service = new GeneratedTokenService(generator, Duration.ofSeconds(2), Duration.ofMillis(500), policy)) {
+            ExecutorService readers = Executors.newFixedThreadPool(8);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(7);
+            for (int r = 0; r < 8; r++) {
+                readers.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        User u = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+                        service.getToken(u);
+                    }
+                });
+            }
+            readers.shutdown();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+
+            RefreshStats stats = service.refreshStats();
+            log.info("minted={}, background refreshes={}, skipped={}, sweeps={}",
+                    generator.mintedCount(), stats.backgroundRefreshes(), stats.skippedRefreshes(), stats.sweeps());
+            log.info("blocked callers={} (total {} ms), refresh lag avg={} ms / max={} ms",
+                    stats.blockedCallers(), TimeUnit.NANOSECONDS.toMillis(stats.blockedNanos()),
+                    String.format("%.1f", stats.averageRefreshLagMillis()), stats.maxRefreshLagMillis());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.code.research.function.tokencache;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Background refresh settings for the stale-while-revalidate mode of {@link GeneratedTokenService}.
+ *
+ * @param refreshThreads     size of the refresh pool (minting is CPU-bound, keep it small)
+ * @param maxQueuedRefreshes bound of the refresh queue; refreshes beyond it are skipped, not queued
+ * @param sweepInterval      how often the sweeper looks for tokens nearing expiry
+ */
+record RefreshPolicy(int refreshThreads, int maxQueuedRefreshes, Duration sweepInterval) {
+
+    RefreshPolicy {
+        Objects.requireNonNull(sweepInterval, "sweepInterval");
+        if (refreshThreads <= 0) throw new IllegalArgumentException("refreshThreads must be > 0");
+        if (maxQueuedRefreshes <= 0) throw new IllegalArgumentException("maxQueuedRefreshes must be > 0");
+        if (sweepInterval.toMillis() <= 0) throw new IllegalArgumentException("sweepInterval must be >= 1ms");
+    }
+
+    /** 2 refresh threads, 1024 queued refreshes, sweep every second. */
+    static RefreshPolicy defaults() {
+        return new RefreshPolicy(2, 1024, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,26 @@
+package com.code.research.function.tokencache;
+
+/**
+ * Refresh-ahead metrics of {@link GeneratedTokenService}.
+ *
+ * @param backgroundRefreshes   tokens re-minted by the refresh pool
+ * @param skippedRefreshes      refreshes dropped because the refresh queue was full
+ * @param blockedCallers        callers that had to wait for a mint (token missing or expired)
+ * @param blockedNanos          total time those callers waited
+ * @param totalRefreshLagMillis sum over refreshes of (mint time - start of refresh-ahead window)
+ * @param maxRefreshLagMillis   largest single refresh lag
+ * @param sweeps                sweeper passes
+ */
+record RefreshStats(long backgroundRefreshes,
+                    long skippedRefreshes,
+                    long blockedCallers,
+                    long blockedNanos,
+                    long totalRefreshLagMillis,
+                    long maxRefreshLagMillis,
+                    long sweeps) {
+
+    /** Average refresh lag in milliseconds (0 when nothing was refreshed). */
+    double averageRefreshLagMillis() {
+        return backgroundRefreshes == 0 ? 0 : (double) totalRefreshLagMillis / backgroundRefreshes;
+    }
+}
@@ -1,5 +1,8 @@
 package com.code.research.hash.digitstatistics;
 
+import com.code.research.customhash.primitive.IntIntHashMap;
+import com.code.research.customhash.primitive.IntLongHashMap;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -8,6 +11,7 @@ import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.IntStream;
 
 /**
  * {@code FrequencyCollector} is a custom collector implementation that computes a frequency map
@@ -26,6 +30,9 @@ import java.util.stream.Collector;
  * <p>The collector accumulates elements into a {@code Map<T, U>} where each key is an element
  * and the corresponding value is the frequency of that element in the stream.
  *
+ * <p>For int elements prefer {@link #intFrequencies(IntStream)} / {@link #longFrequencies(IntStream)}: they count
+ * into primitive maps, while this collector boxes every element and every updated count.
+ *
  * @param <T> the type of elements to count.
  * @param <U> the numeric type for counts, which extends {@link Number}.
  */
@@ -150,4 +157,29 @@ public class FrequencyCollector<T, U extends Number> implements Collector<T, Map
         return  new FrequencyCollector<>((float)1, Float::sum);
     }
 
+    /**
+     * Counts the values of an {@code IntStream} into an {@link IntIntHashMap}, without boxing elements or counts.
+     * Parallel streams are supported: partial maps are merged with {@code addTo}.
+     *
+     * @param values the elements to count.
+     * @return a map from element to its frequency.
+     */
+    public static IntIntHashMap intFrequencies(IntStream values) {
+        return values.collect(IntIntHashMap::new,
+                (map, value) -> map.addTo(value, 1),
+                (left, right) -> right.forEach(left::addTo));
+    }
+
+    /**
+     * Same as {@link #intFrequencies(IntStream)} with {@code long} counts.
+     *
+     * @param values the elements to count.
+     * @return a map from element to its frequency.
+     */
+    public static IntLongHashMap longFrequencies(IntStream values) {
+        return values.collect(IntLongHashMap::new,
+                (map, value) -> map.addTo(value, 1L),
+                (left, right) -> right.forEach(left::addTo));
+    }
+
 }
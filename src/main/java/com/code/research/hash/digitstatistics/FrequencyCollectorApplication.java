@@ -1,5 +1,6 @@
 package com.code.research.hash.digitstatistics;
 
+import com.code.research.customhash.primitive.IntIntHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
@@ -36,6 +37,10 @@ public class FrequencyCollectorApplication {
                 .boxed()
                 .collect(FrequencyCollector.toFrequencyMapDouble());
         log.info("Frequency Map (Double): " + freqDouble);
+
+        // Counting the IntStream directly into a primitive map: no boxing of digits or counts.
+        IntIntHashMap freqPrimitive = FrequencyCollector.intFrequencies(numberStr.chars().map(c -> c - '0'));
+        log.info("Frequency Map (int, primitive): " + freqPrimitive);
     }
     
 }
@@ -1,10 +1,18 @@
 package com.code.research.interviewpatterns;
 
+import com.code.research.util.expiry.ExpiringEntry;
+import com.code.research.util.expiry.ExpiryPolicy;
+import com.code.research.util.expiry.ExpiryTracker;
+import com.code.research.util.expiry.RemovalCause;
+import com.code.research.util.expiry.RemovalListener;
+
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
 /**
  * Thread-safe LRU cache (generic).
@@ -12,25 +20,54 @@ import java.util.concurrent.locks.ReentrantLock;
  * Variant features:
  * - Optional<V> getOptional(K key)
  * - remove(K key)
+ * - optional time-to-live (expire-after-write / expire-after-access, per-entry TTL on put)
+ * - optional removal listener (explicit, replaced, size, expired)
  *
  * Notes:
- * - Uses LinkedHashMap(accessOrder=true) so get/put update recency.
+ * - LinkedHashMap in insertion order; get/put move the entry to the MRU end with putLast, so
+ *   containsKey can read an entry without touching recency.
  * - Single lock because get() updates internal order => it's a "write".
+ * - Expired entries are never returned; they are dropped by a timing wheel advanced on every call
+ *   (amortized O(1), no scan, no background thread).
  */
 public final class LRUCacheGenerics<K, V> {
 
     private final int capacity;
     private final ReentrantLock lock = new ReentrantLock();
-    private final LinkedHashMap<K, V> map;
+    private final LinkedHashMap<K, ExpiringEntry<K, V>> map;
+    private final ExpiryTracker<K, V> expiry;
 
     public LRUCacheGenerics(int capacity) {
+        this(capacity, ExpiryPolicy.none());
+    }
+
+    public LRUCacheGenerics(int capacity, ExpiryPolicy expiryPolicy) {
+        this(capacity, expiryPolicy, null);
+    }
+
+    public LRUCacheGenerics(int capacity, ExpiryPolicy expiryPolicy, RemovalListener<? super K, ? super V> listener) {
+        this(capacity, expiryPolicy, listener, System::nanoTime);
+    }
+
+    /**
+     * @param listener may be null
+     * @param ticker   nanosecond clock (tests pass a fake one)
+     */
+    public LRUCacheGenerics(int capacity, ExpiryPolicy expiryPolicy, RemovalListener<? super K, ? super V> listener,
+                            LongSupplier ticker) {
         if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
         this.capacity = capacity;
+        this.expiry = new ExpiryTracker<>(expiryPolicy, listener, ticker);
 
-        this.map = new LinkedHashMap<>(Math.max(16, capacity), 0.75f, true) {
+        this.map = new LinkedHashMap<>(Math.max(16, capacity), 0.75f, false) {
             @Override
-            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-                return size() > LRUCacheGenerics.this.capacity;
+            protected boolean removeEldestEntry(Map.Entry<K, ExpiringEntry<K, V>> eldest) {
+                if (size() <= LRUCacheGenerics.this.capacity) {
+                    return false;
+                }
+                expiry.onRemove(eldest.getValue());
+                expiry.removed(eldest.getKey(), eldest.getValue().value(), RemovalCause.SIZE);
+                return true;
             }
         };
     }
@@ -40,31 +77,56 @@ public final class LRUCacheGenerics<K, V> {
         Objects.requireNonNull(key, "key");
         lock.lock();
         try {
-            return map.get(key);
+            ExpiringEntry<K, V> entry = liveEntry(key);
+            return entry == null ? null : entry.value();
         } finally {
             lock.unlock();
+            expiry.dispatch();
         }
     }
 
     /** Returns Optional.empty() if missing. Updates access order when present. */
     public Optional<V> getOptional(K key) {
-        Objects.requireNonNull(key, "key");
-        lock.lock();
-        try {
-            return Optional.ofNullable(map.get(key));
-        } finally {
-            lock.unlock();
-        }
+        return Optional.ofNullable(get(key));
     }
 
     /** Puts value (value may be null if you allow it). */
     public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Puts value with its own time-to-live, overriding the policy's expire-after-write.
+     *
+     * @param ttl null = use the policy
+     */
+    public void put(K key, V value, Duration ttl) {
         Objects.requireNonNull(key, "key");
         lock.lock();
         try {
-            map.put(key, value);
+            long now = expiry.now();
+            expireEntries(now);
+            ExpiringEntry<K, V> entry = map.get(key);
+            if (entry != null && expiry.isExpired(entry, now)) {
+                removeExpired(entry);
+                entry = null;
+            }
+            if (entry != null) {
+                V old = entry.value();
+                entry.setValue(value);
+                expiry.onWrite(entry, now, ttl);
+                map.putLast(key, entry); // most recently used
+                if (old != value) {
+                    expiry.removed(key, old, RemovalCause.REPLACED);
+                }
+            } else {
+                entry = new ExpiringEntry<>(key, value);
+                expiry.onWrite(entry, now, ttl);
+                map.put(key, entry);
+            }
         } finally {
             lock.unlock();
+            expiry.dispatch();
         }
     }
 
@@ -73,28 +135,50 @@ public final class LRUCacheGenerics<K, V> {
         Objects.requireNonNull(key, "key");
         lock.lock();
         try {
-            return Optional.ofNullable(map.remove(key));
+            long now = expiry.now();
+            expireEntries(now);
+            ExpiringEntry<K, V> entry = map.get(key);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (expiry.isExpired(entry, now)) {
+                removeExpired(entry);
+                return Optional.empty();
+            }
+            map.remove(key);
+            expiry.onRemove(entry);
+            expiry.removed(key, entry.value(), RemovalCause.EXPLICIT);
+            return Optional.ofNullable(entry.value());
         } finally {
             lock.unlock();
+            expiry.dispatch();
         }
     }
 
+    /** True if present and not expired. Does not update access order. */
     public boolean containsKey(K key) {
         Objects.requireNonNull(key, "key");
         lock.lock();
         try {
-            return map.containsKey(key);
+            long now = expiry.now();
+            expireEntries(now);
+            ExpiringEntry<K, V> entry = map.get(key);
+            return entry != null && !expiry.isExpired(entry, now);
         } finally {
             lock.unlock();
+            expiry.dispatch();
         }
     }
 
+    /** Entry count; may still include entries that expired within the last ~millisecond. */
     public int size() {
         lock.lock();
         try {
+            expireEntries(expiry.now());
             return map.size();
         } finally {
             lock.unlock();
+            expiry.dispatch();
         }
     }
 
@@ -107,4 +191,32 @@ public final class LRUCacheGenerics<K, V> {
             lock.unlock();
         }
     }
+
+    // ---- helpers (lock held) ----
+
+    private ExpiringEntry<K, V> liveEntry(K key) {
+        long now = expiry.now();
+        expireEntries(now);
+        ExpiringEntry<K, V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (expiry.isExpired(entry, now)) {
+            removeExpired(entry);
+            return null;
+        }
+        expiry.onAccess(entry, now);
+        map.putLast(key, entry); // most recently used
+        return entry;
+    }
+
+    private void expireEntries(long now) {
+        expiry.expire(now, entry -> map.remove(entry.key()));
+    }
+
+    private void removeExpired(ExpiringEntry<K, V> entry) {
+        map.remove(entry.key());
+        expiry.onRemove(entry);
+        expiry.removed(entry.key(), entry.value(), RemovalCause.EXPIRED);
+    }
 }
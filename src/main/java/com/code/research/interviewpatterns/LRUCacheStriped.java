@@ -0,0 +1,228 @@
+package com.code.research.interviewpatterns;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, lock-striped LRU cache (generic).
+ * <p>
+ * Why:
+ * - {@link LRUCacheStringRW} and {@link LRUCacheGenerics} guard one LinkedHashMap,
+ *   and get() must take the exclusive lock because it reorders the list,
+ *   so under read-heavy load every caller serializes on that lock.
+ * <p>
+ * How:
+ * - Keys are hash-partitioned into a power-of-two number of segments.
+ * - Each segment is a small LRU (HashMap + doubly linked list) with its own lock,
+ *   so threads touching different segments never contend.
+ * - Capacity is split across segments; eviction is LRU <b>within a segment</b>
+ *   (approximate global LRU, the same trade-off segmented caches make).
+ * <p>
+ * API mirrors {@link LRUCacheStringRW}: get / peek / put / remove / size.
+ */
+public final class LRUCacheStriped<K, V> {
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final int capacity;
+
+    /** Uses a segment count derived from available processors. */
+    public LRUCacheStriped(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param capacity         max entries across all segments
+     * @param concurrencyLevel expected number of concurrently updating threads
+     *                         (rounded up to a power of two, never above capacity)
+     */
+    @SuppressWarnings("unchecked")
+    public LRUCacheStriped(int capacity, int concurrencyLevel) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (concurrencyLevel <= 0) throw new IllegalArgumentException("concurrencyLevel must be > 0");
+        this.capacity = capacity;
+
+        int n = 1;
+        while (n < concurrencyLevel && (n << 1) <= capacity) n <<= 1;
+
+        this.segments = (Segment<K, V>[]) new Segment[n];
+        this.segmentMask = n - 1;
+        // spread capacity exactly: first (capacity % n) segments get one extra slot
+        int base = capacity / n;
+        int extra = capacity % n;
+        for (int i = 0; i < n; i++) {
+            segments[i] = new Segment<>(base + (i < extra ? 1 : 0));
+        }
+    }
+
+    /** Returns value or null if missing. Promotes the key to MRU in its segment. */
+    public V get(K key) {
+        Objects.requireNonNull(key, "key");
+        return segmentFor(key).get(key);
+    }
+
+    /** Returns value or null if missing. Does NOT change recency. */
+    public V peek(K key) {
+        Objects.requireNonNull(key, "key");
+        return segmentFor(key).peek(key);
+    }
+
+    /** Inserts/updates value; may evict the LRU entry of the key's segment. */
+    public void put(K key, V value) {
+        Objects.requireNonNull(key, "key");
+        segmentFor(key).put(key, value);
+    }
+
+    /** Removes key and returns the removed value (or null). */
+    public V remove(K key) {
+        Objects.requireNonNull(key, "key");
+        return segmentFor(key).remove(key);
+    }
+
+    /** Sum of segment sizes; each segment is read under its own lock. */
+    public int size() {
+        int total = 0;
+        for (Segment<K, V> s : segments) total += s.size();
+        return total;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);             // same spreading as java.util.HashMap
+        return segments[(h * 0x9E3779B9 >>> 16) & segmentMask];
+    }
+
+    // ---------------- segment: small single-lock LRU ----------------
+
+    private static final class Segment<K, V> {
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, Node<K, V>> index;
+        private final Node<K, V> head = new Node<>(null, null); // MRU side
+        private final Node<K, V> tail = new Node<>(null, null); // LRU side
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.index = new HashMap<>(Math.max(16, (int) (capacity / 0.75f) + 1));
+            head.next = tail;
+            tail.prev = head;
+        }
+
+        V get(K key) {
+            lock.lock();
+            try {
+                Node<K, V> n = index.get(key);
+                if (n == null) return null;
+                moveToFront(n);
+                return n.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        V peek(K key) {
+            lock.lock();
+            try {
+                Node<K, V> n = index.get(key);
+                return n == null ? null : n.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(K key, V value) {
+            lock.lock();
+            try {
+                Node<K, V> n = index.get(key);
+                if (n != null) {
+                    n.value = value;
+                    moveToFront(n);
+                    return;
+                }
+                Node<K, V> created = new Node<>(key, value);
+                index.put(key, created);
+                insertAfterHead(created);
+                if (index.size() > capacity) {
+                    Node<K, V> lru = tail.prev;   // guaranteed data node
+                    unlink(lru);
+                    index.remove(lru.key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        V remove(K key) {
+            lock.lock();
+            try {
+                Node<K, V> n = index.remove(key);
+                if (n == null) return null;
+                unlink(n);
+                return n.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return index.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void moveToFront(Node<K, V> n) {
+            if (head.next == n) return; // already MRU
+            unlink(n);
+            insertAfterHead(n);
+        }
+
+        private void insertAfterHead(Node<K, V> n) {
+            n.prev = head;
+            n.next = head.next;
+            head.next.prev = n;
+            head.next = n;
+        }
+
+        private void unlink(Node<K, V> n) {
+            n.prev.next = n.next;
+            n.next.prev = n.prev;
+            n.prev = n.next = null; // help GC
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        Node<K, V> prev, next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // tiny demo
+    public static void main(String[] args) {
+        LRUCacheStriped<Integer, String> c = new LRUCacheStriped<>(2, 1); // 1 segment => exact LRU
+        c.put(1, "A");
+        c.put(2, "B");
+        System.out.println(c.peek(1));     // A (doesn't affect recency)
+        System.out.println(c.get(1));      // A (now 1 is MRU)
+        c.put(3, "C");                      // evict LRU=2
+        System.out.println(c.get(2));      // null
+        System.out.println("size=" + c.size() + ", segments=" + c.segmentCount()); // 2, 1
+    }
+}
@@ -1,37 +1,110 @@
 package com.code.research.interviewpatterns;
 
+import com.code.research.util.expiry.ExpiringEntry;
+import com.code.research.util.expiry.ExpiryPolicy;
+import com.code.research.util.expiry.ExpiryTracker;
+import com.code.research.util.expiry.RemovalCause;
+import com.code.research.util.expiry.RemovalListener;
+
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.LongSupplier;
 
 public final class LruCacheGen<K, V> {
     private final int capacity;
-    private final Map<K, V> map;
+    private final Map<K, ExpiringEntry<K, V>> map;
+    // TTL + removal notifications; notifications are queued under the monitor and dispatched outside it
+    private final ExpiryTracker<K, V> expiry;
 
     public LruCacheGen(int capacity) {
+        this(capacity, ExpiryPolicy.none(), null);
+    }
+
+    public LruCacheGen(int capacity, ExpiryPolicy expiryPolicy, RemovalListener<? super K, ? super V> listener) {
+        this(capacity, expiryPolicy, listener, System::nanoTime);
+    }
+
+    public LruCacheGen(int capacity, ExpiryPolicy expiryPolicy, RemovalListener<? super K, ? super V> listener,
+                       LongSupplier ticker) {
         if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
         this.capacity = capacity;
+        this.expiry = new ExpiryTracker<>(expiryPolicy, listener, ticker);
 
         // accessOrder=true -> iteration order becomes LRU -> MRU
         this.map = new LinkedHashMap<>(16, 0.75f, true) {
             @Override
-            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-                return size() > LruCacheGen.this.capacity;
+            protected boolean removeEldestEntry(Map.Entry<K, ExpiringEntry<K, V>> eldest) {
+                if (size() <= LruCacheGen.this.capacity) return false;
+                expiry.onRemove(eldest.getValue());
+                expiry.removed(eldest.getKey(), eldest.getValue().value(), RemovalCause.SIZE);
+                return true;
             }
         };
     }
 
-    public synchronized V get(K key) {
-        return map.get(key); // updates access order automatically
+    public V get(K key) {
+        V value = getLocked(key);
+        expiry.dispatch(); // listener runs outside the monitor
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /** Put with a per-entry time-to-live (null = policy default). */
+    public void put(K key, V value, Duration ttl) {
+        putLocked(key, value, ttl);
+        expiry.dispatch();
     }
 
-    public synchronized void put(K key, V value) {
-        map.put(key, value); // updates access order automatically
+    public int size() {
+        int size = sizeLocked();
+        expiry.dispatch(); // deliver EXPIRED notifications of the entries size() dropped
+        return size;
     }
 
-    public synchronized int size() {
+    private synchronized int sizeLocked() {
+        expireEntries(expiry.now());
         return map.size();
     }
 
+    private synchronized V getLocked(K key) {
+        long now = expiry.now();
+        expireEntries(now);
+        ExpiringEntry<K, V> e = map.get(key); // updates access order automatically
+        if (e == null) return null;
+        if (expiry.isExpired(e, now)) {       // never hand out an expired value
+            map.remove(key);
+            expiry.onRemove(e);
+            expiry.removed(key, e.value(), RemovalCause.EXPIRED);
+            return null;
+        }
+        expiry.onAccess(e, now);
+        return e.value();
+    }
+
+    private synchronized void putLocked(K key, V value, Duration ttl) {
+        long now = expiry.now();
+        expireEntries(now);
+        ExpiringEntry<K, V> e = new ExpiringEntry<>(key, value);
+        expiry.onWrite(e, now, ttl);
+        ExpiringEntry<K, V> old = map.put(key, e); // updates access order automatically
+        if (old != null) {
+            expiry.onRemove(old);
+            if (old.isExpired(now)) {
+                expiry.removed(key, old.value(), RemovalCause.EXPIRED);
+            } else if (old.value() != value) { // re-putting the same value is not a replacement
+                expiry.removed(key, old.value(), RemovalCause.REPLACED);
+            }
+        }
+    }
+
+    private void expireEntries(long now) {
+        expiry.expire(now, e -> map.remove(e.key()));
+    }
+
     // quick demo
     public static void main(String[] args) {
         LruCacheGen<Integer, String> c = new LruCacheGen<>(5);
@@ -44,5 +117,12 @@ public final class LruCacheGen<K, V> {
         c.put(6, "F");             // evicts 1 (least recent)
         System.out.println(c.get(1)); // null
         System.out.println(c.get(2)); // B
+
+        LruCacheGen<String, String> ttl = new LruCacheGen<>(5, ExpiryPolicy.afterWrite(Duration.ofMillis(50)),
+                (k, v, cause) -> System.out.println("removed " + k + "=" + v + " (" + cause + ")"));
+        ttl.put("session", "abc");
+        System.out.println(ttl.get("session")); // abc
+        try { Thread.sleep(80); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
+        System.out.println(ttl.get("session")); // removed session=abc (EXPIRED), then null
     }
 }
@@ -0,0 +1,30 @@
+package com.code.research.springboot.profile;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Spring {@link Cache} with multi-key operations, so request handlers can read or warm
+ * hundreds of keys with one pipelined round trip instead of one call per key.
+ */
+public interface BatchCache extends Cache {
+
+    /**
+     * @return cached values of the requested keys; missing keys are left out
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+
+    /** Stores all entries; a null value evicts its key. */
+    void putAll(Map<?, ?> entries);
+
+    void evictAll(Collection<?> keys);
+
+    CompletableFuture<Map<Object, Object>> getAllAsync(Collection<?> keys);
+
+    CompletableFuture<Void> putAllAsync(Map<?, ?> entries);
+
+    CompletableFuture<Void> evictAllAsync(Collection<?> keys);
+}
@@ -0,0 +1,27 @@
+package com.code.research.springboot.profile;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts near-cache invalidations between nodes (Redis pub/sub topic in production).
+ * A message with a null key means "drop the whole cache".
+ */
+public interface CacheInvalidationBus {
+
+    void publish(Invalidation invalidation);
+
+    /**
+     * Registers a listener for all invalidations, including the ones this node published;
+     * listeners filter by {@link Invalidation#origin()}.
+     *
+     * @return handle that unsubscribes the listener
+     */
+    AutoCloseable subscribe(Consumer<Invalidation> listener);
+
+    record Invalidation(String origin, String cacheName, Object key) {
+
+        public boolean isClear() {
+            return key == null;
+        }
+    }
+}
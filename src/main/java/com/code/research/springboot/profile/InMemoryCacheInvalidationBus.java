@@ -0,0 +1,27 @@
+package com.code.research.springboot.profile;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Synchronous in-process bus: every published invalidation is delivered to all subscribers
+ * before {@link #publish} returns. Lets tests run several "nodes" in one JVM.
+ */
+public class InMemoryCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<Invalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Invalidation invalidation) {
+        for (Consumer<Invalidation> listener : listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    @Override
+    public AutoCloseable subscribe(Consumer<Invalidation> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+}
@@ -1,11 +1,17 @@
 package com.code.research.springboot.profile;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class InMemoryRedissonClient implements RedissonClient {
 
     private final Map<String, Map<Object, Object>> maps = new ConcurrentHashMap<>();
+    // every RMap call (single-key or bulk) counts as one round trip to "Redis"
+    private final LongAdder roundTrips = new LongAdder();
 
     @Override
     @SuppressWarnings("unchecked")
@@ -17,17 +23,65 @@ public class InMemoryRedissonClient implements RedissonClient {
             @Override
             @SuppressWarnings("unchecked")
             public V get(K key) {
+                roundTrips.increment();
                 return (V) store.get(key);
             }
 
             @Override
             @SuppressWarnings("unchecked")
             public V put(K key, V value) {
+                roundTrips.increment();
                 return (V) store.put(key, value);
             }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V remove(K key) {
+                roundTrips.increment();
+                return (V) store.remove(key);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map<K, V> getAll(Set<K> keys) {
+                roundTrips.increment();
+                Map<K, V> result = new HashMap<>(Math.max(16, keys.size() * 2));
+                for (K key : keys) {
+                    Object value = store.get(key);
+                    if (value != null) {
+                        result.put(key, (V) value);
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public void putAll(Map<? extends K, ? extends V> entries) {
+                roundTrips.increment();
+                store.putAll(entries);
+            }
+
+            @Override
+            public long removeAll(Collection<? extends K> keys) {
+                roundTrips.increment();
+                long removed = 0;
+                for (K key : keys) {
+                    if (store.remove(key) != null) {
+                        removed++;
+                    }
+                }
+                return removed;
+            }
         };
     }
 
+    /**
+     * Number of calls made against all maps so far; a bulk call counts once.
+     */
+    public long roundTrips() {
+        return roundTrips.sum();
+    }
+
     @Override
     public void shutdown() {
         maps.clear();
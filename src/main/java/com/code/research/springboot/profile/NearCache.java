@@ -0,0 +1,84 @@
+package com.code.research.springboot.profile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, expiring in-process map used as the L1 tier of {@link RedisCacheManager}.
+ * LinkedHashMap(accessOrder=true) gives LRU eviction; one lock because get() reorders.
+ */
+class NearCache {
+
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Object, Entry> map;
+
+    NearCache(NearCacheConfig config) {
+        this.ttlNanos = config.ttl().toNanos();
+        int maxSize = config.maxSize();
+        this.map = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /** Returns the value, or null if absent or expired. */
+    Object get(Object key) {
+        lock.lock();
+        try {
+            Entry entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+                map.remove(key);
+                return null;
+            }
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(Object key, Object value) {
+        lock.lock();
+        try {
+            map.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(Object key) {
+        lock.lock();
+        try {
+            map.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            map.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return map.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry(Object value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.code.research.springboot.profile;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Limits of the in-process L1 tier placed in front of a {@code RedisCache}.
+ *
+ * @param maxSize max entries kept in L1 (least recently used are dropped first)
+ * @param ttl     how long an L1 entry may be served without going back to Redis;
+ *                bounds staleness if an invalidation message is lost
+ */
+public record NearCacheConfig(int maxSize, Duration ttl) {
+
+    public NearCacheConfig {
+        Objects.requireNonNull(ttl, "ttl");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be > 0");
+        }
+    }
+
+    public static NearCacheConfig defaults() {
+        return new NearCacheConfig(10_000, Duration.ofSeconds(30));
+    }
+}
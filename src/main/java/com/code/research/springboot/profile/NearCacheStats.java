@@ -0,0 +1,15 @@
+package com.code.research.springboot.profile;
+
+/**
+ * Per-tier lookup counters of one cache. A lookup that misses L1 is counted once more in L2.
+ */
+public record NearCacheStats(long l1Hits, long l1Misses, long l2Hits, long l2Misses, long invalidationsReceived) {
+
+    /**
+     * @return L1 hits / L1 lookups, or 1.0 when nothing was looked up yet (as in the other cache stats)
+     */
+    public double l1HitRate() {
+        long total = l1Hits + l1Misses;
+        return total == 0 ? 1.0 : (double) l1Hits / total;
+    }
+}
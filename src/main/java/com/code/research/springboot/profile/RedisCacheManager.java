@@ -4,25 +4,114 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.support.SimpleValueWrapper;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
-public class RedisCacheManager implements CacheManager {
+/**
+ * Spring {@link CacheManager} backed by Redisson maps.
+ * <p>
+ * Optionally each cache gets a bounded in-process L1 tier ({@link NearCache}) in front of Redis:
+ * reads are served locally when possible, and every write/evict publishes an invalidation on a
+ * {@link CacheInvalidationBus} so other nodes drop their L1 copy. L1 entries also expire after
+ * the per-cache TTL, which bounds staleness if a message is lost.
+ * <p>
+ * Caches are {@link BatchCache}s: multi-key reads/writes go to Redis as one pipelined call.
+ */
+public class RedisCacheManager implements CacheManager, AutoCloseable {
 
     private final RedissonClient redissonClient;
-    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, RedisCache> caches = new ConcurrentHashMap<>();
+
+    // near-cache settings; bus is null when the L1 tier is disabled
+    private final CacheInvalidationBus invalidationBus;
+    private final Function<String, NearCacheConfig> nearCacheConfigs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AutoCloseable subscription;
 
     public RedisCacheManager(RedissonClient redissonClient) {
         this.redissonClient = redissonClient;
+        this.invalidationBus = null;
+        this.nearCacheConfigs = null;
+        this.subscription = null;
+    }
+
+    /**
+     * Two-tier manager: same L1 limits for every cache.
+     */
+    public RedisCacheManager(RedissonClient redissonClient, CacheInvalidationBus invalidationBus,
+                             NearCacheConfig nearCacheConfig) {
+        this(redissonClient, invalidationBus, Map.of(), nearCacheConfig);
+    }
+
+    /**
+     * Two-tier manager with per-cache L1 limits.
+     *
+     * @param perCache      L1 limits by cache name
+     * @param defaultConfig limits for caches not listed in {@code perCache}
+     */
+    public RedisCacheManager(RedissonClient redissonClient, CacheInvalidationBus invalidationBus,
+                             Map<String, NearCacheConfig> perCache, NearCacheConfig defaultConfig) {
+        this.redissonClient = redissonClient;
+        this.invalidationBus = Objects.requireNonNull(invalidationBus, "invalidationBus");
+        Map<String, NearCacheConfig> configs = Map.copyOf(perCache);
+        Objects.requireNonNull(defaultConfig, "defaultConfig");
+        this.nearCacheConfigs = name -> configs.getOrDefault(name, defaultConfig);
+        this.subscription = invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public BatchCache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> new RedisCache(
+                n,
+                redissonClient.getMap("cache:" + n),
+                invalidationBus == null ? null : new NearCache(nearCacheConfigs.apply(n)),
+                this::publishInvalidation));
+    }
+
+    /**
+     * Hit/miss counters per tier for one cache (all zero for an unknown cache).
+     */
+    public NearCacheStats stats(String name) {
+        RedisCache cache = caches.get(name);
+        return cache == null ? new NearCacheStats(0, 0, 0, 0, 0) : cache.stats();
     }
 
+    /** Stops listening for invalidations from other nodes. */
     @Override
-    public Cache getCache(String name) {
-        return caches.computeIfAbsent(name,
-                n -> new RedisCache(n, redissonClient.getMap("cache:" + n)));
+    public void close() throws Exception {
+        if (subscription != null) {
+            subscription.close();
+        }
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        if (invalidationBus != null) {
+            invalidationBus.publish(new CacheInvalidationBus.Invalidation(nodeId, cacheName, key));
+        }
+    }
+
+    private void onInvalidation(CacheInvalidationBus.Invalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return; // our own L1 is already up to date
+        }
+        RedisCache cache = caches.get(invalidation.cacheName());
+        if (cache != null) {
+            cache.onRemoteInvalidation(invalidation.key());
+        }
     }
 
     @Override
@@ -30,14 +119,136 @@ public class RedisCacheManager implements CacheManager {
         return Collections.unmodifiableSet(caches.keySet());
     }
 
-    private static class RedisCache implements Cache {
+    private interface InvalidationPublisher {
+        void publish(String cacheName, Object key);
+    }
+
+    private static class RedisCache implements BatchCache {
 
         private final String name;
         private final RedissonClient.RMap<Object, Object> store;
+        // L1 tier, null when disabled
+        private final NearCache nearCache;
+        private final InvalidationPublisher publisher;
+        // bumped on every invalidation; an L2 read only fills L1 if no invalidation raced with it
+        private final AtomicLong invalidationEpoch = new AtomicLong();
+
+        private final LongAdder l1Hits = new LongAdder();
+        private final LongAdder l1Misses = new LongAdder();
+        private final LongAdder l2Hits = new LongAdder();
+        private final LongAdder l2Misses = new LongAdder();
+        private final LongAdder invalidationsReceived = new LongAdder();
 
-        RedisCache(String name, RedissonClient.RMap<Object, Object> store) {
+        RedisCache(String name, RedissonClient.RMap<Object, Object> store, NearCache nearCache,
+                   InvalidationPublisher publisher) {
             this.name = name;
             this.store = store;
+            this.nearCache = nearCache;
+            this.publisher = publisher;
+        }
+
+        /** Two-tier lookup: L1, then Redis (filling L1 on a hit). */
+        private Object lookup(Object key) {
+            if (nearCache != null) {
+                Object local = nearCache.get(key);
+                if (local != null) {
+                    l1Hits.increment();
+                    return local;
+                }
+                l1Misses.increment();
+            }
+            long epoch = invalidationEpoch.get();
+            Object value = store.get(key);
+            if (value == null) {
+                l2Misses.increment();
+                return null;
+            }
+            l2Hits.increment();
+            if (nearCache != null && invalidationEpoch.get() == epoch) {
+                nearCache.put(key, value);
+            }
+            return value;
+        }
+
+        /** Write to Redis, keep local L1 current and tell other nodes to drop theirs. */
+        private void write(Object key, Object value) {
+            if (value != null) {
+                store.put(key, value);
+            } else {
+                store.remove(key);
+            }
+            afterWrite(Collections.singletonMap(key, value));
+        }
+
+        private void afterWrite(Map<?, ?> written) {
+            if (nearCache != null) {
+                invalidationEpoch.incrementAndGet();
+                written.forEach((key, value) -> {
+                    if (value != null) {
+                        nearCache.put(key, value);
+                    } else {
+                        nearCache.invalidate(key);
+                    }
+                    publisher.publish(name, key);
+                });
+            }
+        }
+
+        private void afterEvict(Collection<?> keys) {
+            for (Object key : keys) {
+                invalidateLocal(key);
+                publisher.publish(name, key);
+            }
+        }
+
+        /** L1 pass: hits go into {@code result}; returns the keys that must be read from Redis. */
+        private Set<Object> lookupLocal(Collection<?> keys, Map<Object, Object> result) {
+            Set<Object> misses = new LinkedHashSet<>();
+            for (Object key : keys) {
+                Object local = nearCache == null ? null : nearCache.get(key);
+                if (local != null) {
+                    l1Hits.increment();
+                    result.put(key, local);
+                } else {
+                    if (nearCache != null) {
+                        l1Misses.increment();
+                    }
+                    misses.add(key);
+                }
+            }
+            return misses;
+        }
+
+        private Map<Object, Object> mergeRemote(Set<Object> misses, Map<Object, Object> loaded, long epoch,
+                                                Map<Object, Object> result) {
+            l2Hits.add(loaded.size());
+            l2Misses.add(misses.size() - loaded.size());
+            if (nearCache != null && invalidationEpoch.get() == epoch) {
+                loaded.forEach(nearCache::put);
+            }
+            result.putAll(loaded);
+            return result;
+        }
+
+        private void invalidateLocal(Object key) {
+            if (nearCache != null) {
+                invalidationEpoch.incrementAndGet();
+                if (key == null) {
+                    nearCache.clear();
+                } else {
+                    nearCache.invalidate(key);
+                }
+            }
+        }
+
+        void onRemoteInvalidation(Object key) {
+            invalidationsReceived.increment();
+            invalidateLocal(key);
+        }
+
+        NearCacheStats stats() {
+            return new NearCacheStats(l1Hits.sum(), l1Misses.sum(), l2Hits.sum(), l2Misses.sum(),
+                    invalidationsReceived.sum());
         }
 
         @Override
@@ -52,14 +263,14 @@ public class RedisCacheManager implements CacheManager {
 
         @Override
         public ValueWrapper get(Object key) {
-            Object value = store.get(key);
+            Object value = lookup(key);
             return (value != null ? new SimpleValueWrapper(value) : null);
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public <T> T get(Object key, Class<T> type) {
-            Object value = store.get(key);
+            Object value = lookup(key);
             if (value == null) {
                 return null;
             }
@@ -72,13 +283,13 @@ public class RedisCacheManager implements CacheManager {
         @Override
         @SuppressWarnings("unchecked")
         public <T> T get(Object key, Callable<T> valueLoader) {
-            Object value = store.get(key);
+            Object value = lookup(key);
             if (value != null) {
                 return (T) value;
             }
             try {
                 T loaded = valueLoader.call();
-                store.put(key, loaded);
+                write(key, loaded);
                 return loaded;
             } catch (Exception ex) {
                 throw new ValueRetrievalException(key, valueLoader, ex);
@@ -87,15 +298,15 @@ public class RedisCacheManager implements CacheManager {
 
         @Override
         public void put(Object key, Object value) {
-            store.put(key, value);
+            write(key, value);
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public ValueWrapper putIfAbsent(Object key, Object value) {
-            Object existing = store.get(key);
+            Object existing = lookup(key);
             if (existing == null) {
-                store.put(key, value);
+                write(key, value);
                 return null;
             }
             return new SimpleValueWrapper(existing);
@@ -103,7 +314,8 @@ public class RedisCacheManager implements CacheManager {
 
         @Override
         public void evict(Object key) {
-            store.put(key, null); // or store.remove(key) if your impl supports it
+            store.remove(key);
+            afterEvict(List.of(key));
         }
 
         @Override
@@ -111,6 +323,84 @@ public class RedisCacheManager implements CacheManager {
             // for real Redisson: store.clear();
             // for our simple RMap, emulate:
             store.put("__clear__", System.nanoTime()); // no-op for stub, adapt if needed
+            invalidateLocal(null);
+            publisher.publish(name, null);
+        }
+
+        // ---- batch API: at most one Redis round trip per call (two for putAll mixing values and nulls) ----
+
+        @Override
+        public Map<Object, Object> getAll(Collection<?> keys) {
+            Map<Object, Object> result = new HashMap<>();
+            Set<Object> misses = lookupLocal(keys, result);
+            if (misses.isEmpty()) {
+                return result;
+            }
+            long epoch = invalidationEpoch.get();
+            return mergeRemote(misses, store.getAll(misses), epoch, result);
+        }
+
+        @Override
+        public CompletableFuture<Map<Object, Object>> getAllAsync(Collection<?> keys) {
+            Map<Object, Object> result = new HashMap<>();
+            Set<Object> misses = lookupLocal(keys, result);
+            if (misses.isEmpty()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            long epoch = invalidationEpoch.get();
+            return store.getAllAsync(misses).thenApply(loaded -> mergeRemote(misses, loaded, epoch, result));
+        }
+
+        @Override
+        public void putAll(Map<?, ?> entries) {
+            Map<Object, Object> values = new HashMap<>();
+            List<Object> removals = new ArrayList<>();
+            split(entries, values, removals);
+            if (!values.isEmpty()) {
+                store.putAll(values);
+            }
+            if (!removals.isEmpty()) {
+                store.removeAll(removals);
+            }
+            afterWrite(entries);
+        }
+
+        @Override
+        public CompletableFuture<Void> putAllAsync(Map<?, ?> entries) {
+            Map<Object, Object> values = new HashMap<>();
+            List<Object> removals = new ArrayList<>();
+            split(entries, values, removals);
+            CompletableFuture<Void> puts = values.isEmpty()
+                    ? CompletableFuture.completedFuture(null) : store.putAllAsync(values);
+            CompletableFuture<Long> removes = removals.isEmpty()
+                    ? CompletableFuture.completedFuture(0L) : store.removeAllAsync(removals);
+            return CompletableFuture.allOf(puts, removes).thenRun(() -> afterWrite(entries));
+        }
+
+        @Override
+        public void evictAll(Collection<?> keys) {
+            if (!keys.isEmpty()) {
+                store.removeAll(keys);
+                afterEvict(keys);
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> evictAllAsync(Collection<?> keys) {
+            if (keys.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return store.removeAllAsync(keys).thenRun(() -> afterEvict(keys));
+        }
+
+        private static void split(Map<?, ?> entries, Map<Object, Object> values, List<Object> removals) {
+            entries.forEach((key, value) -> {
+                if (value != null) {
+                    values.put(key, value);
+                } else {
+                    removals.add(key);
+                }
+            });
         }
     }
 }
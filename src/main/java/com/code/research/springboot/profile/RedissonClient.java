@@ -1,6 +1,10 @@
 package com.code.research.springboot.profile;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public interface RedissonClient {
@@ -16,5 +20,58 @@ public interface RedissonClient {
     interface RMap<K, V> {
         V get(K key);
         V put(K key, V value);
+
+        /** Removes the key; returns the previous value or null. */
+        V remove(K key);
+
+        // ---- bulk operations: one round trip (pipelined HMGET/HSET/HDEL) for the whole batch ----
+        // defaults fall back to one call per key; real clients override them
+
+        /**
+         * @return values of the keys that are present (absent keys are left out)
+         */
+        default Map<K, V> getAll(Set<K> keys) {
+            Map<K, V> result = new HashMap<>();
+            for (K key : keys) {
+                V value = get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+
+        default void putAll(Map<? extends K, ? extends V> entries) {
+            entries.forEach(this::put);
+        }
+
+        /**
+         * @return number of keys that were present and removed
+         */
+        default long removeAll(Collection<? extends K> keys) {
+            long removed = 0;
+            for (K key : keys) {
+                if (remove(key) != null) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        // ---- async variants: complete when the pipeline reply arrives ----
+        // defaults run the call inline and return a completed future
+
+        default CompletableFuture<Map<K, V>> getAllAsync(Set<K> keys) {
+            return CompletableFuture.completedFuture(getAll(keys));
+        }
+
+        default CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> entries) {
+            putAll(entries);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        default CompletableFuture<Long> removeAllAsync(Collection<? extends K> keys) {
+            return CompletableFuture.completedFuture(removeAll(keys));
+        }
     }
 }
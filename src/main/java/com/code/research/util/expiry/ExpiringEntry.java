@@ -0,0 +1,28 @@
+package com.code.research.util.expiry;
+
+/**
+ * Cache entry that can sit in a {@link TimingWheel}; caches extend it with their own links if they need them.
+ */
+public class ExpiringEntry<K, V> extends TimingWheel.Timer {
+    private final K key;
+    private V value;
+    // write deadline kept apart from the wheel deadline so expire-after-access can never extend past it
+    long writeDeadline = ExpiryTracker.NEVER;
+
+    public ExpiringEntry(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public final K key() {
+        return key;
+    }
+
+    public final V value() {
+        return value;
+    }
+
+    public final void setValue(V value) {
+        this.value = value;
+    }
+}
@@ -0,0 +1,35 @@
+package com.code.research.util.expiry;
+
+import java.time.Duration;
+
+/**
+ * Time-to-live settings of a cache; both parts are optional (null = not used).
+ *
+ * @param afterWrite  entry expires this long after it was put (can be overridden per entry)
+ * @param afterAccess entry expires once it has not been read or written for this long
+ */
+public record ExpiryPolicy(Duration afterWrite, Duration afterAccess) {
+
+    public ExpiryPolicy {
+        requirePositive(afterWrite, "afterWrite");
+        requirePositive(afterAccess, "afterAccess");
+    }
+
+    public static ExpiryPolicy none() {
+        return new ExpiryPolicy(null, null);
+    }
+
+    public static ExpiryPolicy afterWrite(Duration ttl) {
+        return new ExpiryPolicy(ttl, null);
+    }
+
+    public static ExpiryPolicy afterAccess(Duration ttl) {
+        return new ExpiryPolicy(null, ttl);
+    }
+
+    static void requirePositive(Duration ttl, String name) {
+        if (ttl != null && (ttl.isNegative() || ttl.isZero())) {
+            throw new IllegalArgumentException(name + " must be > 0");
+        }
+    }
+}
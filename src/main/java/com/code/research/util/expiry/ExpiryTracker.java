@@ -0,0 +1,125 @@
+package com.code.research.util.expiry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * TTL bookkeeping shared by the LRU caches: computes deadlines from an {@link ExpiryPolicy}, keeps entries in a
+ * {@link TimingWheel} and queues {@link RemovalListener} notifications.
+ * <p>
+ * Usage inside a cache (all under the cache's lock, except {@link #dispatch()}):
+ * - at the start of every operation: {@code long now = now(); expire(now, entry -> map.remove(entry.key()));}
+ * - on read: {@link #isExpired} first (the wheel is ~1 ms coarse), then {@link #onAccess};
+ * - on write: {@link #onWrite}; on removal: {@link #onRemove} plus {@link #removed} with the cause;
+ * - after unlocking: {@link #dispatch()} to run the listener outside the lock.
+ */
+public final class ExpiryTracker<K, V> {
+
+    static final long NEVER = Long.MAX_VALUE;
+
+    private final long afterWriteNanos;  // 0 = off
+    private final long afterAccessNanos; // 0 = off
+    private final LongSupplier ticker;
+    private final TimingWheel<ExpiringEntry<K, V>> wheel;
+    private final RemovalListener<? super K, ? super V> listener;
+    private final Queue<Removal<K, V>> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param listener may be null
+     * @param ticker   nanosecond clock ({@code System::nanoTime}; tests pass a fake one)
+     */
+    public ExpiryTracker(ExpiryPolicy policy, RemovalListener<? super K, ? super V> listener, LongSupplier ticker) {
+        Objects.requireNonNull(policy, "policy");
+        this.afterWriteNanos = policy.afterWrite() == null ? 0 : policy.afterWrite().toNanos();
+        this.afterAccessNanos = policy.afterAccess() == null ? 0 : policy.afterAccess().toNanos();
+        this.ticker = Objects.requireNonNull(ticker, "ticker");
+        this.listener = listener;
+        this.wheel = new TimingWheel<>(ticker.getAsLong());
+    }
+
+    public long now() {
+        return ticker.getAsLong();
+    }
+
+    /** True if the entry's deadline has passed (entries without a deadline never expire). */
+    public boolean isExpired(ExpiringEntry<K, V> entry, long now) {
+        return entry.isExpired(now);
+    }
+
+    /**
+     * Sets the entry's deadline after a put.
+     *
+     * @param ttl per-entry time-to-live overriding the policy's after-write value, or null
+     */
+    public void onWrite(ExpiringEntry<K, V> entry, long now, Duration ttl) {
+        ExpiryPolicy.requirePositive(ttl, "ttl");
+        long writeNanos = ttl != null ? ttl.toNanos() : afterWriteNanos;
+        entry.writeDeadline = writeNanos > 0 ? now + writeNanos : NEVER;
+        reschedule(entry, now);
+    }
+
+    /** Pushes the deadline out after a read when expire-after-access is on. O(1). */
+    public void onAccess(ExpiringEntry<K, V> entry, long now) {
+        if (afterAccessNanos > 0) {
+            reschedule(entry, now);
+        }
+    }
+
+    public void onRemove(ExpiringEntry<K, V> entry) {
+        wheel.cancel(entry);
+    }
+
+    /**
+     * Advances the wheel; {@code remover} must drop each due entry from the cache's own structures.
+     * The EXPIRED notification is queued here.
+     */
+    public void expire(long now, Consumer<ExpiringEntry<K, V>> remover) {
+        if (wheel.size() == 0) {
+            return;
+        }
+        wheel.advance(now, entry -> {
+            remover.accept(entry);
+            removed(entry.key(), entry.value(), RemovalCause.EXPIRED);
+        });
+    }
+
+    /** Queues a notification for {@link #dispatch()}. */
+    public void removed(K key, V value, RemovalCause cause) {
+        if (listener != null) {
+            pending.add(new Removal<>(key, value, cause));
+        }
+    }
+
+    /** Runs queued notifications; call without holding the cache lock. */
+    public void dispatch() {
+        if (listener == null) {
+            return;
+        }
+        Removal<K, V> removal;
+        while ((removal = pending.poll()) != null) {
+            listener.onRemoval(removal.key(), removal.value(), removal.cause());
+        }
+    }
+
+    private void reschedule(ExpiringEntry<K, V> entry, long now) {
+        long deadline = entry.writeDeadline;
+        if (afterAccessNanos > 0) {
+            long accessDeadline = now + afterAccessNanos;
+            if (deadline == NEVER || accessDeadline - deadline < 0) {
+                deadline = accessDeadline;
+            }
+        }
+        if (deadline == NEVER) {
+            wheel.cancel(entry);
+        } else {
+            wheel.schedule(entry, deadline);
+        }
+    }
+
+    private record Removal<K, V>(K key, V value, RemovalCause cause) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.code.research.util.expiry;
+
+public enum RemovalCause {
+    /** remove() was called. */
+    EXPLICIT,
+    /** put() overwrote the value. */
+    REPLACED,
+    /** Evicted to stay within capacity. */
+    SIZE,
+    /** Time-to-live passed. */
+    EXPIRED
+}
@@ -0,0 +1,11 @@
+package com.code.research.util.expiry;
+
+/**
+ * Notified after an entry left a cache. Runs on the thread that triggered the removal,
+ * after the cache released its lock, so it may call back into the cache.
+ */
+@FunctionalInterface
+public interface RemovalListener<K, V> {
+
+    void onRemoval(K key, V value, RemovalCause cause);
+}
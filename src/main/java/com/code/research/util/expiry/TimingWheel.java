@@ -0,0 +1,159 @@
+package com.code.research.util.expiry;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for expiring many entries without scanning them and without one scheduled task per entry.
+ * <p>
+ * - 5 levels x 64 buckets; a level-i bucket spans 2^(20 + 6i) ns: ~1 ms, ~67 ms, ~4.3 s, ~4.6 min, ~4.9 h,
+ *   so the wheel covers ~13 days exactly and anything further sits in the top level until it gets closer.
+ * - Timers are intrusive ({@link Timer} is extended by the cache entry), so schedule/cancel are O(1) list splices.
+ * - {@link #advance} only visits buckets whose time range has passed; a timer that is not due yet is re-inserted into
+ *   a finer level. Every timer cascades at most once per level, so expiration is amortized O(1) per entry.
+ * <p>
+ * Precision is one level-0 bucket (~1 ms): callers must still compare the deadline on read
+ * ({@link Timer#isExpired}) and use the wheel only to get rid of entries nobody reads any more.
+ * Not thread-safe; callers guard it with their own lock.
+ *
+ * @param <T> timer (entry) type
+ */
+public final class TimingWheel<T extends TimingWheel.Timer> {
+
+    private static final int BUCKETS = 64;
+    private static final int[] SHIFT = {20, 26, 32, 38, 44};
+
+    private final Timer[][] wheel = new Timer[SHIFT.length][BUCKETS];
+    private long nanos;
+    private int size;
+
+    /**
+     * @param nowNanos current time of the clock used for deadlines (e.g. {@link System#nanoTime()})
+     */
+    public TimingWheel(long nowNanos) {
+        this.nanos = nowNanos;
+        for (Timer[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                Timer sentinel = new Sentinel();
+                sentinel.prev = sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    /** Schedules (or moves) the timer to fire at {@code deadlineNanos}. O(1). */
+    public void schedule(T timer, long deadlineNanos) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        } else {
+            size++;
+        }
+        timer.deadline = deadlineNanos;
+        link(findBucket(deadlineNanos), timer);
+    }
+
+    /** Removes the timer if scheduled. O(1). */
+    public void cancel(T timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Moves the wheel to {@code nowNanos} and hands every timer whose deadline has passed to {@code onExpired}
+     * (already unscheduled when the callback runs).
+     */
+    @SuppressWarnings("unchecked")
+    public void advance(long nowNanos, Consumer<? super T> onExpired) {
+        long previous = nanos;
+        if (nowNanos - previous <= 0) {
+            return;
+        }
+        nanos = nowNanos;
+        for (int level = 0; level < SHIFT.length; level++) {
+            long previousTicks = previous >>> SHIFT[level];
+            long currentTicks = nowNanos >>> SHIFT[level];
+            long ticks = currentTicks - previousTicks;
+            if (ticks <= 0) {
+                break; // coarser levels cannot have moved either
+            }
+            int steps = (int) Math.min(ticks + 1, BUCKETS);
+            int start = (int) (previousTicks & (BUCKETS - 1));
+            for (int i = start; i < start + steps; i++) {
+                expireBucket(wheel[level][i & (BUCKETS - 1)], (Consumer<Timer>) onExpired);
+            }
+        }
+    }
+
+    /** Number of scheduled timers. */
+    public int size() {
+        return size;
+    }
+
+    private void expireBucket(Timer sentinel, Consumer<Timer> onExpired) {
+        // detach the chain first: timers that are not due are re-inserted, possibly into this same bucket
+        Timer timer = sentinel.next;
+        sentinel.prev = sentinel.next = sentinel;
+        while (timer != sentinel) {
+            Timer next = timer.next;
+            timer.prev = timer.next = null;
+            if (timer.deadline - nanos > 0) {
+                link(findBucket(timer.deadline), timer);
+            } else {
+                size--;
+                onExpired.accept(timer);
+            }
+            timer = next;
+        }
+    }
+
+    private Timer findBucket(long deadline) {
+        long time = Math.max(deadline, nanos); // overdue timers go to the current bucket, drained on the next tick
+        long duration = time - nanos;
+        for (int level = 0; level < SHIFT.length - 1; level++) {
+            if (duration < 1L << SHIFT[level + 1]) {
+                return wheel[level][(int) ((time >>> SHIFT[level]) & (BUCKETS - 1))];
+            }
+        }
+        int top = SHIFT.length - 1;
+        return wheel[top][(int) ((time >>> SHIFT[top]) & (BUCKETS - 1))];
+    }
+
+    private static void link(Timer sentinel, Timer timer) {
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = timer.next = null;
+    }
+
+    /**
+     * Intrusive wheel node; extend it with the entry's own data.
+     */
+    public abstract static class Timer {
+        long deadline;
+        Timer prev;
+        Timer next;
+
+        public final long deadline() {
+            return deadline;
+        }
+
+        public final boolean isScheduled() {
+            return next != null;
+        }
+
+        /** True if the timer is scheduled and its deadline is not after {@code nowNanos}. */
+        public final boolean isExpired(long nowNanos) {
+            return isScheduled() && deadline - nowNanos <= 0;
+        }
+    }
+
+    private static final class Sentinel extends Timer {
+    }
+}
@@ -0,0 +1,75 @@
+package com.code.research.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LRUCacheIntArrayTest {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        LRUCacheIntArray c = new LRUCacheIntArray(2);
+
+        c.put(1, 10);
+        c.put(2, 20);
+        assertEquals(10, c.get(1)); // 2 is now LRU
+
+        c.put(3, 30);               // evicts 2
+
+        assertEquals(-1, c.get(2));
+        assertEquals(10, c.get(1));
+        assertEquals(30, c.get(3));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    void removeFreesSlotForReuse() {
+        LRUCacheIntArray c = new LRUCacheIntArray(2);
+        c.put(1, 10);
+        c.put(2, 20);
+
+        assertTrue(c.remove(1));
+        assertFalse(c.remove(1));
+        c.put(3, 30);               // reuses the freed slot, no eviction
+
+        assertEquals(20, c.get(2));
+        assertEquals(30, c.get(3));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    void rejectsCapacitiesWhoseTableWouldOverflow() {
+        // MAX_CAPACITY itself needs a 2^30-int table; anything above would need 2^31
+        assertThrows(IllegalArgumentException.class, () -> new LRUCacheIntArray(LRUCacheIntArray.MAX_CAPACITY + 1));
+        assertThrows(IllegalArgumentException.class, () -> new LRUCacheIntArray(1 << 29));
+        assertThrows(IllegalArgumentException.class, () -> new LRUCacheIntArray(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new LRUCacheIntArray(0));
+    }
+
+    @Test
+    void matchesReferenceImplementationOnRandomOperations() {
+        int capacity = 64;
+        LRUCacheIntArray actual = new LRUCacheIntArray(capacity);
+        LRUCacheInt2 expected = new LRUCacheInt2(capacity);
+        SplittableRandom rnd = new SplittableRandom(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            // colliding keys (multiples of the table size) exercise the backward-shift delete
+            int key = rnd.nextBoolean() ? rnd.nextInt(200) : rnd.nextInt(50) * 256;
+            switch (rnd.nextInt(3)) {
+                case 0 -> {
+                    Integer e = expected.get(key);
+                    assertEquals(e == null ? -1 : e, actual.get(key), "get " + key + " at op " + i);
+                }
+                case 1 -> {
+                    expected.put(key, i);
+                    actual.put(key, i);
+                }
+                default -> assertEquals(expected.remove(key) != null, actual.remove(key), "remove " + key);
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+    }
+}
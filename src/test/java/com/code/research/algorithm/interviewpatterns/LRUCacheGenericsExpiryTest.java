@@ -0,0 +1,135 @@
+package com.code.research.algorithm.interviewpatterns;
+
+import com.code.research.interviewpatterns.LRUCacheGenerics;
+import com.code.research.interviewpatterns.LruCacheGen;
+import com.code.research.util.expiry.ExpiryPolicy;
+import com.code.research.util.expiry.RemovalCause;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LRUCacheGenericsExpiryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> removals = new ArrayList<>();
+
+    private LRUCacheGenerics<String, String> cache(int capacity, ExpiryPolicy policy) {
+        return new LRUCacheGenerics<>(capacity, policy, (k, v, cause) -> removals.add(k + ":" + cause), clock::get);
+    }
+
+    private void advance(Duration d) {
+        clock.addAndGet(d.toNanos());
+    }
+
+    @Test
+    void expireAfterWriteHidesAndRemovesEntry() {
+        LRUCacheGenerics<String, String> c = cache(10, ExpiryPolicy.afterWrite(Duration.ofSeconds(5)));
+        c.put("a", "A");
+        advance(Duration.ofSeconds(4));
+        assertEquals("A", c.get("a"));
+
+        advance(Duration.ofSeconds(1));
+        assertNull(c.get("a"));
+        assertFalse(c.containsKey("a"));
+        assertEquals(0, c.size());
+        assertEquals(List.of("a:" + RemovalCause.EXPIRED), removals);
+    }
+
+    @Test
+    void expireAfterAccessIsExtendedByReads() {
+        LRUCacheGenerics<String, String> c = cache(10, ExpiryPolicy.afterAccess(Duration.ofSeconds(5)));
+        c.put("a", "A");
+        for (int i = 0; i < 10; i++) {
+            advance(Duration.ofSeconds(3));
+            assertEquals("A", c.get("a"));
+        }
+        advance(Duration.ofSeconds(5));
+        assertTrue(c.getOptional("a").isEmpty());
+    }
+
+    @Test
+    void perEntryTtlOverridesPolicy() {
+        LRUCacheGenerics<String, String> c = cache(10, ExpiryPolicy.afterWrite(Duration.ofMinutes(10)));
+        c.put("short", "S", Duration.ofSeconds(1));
+        c.put("long", "L");
+        advance(Duration.ofSeconds(2));
+
+        assertNull(c.get("short"));
+        assertEquals("L", c.get("long"));
+    }
+
+    @Test
+    void unreadEntriesAreSweptWithoutScanning() {
+        LRUCacheGenerics<String, String> c = cache(10_000, ExpiryPolicy.afterWrite(Duration.ofSeconds(1)));
+        for (int i = 0; i < 1000; i++) c.put("k" + i, "v");
+        advance(Duration.ofSeconds(2));
+
+        c.put("fresh", "v"); // any call advances the wheel
+        assertEquals(1, c.size());
+        assertEquals(1000, removals.size());
+    }
+
+    @Test
+    void listenerSeesSizeReplacedAndExplicitRemovals() {
+        LRUCacheGenerics<String, String> c = cache(2, ExpiryPolicy.none());
+        c.put("a", "A");
+        c.put("b", "B");
+        c.put("a", "A2");   // replaced
+        c.put("c", "C");    // evicts b
+        c.remove("a");      // explicit
+
+        assertEquals(List.of("a:REPLACED", "b:SIZE", "a:EXPLICIT"), removals);
+        assertEquals("[c]", c.keysInOrder());
+    }
+
+    @Test
+    void containsKeyDoesNotChangeEvictionOrder() {
+        LRUCacheGenerics<String, String> c = cache(2, ExpiryPolicy.none());
+        c.put("a", "A");
+        c.put("b", "B");
+        assertTrue(c.containsKey("a"));
+        c.put("c", "C");    // a is still the eldest
+
+        assertEquals(List.of("a:SIZE"), removals);
+        assertEquals("[b, c]", c.keysInOrder());
+    }
+
+    @Test
+    void reputtingTheSameValueIsNotAReplacement() {
+        String v = "V";
+        LRUCacheGenerics<String, String> c = cache(2, ExpiryPolicy.none());
+        c.put("a", v);
+        c.put("b", "B");
+        c.put("a", v);      // same value: promotes a, no notification
+        c.put("c", "C");    // evicts b
+
+        assertEquals(List.of("b:SIZE"), removals);
+        assertEquals("[a, c]", c.keysInOrder());
+
+        LruCacheGen<String, String> gen = new LruCacheGen<>(2, ExpiryPolicy.none(),
+                (k, value, cause) -> removals.add(k + ":" + cause), clock::get);
+        removals.clear();
+        gen.put("a", v);
+        gen.put("a", v);
+        gen.put("a", "W");
+
+        assertEquals(List.of("a:REPLACED"), removals);
+    }
+
+    @Test
+    void sizeNotifiesAboutTheEntriesItExpires() {
+        LruCacheGen<String, String> gen = new LruCacheGen<>(10, ExpiryPolicy.afterWrite(Duration.ofSeconds(1)),
+                (k, value, cause) -> removals.add(k + ":" + cause), clock::get);
+        gen.put("a", "A");
+        advance(Duration.ofSeconds(2));
+
+        assertEquals(0, gen.size());
+        assertEquals(List.of("a:EXPIRED"), removals); // without waiting for a later get/put
+    }
+}
@@ -0,0 +1,136 @@
+package com.code.research.algorithm.interviewpatterns;
+
+import com.code.research.algorithm.MFUCache;
+import com.code.research.interviewpatterns.LRUCacheStringRW;
+import com.code.research.interviewpatterns.LRUCacheStriped;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LRUCacheStripedTest {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 200_000;
+    private static final int KEY_SPACE = 4_096;
+    private static final int CAPACITY = 1_024;
+
+    @Test
+    void singleSegmentBehavesLikeExactLru() {
+        LRUCacheStriped<Integer, String> c = new LRUCacheStriped<>(2, 1);
+
+        c.put(1, "A");
+        c.put(2, "B");
+        assertEquals("A", c.get(1)); // 2 is now LRU
+
+        c.put(3, "C");               // evicts 2
+
+        assertNull(c.get(2));
+        assertEquals("A", c.get(1));
+        assertEquals("C", c.get(3));
+        assertEquals(2, c.size());
+    }
+
+    @Test
+    void peekDoesNotPromote() {
+        LRUCacheStriped<Integer, String> c = new LRUCacheStriped<>(2, 1);
+
+        c.put(1, "A");
+        c.put(2, "B");
+        assertEquals("A", c.peek(1)); // 1 stays LRU
+
+        c.put(3, "C");                // evicts 1
+
+        assertNull(c.peek(1));
+        assertEquals("B", c.peek(2));
+    }
+
+    @Test
+    void removeReturnsPreviousValue() {
+        LRUCacheStriped<String, Integer> c = new LRUCacheStriped<>(8, 4);
+
+        c.put("a", 1);
+        assertEquals(1, c.remove("a"));
+        assertNull(c.remove("a"));
+        assertEquals(0, c.size());
+    }
+
+    @Test
+    void totalSizeNeverExceedsCapacity() {
+        LRUCacheStriped<Integer, Integer> c = new LRUCacheStriped<>(100, 16);
+
+        for (int i = 0; i < 10_000; i++) c.put(i, i);
+
+        assertEquals(16, c.segmentCount());
+        assertTrue(c.size() <= 100, "Size must never exceed capacity");
+    }
+
+    /**
+     * Read-heavy mix (90% get / 10% put) on the same key space,
+     * run against the existing single-lock caches and the striped one.
+     * Throughput is printed for comparison; the assertions only cover correctness,
+     * because wall-clock ratios are too noisy for CI.
+     */
+    @Test
+    void multiThreadedThroughputAgainstRwImplementations() throws Exception {
+        LRUCacheStringRW rw = new LRUCacheStringRW(CAPACITY);
+        MFUCache mfu = new MFUCache(CAPACITY);
+        LRUCacheStriped<Integer, String> striped = new LRUCacheStriped<>(CAPACITY);
+
+        long rwOps = throughput("LRUCacheStringRW", key -> {
+            if (key % 10 == 0) rw.put(key, "v" + key);
+            else rw.get(key);
+        });
+        long mfuOps = throughput("MFUCache", key -> {
+            if (key % 10 == 0) mfu.put(key, key);
+            else mfu.get(key);
+        });
+        long stripedOps = throughput("LRUCacheStriped", key -> {
+            if (key % 10 == 0) striped.put(key, "v" + key);
+            else striped.get(key);
+        });
+
+        assertTrue(rwOps > 0 && mfuOps > 0 && stripedOps > 0);
+        assertTrue(rw.size() <= CAPACITY);
+        assertTrue(mfu.size() <= CAPACITY);
+        assertTrue(striped.size() <= CAPACITY);
+    }
+
+    /** Runs THREADS workers over a shared cache and returns ops/second. */
+    private static long throughput(String name, IntConsumer op) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        op.accept(rnd.nextInt(KEY_SPACE));
+                    }
+                } catch (Throwable e) {
+                    failed.set(true);
+                }
+            }));
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdownNow();
+
+        assertFalse(failed.get(), name + ": no thread should fail");
+        long opsPerSec = (long) THREADS * OPS_PER_THREAD * 1_000_000_000L / Math.max(1, elapsed);
+        System.out.printf("%-18s %,12d ops/s (%d threads)%n", name, opsPerSec, THREADS);
+        return opsPerSec;
+    }
+}
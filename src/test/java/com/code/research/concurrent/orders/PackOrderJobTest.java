@@ -0,0 +1,105 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.domain.Order;
+import com.code.research.concurrent.orders.exception.PackingException;
+import com.code.research.concurrent.orders.service.PackingService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackOrderJobTest {
+
+    private static final long QUEUED_MILLIS = 50;
+
+    @Test
+    void packsPendingOrdersInBatchesAndMeasuresTheirWaitInTheWarehouse() throws Exception {
+        Warehouse warehouse = new LockingWarehouse(10);
+        for (String id : List.of("A", "B", "C")) warehouse.submitOrder(order(id));
+        Thread.sleep(QUEUED_MILLIS);
+
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        PackingService service = new PackingService() {
+            @Override
+            public void pack(Order order) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, PackingException> packAll(List<Order> orders) {
+                batches.add(orders.stream().map(Order::getId).toList());
+                Map<String, PackingException> failures = new LinkedHashMap<>();
+                for (Order order : orders) {
+                    if (order.getId().equals("B")) failures.put("B", new PackingException("out of boxes"));
+                }
+                return failures;
+            }
+        };
+        PackOrderJob job = new PackOrderJob(warehouse, service, 2, new PackOrderMetrics());
+
+        PackOrderStats stats = runUntilPacked(job, 3);
+
+        assertEquals(List.of(List.of("A", "B"), List.of("C")), batches);
+        assertEquals(2, stats.batches());
+        assertEquals(2, stats.maxBatchSize());
+        assertEquals(1, stats.failedOrders());
+        // the orders sat in the warehouse before the job started, which the batch time does not see
+        assertTrue(stats.averageOrderLatencyMillis() >= QUEUED_MILLIS, stats.toString());
+        assertTrue(stats.maxOrderLatencyNanos() >= Duration.ofMillis(QUEUED_MILLIS).toNanos(), stats.toString());
+        assertTrue(stats.totalBatchNanos() < stats.totalOrderLatencyNanos(), stats.toString());
+    }
+
+    @Test
+    void packAllThrowingFailsTheWholeBatch() throws Exception {
+        Warehouse warehouse = new RingBufferWarehouse(8);
+        for (String id : List.of("A", "B")) warehouse.submitOrder(order(id));
+        PackOrderJob job = new PackOrderJob(warehouse, new PackingService() {
+            @Override
+            public void pack(Order order) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Map<String, PackingException> packAll(List<Order> orders) {
+                throw new IllegalStateException("carrier down");
+            }
+        }, 8, new PackOrderMetrics());
+
+        PackOrderStats stats = runUntilPacked(job, 2);
+
+        assertEquals(1, stats.batches());
+        assertEquals(2, stats.failedOrders());
+    }
+
+    /** Runs the job on its own thread until it has recorded {@code orders} orders, then stops it. */
+    private static PackOrderStats runUntilPacked(PackOrderJob job, int orders) throws InterruptedException {
+        Thread thread = new Thread(job, "pack-order-job");
+        thread.start();
+        try {
+            awaitTrue(() -> job.getMetrics().snapshot().orders() == orders);
+        } finally {
+            thread.interrupt();
+            thread.join(5_000);
+        }
+        assertFalse(thread.isAlive());
+        return job.getMetrics().snapshot();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(1);
+        }
+    }
+
+    private static Order order(String id) {
+        return new Order(id, List.of("SKU-" + id));
+    }
+}
@@ -0,0 +1,32 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.domain.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackOrderMetricsTest {
+
+    @Test
+    void orderLatencyRunsFromSubmissionToTheEndOfItsBatch() {
+        PackOrderMetrics metrics = new PackOrderMetrics();
+        metrics.recordBatch(List.of(submitted("A", 100), submitted("B", 300)), 1, 400, 1_000);
+        metrics.recordBatch(List.of(submitted("C", 950)), 0, 1_000, 1_100);
+
+        // latencies 900, 700 and 150; batch times 600 and 100
+        assertEquals(new PackOrderStats(2, 3, 1, 2, 700, 1_750, 900), metrics.snapshot());
+    }
+
+    @Test
+    void emptyMetricsSnapshotToZero() {
+        assertEquals(new PackOrderStats(0, 0, 0, 0, 0, 0, 0), new PackOrderMetrics().snapshot());
+    }
+
+    private static Order submitted(String id, long nanoTime) {
+        Order order = new Order(id, List.of("SKU-" + id));
+        order.markSubmitted(nanoTime);
+        return order;
+    }
+}
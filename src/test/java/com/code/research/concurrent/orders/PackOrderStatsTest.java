@@ -0,0 +1,27 @@
+package com.code.research.concurrent.orders;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackOrderStatsTest {
+
+    @Test
+    void averagesAreZeroWhenNothingWasPacked() {
+        PackOrderStats stats = new PackOrderStats(0, 0, 0, 0, 0, 0, 0);
+
+        assertEquals(0, stats.averageBatchSize());
+        assertEquals(0, stats.averageOrderLatencyMillis());
+        assertEquals(0, stats.averagePackMillisPerOrder());
+    }
+
+    @Test
+    void averagesSpreadTotalsOverOrdersAndBatches() {
+        // 2 batches of 4 orders packed in 8 ms in total, the orders waited 40 ms in total
+        PackOrderStats stats = new PackOrderStats(2, 8, 1, 5, 8_000_000, 40_000_000, 9_000_000);
+
+        assertEquals(4.0, stats.averageBatchSize());
+        assertEquals(5.0, stats.averageOrderLatencyMillis());
+        assertEquals(1.0, stats.averagePackMillisPerOrder());
+    }
+}
@@ -0,0 +1,175 @@
+package com.code.research.concurrent.orders;
+
+import com.code.research.concurrent.orders.RingBufferWarehouse.WaitStrategy;
+import com.code.research.concurrent.orders.domain.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferWarehouseTest {
+
+    @Test
+    void fifoAndCapacityMatchTheLockingWarehouse() throws Exception {
+        for (int capacity : new int[]{1, 3, 8}) { // a power of two and not
+            Warehouse ring = new RingBufferWarehouse(capacity, WaitStrategy.SPIN);
+            Warehouse locking = new LockingWarehouse(capacity);
+            for (int lap = 0; lap < 5; lap++) {
+                for (int i = 0; i < capacity; i++) {
+                    Order order = order(lap * 100 + i);
+                    assertTrue(ring.trySubmitOrder(order, 0, TimeUnit.MILLISECONDS));
+                    assertTrue(locking.trySubmitOrder(order, 0, TimeUnit.MILLISECONDS));
+                }
+                assertFalse(ring.trySubmitOrder(order(-1), 1, TimeUnit.MILLISECONDS));
+                assertEquals(capacity, ring.getPendingOrderCount());
+                assertEquals(locking.snapshotPendingOrders(), ring.snapshotPendingOrders());
+                for (int i = 0; i < capacity; i++) assertSame(locking.retrieveOrder(), ring.retrieveOrder());
+                assertNull(ring.tryRetrieveOrder(1, TimeUnit.MILLISECONDS));
+                assertEquals(0, ring.getPendingOrderCount());
+            }
+        }
+    }
+
+    @Test
+    void everyOrderIsRetrievedExactlyOnce() throws Exception {
+        int producers = 4, consumers = 4, perProducer = 5_000;
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            RingBufferWarehouse warehouse = new RingBufferWarehouse(64, strategy);
+            AtomicIntegerArray seen = new AtomicIntegerArray(producers * perProducer);
+            ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) warehouse.submitOrder(order(producer * perProducer + i));
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int last = -1;
+                    for (int i = 0; i < producers * perProducer / consumers; i++) {
+                        int id = Integer.parseInt(warehouse.retrieveOrder().getId());
+                        assertEquals(0, seen.getAndIncrement(id), "retrieved twice: " + id);
+                        last = id;
+                    }
+                    return last;
+                }));
+            }
+            start.countDown();
+            try {
+                for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+            } finally {
+                pool.shutdownNow();
+            }
+            for (int id = 0; id < seen.length(); id++) assertEquals(1, seen.get(id), strategy + " lost order " + id);
+            assertEquals(0, warehouse.getPendingOrderCount());
+        }
+    }
+
+    @Test
+    void drainOrdersMatchesTheLockingWarehouse() throws Exception {
+        for (int capacity : new int[]{1, 3, 8}) {
+            Warehouse ring = new RingBufferWarehouse(capacity, WaitStrategy.SPIN);
+            Warehouse locking = new LockingWarehouse(capacity);
+            for (int lap = 0; lap < 5; lap++) {
+                for (int i = 0; i < capacity; i++) {
+                    Order order = order(lap * 100 + i);
+                    ring.submitOrder(order);
+                    locking.submitOrder(order);
+                }
+                for (int max : new int[]{2, capacity}) {
+                    List<Order> expected = locking.drainOrders(max, 0, TimeUnit.MILLISECONDS);
+                    List<Order> actual = ring.drainOrders(max, 0, TimeUnit.MILLISECONDS);
+                    assertEquals(expected, actual);
+                    assertTrue(actual.size() <= max);
+                }
+                assertEquals(locking.snapshotPendingOrders(), ring.snapshotPendingOrders());
+                while (locking.getPendingOrderCount() > 0) assertSame(locking.retrieveOrder(), ring.retrieveOrder());
+                assertTrue(ring.drainOrders(4, 1, TimeUnit.MILLISECONDS).isEmpty());
+                assertTrue(locking.drainOrders(4, 1, TimeUnit.MILLISECONDS).isEmpty());
+            }
+            assertThrows(IllegalArgumentException.class, () -> ring.drainOrders(0, 0, TimeUnit.MILLISECONDS));
+            assertThrows(IllegalArgumentException.class, () -> locking.drainOrders(0, 0, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void everyDrainedOrderIsRetrievedExactlyOnce() throws Exception {
+        int producers = 4, consumers = 4, perProducer = 5_000, total = producers * perProducer;
+        RingBufferWarehouse warehouse = new RingBufferWarehouse(64, WaitStrategy.YIELD);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger drained = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) warehouse.submitOrder(order(producer * perProducer + i));
+                return null;
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                while (drained.get() < total) {
+                    List<Order> batch = warehouse.drainOrders(16, 10, TimeUnit.MILLISECONDS);
+                    assertTrue(batch.size() <= 16);
+                    for (Order order : batch) {
+                        int id = Integer.parseInt(order.getId());
+                        assertEquals(0, seen.getAndIncrement(id), "retrieved twice: " + id);
+                    }
+                    drained.addAndGet(batch.size());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int id = 0; id < total; id++) assertEquals(1, seen.get(id), "lost order " + id);
+        assertEquals(0, warehouse.getPendingOrderCount());
+    }
+
+    @Test
+    void blockedRetrieveIsInterruptible() throws Exception {
+        RingBufferWarehouse warehouse = new RingBufferWarehouse(4, WaitStrategy.PARK);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Order> blocked = pool.submit(warehouse::retrieveOrder);
+            Thread.sleep(20);
+            blocked.cancel(true);
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> warehouse.submitOrder(order(1)));
+        assertFalse(Thread.interrupted());
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferWarehouse(0));
+        assertThrows(NullPointerException.class, () -> warehouse.submitOrder(null));
+    }
+
+    private static Order order(int id) {
+        return new Order(Integer.toString(id), List.of("SKU-" + id));
+    }
+}
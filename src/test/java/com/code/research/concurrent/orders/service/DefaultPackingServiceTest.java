@@ -0,0 +1,221 @@
+package com.code.research.concurrent.orders.service;
+
+import com.code.research.concurrent.orders.domain.Order;
+import com.code.research.concurrent.orders.domain.OrderBox;
+import com.code.research.concurrent.orders.exception.OutOfStockException;
+import com.code.research.concurrent.orders.exception.PackingException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultPackingServiceTest {
+
+    @Test
+    void packAllMakesOneBoxAndCarrierCallPerBoxSize() {
+        RecordingCarrier carrier = new RecordingCarrier(null);
+        RecordingBoxService boxes = new RecordingBoxService();
+        RecordingInventory inventory = new RecordingInventory();
+        PackingService service = service(inventory, boxes, carrier);
+
+        Map<String, PackingException> failures = service.packAll(List.of(
+                order("A", 1), order("B", 4), order("OOS", 1), order("C", 2), order("D", 5), order("E", 20)));
+
+        // out of stock and "no box fits" fail alone; the rest is packed in two groups
+        assertEquals(Set.of("OOS", "E"), failures.keySet());
+        assertEquals(List.of("Small:[A, C]", "Large:[B, D]"), boxes.batches);
+        assertEquals(List.of("Small:[A, C]", "Large:[B, D]"), carrier.shipmentCalls);
+        assertEquals(2, carrier.scheduleCalls.size());
+        assertEquals(List.of("A", "C"), carrier.scheduleCalls.get(0));
+        assertEquals(0, carrier.singleCalls);
+        assertEquals(List.of("E"), inventory.released); // reserved before no box fitted
+    }
+
+    @Test
+    void failedBatchCallFailsOnlyItsGroup() {
+        RecordingCarrier carrier = new RecordingCarrier("Large");
+        RecordingInventory inventory = new RecordingInventory();
+        PackingService service = service(inventory, new RecordingBoxService(), carrier);
+
+        Map<String, PackingException> failures = service.packAll(
+                List.of(order("A", 1), order("B", 4), order("C", 2), order("D", 5)));
+
+        assertEquals(List.of("B", "D"), List.copyOf(failures.keySet()));
+        assertTrue(failures.get("B").getMessage().contains("batch of 2 Large boxes"));
+        assertEquals(List.of(List.of("A", "C")), carrier.scheduleCalls);
+        assertEquals(List.of("B", "D"), inventory.released);
+    }
+
+    @Test
+    void failuresAreReportedInBatchOrder() {
+        RecordingCarrier carrier = new RecordingCarrier("Large");
+        PackingService service = service(new RecordingInventory(), new RecordingBoxService(), carrier);
+
+        // B fails in its group call, after OOS and E already failed alone
+        Map<String, PackingException> failures = service.packAll(
+                List.of(order("B", 4), order("A", 1), order("OOS", 1), order("E", 20)));
+
+        assertEquals(List.of("B", "OOS", "E"), List.copyOf(failures.keySet()));
+    }
+
+    @Test
+    void failureInTheMiddleOfAGroupFailsOnlyThatOrder() {
+        OneByOneCarrier carrier = new OneByOneCarrier();
+        RecordingInventory inventory = new RecordingInventory();
+        PackingService service = service(inventory, new RecordingBoxService(), carrier);
+
+        // one Small group; the batch hooks fall back to one carrier call per order
+        Map<String, PackingException> failures = service.packAll(List.of(
+                order("A", 1), order("NOLABEL", 1), order("NOSHIP", 1), order("G", 1)));
+
+        assertEquals(List.of("NOLABEL", "NOSHIP"), List.copyOf(failures.keySet()));
+        assertTrue(failures.get("NOSHIP").getMessage().contains("no pickup slot"));
+        assertEquals(List.of("T-A", "T-G"), carrier.scheduled);     // handed off despite the failures around them
+        assertEquals(List.of("T-NOSHIP"), carrier.cancelled);       // A and G keep their shipments
+        assertEquals(List.of("NOLABEL", "NOSHIP"), inventory.released);
+    }
+
+    @Test
+    void packCompensatesLikePackAll() {
+        OneByOneCarrier carrier = new OneByOneCarrier();
+        RecordingInventory inventory = new RecordingInventory();
+        DimensionBasedBoxService boxes = new DimensionBasedBoxService(List.of(
+                new DimensionBasedBoxService.BoxDefinition("Small", 2)));
+        PackingService service = new DefaultPackingService(inventory, boxes, new CarrierApiShippingService(carrier));
+
+        assertThrows(PackingException.class, () -> service.pack(order("NOSHIP", 1)));
+        assertThrows(PackingException.class, () -> service.pack(order("BIG", 3)));
+        assertThrows(PackingException.class, () -> service.pack(order("OOS", 1)));
+
+        assertEquals(List.of("T-NOSHIP"), carrier.cancelled);
+        assertEquals(List.of("NOSHIP", "BIG"), inventory.released); // OOS never held a reservation
+    }
+
+    @Test
+    void defaultPackAllPacksOneByOne() {
+        List<String> packed = new ArrayList<>();
+        PackingService service = order -> {
+            if (order.getId().startsWith("X")) throw new PackingException("no " + order.getId());
+            packed.add(order.getId());
+        };
+
+        Map<String, PackingException> failures = service.packAll(List.of(order("A", 1), order("X1", 1), order("B", 1)));
+
+        assertEquals(List.of("A", "B"), packed);
+        assertEquals("no X1", failures.get("X1").getMessage());
+        assertEquals(1, failures.size());
+    }
+
+    private static PackingService service(InventoryService inventory, BoxService boxes,
+                                          CarrierApiShippingService.CarrierApiClient carrier) {
+        return new DefaultPackingService(inventory, boxes, new CarrierApiShippingService(carrier));
+    }
+
+    private static Order order(String id, int items) {
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < items; i++) skus.add(id + "-" + i);
+        return new Order(id, skus);
+    }
+
+    private static String ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList().toString();
+    }
+
+    /** Out of stock for order OOS; records releases. */
+    private static final class RecordingInventory implements InventoryService {
+        final List<String> released = new ArrayList<>();
+
+        @Override
+        public void reserve(Order order) throws OutOfStockException {
+            if (order.getId().equals("OOS")) throw new OutOfStockException("OOS-0");
+        }
+
+        @Override
+        public void release(Order order) {
+            released.add(order.getId());
+        }
+    }
+
+    /** Small up to 2 items, Large up to 10; records each batch as "size:[ids]" (SKUs are "id-n"). */
+    private static final class RecordingBoxService extends DimensionBasedBoxService {
+        final List<String> batches = new ArrayList<>();
+
+        RecordingBoxService() {
+            super(List.of(new BoxDefinition("Small", 2), new BoxDefinition("Large", 10)));
+        }
+
+        @Override
+        public void packItems(OrderBox box, List<String> itemSkus) {
+            throw new AssertionError("packItems called instead of packBatch");
+        }
+
+        @Override
+        public void packBatch(OrderBox box, List<List<String>> itemSkusPerOrder) {
+            List<String> ids = itemSkusPerOrder.stream().map(items -> items.get(0).split("-")[0]).toList();
+            batches.add(box.getSize() + ":" + ids);
+        }
+    }
+
+    private static final class RecordingCarrier implements CarrierApiShippingService.CarrierApiClient {
+        final List<String> shipmentCalls = new ArrayList<>();
+        final List<List<String>> scheduleCalls = new ArrayList<>();
+        int singleCalls;
+        private final String failingBoxSize;
+
+        RecordingCarrier(String failingBoxSize) {
+            this.failingBoxSize = failingBoxSize;
+        }
+
+        @Override
+        public String createShipment(Order order, OrderBox box) {
+            singleCalls++;
+            return "T-" + order.getId();
+        }
+
+        @Override
+        public void scheduleDelivery(String trackingNumber) {
+            singleCalls++;
+        }
+
+        @Override
+        public BatchResult<String> createShipments(List<Order> orders, OrderBox box) {
+            shipmentCalls.add(box.getSize() + ":" + ids(orders));
+            if (box.getSize().equals(failingBoxSize)) throw new IllegalStateException("carrier down");
+            return BatchResult.succeeded(orders.stream().map(o -> "T-" + o.getId()).toList());
+        }
+
+        @Override
+        public BatchResult<Void> scheduleDeliveries(List<String> trackingNumbers) {
+            scheduleCalls.add(trackingNumbers.stream().map(t -> t.substring(2)).toList());
+            return BatchResult.succeeded(Collections.nCopies(trackingNumbers.size(), null));
+        }
+    }
+
+    /** Carrier without batch endpoints; NOLABEL orders get no shipment and NOSHIP orders no pickup slot. */
+    private static final class OneByOneCarrier implements CarrierApiShippingService.CarrierApiClient {
+        final List<String> scheduled = new ArrayList<>();
+        final List<String> cancelled = new ArrayList<>();
+
+        @Override
+        public String createShipment(Order order, OrderBox box) {
+            if (order.getId().equals("NOLABEL")) throw new IllegalStateException("address rejected");
+            return "T-" + order.getId();
+        }
+
+        @Override
+        public void scheduleDelivery(String trackingNumber) {
+            if (trackingNumber.equals("T-NOSHIP")) throw new IllegalStateException("no pickup slot");
+            scheduled.add(trackingNumber);
+        }
+
+        @Override
+        public void cancelShipment(String trackingNumber) {
+            cancelled.add(trackingNumber);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.code.research.concurrent.orders.service;
+
+import com.code.research.concurrent.orders.domain.Order;
+import com.code.research.concurrent.orders.domain.OrderBox;
+import com.code.research.concurrent.orders.exception.OutOfStockException;
+import com.code.research.concurrent.orders.exception.PackingException;
+import com.code.research.concurrent.orders.service.PipelinedPackingService.Stage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedPackingServiceTest {
+
+    @Test
+    void stagesOverlapWithinTheirConcurrencyLimits() {
+        Carrier carrier = new Carrier(20, null);
+        Map<Stage, Integer> limits = PipelinedPackingService.defaultConcurrencyLimits();
+        limits.put(Stage.LABEL, 4);
+        try (PipelinedPackingService service = service(new Inventory(), carrier, 8, limits)) {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 40; i++) orders.add(order("ORD-" + i, 1 + i % 5));
+
+            assertTrue(service.packAll(orders).isEmpty());
+
+            assertEquals(40, carrier.scheduled.size());
+            assertTrue(carrier.maxConcurrentLabels.get() > 1, "label calls never overlapped");
+            assertTrue(carrier.maxConcurrentLabels.get() <= 4, "label limit exceeded");
+            for (PipelineStageStats stats : service.stageStats()) {
+                assertEquals(40, stats.completed(), stats.stage().toString());
+                assertEquals(0, stats.queueDepth());
+                assertEquals(0, stats.busyWorkers());
+                assertTrue(stats.throughputPerSecond() > 0);
+            }
+        }
+    }
+
+    @Test
+    void failureInALaterStageCompensatesTheEarlierOnes() {
+        Inventory inventory = new Inventory();
+        Carrier carrier = new Carrier(0, null);
+        try (PipelinedPackingService service = service(inventory, carrier, 4,
+                PipelinedPackingService.defaultConcurrencyLimits())) {
+            Map<String, PackingException> failures = service.packAll(List.of(
+                    order("A", 1), order("OOS", 1), order("BIG", 20), order("NOSHIP", 2)));
+
+            assertEquals(List.of("OOS", "BIG", "NOSHIP"), List.copyOf(failures.keySet()));
+            assertTrue(failures.get("OOS").getMessage().contains("at RESERVE"));
+            assertTrue(failures.get("BIG").getMessage().contains("at BOX"));
+            assertTrue(failures.get("NOSHIP").getMessage().contains("at SCHEDULE"));
+            // nothing to undo for OOS; BIG had its stock reserved; NOSHIP also had a label
+            assertEquals(Set.of("BIG", "NOSHIP"), inventory.released);
+            assertEquals(Set.of("T-NOSHIP"), carrier.cancelled);
+            assertEquals(Set.of("T-A"), carrier.scheduled);
+
+            PackingException shortage = assertThrows(PackingException.class, () -> service.pack(order("OOS", 1)));
+            assertTrue(shortage.getCause() instanceof OutOfStockException);
+        }
+    }
+
+    @Test
+    void interruptedCallerCancelsAndCompensatesItsOrders() throws Exception {
+        Inventory inventory = new Inventory();
+        CountDownLatch carrierUp = new CountDownLatch(1);
+        Carrier carrier = new Carrier(0, carrierUp);
+        Map<Stage, Integer> limits = PipelinedPackingService.defaultConcurrencyLimits();
+        limits.put(Stage.LABEL, 2);
+        PipelinedPackingService service = service(inventory, carrier, 16, limits);
+        AtomicBoolean allFailedAndStillInterrupted = new AtomicBoolean();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) orders.add(order("ORD-" + i, 1));
+        Thread caller = new Thread(() -> {
+            Map<String, PackingException> failures = service.packAll(orders);
+            allFailedAndStillInterrupted.set(failures.size() == 10 && Thread.currentThread().isInterrupted());
+        });
+        try {
+            caller.start();
+            while (carrier.concurrentLabels.get() < 2) Thread.sleep(5); // two orders stuck at the carrier
+            // and every order reserved, so each one has stock to release (not just those that got that far)
+            while (completed(service, Stage.RESERVE) < 10) Thread.sleep(5);
+            caller.interrupt();
+            caller.join(50);
+            assertTrue(caller.isAlive()); // packAll still waits for the two orders in flight...
+            carrierUp.countDown();        // ...which then are cancelled before SCHEDULE
+            caller.join(10_000);
+            assertFalse(caller.isAlive());
+
+            assertTrue(allFailedAndStillInterrupted.get());
+            assertEquals(10, inventory.released.size());
+            assertEquals(2, carrier.cancelled.size());
+            assertTrue(carrier.scheduled.isEmpty());
+        } finally {
+            carrierUp.countDown();
+            service.close();
+        }
+        PackingException closed = assertThrows(PackingException.class, () -> service.pack(order("LATE", 1)));
+        assertTrue(closed.getMessage().contains("closed"));
+    }
+
+    private static PipelinedPackingService service(Inventory inventory, Carrier carrier, int queueCapacity,
+                                                   Map<Stage, Integer> limits) {
+        BoxService boxes = new DimensionBasedBoxService(List.of(
+                new DimensionBasedBoxService.BoxDefinition("Small", 2),
+                new DimensionBasedBoxService.BoxDefinition("Large", 10)));
+        return new PipelinedPackingService(inventory, boxes, new CarrierApiShippingService(carrier),
+                queueCapacity, limits);
+    }
+
+    private static long completed(PipelinedPackingService service, Stage stage) {
+        return service.stageStats().stream().filter(s -> s.stage() == stage).findFirst().orElseThrow().completed();
+    }
+
+    private static Order order(String id, int items) {
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < items; i++) skus.add(id + "-" + i);
+        return new Order(id, skus);
+    }
+
+    /** Out of stock for ids starting with OOS; records releases. */
+    private static final class Inventory implements InventoryService {
+        final Set<String> released = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void reserve(Order order) throws OutOfStockException {
+            if (order.getId().startsWith("OOS")) throw new OutOfStockException(order.getId() + "-0");
+        }
+
+        @Override
+        public void release(Order order) {
+            released.add(order.getId());
+        }
+    }
+
+    /** Shipments take {@code latencyMillis} (and wait for {@code up} if given); NOSHIP orders cannot be scheduled. */
+    private static final class Carrier implements CarrierApiShippingService.CarrierApiClient {
+        final AtomicInteger concurrentLabels = new AtomicInteger();
+        final AtomicInteger maxConcurrentLabels = new AtomicInteger();
+        final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+        final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+        private final long latencyMillis;
+        private final CountDownLatch up;
+
+        Carrier(long latencyMillis, CountDownLatch up) {
+            this.latencyMillis = latencyMillis;
+            this.up = up;
+        }
+
+        @Override
+        public String createShipment(Order order, OrderBox box) throws Exception {
+            maxConcurrentLabels.accumulateAndGet(concurrentLabels.incrementAndGet(), Math::max);
+            try {
+                if (latencyMillis > 0) Thread.sleep(latencyMillis);
+                if (up != null) up.await();
+                return "T-" + order.getId();
+            } finally {
+                concurrentLabels.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void scheduleDelivery(String trackingNumber) {
+            if (trackingNumber.startsWith("T-NOSHIP")) throw new IllegalStateException("no pickup slot");
+            scheduled.add(trackingNumber);
+        }
+
+        @Override
+        public void cancelShipment(String trackingNumber) {
+            cancelled.add(trackingNumber);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.code.research.customhash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BPlusTreeMapTest {
+
+    @Test
+    void matchesTreeMapUnderRandomPutsAndRemoves() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        BPlusTreeMap<Integer, Integer> m = new BPlusTreeMap<>(null, BPlusTreeMap.MIN_ORDER); // many splits and merges
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = rnd.nextInt(2_000);
+            // phases that grow and then shrink the tree, so whole levels get added and collapsed
+            boolean grow = (i / 20_000) % 2 == 0;
+            if (rnd.nextInt(10) < (grow ? 7 : 3)) {
+                assertEquals(expected.put(key, i), m.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), m.remove(key));
+            }
+            if (i % 997 == 0) {
+                assertSameEntries(expected, m);
+                assertEquals(expected.headMap(key).size(), m.rank(key));
+            }
+        }
+        assertSameEntries(expected, m);
+        assertEquals(expected.get(123), m.get(123));
+    }
+
+    @Test
+    void subMapIsARangeView() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        BPlusTreeMap<Integer, String> m = new BPlusTreeMap<>(null, 8);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            int key = rnd.nextInt(20_000);
+            m.put(key, "v" + key);
+            expected.put(key, "v" + key);
+        }
+        for (int i = 0; i < 500; i++) {
+            int from = rnd.nextInt(-100, 20_100);
+            int to = from + rnd.nextInt(0, 3_000);
+            CustomSortedMap<Integer, String> sub = m.subMap(from, to);
+            NavigableMap<Integer, String> exp = expected.subMap(from, true, to, false);
+            assertEquals(exp.size(), sub.size());
+            assertSameEntries(exp, sub);
+            if (exp.isEmpty()) {
+                assertThrows(NoSuchElementException.class, sub::firstKey);
+                assertThrows(NoSuchElementException.class, sub::lastKey);
+            } else {
+                assertEquals(exp.firstKey(), sub.firstKey());
+                assertEquals(exp.lastKey(), sub.lastKey());
+            }
+        }
+
+        CustomSortedMap<Integer, String> sub = m.subMap(1_000, 2_000);
+        assertNull(sub.get(expected.firstKey() < 1_000 ? expected.firstKey() : 0));
+        assertThrows(IllegalArgumentException.class, () -> sub.put(2_000, "x"));
+        assertThrows(IllegalArgumentException.class, () -> sub.subMap(900, 1_500));
+        assertThrows(IllegalArgumentException.class, () -> m.subMap(2, 1));
+
+        sub.put(1_500, "new"); // writes through
+        assertEquals("new", m.get(1_500));
+        assertEquals(expected.subMap(1_000, 2_000).size() + (expected.containsKey(1_500) ? 0 : 1), sub.size());
+    }
+
+    @Test
+    void iteratorRemoveKeepsWalkingInOrder() {
+        BPlusTreeMap<Integer, Integer> m = new BPlusTreeMap<>(null, 4);
+        for (int i = 0; i < 1_000; i++) m.put(i, i);
+        Iterator<Map.Entry<Integer, Integer>> it = m.iterator();
+        int expectedKey = 0;
+        while (it.hasNext()) {
+            int key = it.next().getKey();
+            assertEquals(expectedKey++, key);
+            if (key % 3 != 0) it.remove();
+        }
+        assertEquals(1_000, expectedKey);
+        assertEquals(334, m.size());
+        int k = 0;
+        for (Map.Entry<Integer, Integer> e : m) {
+            assertEquals(k, e.getKey());
+            k += 3;
+        }
+
+        Iterator<Map.Entry<Integer, Integer>> stale = m.iterator();
+        m.put(-1, -1);
+        assertThrows(java.util.ConcurrentModificationException.class, stale::next);
+    }
+
+    @Test
+    void bulkLoadBuildsTheSameMap() {
+        for (int n : new int[]{0, 1, 63, 64, 65, 64 * 64 + 1, 100_000}) {
+            List<Map.Entry<Integer, Integer>> sorted = new ArrayList<>();
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                sorted.add(new AbstractMap.SimpleImmutableEntry<>(i * 2, i));
+                expected.put(i * 2, i);
+            }
+            BPlusTreeMap<Integer, Integer> m = BPlusTreeMap.fromSorted(sorted);
+            assertSameEntries(expected, m);
+            assertEquals((n + 1) / 2, m.rank(n));
+
+            // the bulk-loaded tree must keep working as a regular one
+            for (int i = 0; i < n; i += 2) {
+                assertEquals(expected.remove(i * 2), m.remove(i * 2));
+                assertEquals(expected.put(i * 2 + 1, -i), m.put(i * 2 + 1, -i));
+            }
+            assertSameEntries(expected, m);
+        }
+    }
+
+    @Test
+    void bulkLoadRejectsUnsortedInputAndHonoursComparator() {
+        List<Map.Entry<String, Integer>> unsorted = List.of(Map.entry("b", 1), Map.entry("a", 2));
+        assertThrows(IllegalArgumentException.class, () -> BPlusTreeMap.fromSorted(unsorted));
+        List<Map.Entry<String, Integer>> duplicate = List.of(Map.entry("a", 1), Map.entry("a", 2));
+        assertThrows(IllegalArgumentException.class, () -> BPlusTreeMap.fromSorted(duplicate));
+
+        BPlusTreeMap<String, Integer> reversed = BPlusTreeMap.fromSorted(unsorted, Comparator.reverseOrder());
+        assertEquals("b", reversed.firstKey());
+        assertEquals("a", reversed.lastKey());
+    }
+
+    @Test
+    void emptyMapAndNullKeys() {
+        BPlusTreeMap<String, String> m = new BPlusTreeMap<>();
+        assertThrows(NoSuchElementException.class, m::firstKey);
+        assertThrows(NoSuchElementException.class, m::lastKey);
+        assertFalse(m.iterator().hasNext());
+        assertThrows(NullPointerException.class, () -> m.put(null, "x"));
+        assertThrows(IllegalArgumentException.class, () -> new BPlusTreeMap<String, String>(null, 3));
+    }
+
+    private static <K, V> void assertSameEntries(Map<K, V> expected, Iterable<Map.Entry<K, V>> actual) {
+        List<Map.Entry<K, V>> entries = new ArrayList<>();
+        for (Map.Entry<K, V> e : actual) entries.add(e);
+        assertEquals(new ArrayList<>(expected.entrySet()), entries);
+    }
+
+    private static <K, V> void assertSameEntries(TreeMap<K, V> expected, BPlusTreeMap<K, V> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertSameEntries((Map<K, V>) expected, actual);
+        if (!expected.isEmpty()) {
+            assertEquals(expected.firstKey(), actual.firstKey());
+            assertEquals(expected.lastKey(), actual.lastKey());
+        }
+    }
+}
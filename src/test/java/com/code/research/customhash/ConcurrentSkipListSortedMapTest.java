@@ -0,0 +1,258 @@
+package com.code.research.customhash;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.code.research.util.ConcurrentTesting.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSkipListSortedMapTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void randomOperationsMatchTreeMap() {
+        SplittableRandom rnd = new SplittableRandom(5);
+        ConcurrentSkipListSortedMap<Integer, Integer> m = new ConcurrentSkipListSortedMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            Integer key = rnd.nextInt(i / 10 + 100);
+            switch (rnd.nextInt(6)) {
+                case 0, 1 -> assertEquals(expected.put(key, i), m.put(key, i));
+                case 2 -> assertEquals(expected.remove(key), m.remove(key));
+                case 3 -> assertEquals(expected.putIfAbsent(key, i), m.putIfAbsent(key, i));
+                case 4 -> assertEquals(expected.remove(key, i - 1), m.remove(key, i - 1));
+                default -> assertEquals(expected.get(key), m.get(key));
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        assertSameEntries(expected, m);
+        assertEquals(expected.firstKey(), m.firstKey());
+        assertEquals(expected.lastKey(), m.lastKey());
+
+        for (int i = 0; i < 300; i++) {
+            int from = rnd.nextInt(-10, expected.lastKey() + 10);
+            int to = from + rnd.nextInt(0, 500);
+            CustomSortedMap<Integer, Integer> sub = m.subMap(from, to);
+            NavigableMap<Integer, Integer> exp = expected.subMap(from, true, to, false);
+            assertEquals(exp.size(), sub.size());
+            assertSameEntries(exp, sub);
+            if (exp.isEmpty()) {
+                assertThrows(NoSuchElementException.class, sub::lastKey);
+            } else {
+                assertEquals(exp.firstKey(), sub.firstKey());
+                assertEquals(exp.lastKey(), sub.lastKey());
+            }
+        }
+    }
+
+    @Test
+    void rejectsNullsAndReportsEmpty() {
+        ConcurrentSkipListSortedMap<String, String> m = new ConcurrentSkipListSortedMap<>();
+
+        assertTrue(m.isEmpty());
+        assertThrows(NoSuchElementException.class, m::firstKey);
+        assertThrows(NoSuchElementException.class, m::lastKey);
+        assertThrows(NullPointerException.class, () -> m.put(null, "v"));
+        assertThrows(NullPointerException.class, () -> m.put("k", null));
+        assertThrows(NullPointerException.class, () -> m.get(null));
+        assertThrows(IllegalArgumentException.class, () -> m.subMap("b", "a"));
+    }
+
+    @Test
+    void concurrentPutsAndRemovesKeepTheListSorted() throws Exception {
+        int perThread = 20_000;
+        ConcurrentSkipListSortedMap<Integer, Integer> m = new ConcurrentSkipListSortedMap<>();
+
+        runConcurrently(THREADS, t -> {
+            for (int i = 0; i < perThread; i++) m.put(i * THREADS + t, t); // interleaved: neighbours race
+        });
+        assertEquals(THREADS * perThread, m.size());
+        assertAscending(m, THREADS * perThread);
+
+        runConcurrently(THREADS, t -> {
+            for (int i = 0; i < perThread; i++) {
+                int key = i * THREADS + t;
+                if (key % 2 == 0) assertEquals(t, m.remove(key));
+            }
+        });
+        assertEquals(THREADS * perThread / 2, m.size());
+        assertAscending(m, THREADS * perThread / 2);
+        for (int k = 0; k < THREADS * perThread; k++) assertEquals(k % 2 == 0 ? null : k % THREADS, m.get(k));
+    }
+
+    @Test
+    void putIfAbsentAndRemoveHaveOneWinnerPerKey() throws Exception {
+        int keys = 20_000;
+        ConcurrentSkipListSortedMap<Integer, Integer> m = new ConcurrentSkipListSortedMap<>();
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+
+        runConcurrently(THREADS, t -> {
+            for (int k = 0; k < keys; k++) {
+                if (m.putIfAbsent(k, t) == null) inserted.incrementAndGet();
+            }
+        });
+        assertEquals(keys, inserted.get());
+
+        runConcurrently(THREADS, t -> {
+            for (int k = 0; k < keys; k++) {
+                if (m.remove(k) != null) removed.incrementAndGet();
+            }
+        });
+        assertEquals(keys, removed.get());
+        assertEquals(0, m.size());
+        assertTrue(m.isEmpty());
+    }
+
+    /**
+     * Runs many short histories of put/remove/get on 2 keys from 3 threads, records each operation's start, end and
+     * result, and checks that some sequential order consistent with real time explains every result.
+     */
+    @Test
+    void shortHistoriesAreLinearizable() throws Exception {
+        int threads = 3, opsPerThread = 4, rounds = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                ConcurrentSkipListSortedMap<Integer, Integer> m = new ConcurrentSkipListSortedMap<>();
+                m.put(0, -1);
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Future<List<Op>>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    SplittableRandom rnd = new SplittableRandom(round * 31L + t);
+                    int thread = t;
+                    futures.add(pool.submit(() -> {
+                        List<Op> ops = new ArrayList<>();
+                        start.await();
+                        for (int i = 0; i < opsPerThread; i++) {
+                            int kind = rnd.nextInt(3), key = rnd.nextInt(2), value = thread * 100 + i;
+                            long begin = System.nanoTime();
+                            Integer result = switch (kind) {
+                                case 0 -> m.put(key, value);
+                                case 1 -> m.remove(key);
+                                default -> m.get(key);
+                            };
+                            ops.add(new Op(kind, key, value, result, begin, System.nanoTime()));
+                        }
+                        return ops;
+                    }));
+                }
+                List<Op> history = new ArrayList<>();
+                for (Future<List<Op>> f : futures) history.addAll(f.get(10, TimeUnit.SECONDS));
+
+                Map<Integer, Integer> initial = new HashMap<>(Map.of(0, -1));
+                assertTrue(linearizable(history, new boolean[history.size()], initial), "not linearizable: " + history);
+                Map<Integer, Integer> actual = new HashMap<>();
+                for (Map.Entry<Integer, Integer> e : m) actual.put(e.getKey(), e.getValue());
+                assertEquals(actual.size(), m.size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void iteratorsSeeStableKeysDuringChurn() throws Exception {
+        int stable = 2_000;
+        ConcurrentSkipListSortedMap<Integer, Integer> m = new ConcurrentSkipListSortedMap<>();
+        for (int k = 0; k < stable; k++) m.put(k * 2, k);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        runConcurrently(THREADS, t -> {
+            if (t < THREADS / 2) { // writers churn the odd keys between the stable ones
+                SplittableRandom rnd = new SplittableRandom(t);
+                for (int i = 0; i < 200_000; i++) {
+                    int key = rnd.nextInt(stable) * 2 + 1;
+                    if (rnd.nextBoolean()) m.put(key, i);
+                    else m.remove(key);
+                }
+                writing.set(false);
+            } else {
+                while (writing.get()) {
+                    int from = 100 * t, to = from + 1_000;
+                    int previous = Integer.MIN_VALUE, evens = 0;
+                    for (Map.Entry<Integer, Integer> e : m.subMap(from, to)) {
+                        int key = e.getKey();
+                        assertTrue(key > previous, "not ascending: " + previous + ", " + key);
+                        assertTrue(key >= from && key < to);
+                        if (key % 2 == 0) evens++;
+                        previous = key;
+                    }
+                    assertEquals((to - from) / 2, evens);
+                    assertEquals(0, m.firstKey());
+                }
+            }
+        });
+
+        int n = 0;
+        for (Map.Entry<Integer, Integer> ignored : m) n++;
+        assertEquals(n, m.size());
+    }
+
+    private record Op(int kind, int key, int value, Integer result, long begin, long end) {
+    }
+
+    /**
+     * Wing-Gong search: try every pending operation that no other pending one finished before, apply it to a
+     * sequential model, recurse if the recorded result matches, and undo.
+     */
+    private static boolean linearizable(List<Op> history, boolean[] done, Map<Integer, Integer> model) {
+        long firstEnd = Long.MAX_VALUE;
+        boolean any = false;
+        for (int i = 0; i < history.size(); i++) {
+            if (!done[i]) {
+                firstEnd = Math.min(firstEnd, history.get(i).end());
+                any = true;
+            }
+        }
+        if (!any) return true;
+        for (int i = 0; i < history.size(); i++) {
+            Op op = history.get(i);
+            if (done[i] || op.begin() > firstEnd) continue; // something else completed before this one started
+            Integer before = model.get(op.key());
+            if (!Objects.equals(before, op.result())) continue;
+            if (op.kind() == 0) model.put(op.key(), op.value());
+            else if (op.kind() == 1) model.remove(op.key());
+            done[i] = true;
+            boolean ok = linearizable(history, done, model);
+            done[i] = false;
+            if (before == null) model.remove(op.key());
+            else model.put(op.key(), before);
+            if (ok) return true;
+        }
+        return false;
+    }
+
+    private static <K, V> void assertSameEntries(Map<K, V> expected, Iterable<Map.Entry<K, V>> actual) {
+        List<Map.Entry<K, V>> entries = new ArrayList<>();
+        for (Map.Entry<K, V> e : actual) entries.add(e);
+        assertEquals(new ArrayList<>(expected.entrySet()), entries);
+    }
+
+    private static void assertAscending(ConcurrentSkipListSortedMap<Integer, ?> m, int expectedCount) {
+        int previous = Integer.MIN_VALUE, n = 0;
+        for (Map.Entry<Integer, ?> e : m) {
+            assertTrue(e.getKey() > previous);
+            previous = e.getKey();
+            n++;
+        }
+        assertEquals(expectedCount, n);
+    }
+}
@@ -0,0 +1,110 @@
+package com.code.research.customhash.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveHashMapsTest {
+
+    private static final int OPS = 200_000;
+
+    @Test
+    void intIntMapMatchesHashMap() {
+        SplittableRandom rnd = new SplittableRandom(1);
+        IntIntHashMap m = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < OPS; i++) {
+            int key = rnd.nextInt(-500, i / 10 + 500); // includes 0 and negatives
+            switch (rnd.nextInt(5)) {
+                case 0 -> assertEquals(nullToZero(expected.put(key, i)), m.put(key, i));
+                case 1 -> assertEquals(nullToZero(expected.remove(key)), m.remove(key));
+                case 2 -> assertEquals(expected.merge(key, 3, Integer::sum), m.addTo(key, 3));
+                default -> {
+                    assertEquals(expected.getOrDefault(key, -1), m.getOrDefault(key, -1));
+                    assertEquals(expected.containsKey(key), m.containsKey(key));
+                }
+            }
+        }
+        Map<Integer, Integer> actual = new HashMap<>();
+        m.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), m.size());
+        assertEquals(expected.size(), m.keys().length);
+    }
+
+    @Test
+    void intLongMapCountsPastIntRange() {
+        IntLongHashMap m = new IntLongHashMap();
+        m.addTo(7, Integer.MAX_VALUE);
+        m.addTo(7, Integer.MAX_VALUE);
+        m.addTo(0, 5L);
+
+        assertEquals(2L * Integer.MAX_VALUE, m.get(7));
+        assertEquals(5L, m.get(0));
+        assertEquals(0L, m.get(8));
+        assertEquals(2, m.size());
+        assertEquals(5L, m.remove(0));
+        assertFalse(m.containsKey(0));
+    }
+
+    @Test
+    void longObjectMapMatchesHashMap() {
+        SplittableRandom rnd = new SplittableRandom(2);
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < OPS; i++) {
+            long key = rnd.nextLong(-300, i / 10 + 300) << 32; // low bits all 0: the mixer must spread high bits
+            String value = "v" + i;
+            switch (rnd.nextInt(4)) {
+                case 0 -> assertEquals(expected.put(key, value), m.put(key, value));
+                case 1 -> assertEquals(expected.remove(key), m.remove(key));
+                case 2 -> assertEquals(expected.computeIfAbsent(key, k -> value), m.computeIfAbsent(key, k -> value));
+                default -> assertEquals(expected.get(key), m.get(key));
+            }
+        }
+        Map<Long, String> actual = new HashMap<>();
+        m.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), m.size());
+    }
+
+    @Test
+    void intSetMatchesHashSet() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        IntHashSet s = new IntHashSet(0);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < OPS; i++) {
+            int key = rnd.nextInt(-100, i / 10 + 100) * 1024; // strided keys
+            switch (rnd.nextInt(3)) {
+                case 0 -> assertEquals(expected.add(key), s.add(key));
+                case 1 -> assertEquals(expected.remove(key), s.remove(key));
+                default -> assertEquals(expected.contains(key), s.contains(key));
+            }
+        }
+        Set<Integer> actual = new HashSet<>();
+        s.forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), s.toArray().length);
+    }
+
+    @Test
+    void clearEmptiesEverything() {
+        IntIntHashMap m = new IntIntHashMap();
+        for (int i = -10; i < 1000; i++) m.put(i, i);
+        m.clear();
+
+        assertTrue(m.isEmpty());
+        assertFalse(m.containsKey(0));
+        assertEquals(0, m.get(5));
+    }
+
+    private static int nullToZero(Integer v) {
+        return v == null ? 0 : v;
+    }
+}
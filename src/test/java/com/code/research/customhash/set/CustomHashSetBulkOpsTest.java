@@ -0,0 +1,126 @@
+package com.code.research.customhash.set;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomHashSetBulkOpsTest {
+
+    @Test
+    void bulkOperationsMatchHashSet() {
+        SplittableRandom rnd = new SplittableRandom(11);
+        for (int round = 0; round < 200; round++) {
+            // sizes on both sides of each other, so both the "walk this" and the "walk other" paths run
+            Set<Integer> a = randomSet(rnd, rnd.nextInt(0, 3_000));
+            Set<Integer> b = randomSet(rnd, rnd.nextInt(0, 3_000));
+            boolean incremental = rnd.nextBoolean();
+
+            assertEquals(a.containsAll(b), customOf(a, incremental).containsAll(customOf(b, false)));
+
+            Set<Integer> expected = new HashSet<>(a);
+            CustomHashSet<Integer> s = customOf(a, incremental);
+            assertEquals(expected.addAll(b), s.addAll(customOf(b, false)));
+            assertEquals(expected, s);
+
+            expected = new HashSet<>(a);
+            s = customOf(a, incremental);
+            assertEquals(expected.removeAll(b), s.removeAll(customOf(b, false)));
+            assertEquals(expected, s);
+
+            expected = new HashSet<>(a);
+            s = customOf(a, incremental);
+            assertEquals(expected.retainAll(b), s.retainAll(customOf(b, false)));
+            assertEquals(expected, s);
+            s.add(-1); // still a working set afterwards
+            assertTrue(s.contains(-1));
+        }
+    }
+
+    @Test
+    void setAlgebraLeavesOperandsUnchanged() {
+        SplittableRandom rnd = new SplittableRandom(12);
+        Set<Integer> a = randomSet(rnd, 5_000);
+        Set<Integer> b = randomSet(rnd, 500);
+        a.add(null);
+        b.add(null);
+        CustomHashSet<Integer> ca = customOf(a, true);
+        CustomHashSet<Integer> cb = customOf(b, false);
+
+        Set<Integer> union = new HashSet<>(a);
+        union.addAll(b);
+        Set<Integer> intersection = new HashSet<>(a);
+        intersection.retainAll(b);
+        Set<Integer> difference = new HashSet<>(a);
+        difference.removeAll(b);
+
+        assertEquals(union, CustomHashSet.union(ca, cb));
+        assertEquals(intersection, CustomHashSet.intersection(ca, cb));
+        assertEquals(intersection, CustomHashSet.intersection(cb, ca));
+        assertEquals(difference, CustomHashSet.difference(ca, cb));
+        assertEquals(a, ca);
+        assertEquals(b, cb);
+    }
+
+    @Test
+    void operandsAreNotRehashed() {
+        List<CountingKey> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) keys.add(new CountingKey(i));
+        CustomHashSet<CountingKey> a = new CustomHashSet<>(keys.subList(0, 6_000));
+        CustomHashSet<CountingKey> b = new CustomHashSet<>(keys.subList(4_000, 10_000));
+        CountingKey.calls = 0;
+
+        CustomHashSet<CountingKey> union = CustomHashSet.union(a, b);
+        CustomHashSet<CountingKey> both = CustomHashSet.intersection(a, b);
+        assertFalse(a.containsAll(b));
+        CustomHashSet<CountingKey> copy = a.clone();
+        copy.retainAll(b);
+        a.removeAll(b);
+
+        assertEquals(0, CountingKey.calls);
+        assertEquals(10_000, union.size());
+        assertEquals(2_000, both.size());
+        assertEquals(both, copy);
+        assertEquals(4_000, a.size());
+    }
+
+    @Test
+    void bulkOperationsWithItself() {
+        CustomHashSet<Integer> s = new CustomHashSet<>(List.of(1, 2, 3));
+
+        assertFalse(s.addAll(s));
+        assertTrue(s.containsAll(s));
+        assertFalse(s.retainAll(s));
+        assertEquals(3, s.size());
+        assertTrue(s.removeAll(s));
+        assertTrue(s.isEmpty());
+    }
+
+    private static Set<Integer> randomSet(SplittableRandom rnd, int size) {
+        Set<Integer> set = new HashSet<>();
+        while (set.size() < size) set.add(rnd.nextInt(size * 2 + 1));
+        return set;
+    }
+
+    /** Small initial capacity in incremental mode, so adds leave the table mid-migration. */
+    private static CustomHashSet<Integer> customOf(Set<Integer> elements, boolean incremental) {
+        CustomHashSet<Integer> s = new CustomHashSet<>(16, 0.75f, incremental);
+        for (Integer e : elements) s.add(e);
+        return s;
+    }
+
+    private record CountingKey(int id) {
+        static int calls;
+
+        @Override
+        public int hashCode() {
+            calls++;
+            return Integer.hashCode(id);
+        }
+    }
+}
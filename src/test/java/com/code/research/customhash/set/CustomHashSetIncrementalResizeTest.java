@@ -0,0 +1,49 @@
+package com.code.research.customhash.set;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomHashSetIncrementalResizeTest {
+
+    @Test
+    void randomOperationsMatchHashSet() {
+        SplittableRandom rnd = new SplittableRandom(9);
+        CustomHashSet<Integer> s = new CustomHashSet<>(16, 0.75f, true);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 300_000; i++) {
+            int key = rnd.nextInt(i / 10 + 100);
+            int op = rnd.nextInt(10);
+            if (op < 6) {
+                assertEquals(expected.add(key), s.add(key));
+            } else if (op < 8) {
+                assertEquals(expected.remove(key), s.remove(key));
+            } else {
+                assertEquals(expected.contains(key), s.contains(key));
+            }
+        }
+        assertEquals(expected, s);
+        assertEquals(s, expected);
+    }
+
+    @Test
+    void iteratorRemoveDuringMigration() {
+        CustomHashSet<Integer> s = new CustomHashSet<>(1024, 0.75f, true);
+        for (int i = 0; i <= 768; i++) s.add(i);
+
+        Set<Integer> seen = new HashSet<>();
+        for (Iterator<Integer> it = s.iterator(); it.hasNext(); ) {
+            Integer k = it.next();
+            assertTrue(seen.add(k), "returned twice: " + k);
+            if (k % 3 == 0) it.remove();
+        }
+
+        assertEquals(769, seen.size());
+        for (int i = 0; i <= 768; i++) assertEquals(i % 3 != 0, s.contains(i));
+    }
+}
@@ -0,0 +1,147 @@
+package com.code.research.customhash.setmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.code.research.util.ConcurrentTesting.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCustomHashMapTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        ConcurrentCustomHashMap<Integer, Integer> m = new ConcurrentCustomHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            Integer key = rnd.nextInt(i / 10 + 100);
+            switch (rnd.nextInt(6)) {
+                case 0, 1 -> assertEquals(expected.put(key, i), m.put(key, i));
+                case 2 -> assertEquals(expected.remove(key), m.remove(key));
+                case 3 -> assertEquals(expected.merge(key, 1, Integer::sum), m.merge(key, 1, Integer::sum));
+                case 4 -> assertEquals(expected.putIfAbsent(key, i), m.putIfAbsent(key, i));
+                default -> assertEquals(expected.get(key), m.get(key));
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        assertEquals(expected, m);
+        assertEquals(m, expected);
+    }
+
+    @Test
+    void rejectsNullKeysAndValues() {
+        ConcurrentCustomHashMap<String, String> m = new ConcurrentCustomHashMap<>();
+
+        assertThrows(NullPointerException.class, () -> m.put(null, "v"));
+        assertThrows(NullPointerException.class, () -> m.put("k", null));
+        assertThrows(NullPointerException.class, () -> m.get(null));
+    }
+
+    @Test
+    void mergeReturningNullRemoves() {
+        ConcurrentCustomHashMap<String, Integer> m = new ConcurrentCustomHashMap<>();
+        m.put("a", 1);
+
+        assertNull(m.merge("a", 1, (x, y) -> null));
+        assertFalse(m.containsKey("a"));
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    void computeIfAbsentRejectsRecursiveUpdateOfTheSameBin() {
+        ConcurrentCustomHashMap<Integer, Integer> m = new ConcurrentCustomHashMap<>();
+
+        assertThrows(IllegalStateException.class, () -> m.computeIfAbsent(1, k -> m.put(k, 2)));
+        assertNull(m.get(1));
+    }
+
+    @Test
+    void concurrentPutsSurviveResizes() throws Exception {
+        int perThread = 50_000;
+        ConcurrentCustomHashMap<Integer, Integer> m = new ConcurrentCustomHashMap<>(); // grows 16 -> 1M
+
+        runConcurrently(THREADS, t -> {
+            for (int i = 0; i < perThread; i++) m.put(t * perThread + i, t);
+        });
+
+        assertEquals(THREADS * perThread, m.size());
+        for (int k = 0; k < THREADS * perThread; k++) assertEquals(k / perThread, m.get(k));
+        assertEquals(THREADS * perThread, m.entrySet().stream().count());
+    }
+
+    @Test
+    void mergeIsAtomicPerKey() throws Exception {
+        int keys = 1_000, rounds = 50;
+        ConcurrentCustomHashMap<Integer, Integer> m = new ConcurrentCustomHashMap<>();
+
+        runConcurrently(THREADS, t -> {
+            for (int r = 0; r < rounds; r++) {
+                for (int k = 0; k < keys; k++) m.merge(k, 1, Integer::sum);
+            }
+        });
+
+        assertEquals(keys, m.size());
+        for (int k = 0; k < keys; k++) assertEquals(THREADS * rounds, m.get(k));
+    }
+
+    @Test
+    void computeIfAbsentRunsFunctionOncePerKey() throws Exception {
+        int keys = 20_000;
+        AtomicInteger calls = new AtomicInteger();
+        ConcurrentCustomHashMap<Integer, Integer> m = new ConcurrentCustomHashMap<>();
+
+        runConcurrently(THREADS, t -> {
+            for (int k = 0; k < keys; k++) {
+                int key = (k + t * 997) % keys; // threads start at different keys and race through all of them
+                assertEquals(-key, m.computeIfAbsent(key, x -> {
+                    calls.incrementAndGet();
+                    return -x;
+                }));
+            }
+        });
+
+        assertEquals(keys, calls.get());
+        assertEquals(keys, m.size());
+    }
+
+    @Test
+    void readersAndIteratorsSeeStableKeysDuringResize() throws Exception {
+        int stable = 1_000, added = 100_000;
+        ConcurrentCustomHashMap<Integer, Integer> m = new ConcurrentCustomHashMap<>();
+        for (int k = 0; k < stable; k++) m.put(-k - 1, k);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        runConcurrently(THREADS, t -> {
+            if (t < THREADS / 2) { // writers grow the table many times
+                for (int i = t; i < added; i += THREADS / 2) m.put(i, i);
+                writing.set(false);
+            } else if (t % 2 == 0) {
+                while (writing.get()) {
+                    for (int k = 0; k < stable; k++) assertEquals(k, m.get(-k - 1));
+                }
+            } else {
+                while (writing.get()) {
+                    Set<Integer> seen = new HashSet<>();
+                    for (Map.Entry<Integer, Integer> e : m.entrySet()) {
+                        assertTrue(seen.add(e.getKey()), "returned twice: " + e.getKey());
+                    }
+                    for (int k = 0; k < stable; k++) assertTrue(seen.contains(-k - 1));
+                }
+            }
+        });
+
+        assertEquals(stable + added, m.size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.code.research.customhash.setmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomHashMapIncrementalResizeTest {
+
+    @Test
+    void lookupsSeeBothTablesWhileMigrating() {
+        CustomHashMap<Integer, Integer> m = new CustomHashMap<>(1024, 0.75f, true);
+        for (int i = 0; i <= 768; i++) m.put(i, i); // 769th put crosses the threshold
+
+        assertTrue(m.isResizing());
+        assertEquals(2048, m.capacity());
+        for (int i = 0; i <= 768; i++) assertEquals(i, m.get(i));
+        assertEquals(769, m.size());
+
+        for (int i = 769; i < 1000; i++) m.put(i, i);
+        assertFalse(m.isResizing()); // 8 buckets per op: 1024 old buckets are gone after 128 writes
+        for (int i = 0; i < 1000; i++) assertEquals(i, m.get(i));
+    }
+
+    @Test
+    void migrationFinishesBeforeTheNextResizeAtLowLoadFactors() {
+        // at 0.1 the next resize is only 0.1 * oldCapacity puts away, fewer than the oldCapacity / 8 a fixed step needs
+        CustomHashMap<Integer, Integer> m = new CustomHashMap<>(16, 0.1f, true);
+        assertEquals(20, CustomHashMap.migrateBucketsPerOp(0.1f));
+        for (int i = 0; i < 50_000; i++) {
+            int capacity = m.capacity();
+            boolean wasResizing = m.isResizing();
+            m.put(i, i);
+            if (m.capacity() > capacity) assertFalse(wasResizing, "resize " + capacity + " still migrating");
+        }
+        for (int i = 0; i < 50_000; i++) assertEquals(i, m.get(i));
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        SplittableRandom rnd = new SplittableRandom(5);
+        CustomHashMap<Object, Integer> m = new CustomHashMap<>(16, 0.75f, true);
+        Map<Object, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 300_000; i++) {
+            // colliding keys as well, so tree bins get migrated too
+            Object key = rnd.nextInt(8) == 0 ? new CustomHashMapTreeifyTest.ComparableKey(rnd.nextInt(50))
+                    : (Object) rnd.nextInt(i / 10 + 100);
+            int op = rnd.nextInt(10);
+            if (op < 6) {
+                assertEquals(expected.put(key, i), m.put(key, i));
+            } else if (op < 8) {
+                assertEquals(expected.remove(key), m.remove(key));
+            } else {
+                assertEquals(expected.get(key), m.get(key));
+            }
+        }
+        assertEquals(expected, m);
+        assertEquals(m, expected);
+    }
+
+    @Test
+    void iteratorCoversBothTablesAndRemoveDoesNotMigrate() {
+        CustomHashMap<Integer, Integer> m = new CustomHashMap<>(1024, 0.75f, true);
+        for (int i = 0; i <= 768; i++) m.put(i, i);
+        assertTrue(m.isResizing());
+
+        Set<Integer> seen = new HashSet<>();
+        for (Iterator<Integer> it = m.keySet().iterator(); it.hasNext(); ) {
+            Integer k = it.next();
+            assertTrue(seen.add(k), "returned twice: " + k);
+            if (k % 2 == 0) it.remove();
+        }
+
+        assertEquals(769, seen.size());
+        assertEquals(384, m.size());
+        assertTrue(m.isResizing());
+        for (int i = 0; i <= 768; i++) assertEquals(i % 2 == 0 ? null : i, m.get(i));
+    }
+}
@@ -0,0 +1,178 @@
+package com.code.research.customhash.setmap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomHashMapSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEntriesNullsAndLoadFactor() throws IOException {
+        CustomHashMap<String, String> m = new CustomHashMap<>(16, 0.5f);
+        for (int i = 0; i < 10_000; i++) m.put("k" + i, "значение-" + i);
+        m.put(null, "null key");
+        m.put("null value", null);
+        Path file = dir.resolve("map.snap");
+
+        long bytes = CustomHashMapSnapshot.write(m, file, SnapshotCodec.utf8(), SnapshotCodec.utf8());
+        CustomHashMap<String, String> restored = CustomHashMapSnapshot.read(file, SnapshotCodec.utf8(), SnapshotCodec.utf8());
+
+        assertEquals(Files.size(file), bytes);
+        assertFalse(Files.exists(dir.resolve("map.snap.tmp")));
+        assertEquals(m, restored);
+        assertEquals(0.5f, restored.loadFactor());
+        assertEquals(m.capacity(), restored.capacity()); // sized once from the header, no growth while loading
+    }
+
+    @Test
+    void failedWriteKeepsThePreviousSnapshotAndDeletesTheTempFile() throws IOException {
+        CustomHashMap<String, String> m = new CustomHashMap<>();
+        m.put("a", "A");
+        Path file = dir.resolve("map.snap");
+        CustomHashMapSnapshot.write(m, file, SnapshotCodec.utf8(), SnapshotCodec.utf8());
+        byte[] previous = Files.readAllBytes(file);
+        SnapshotCodec<String> failing = new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(String value) {
+                throw new IllegalStateException("cannot encode " + value);
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> CustomHashMapSnapshot.write(m, file, SnapshotCodec.utf8(), failing));
+
+        assertEquals("cannot encode A", e.getMessage());
+        assertFalse(Files.exists(dir.resolve("map.snap.tmp")));
+        assertArrayEquals(previous, Files.readAllBytes(file));
+    }
+
+    @Test
+    void recordsLargerThanTheWriteBuffer() throws IOException {
+        CustomHashMap<Integer, byte[]> m = new CustomHashMap<>();
+        byte[] big = new byte[200_000];
+        Arrays.fill(big, (byte) 7);
+        m.put(1, big);
+        m.put(2, new byte[0]);
+        Path file = dir.resolve("big.snap");
+
+        CustomHashMapSnapshot.write(m, file, SnapshotCodec.int32(), SnapshotCodec.byteArray());
+        CustomHashMap<Integer, byte[]> restored = CustomHashMapSnapshot.read(file, SnapshotCodec.int32(), SnapshotCodec.byteArray());
+
+        assertArrayEquals(big, restored.get(1));
+        assertArrayEquals(new byte[0], restored.get(2));
+    }
+
+    @Test
+    void lazyRestoreDecodesValuesOnFirstAccessOnly() throws IOException {
+        CustomHashMap<Long, String> m = new CustomHashMap<>();
+        for (long i = 0; i < 1_000; i++) m.put(i, "v" + i);
+        Path file = dir.resolve("lazy.snap");
+        CustomHashMapSnapshot.write(m, file, SnapshotCodec.int64(), SnapshotCodec.utf8());
+        AtomicInteger decoded = new AtomicInteger();
+        SnapshotCodec<String> counting = new SnapshotCodec<>() {
+            @Override
+            public byte[] encode(String value) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+                decoded.incrementAndGet();
+                return SnapshotCodec.utf8().decode(bytes);
+            }
+        };
+
+        Map<Long, String> lazy = CustomHashMapSnapshot.readLazy(file, SnapshotCodec.int64(), counting);
+
+        assertEquals(1_000, lazy.size());
+        assertTrue(lazy.containsKey(999L));
+        assertEquals(0, decoded.get());
+        assertEquals("v5", lazy.get(5L));
+        assertEquals("v5", lazy.get(5L));
+        assertEquals(1, decoded.get());
+        assertEquals("v6", lazy.put(6L, "new"));
+        assertEquals("v7", lazy.remove(7L));
+
+        Map<Long, String> expected = new HashMap<>(m);
+        expected.put(6L, "new");
+        expected.remove(7L);
+        assertEquals(expected, lazy);
+        assertEquals(3 + 997, decoded.get()); // 5, 6 and 7 once each, then the 997 values still pending
+    }
+
+    @Test
+    void javaSerializationWritesEntriesNotNodes() throws Exception {
+        CustomHashMap<Integer, String> m = new CustomHashMap<>(16, 0.75f, true);
+        m.put(null, null);
+        for (int i = 0; i < 12; i++) m.put(i, "v" + i); // 13th entry crosses the threshold: serialized mid-migration
+        assertTrue(m.isResizing());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(m);
+        }
+        Object copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = in.readObject();
+        }
+
+        assertEquals(m, copy);
+        assertEquals(m.capacity(), ((CustomHashMap<?, ?>) copy).capacity());
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = dir.resolve("foreign.snap");
+        Files.write(foreign, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertThrows(IOException.class, () -> CustomHashMapSnapshot.read(foreign, SnapshotCodec.utf8(), SnapshotCodec.utf8()));
+
+        CustomHashMap<String, String> m = new CustomHashMap<>();
+        m.put("a", "alpha");
+        Path file = dir.resolve("ok.snap");
+        CustomHashMapSnapshot.write(m, file, SnapshotCodec.utf8(), SnapshotCodec.utf8());
+        byte[] all = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.snap");
+        Files.write(truncated, Arrays.copyOf(all, all.length - 2));
+
+        assertThrows(IOException.class, () -> CustomHashMapSnapshot.read(truncated, SnapshotCodec.utf8(), SnapshotCodec.utf8()));
+    }
+
+    @Test
+    void rejectsEntryCountLargerThanTheFileCanHold() throws IOException {
+        CustomHashMap<String, String> m = new CustomHashMap<>();
+        m.put("a", "alpha");
+        Path file = dir.resolve("count.snap");
+        CustomHashMapSnapshot.write(m, file, SnapshotCodec.utf8(), SnapshotCodec.utf8());
+        byte[] all = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(all).putInt(CustomHashMapSnapshot.HEADER_BYTES - Integer.BYTES, Integer.MAX_VALUE);
+        Path huge = dir.resolve("huge-count.snap");
+        Files.write(huge, all);
+        IOException e = assertThrows(IOException.class,
+                () -> CustomHashMapSnapshot.read(huge, SnapshotCodec.utf8(), SnapshotCodec.utf8()));
+        assertTrue(e.getMessage().contains("entry count"), e.getMessage());
+        assertThrows(IOException.class, () -> CustomHashMapSnapshot.readLazy(huge, SnapshotCodec.utf8(), SnapshotCodec.utf8()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.code.research.customhash.setmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomHashMapTreeifyTest {
+
+    /** Same hashCode for every instance, ordered by id. */
+    record ComparableKey(int id) implements Comparable<ComparableKey> {
+        @Override public int hashCode() { return 42; }
+        @Override public int compareTo(ComparableKey o) { return Integer.compare(id, o.id); }
+    }
+
+    /** Same hashCode for every instance, no ordering at all. */
+    record PlainKey(int id) {
+        @Override public int hashCode() { return 42; }
+    }
+
+    @Test
+    void longChainBecomesTreeAndShrinksBack() {
+        CustomHashMap<ComparableKey, Integer> m = new CustomHashMap<>(64);
+        for (int i = 0; i < 7; i++) m.put(new ComparableKey(i), i);
+        assertFalse(m.isTreeBin(new ComparableKey(0)));
+
+        m.put(new ComparableKey(7), 7);
+        assertTrue(m.isTreeBin(new ComparableKey(0)));
+        for (int i = 0; i < 8; i++) assertEquals(i, m.get(new ComparableKey(i)));
+
+        m.remove(new ComparableKey(0));
+        m.remove(new ComparableKey(1));
+        assertFalse(m.isTreeBin(new ComparableKey(2)));
+        assertEquals(6, m.size());
+        for (int i = 2; i < 8; i++) assertEquals(i, m.get(new ComparableKey(i)));
+    }
+
+    @Test
+    void smallTableResizesInsteadOfTreeifying() {
+        CustomHashMap<ComparableKey, Integer> m = new CustomHashMap<>(16);
+        for (int i = 0; i < 8; i++) m.put(new ComparableKey(i), i);
+        assertEquals(32, m.capacity());
+        assertFalse(m.isTreeBin(new ComparableKey(0)));
+    }
+
+    @Test
+    void treeSurvivesResizeAndServesThousandsOfCollidingKeys() {
+        CustomHashMap<ComparableKey, Integer> m = new CustomHashMap<>();
+        for (int i = 0; i < 5_000; i++) m.put(new ComparableKey(i), i);
+
+        assertTrue(m.isTreeBin(new ComparableKey(0)));
+        for (int i = 0; i < 5_000; i++) assertEquals(i, m.get(new ComparableKey(i)));
+        assertNull(m.get(new ComparableKey(-1)));
+        assertEquals(5_000, m.keySet().size());
+    }
+
+    @Test
+    void mixedCollidingKeysMatchHashMap() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        CustomHashMap<Object, Integer> m = new CustomHashMap<>();
+        Map<Object, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            Object key = switch (rnd.nextInt(4)) {
+                case 0 -> new ComparableKey(rnd.nextInt(300));
+                case 1 -> new PlainKey(rnd.nextInt(100));
+                case 2 -> "s" + rnd.nextInt(300);
+                default -> rnd.nextInt(300);
+            };
+            int op = rnd.nextInt(10);
+            if (op < 5) {
+                assertEquals(expected.put(key, i), m.put(key, i));
+            } else if (op < 8) {
+                assertEquals(expected.remove(key), m.remove(key));
+            } else {
+                assertEquals(expected.get(key), m.get(key));
+            }
+        }
+        assertEquals(expected, m);
+    }
+
+    @Test
+    void iteratorRemoveInsideTreeBin() {
+        CustomHashMap<ComparableKey, Integer> m = new CustomHashMap<>(64);
+        for (int i = 0; i < 20; i++) m.put(new ComparableKey(i), i);
+
+        Set<Integer> seen = new HashSet<>();
+        for (Iterator<Map.Entry<ComparableKey, Integer>> it = m.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<ComparableKey, Integer> e = it.next();
+            assertTrue(seen.add(e.getValue()));
+            if (e.getKey().id() % 3 != 0) it.remove();
+        }
+
+        assertEquals(20, seen.size());
+        assertEquals(7, m.size());
+        for (int i = 0; i < 20; i += 3) assertEquals(i, m.get(new ComparableKey(i)));
+    }
+}
@@ -0,0 +1,128 @@
+package com.code.research.customhash.setmap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobinHoodHashMapTest {
+
+    @Test
+    void basicMapContract() {
+        RobinHoodHashMap<String, Integer> m = new RobinHoodHashMap<>();
+        assertNull(m.put("a", 1));
+        assertEquals(1, m.put("a", 2));
+        assertNull(m.put(null, 0));
+        m.put("n", null);
+
+        assertEquals(2, m.get("a"));
+        assertEquals(0, m.get(null));
+        assertTrue(m.containsKey("n"));
+        assertEquals(-1, m.getOrDefault("missing", -1));
+        assertNull(m.getOrDefault("n", -1));
+        assertEquals(2, m.putIfAbsent("a", 3));
+        assertEquals(3, m.size());
+
+        assertEquals(0, m.remove(null));
+        assertFalse(m.containsKey(null));
+        assertEquals(2, m.size());
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        SplittableRandom rnd = new SplittableRandom(7);
+        RobinHoodHashMap<Integer, Integer> m = new RobinHoodHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // multiples of 64 collide in the low bits, which exercises long probe runs
+            Integer key = rnd.nextBoolean() ? rnd.nextInt(5_000) : rnd.nextInt(500) * 64;
+            int op = rnd.nextInt(10);
+            if (op < 5) {
+                assertEquals(expected.put(key, i), m.put(key, i));
+            } else if (op < 8) {
+                assertEquals(expected.remove(key), m.remove(key));
+            } else {
+                assertEquals(expected.get(key), m.get(key));
+            }
+        }
+        assertEquals(expected, m);
+        assertEquals(m, expected);
+        assertEquals(expected.hashCode(), m.hashCode());
+    }
+
+    @Test
+    void iteratorRemoveVisitsEveryEntryOnceAcrossWrapAround() {
+        // capacity 16: keys 15, 31, 47, 63 all hash to slot 15, so the run wraps into slots 0..2
+        RobinHoodHashMap<Integer, String> m = new RobinHoodHashMap<>(16);
+        for (int k : new int[]{15, 31, 47, 63, 1, 2}) m.put(k, "v" + k);
+
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> it = m.keySet().iterator();
+        while (it.hasNext()) {
+            Integer k = it.next();
+            assertTrue(seen.add(k), "returned twice: " + k);
+            if (k != 2) it.remove();
+        }
+
+        assertEquals(Set.of(15, 31, 47, 63, 1, 2), seen);
+        assertEquals(Map.of(2, "v2"), m);
+    }
+
+    @Test
+    void randomIteratorRemovalMatchesHashMap() {
+        SplittableRandom rnd = new SplittableRandom(11);
+        for (int round = 0; round < 200; round++) {
+            RobinHoodHashMap<Integer, Integer> m = new RobinHoodHashMap<>(16, 0.9f);
+            Map<Integer, Integer> expected = new HashMap<>();
+            for (int i = 0; i < 100; i++) {
+                int k = rnd.nextInt(64) * (rnd.nextBoolean() ? 1 : 32);
+                m.put(k, i);
+                expected.put(k, i);
+            }
+            int sizeBefore = m.size();
+            Set<Integer> seen = new HashSet<>();
+            for (Iterator<Map.Entry<Integer, Integer>> it = m.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Integer, Integer> e = it.next();
+                assertTrue(seen.add(e.getKey()));
+                assertEquals(expected.get(e.getKey()), e.getValue());
+                if (rnd.nextBoolean()) {
+                    it.remove();
+                    expected.remove(e.getKey());
+                }
+            }
+            assertEquals(sizeBefore, seen.size());
+            assertEquals(expected, m);
+        }
+    }
+
+    @Test
+    void entrySetValueWritesThrough() {
+        RobinHoodHashMap<String, Integer> m = new RobinHoodHashMap<>();
+        m.put("a", 1);
+        Map.Entry<String, Integer> e = m.entrySet().iterator().next();
+        assertEquals(1, e.setValue(5));
+        assertEquals(5, m.get("a"));
+    }
+
+    @Test
+    void iteratorIsFailFast() {
+        RobinHoodHashMap<Integer, Integer> m = new RobinHoodHashMap<>();
+        for (int i = 0; i < 10; i++) m.put(i, i);
+        Iterator<Integer> it = m.keySet().iterator();
+        it.next();
+        m.put(100, 100);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void rejectsLoadFactorOfOneOrMore() {
+        assertThrows(IllegalArgumentException.class, () -> new RobinHoodHashMap<>(16, 1.0f));
+    }
+}
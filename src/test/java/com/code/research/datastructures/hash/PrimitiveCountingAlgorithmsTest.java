@@ -0,0 +1,128 @@
+package com.code.research.datastructures.hash;
+
+import com.code.research.hash.digitstatistics.FrequencyCollector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hash-counting algorithms after moving them from boxed maps to customhash.primitive, checked by hand and
+ * against the boxed versions they replaced (kept below, as in PrimitiveCountingBenchmark) on random inputs.
+ */
+class PrimitiveCountingAlgorithmsTest {
+
+    @Test
+    void topKFrequentOrdersByCountThenValue() {
+        assertEquals(List.of(1, 2), TopKFrequentElements.topKFrequent(new int[]{1, 1, 1, 2, 2, 3}, 2));
+        assertEquals(List.of(-5, 4, 9), TopKFrequentElements.topKFrequent(new int[]{9, 4, -5, 4, -5, 9, 0}, 3));
+        assertEquals(List.of(7), TopKFrequentElements.topKFrequent(new int[]{7}, 5));
+    }
+
+    @Test
+    void distinctCountsPerWindow() {
+        assertEquals(List.of(3, 4, 4, 3, 4),
+                CountDistinctElementsInWindow.countDistinctInWindows(new int[]{1, 2, 1, 3, 4, 2, 3, 1}, 4));
+        assertEquals(List.of(1, 2, 2), CountDistinctElementsInWindow.countDistinctInWindows(new int[]{0, 0, 0, 5, 0}, 3));
+    }
+
+    @Test
+    void longestConsecutiveSequence() {
+        assertEquals(List.of(7, 8, 9, 10, 11, 12), LongestConsecutiveSequence.getLongestConsecutiveSequence(
+                new int[]{100, 4, 200, 10, 1, 7, 2, 3, 8, 9, 11, 12}));
+        assertEquals(List.of(-1, 0, 1), LongestConsecutiveSequence.getLongestConsecutiveSequence(new int[]{1, -1, 0, 1}));
+    }
+
+    @Test
+    void intFrequenciesMergesParallelPartials() {
+        var counts = FrequencyCollector.intFrequencies(IntStream.range(0, 100_000).parallel().map(i -> i % 10));
+
+        assertEquals(10, counts.size());
+        for (int d = 0; d < 10; d++) assertEquals(10_000, counts.get(d));
+        assertEquals(100_000L, FrequencyCollector.longFrequencies(IntStream.range(0, 100_000).map(i -> 0)).get(0));
+    }
+
+    @Test
+    void portsMatchTheBoxedOriginalsOnRandomInputs() {
+        for (int seed = 0; seed < 20; seed++) {
+            int[] values = randomValues(new SplittableRandom(seed));
+
+            Map<Integer, Integer> counts = countBoxed(values);
+            List<Integer> top = TopKFrequentElements.topKFrequent(values, 5);
+            // ties may come back in another order, so compare the counts of the chosen elements
+            assertEquals(topKBoxed(counts, 5).stream().map(counts::get).toList(),
+                    top.stream().map(counts::get).toList());
+
+            assertEquals(windowBoxed(values, 7), CountDistinctElementsInWindow.countDistinctInWindows(values, 7));
+            assertEquals(longestBoxed(values), LongestConsecutiveSequence.getLongestConsecutiveSequence(values));
+
+            Map<Integer, Integer> collected = new HashMap<>();
+            FrequencyCollector.intFrequencies(IntStream.of(values).parallel()).forEach(collected::put);
+            assertEquals(IntStream.of(values).boxed().collect(FrequencyCollector.toFrequencyMapInteger()), collected);
+        }
+    }
+
+    /** Small ranges around zero and outside the Integer cache, so runs, repeats and the 0 key all occur. */
+    private static int[] randomValues(SplittableRandom rnd) {
+        int[] values = new int[200 + rnd.nextInt(300)];
+        int base = rnd.nextBoolean() ? 0 : 1_000_000;
+        int spread = rnd.nextBoolean() ? 40 : 400; // dense: many repeats; sparse: several short runs
+        for (int i = 0; i < values.length; i++) values[i] = base + rnd.nextInt(-spread, spread);
+        return values;
+    }
+
+    private static Map<Integer, Integer> countBoxed(int[] values) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int v : values) counts.merge(v, 1, Integer::sum);
+        return counts;
+    }
+
+    private static List<Integer> topKBoxed(Map<Integer, Integer> counts, int k) {
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((e1, e2) -> e2.getValue().compareTo(e1.getValue()));
+        List<Integer> top = new ArrayList<>();
+        for (int i = 0; i < k && i < entries.size(); i++) top.add(entries.get(i).getKey());
+        return top;
+    }
+
+    private static List<Integer> windowBoxed(int[] values, int k) {
+        List<Integer> distinctCounts = new ArrayList<>();
+        Map<Integer, Integer> frequencyMap = new HashMap<>();
+        for (int i = 0; i < k; i++) frequencyMap.merge(values[i], 1, Integer::sum);
+        distinctCounts.add(frequencyMap.size());
+        for (int i = k; i < values.length; i++) {
+            int out = values[i - k];
+            if (frequencyMap.merge(out, -1, Integer::sum) == 0) frequencyMap.remove(out);
+            frequencyMap.merge(values[i], 1, Integer::sum);
+            distinctCounts.add(frequencyMap.size());
+        }
+        return distinctCounts;
+    }
+
+    private static List<Integer> longestBoxed(int[] values) {
+        Map<Integer, Integer> sequenceMap = new HashMap<>();
+        int maxStreak = 0, maxStart = 0;
+        for (int num : values) {
+            if (sequenceMap.containsKey(num)) continue;
+            int left = sequenceMap.getOrDefault(num - 1, 0);
+            int right = sequenceMap.getOrDefault(num + 1, 0);
+            int streak = left + right + 1;
+            sequenceMap.put(num, streak);
+            sequenceMap.put(num - left, streak);
+            sequenceMap.put(num + right, streak);
+            if (streak > maxStreak) {
+                maxStreak = streak;
+                maxStart = num - left;
+            }
+        }
+        List<Integer> longest = new ArrayList<>();
+        for (int i = 0; i < maxStreak; i++) longest.add(maxStart + i);
+        return longest;
+    }
+}
@@ -0,0 +1,45 @@
+package com.code.research.datastructures.hash.lfucache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void countersSaturateAtFifteen() {
+        FrequencySketch<String> sketch = new FrequencySketch<>(64);
+        assertEquals(0, sketch.frequency("a"));
+
+        for (int i = 0; i < 20; i++) sketch.increment("a");
+
+        assertEquals(15, sketch.frequency("a"));
+        assertEquals(0, sketch.resetCount()); // saturated increments do not count towards aging
+    }
+
+    @Test
+    void neverUnderestimates() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(512); // ages after 5120 increments
+        for (int k = 0; k < 1000; k++) {
+            for (int n = 0; n < k % 5; n++) sketch.increment(k);
+        }
+
+        assertEquals(0, sketch.resetCount());
+        for (int k = 0; k < 1000; k++) {
+            assertTrue(sketch.frequency(k) >= k % 5, "key " + k);
+        }
+    }
+
+    @Test
+    void agingHalvesCounters() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>(16); // ages after 160 increments
+        for (int i = 0; i < 15; i++) sketch.increment(-1);
+        assertEquals(15, sketch.frequency(-1));
+
+        for (int k = 0; sketch.resetCount() == 0; k++) sketch.increment(k);
+
+        // other keys can only share (and so raise) counters up to the cap; halving 15 gives 7
+        assertEquals(7, sketch.frequency(-1));
+        assertEquals(1, sketch.resetCount());
+    }
+}
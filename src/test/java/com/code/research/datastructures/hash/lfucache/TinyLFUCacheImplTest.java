@@ -0,0 +1,87 @@
+package com.code.research.datastructures.hash.lfucache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLFUCacheImplTest {
+
+    @Test
+    void frequentCandidateIsAdmittedAndColdOneRejected() {
+        TinyLFUCacheImpl<Integer, String> c = new TinyLFUCacheImpl<>(100); // window 1, main 99
+        for (int i = 0; i < 100; i++) c.put(i, "v" + i);                  // window [99], probation [0..98]
+
+        for (int i = 0; i < 5; i++) assertNull(c.get(500)); // misses still count in the sketch
+        c.put(500, "hot");   // cold 99 leaves the window and loses the tie against victim 0
+        c.put(501, "next");  // hot 500 leaves the window and beats victim 0
+
+        assertNull(c.get(99));
+        assertNull(c.get(0));
+        assertEquals("hot", c.get(500));
+        assertEquals("v1", c.get(1));
+        assertEquals(100, c.size());
+        assertEquals(2, c.stats().evictions());
+    }
+
+    @Test
+    void evictsProbationInLruOrderAndKeepsProtected() {
+        TinyLFUCacheImpl<Integer, String> c = new TinyLFUCacheImpl<>(10); // window 1, probation+protected 9
+        for (int i = 0; i < 10; i++) c.put(i, "v" + i);                  // window [9], probation [0..8]
+        c.get(0);
+        c.get(1);                                                         // protected [0, 1]
+
+        putHot(c, 100); // rejects cold 9 from the window
+        putHot(c, 101); // admits 100, evicts probation LRU 2
+        putHot(c, 102); // admits 101, evicts 3
+
+        assertEquals(List.of(0, 1, 4, 5, 6, 7, 8, 100, 101, 102), present(c, 0, 110));
+        assertEquals(3, c.stats().evictions());
+    }
+
+    @Test
+    void protectedOverflowDemotesToProbationMru() {
+        TinyLFUCacheImpl<Integer, String> c = new TinyLFUCacheImpl<>(10); // protected holds at most 7
+        for (int i = 0; i < 10; i++) c.put(i, "v" + i);                  // window [9], probation [0..8]
+        for (int i = 0; i < 8; i++) c.get(i);                             // protected [1..7], probation [8, 0]
+
+        putHot(c, 100); // rejects cold 9
+        putHot(c, 101); // admits 100, evicts 8
+        putHot(c, 102); // admits 101, evicts the demoted 0 next
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 100, 101, 102), present(c, 0, 110));
+        assertEquals(3, c.stats().evictions());
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        TinyLFUCacheImpl<String, Integer> c = new TinyLFUCacheImpl<>(10);
+        assertEquals(1.0, c.stats().hitRate()); // no lookups yet
+        c.put("a", 1);
+        c.put("a", 2);   // update, not a new entry
+
+        assertEquals(2, c.get("a"));
+        assertNull(c.get("b"));
+        assertEquals(1, c.size());
+        CacheStats stats = c.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    /** Requests the key a few times before storing it, so the sketch sees it as popular. */
+    private static void putHot(TinyLFUCacheImpl<Integer, String> c, int key) {
+        for (int i = 0; i < 3; i++) assertNull(c.get(key));
+        c.put(key, "v" + key);
+    }
+
+    /** Keys in [from, to) that are cached; lookups may promote entries but never evict. */
+    private static List<Integer> present(TinyLFUCacheImpl<Integer, String> c, int from, int to) {
+        List<Integer> keys = new ArrayList<>();
+        IntStream.range(from, to).filter(k -> c.get(k) != null).forEach(keys::add);
+        return keys;
+    }
+}
@@ -0,0 +1,242 @@
+package com.code.research.datastructures.hash.multithreadedcache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.code.research.util.ConcurrentTesting.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiThreadedWriteThroughCacheTest {
+
+    private static final Duration LONG_DELAY = Duration.ofHours(1);
+
+    @Test
+    void writeBehindCoalescesAndWritesFullBatches() throws Exception {
+        RecordingStore store = new RecordingStore();
+        try (MultiThreadedWriteThroughCache<String, Integer> cache =
+                     new MultiThreadedWriteThroughCache<>(store, new WriteBehindConfig(3, LONG_DELAY, 10))) {
+            cache.put("a", 1);
+            cache.put("a", 2);   // coalesces with the pending a=1
+            cache.put("b", 1);
+            WriteBehindStats stats = cache.writeBehindStats();
+            assertEquals(1, stats.coalescedUpdates());
+            assertEquals(2, stats.pending());
+            assertTrue(store.batches.isEmpty());
+
+            cache.put("c", 1);   // third distinct key: size-triggered flush
+            assertTrue(store.firstBatch.await(5, TimeUnit.SECONDS));
+            assertEquals(Map.of("a", 2, "b", 1, "c", 1), store.batches.get(0));
+
+            cache.put("d", 1);
+        }
+        // close flushes the rest
+        assertEquals(List.of(Map.of("a", 2, "b", 1, "c", 1), Map.of("d", 1)), store.batches);
+        assertTrue(store.writes.isEmpty());
+    }
+
+    @Test
+    void putBlocksWhilePendingBoundIsReached() throws Exception {
+        CountDownLatch storeUp = new CountDownLatch(1);
+        RecordingStore store = new RecordingStore(storeUp);
+        MultiThreadedWriteThroughCache<String, Integer> cache =
+                new MultiThreadedWriteThroughCache<>(store, new WriteBehindConfig(1, Duration.ofMillis(20), 1));
+        try {
+            cache.put("a", 1);   // flushed at once; the store holds the batch (and its permit)
+            assertTrue(store.writing.await(5, TimeUnit.SECONDS));
+
+            Thread writer = new Thread(() -> cache.put("b", 2));
+            writer.start();
+            writer.join(200);
+            assertTrue(writer.isAlive());
+            assertEquals(1, cache.writeBehindStats().backpressureWaits());
+
+            storeUp.countDown();
+            writer.join(5_000);
+            assertFalse(writer.isAlive());
+            assertEquals(2, cache.get("b"));
+        } finally {
+            storeUp.countDown();
+            cache.close();
+        }
+        assertEquals(List.of(Map.of("a", 1), Map.of("b", 2)), store.batches);
+        assertTrue(cache.writeBehindStats().backpressureNanos() > 0);
+    }
+
+    @Test
+    void concurrentPutsPersistTheValueTheCacheHolds() throws Exception {
+        RecordingStore store = new RecordingStore();
+        MultiThreadedWriteThroughCache<String, Integer> cache =
+                new MultiThreadedWriteThroughCache<>(store, new WriteBehindConfig(2, Duration.ofMillis(1), 4));
+        runConcurrently(4, t -> {
+            for (int i = 0; i < 2_000; i++) {
+                cache.put("k" + (i % 3), t * 10_000 + i);
+            }
+        });
+        cache.close();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(cache.get("k" + i), store.data.get("k" + i), "k" + i);
+        }
+        assertEquals(0, cache.writeBehindStats().pending());
+    }
+
+    @Test
+    void concurrentMissesShareOneStoreRead() throws Exception {
+        CountDownLatch storeUp = new CountDownLatch(1);
+        RecordingStore store = new RecordingStore(storeUp);
+        store.data.put("k", 42);
+        try (MultiThreadedWriteThroughCache<String, Integer> cache = new MultiThreadedWriteThroughCache<>(store, 60)) {
+            List<Integer> seen = new CopyOnWriteArrayList<>();
+            List<Thread> readers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Thread reader = new Thread(() -> seen.add(cache.get("k")));
+                readers.add(reader);
+                reader.start();
+            }
+            assertTrue(store.reading.await(5, TimeUnit.SECONDS));
+            storeUp.countDown();
+            for (Thread reader : readers) {
+                reader.join(5_000);
+            }
+
+            assertEquals(8, seen.size());
+            assertTrue(seen.stream().allMatch(v -> v == 42));
+            assertEquals(1, store.reads.get());
+        }
+    }
+
+    @Test
+    void getAllReadsOnlyMissesWithOneBulkCall() {
+        RecordingStore store = new RecordingStore();
+        store.data.put("b", 2);
+        store.data.put("c", 3);
+        try (MultiThreadedWriteThroughCache<String, Integer> cache = new MultiThreadedWriteThroughCache<>(store, 60)) {
+            cache.put("a", 1);
+
+            assertEquals(Map.of("a", 1, "b", 2, "c", 3), cache.getAll(List.of("a", "b", "c", "missing", "b")));
+            assertEquals(List.of(List.of("b", "c", "missing")), store.bulkReads);
+            assertEquals(0, store.reads.get());
+        }
+    }
+
+    @Test
+    void absentKeysAreRememberedUntilPut() {
+        RecordingStore store = new RecordingStore();
+        try (MultiThreadedWriteThroughCache<String, Integer> cache =
+                     new MultiThreadedWriteThroughCache<>(store, 60, Duration.ofHours(1))) {
+            assertNull(cache.get("missing"));
+            assertNull(cache.get("missing"));
+            assertTrue(cache.getAll(List.of("missing")).isEmpty());
+            assertEquals(1, store.reads.get());
+            assertTrue(store.bulkReads.isEmpty());
+
+            cache.put("missing", 7);   // a put clears the negative entry
+            assertEquals(7, cache.get("missing"));
+        }
+    }
+
+    @Test
+    void expiredAbsentKeysAreSweptWithoutBeingLookedUpAgain() throws Exception {
+        RecordingStore store = new RecordingStore();
+        try (MultiThreadedWriteThroughCache<String, Integer> cache =
+                     new MultiThreadedWriteThroughCache<>(store, 60, Duration.ofMillis(200))) {
+            for (int i = 0; i < 1_000; i++) {
+                assertNull(cache.get("missing-" + i));
+            }
+            assertTrue(cache.absentKeyCount() > 0);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.absentKeyCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, cache.absentKeyCount());
+        }
+    }
+
+    @Test
+    void absentKeysHitTheStoreWithoutNegativeCaching() {
+        RecordingStore store = new RecordingStore();
+        try (MultiThreadedWriteThroughCache<String, Integer> cache = new MultiThreadedWriteThroughCache<>(store, 60)) {
+            assertNull(cache.get("missing"));
+            assertNull(cache.get("missing"));
+            assertEquals(2, store.reads.get());
+        }
+    }
+
+    /** In-memory store that records every call; reads and batch writes wait for {@code up} if given. */
+    private static final class RecordingStore implements PersistentStore<String, Integer> {
+        final Map<String, Integer> data = new ConcurrentHashMap<>();
+        final List<Map<String, Integer>> batches = new CopyOnWriteArrayList<>();
+        final List<Map<String, Integer>> writes = new CopyOnWriteArrayList<>();
+        final List<List<String>> bulkReads = new CopyOnWriteArrayList<>();
+        final AtomicInteger reads = new AtomicInteger();
+        final CountDownLatch firstBatch = new CountDownLatch(1);
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch reading = new CountDownLatch(1);
+        private final CountDownLatch up;
+
+        RecordingStore() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingStore(CountDownLatch up) {
+            this.up = up;
+        }
+
+        @Override
+        public void write(String key, Integer value) {
+            writes.add(Map.of(key, value));
+            data.put(key, value);
+        }
+
+        @Override
+        public Integer read(String key) {
+            reads.incrementAndGet();
+            reading.countDown();
+            awaitUp();
+            return data.get(key);
+        }
+
+        @Override
+        public Map<String, Integer> readAll(Collection<? extends String> keys) {
+            bulkReads.add(List.copyOf(keys));
+            Map<String, Integer> result = new HashMap<>();
+            for (String key : keys) {
+                Integer value = data.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void writeAll(Map<? extends String, ? extends Integer> entries) {
+            writing.countDown();
+            awaitUp();
+            batches.add(Map.copyOf(entries));
+            data.putAll(entries);
+            firstBatch.countDown();
+        }
+
+        private void awaitUp() {
+            try {
+                up.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.code.research.datastructures.hash.offheap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapLRUCacheTest {
+
+    @Test
+    void storesAndReplacesValues() {
+        try (OffHeapLRUCache<String, String> c = new OffHeapLRUCache<>(1 << 16, 4096, ValueSerializer.utf8())) {
+            c.put("a", "alpha");
+            c.put("b", "бета"); // multi-byte UTF-8
+            c.put("a", "alpha-2");
+
+            assertEquals("alpha-2", c.get("a"));
+            assertEquals("бета", c.get("b"));
+            assertNull(c.get("missing"));
+            assertEquals(2, c.size());
+            assertEquals("alpha-2".length() + "бета".getBytes(java.nio.charset.StandardCharsets.UTF_8).length,
+                    c.stats().valueBytes());
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByBytes() {
+        // four 64-byte chunks fit into 256 bytes
+        try (OffHeapLRUCache<Integer, byte[]> c = new OffHeapLRUCache<>(256, 128, ValueSerializer.byteArray())) {
+            for (int i = 1; i <= 4; i++) c.put(i, new byte[50]);
+            c.get(1);                      // 2 is now LRU
+            c.put(5, new byte[50]);
+
+            assertFalse(c.containsKey(2));
+            assertTrue(c.containsKey(1));
+            assertEquals(4, c.size());
+            assertEquals(1, c.stats().evictions());
+            assertTrue(c.stats().usedChunkBytes() <= 256);
+        }
+    }
+
+    @Test
+    void largeValueReclaimsSlabsFromSmallClasses() {
+        try (OffHeapLRUCache<Integer, byte[]> c = new OffHeapLRUCache<>(4096, 1024, ValueSerializer.byteArray())) {
+            for (int i = 0; i < 64; i++) c.put(i, new byte[60]); // all 4 slabs carved into 64-byte chunks
+
+            c.put(100, new byte[1000]);    // needs a whole slab: 16 small entries must go
+
+            assertArrayEquals(new byte[1000], c.get(100));
+            assertEquals(64 - 16 + 1, c.size());
+            assertEquals(4096, c.stats().reservedBytes());
+        }
+    }
+
+    @Test
+    void removeFreesChunk() {
+        try (OffHeapLRUCache<Integer, byte[]> c = new OffHeapLRUCache<>(128, 128, ValueSerializer.byteArray())) {
+            c.put(1, new byte[60]);
+            c.put(2, new byte[60]);
+            assertTrue(c.remove(1));
+            assertFalse(c.remove(1));
+            c.put(3, new byte[60]);        // fits into the freed chunk, nothing evicted
+
+            assertEquals(0, c.stats().evictions());
+            assertTrue(c.containsKey(2));
+        }
+    }
+
+    @Test
+    void rejectsValuesLargerThanASlab() {
+        try (OffHeapLRUCache<Integer, byte[]> c = new OffHeapLRUCache<>(1 << 20, 1024, ValueSerializer.byteArray())) {
+            assertThrows(IllegalArgumentException.class, () -> c.put(1, new byte[1025]));
+        }
+    }
+
+    @Test
+    void randomWorkloadKeepsBudgetAndReturnsLatestValues() {
+        SplittableRandom rnd = new SplittableRandom(1);
+        Map<Integer, byte[]> latest = new HashMap<>();
+        try (OffHeapLRUCache<Integer, byte[]> c = new OffHeapLRUCache<>(64 * 1024, 4096, ValueSerializer.byteArray())) {
+            for (int i = 0; i < 50_000; i++) {
+                int key = rnd.nextInt(2_000);
+                int op = rnd.nextInt(10);
+                if (op < 5) {
+                    byte[] v = new byte[1 + rnd.nextInt(3000)];
+                    rnd.nextBytes(v);
+                    c.put(key, v);
+                    latest.put(key, v);
+                } else if (op < 9) {
+                    byte[] got = c.get(key);
+                    if (got != null) assertArrayEquals(latest.get(key), got);
+                } else {
+                    c.remove(key);
+                }
+                assertTrue(c.stats().usedChunkBytes() <= c.maxBytes());
+            }
+            OffHeapCacheStats stats = c.stats();
+            assertTrue(stats.valueBytes() <= stats.usedChunkBytes());
+            assertTrue(stats.reservedBytes() <= 64 * 1024);
+        }
+    }
+}
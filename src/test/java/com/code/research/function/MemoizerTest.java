@@ -0,0 +1,188 @@
+package com.code.research.function;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizerTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+
+    private String load(String key) {
+        loads.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    @Test
+    void memoizesAndCountsHitsAndMisses() {
+        Memoizer<String, String> m = Memoizer.builder().build(this::load);
+
+        assertEquals("A", m.apply("a"));
+        assertEquals("A", m.apply("a"));
+        assertEquals("B", m.apply("b"));
+
+        assertEquals(2, loads.get());
+        MemoizerStats stats = m.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(2, stats.loadSuccessCount());
+    }
+
+    @Test
+    void lruEvictsLeastRecentlyUsed() {
+        Memoizer<String, String> m = Memoizer.builder().maximumSize(2).build(this::load);
+        m.apply("a");
+        m.apply("b");
+        m.apply("a");   // b is now least recently used
+        m.apply("c");   // evicts b
+
+        assertEquals(2, m.size());
+        assertEquals(1, m.stats().evictionCount());
+        m.apply("a");
+        assertEquals(3, loads.get());
+        m.apply("b");
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void sampledEvictionRespectsMaximumSize() {
+        Memoizer<Integer, Integer> m = Memoizer.builder()
+                .maximumSize(100)
+                .eviction(Memoizer.Eviction.SAMPLED)
+                .build(k -> k * 2);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 500 * 2, m.apply(i % 500));
+        }
+
+        assertEquals(100, m.size());
+        MemoizerStats stats = m.stats();
+        assertEquals(stats.missCount() - 100, stats.evictionCount());
+    }
+
+    @Test
+    void expireAfterWriteReloads() {
+        Memoizer<String, String> m = Memoizer.builder()
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .ticker(clock::get)
+                .build(this::load);
+        m.apply("a");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        m.apply("a");
+        assertEquals(1, loads.get());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        m.apply("a");
+        assertEquals(2, loads.get());
+        assertEquals(1, m.stats().expiredCount());
+    }
+
+    @Test
+    void expireAfterAccessIsExtendedByReads() {
+        Memoizer<String, String> m = Memoizer.builder()
+                .expireAfterAccess(Duration.ofSeconds(10))
+                .ticker(clock::get)
+                .build(this::load);
+        m.apply("a");
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(6));
+            m.apply("a");
+        }
+        assertEquals(1, loads.get());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        m.apply("a");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void expiredEntriesAreSweptOnInsert() {
+        Memoizer<Integer, Integer> m = Memoizer.builder()
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .ticker(clock::get)
+                .build(k -> k);
+        for (int i = 0; i < 10; i++) {
+            m.apply(i);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        for (int i = 100; i < 110; i++) {
+            m.apply(i); // each insert drops up to a few expired entries from the LRU tail
+        }
+
+        assertEquals(10, m.size());
+    }
+
+    @Test
+    void failuresAndNullsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        Memoizer<String, String> m = Memoizer.builder().build(k -> {
+            int n = calls.incrementAndGet();
+            if (n == 1) throw new IllegalStateException("boom");
+            return n == 2 ? null : "ok";
+        });
+
+        assertThrows(CompletionException.class, () -> m.apply("k"));
+        assertThrows(CompletionException.class, () -> m.apply("k"));
+        assertEquals("ok", m.apply("k"));
+        assertEquals(2, m.stats().loadFailureCount());
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    void concurrentCallersShareOneAsyncLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Memoizer<String, String> m = Memoizer.builder()
+                    .executor(pool)
+                    .build(k -> {
+                        loads.incrementAndGet();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return k + "!";
+                    });
+
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(m.getAsync("k")); // never blocks
+            }
+            assertFalse(futures.get(0).isDone());
+            release.countDown();
+
+            for (CompletableFuture<String> f : futures) {
+                assertEquals("k!", f.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(19, m.stats().hitCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        Memoizer<String, String> m = Memoizer.builder().build(this::load);
+        m.apply("a");
+        m.invalidate("a");
+        m.apply("a");
+        m.invalidateAll();
+
+        assertEquals(2, loads.get());
+        assertEquals(0, m.size());
+    }
+}
@@ -0,0 +1,154 @@
+package com.code.research.function.tokencache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedTokenServiceTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(1);
+    private static final Duration NO_SWEEP = Duration.ofHours(1);
+
+    private final MutableClock clock = new MutableClock(T0);
+    private final AtomicInteger mints = new AtomicInteger();
+
+    private Token mint(User user, Instant now, Duration ttl) {
+        mints.incrementAndGet();
+        return new Token(user.id() + "@" + now, now, now.plus(ttl));
+    }
+
+    @Test
+    void servesStaleTokenWhileOneBackgroundTaskRefreshesIt() throws Exception {
+        CountDownLatch refreshUp = new CountDownLatch(1);
+        TokenGenerator generator = (user, now, ttl) -> {
+            if (now.isAfter(T0)) await(refreshUp);
+            return mint(user, now, ttl);
+        };
+        try (GeneratedTokenService service = service(generator, new RefreshPolicy(1, 4, NO_SWEEP))) {
+            User alice = user("alice");
+            Token first = service.getToken(alice);
+            clock.set(T0.plus(TTL).minusSeconds(30)); // inside the refresh-ahead window, not expired
+
+            for (int i = 0; i < 5; i++) {
+                assertSame(first, service.getToken(alice)); // served stale, no caller blocks on the mint
+            }
+            refreshUp.countDown();
+            awaitTrue(() -> service.getToken(alice) != first);
+
+            Token refreshed = service.getToken(alice);
+            assertEquals(clock.instant(), refreshed.issuedAt());
+            assertEquals(2, mints.get());
+            RefreshStats stats = service.refreshStats();
+            assertEquals(1, stats.backgroundRefreshes());
+            assertEquals(1, stats.blockedCallers());            // only the very first mint
+            assertEquals(30_000, stats.maxRefreshLagMillis());  // minted 30s into the window
+        }
+    }
+
+    @Test
+    void expiredTokenBlocksTheCallerForANewMint() {
+        try (GeneratedTokenService service = service(this::mint, new RefreshPolicy(1, 4, NO_SWEEP))) {
+            User bob = user("bob");
+            Token first = service.getToken(bob);
+            clock.set(first.expiresAt());
+
+            Token second = service.getToken(bob);
+
+            assertEquals(first.expiresAt(), second.issuedAt());
+            assertEquals(2, service.refreshStats().blockedCallers());
+            assertEquals(0, service.refreshStats().backgroundRefreshes());
+        }
+    }
+
+    @Test
+    void sweeperRetriesRefreshesThePoolRejected() throws Exception {
+        CountDownLatch refreshUp = new CountDownLatch(1);
+        TokenGenerator generator = (user, now, ttl) -> {
+            if (now.isAfter(T0)) await(refreshUp);
+            return mint(user, now, ttl);
+        };
+        // one refresh running and one queued: the third one is rejected
+        try (GeneratedTokenService service = service(generator, new RefreshPolicy(1, 1, Duration.ofMillis(5)))) {
+            List<User> users = List.of(user("u1"), user("u2"), user("u3"));
+            users.forEach(service::getToken);
+            Instant refreshAt = T0.plus(TTL).minusSeconds(30);
+            clock.set(refreshAt); // from here on only the sweeper schedules refreshes
+
+            awaitTrue(() -> service.refreshStats().skippedRefreshes() > 0);
+            refreshUp.countDown();
+
+            // the rejected user stayed active, so a later sweep refreshed it without another getToken
+            awaitTrue(() -> service.refreshStats().backgroundRefreshes() == 3);
+            for (User u : users) {
+                assertEquals(refreshAt, service.getToken(u).issuedAt(), u.id());
+            }
+            assertEquals(6, mints.get());
+        }
+    }
+
+    private GeneratedTokenService service(TokenGenerator generator, RefreshPolicy policy) {
+        return new GeneratedTokenService(generator, TTL, REFRESH_AHEAD, clock, policy);
+    }
+
+    private static User user(String id) {
+        return new User(id, id + "@example.com", Set.of("USER"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(1);
+        }
+    }
+
+    /** Clock the test moves by hand; read by the refresh and sweeper threads. */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.code.research.function.tokencache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HmacJwtLikeGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Test
+    void generateMatchesBaselineForEscapesAndMultiByteIds() {
+        List<String> ids = List.of(
+                "user-1",
+                "",
+                "a\"b\\c",
+                "é",
+                "ユーザー",
+                "emoji-😀",
+                "\"".repeat(63) + "é",                 // escapes fill the buffer before the UTF-8 fallback
+                "\\".repeat(200) + "ü" + "\"".repeat(50),
+                "x".repeat(1000) + "ß",
+                "\"".repeat(500));
+        // one generator, so each id runs on the buffers the previous ones grew
+        HmacJwtLikeGenerator generator = new HmacJwtLikeGenerator("secret".getBytes(StandardCharsets.UTF_8));
+        for (String id : ids) {
+            User user = user(id);
+            String fast = generator.generate(user, NOW, TTL).value();
+            assertEquals(generator.generateBaseline(user, NOW, TTL).value(), fast, id);
+            String payload = new String(Base64.getUrlDecoder().decode(fast.split("\\.")[1]), StandardCharsets.UTF_8);
+            assertTrue(payload.startsWith("{\"sub\":\""), payload);
+        }
+    }
+
+    @Test
+    void generateAllMatchesGenerate() {
+        HmacJwtLikeGenerator generator = new HmacJwtLikeGenerator("secret".getBytes(StandardCharsets.UTF_8));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) users.add(user((i % 7 == 0 ? "\"é" : "u") + i));
+
+        List<Token> tokens = generator.generateAll(users, NOW, TTL, true);
+
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(generator.generateBaseline(users.get(i), NOW, TTL).value(), tokens.get(i).value());
+        }
+    }
+
+    private static User user(String id) {
+        return new User(id, id + "@example.com", Set.of("USER"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.code.research.springboot.profile;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCacheManagerBatchTest {
+
+    private final InMemoryRedissonClient redis = new InMemoryRedissonClient();
+    private final InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+
+    @Test
+    void warmAndReadManyKeysInOneRoundTripEach() {
+        BatchCache users = new RedisCacheManager(redis).getCache("users");
+        Map<Object, Object> warm = IntStream.range(0, 200).boxed()
+                .collect(Collectors.toMap(i -> "u" + i, i -> "user-" + i));
+
+        long before = redis.roundTrips();
+        users.putAll(warm);
+        Map<Object, Object> read = users.getAll(List.of("u0", "u42", "u199", "nope"));
+
+        assertEquals(2, redis.roundTrips() - before);
+        assertEquals(Map.of("u0", "user-0", "u42", "user-42", "u199", "user-199"), read);
+    }
+
+    @Test
+    void getAllOnlyAsksRedisForL1Misses() {
+        RedisCacheManager node = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        BatchCache users = node.getCache("users");
+        users.put("u1", "Alice"); // in L1
+        redis.<Object, Object>getMap("cache:users").put("u2", "Bob"); // only in Redis
+
+        Map<Object, Object> first = users.getAll(List.of("u1", "u2", "u3"));
+        long before = redis.roundTrips();
+        Map<Object, Object> second = users.getAll(List.of("u1", "u2"));
+
+        assertEquals(Map.of("u1", "Alice", "u2", "Bob"), first);
+        assertEquals(first, second);
+        assertEquals(0, redis.roundTrips() - before); // u2 was put into L1 by the first call
+
+        NearCacheStats stats = node.stats("users");
+        assertEquals(3, stats.l1Hits());
+        assertEquals(2, stats.l1Misses());
+        assertEquals(1, stats.l2Hits());
+        assertEquals(1, stats.l2Misses());
+    }
+
+    @Test
+    void putAllWithNullEvictsAndInvalidatesOtherNodes() {
+        RedisCacheManager a = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        RedisCacheManager b = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        a.getCache("users").putAll(Map.of("u1", "Alice", "u2", "Bob"));
+        assertEquals(2, b.getCache("users").getAll(Set.of("u1", "u2")).size()); // cached in B's L1
+
+        Map<Object, Object> update = new HashMap<>();
+        update.put("u1", "Alicia");
+        update.put("u2", null);
+        a.getCache("users").putAll(update);
+
+        assertEquals(Map.of("u1", "Alicia"), b.getCache("users").getAll(Set.of("u1", "u2")));
+    }
+
+    @Test
+    void evictAllRemovesFromBothTiers() {
+        RedisCacheManager node = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        BatchCache users = node.getCache("users");
+        users.putAll(Map.of("u1", "Alice", "u2", "Bob", "u3", "Carol"));
+
+        users.evictAll(List.of("u1", "u2"));
+
+        assertEquals(Map.of("u3", "Carol"), users.getAll(List.of("u1", "u2", "u3")));
+        assertNull(redis.<Object, Object>getMap("cache:users").get("u1"));
+    }
+
+    @Test
+    void asyncVariantsMatchSyncOnes() {
+        BatchCache users = new RedisCacheManager(redis, bus, NearCacheConfig.defaults()).getCache("users");
+
+        users.putAllAsync(Map.of("u1", "Alice", "u2", "Bob")).join();
+        assertEquals(Map.of("u1", "Alice", "u2", "Bob"), users.getAllAsync(List.of("u1", "u2")).join());
+
+        users.evictAllAsync(List.of("u1")).join();
+        assertEquals(Map.of("u2", "Bob"), users.getAllAsync(List.of("u1", "u2")).join());
+    }
+}
@@ -0,0 +1,124 @@
+package com.code.research.springboot.profile;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisCacheManagerNearCacheTest {
+
+    private final InMemoryRedissonClient redis = new InMemoryRedissonClient();
+    private final InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+
+    @Test
+    void repeatedReadsAreServedFromL1() {
+        RedisCacheManager node = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        Cache users = node.getCache("users");
+        users.put("u1", "Alice");
+        assertEquals(1.0, node.stats("users").l1HitRate()); // no lookups yet
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Alice", users.get("u1", String.class));
+        }
+
+        NearCacheStats stats = node.stats("users");
+        assertEquals(10, stats.l1Hits());
+        assertEquals(0, stats.l2Hits());
+        assertEquals(1.0, stats.l1HitRate());
+    }
+
+    @Test
+    void l1MissFallsBackToRedisAndFillsL1() {
+        RedisCacheManager writer = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        RedisCacheManager reader = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        writer.getCache("users").put("u1", "Alice");
+
+        Cache users = reader.getCache("users");
+        assertEquals("Alice", users.get("u1").get());
+        assertEquals("Alice", users.get("u1").get());
+        assertNull(users.get("missing"));
+
+        NearCacheStats stats = reader.stats("users");
+        assertEquals(1, stats.l1Hits());
+        assertEquals(2, stats.l1Misses());
+        assertEquals(1, stats.l2Hits());
+        assertEquals(1, stats.l2Misses());
+        assertEquals(1.0 / 3, stats.l1HitRate());
+    }
+
+    @Test
+    void writeOnOneNodeInvalidatesL1OnOthers() {
+        RedisCacheManager a = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        RedisCacheManager b = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        Cache onA = a.getCache("users");
+        Cache onB = b.getCache("users");
+
+        onA.put("u1", "Alice");
+        assertEquals("Alice", onB.get("u1", String.class)); // now in B's L1
+
+        onA.put("u1", "Alicia");
+
+        assertEquals("Alicia", onB.get("u1", String.class));
+        assertEquals(2, b.stats("users").invalidationsReceived()); // one per put on A
+        assertEquals(0, a.stats("users").invalidationsReceived()); // own messages are ignored
+    }
+
+    @Test
+    void clearDropsL1OnEveryNode() {
+        RedisCacheManager a = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        RedisCacheManager b = new RedisCacheManager(redis, bus, NearCacheConfig.defaults());
+        a.getCache("users").put("u1", "Alice");
+        b.getCache("users").get("u1");
+
+        a.getCache("users").clear();
+        b.getCache("users").get("u1");
+
+        assertEquals(0, b.stats("users").l1Hits());
+        assertEquals(2, b.stats("users").l2Hits());
+    }
+
+    @Test
+    void l1EntriesExpireAfterTtl() throws InterruptedException {
+        RedisCacheManager node = new RedisCacheManager(redis, bus,
+                new NearCacheConfig(100, Duration.ofMillis(20)));
+        Cache users = node.getCache("users");
+        users.put("u1", "Alice");
+
+        Thread.sleep(40);
+        assertEquals("Alice", users.get("u1", String.class));
+
+        assertEquals(0, node.stats("users").l1Hits());
+        assertEquals(1, node.stats("users").l2Hits());
+    }
+
+    @Test
+    void l1IsBoundedPerCache() {
+        RedisCacheManager node = new RedisCacheManager(redis, bus,
+                Map.of("small", new NearCacheConfig(2, Duration.ofMinutes(1))), NearCacheConfig.defaults());
+        Cache small = node.getCache("small");
+        small.put("k1", "v1");
+        small.put("k2", "v2");
+        small.put("k3", "v3"); // k1 falls out of L1 but stays in Redis
+
+        assertEquals("v1", small.get("k1", String.class));
+        assertEquals("v3", small.get("k3", String.class));
+
+        NearCacheStats stats = node.stats("small");
+        assertEquals(1, stats.l2Hits());
+        assertEquals(1, stats.l1Hits());
+    }
+
+    @Test
+    void singleArgConstructorKeepsRedisOnlyBehaviour() {
+        RedisCacheManager node = new RedisCacheManager(redis);
+        Cache users = node.getCache("users");
+        users.put("u1", "Alice");
+
+        assertEquals("Alice", users.get("u1", String.class));
+        assertEquals(0, node.stats("users").l1Hits());
+        assertEquals(1, node.stats("users").l2Hits());
+    }
+}
@@ -0,0 +1,53 @@
+package com.code.research.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers for tests that hammer one object from several threads.
+ */
+public final class ConcurrentTesting {
+
+    private ConcurrentTesting() {
+    }
+
+    /** The work of one thread, given its index in 0..threads-1. */
+    @FunctionalInterface
+    public interface ThreadBody {
+        void run(int threadIndex) throws Exception;
+    }
+
+    /**
+     * Runs {@code body(threadIndex)} on {@code threads} threads released together and waits up to 60s for all of
+     * them; rethrows the first failure (in thread order) as is.
+     */
+    public static void runConcurrently(int threads, ThreadBody body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                body.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
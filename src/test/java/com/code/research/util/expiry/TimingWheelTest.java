@@ -0,0 +1,90 @@
+package com.code.research.util.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final class Item extends TimingWheel.Timer {
+        final long due;
+        long firedAt = -1;
+
+        Item(long due) {
+            this.due = due;
+        }
+    }
+
+    @Test
+    void firesEachTimerOnceAndNotBeforeItsDeadline() {
+        SplittableRandom rnd = new SplittableRandom(3);
+        long start = 1L << 40; // arbitrary, non-zero origin
+        TimingWheel<Item> wheel = new TimingWheel<>(start);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // from sub-millisecond up to ~2 days, so every level is used
+            long delay = (long) Math.pow(10, rnd.nextDouble(4, 14.2));
+            Item item = new Item(start + delay);
+            wheel.schedule(item, item.due);
+            items.add(item);
+        }
+
+        long maxStep = TimeUnit.MINUTES.toNanos(3);
+        long now = start;
+        while (wheel.size() > 0) {
+            now += 1 + rnd.nextLong(maxStep);
+            long at = now;
+            wheel.advance(at, item -> {
+                assertEquals(-1, item.firedAt, "fired twice");
+                item.firedAt = at;
+            });
+        }
+
+        for (Item item : items) {
+            assertTrue(item.firedAt >= item.due, "fired early");
+            // at most one advance late (overdue timers are drained on the next tick)
+            assertTrue(item.firedAt - item.due <= 2 * maxStep, "fired too late");
+            assertFalse(item.isScheduled());
+        }
+    }
+
+    @Test
+    void cancelAndRescheduleAreHonoured() {
+        TimingWheel<Item> wheel = new TimingWheel<>(0);
+        Item cancelled = new Item(TimeUnit.SECONDS.toNanos(1));
+        Item moved = new Item(TimeUnit.SECONDS.toNanos(10));
+        wheel.schedule(cancelled, cancelled.due);
+        wheel.schedule(moved, TimeUnit.SECONDS.toNanos(1));
+        wheel.schedule(moved, moved.due);   // pushed out, like expire-after-access
+        wheel.cancel(cancelled);
+        assertEquals(1, wheel.size());
+
+        List<Item> fired = new ArrayList<>();
+        wheel.advance(TimeUnit.SECONDS.toNanos(5), fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(TimeUnit.SECONDS.toNanos(11), fired::add);
+        assertEquals(List.of(moved), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceVisitsOnlyDueBuckets() {
+        TimingWheel<Item> wheel = new TimingWheel<>(0);
+        for (int i = 1; i <= 1000; i++) {
+            Item item = new Item(TimeUnit.HOURS.toNanos(1) + i);
+            wheel.schedule(item, item.due);
+        }
+        List<Item> fired = new ArrayList<>();
+        for (int ms = 1; ms <= 1000; ms++) {
+            wheel.advance(TimeUnit.MILLISECONDS.toNanos(ms), fired::add);
+        }
+        assertTrue(fired.isEmpty());
+        assertEquals(1000, wheel.size());
+    }
+}